@@ -748,6 +748,9 @@ function Java_snap_webenv_CJCanvasRenderingContext2D_paintStacksImpl(lib, contex
             case 15: restore(); break;
             case 16: clearRect(); break;
             case 17: setImageQuality(); break;
+            case 18: drawPolyline(); break;
+            case 19: fillRects(); break;
+            case 20: drawPoints(); break;
             default: console.log("CJDom.js-paintStacks: Unknown instruction"); break;
         }
     }
@@ -921,6 +924,82 @@ function setImageQuality()
     _cntx.imageSmoothingEnabled = quality > .33;
 }
 
+/** Draws a polyline as a single path. */
+function drawPolyline()
+{
+    var pointCount = getInt();
+    _cntx.beginPath();
+    _cntx.moveTo(getDouble(), getDouble());
+    for (var i = 1; i < pointCount; i++)
+        _cntx.lineTo(getDouble(), getDouble());
+    _cntx.stroke();
+}
+
+/** Fills rects as a single path. */
+function fillRects()
+{
+    var rectCount = getInt();
+    _cntx.beginPath();
+    for (var i = 0; i < rectCount; i++)
+        _cntx.rect(getDouble(), getDouble(), getDouble(), getDouble());
+    _cntx.fill();
+}
+
+/** Fills marker shape at each point as a single path. */
+function drawPoints()
+{
+    // Get marker shape op count and stack indexes, then skip past marker values
+    var markerIntIndex = _intIndex;
+    var markerDoubleIndex = _doubleIndex;
+    var opCount = getInt();
+    if (opCount === -1)
+        _doubleIndex += 4;
+    else {
+        for (var i = 0; i < opCount; i++) {
+            switch (getInt()) {
+                case 0: case 1: _doubleIndex += 2; break;
+                case 4: _doubleIndex += 4; break;
+                case 2: _doubleIndex += 6; break;
+            }
+        }
+    }
+
+    // Iterate over points and append marker at each
+    var pointCount = getInt();
+    _cntx.beginPath();
+    for (var i = 0; i < pointCount; i++) {
+        var x = getDouble();
+        var y = getDouble();
+        appendShapeAt(markerIntIndex, markerDoubleIndex, x, y);
+    }
+    _cntx.fill();
+}
+
+/** Appends shape at given stack indexes to current path, offset by given x/y. */
+function appendShapeAt(intIndex, doubleIndex, dx, dy)
+{
+    var opCount = _intStack[intIndex++];
+    var ds = _doubleStack;
+    var di = doubleIndex;
+
+    // Handle rect shape
+    if (opCount === -1) {
+        _cntx.rect(ds[di] + dx, ds[di + 1] + dy, ds[di + 2], ds[di + 3]);
+        return;
+    }
+
+    // Handle path shape
+    for (var i = 0; i < opCount; i++) {
+        switch (_intStack[intIndex++]) {
+            case 0: _cntx.moveTo(ds[di] + dx, ds[di + 1] + dy); di += 2; break;
+            case 1: _cntx.lineTo(ds[di] + dx, ds[di + 1] + dy); di += 2; break;
+            case 4: _cntx.quadraticCurveTo(ds[di] + dx, ds[di + 1] + dy, ds[di + 2] + dx, ds[di + 3] + dy); di += 4; break;
+            case 2: _cntx.bezierCurveTo(ds[di] + dx, ds[di + 1] + dy, ds[di + 2] + dx, ds[di + 3] + dy, ds[di + 4] + dx, ds[di + 5] + dy); di += 6; break;
+            case 3: _cntx.closePath(); break;
+        }
+    }
+}
+
 function setShape()
 {
     var opCount = getInt();
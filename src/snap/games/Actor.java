@@ -5,9 +5,9 @@ package snap.games;
 import snap.geom.*;
 import snap.gfx.Image;
 import snap.gfx.Paint;
+import snap.util.ListUtils;
 import snap.util.MathUtils;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
  * This class represents a game character in a StageView.
@@ -287,10 +287,9 @@ public class Actor {
      */
     public <T extends Actor> T getHitActorForClass(Class<T> aClass)
     {
-        Stream<T> actorStream = (Stream<T>) getStage().getActors().stream().filter(actor -> actor != this);
-        if (aClass != null)
-            actorStream = actorStream.filter(aClass::isInstance);
-        return actorStream.filter(this::intersectsActor).findFirst().orElse(null);
+        ActorGrid actorGrid = _actorView.getStageView().getActorGrid();
+        ActorView hitActorView = actorGrid.getIntersectingActor(_actorView, Stage.getActorViewFilter(aClass, this));
+        return hitActorView != null ? (T) Stage.getActorForView(hitActorView) : null;
     }
 
     /**
@@ -298,10 +297,9 @@ public class Actor {
      */
     public <T extends Actor> List<T> getHitActorsForClass(Class<T> aClass)
     {
-        Stream<T> actorStream = (Stream<T>) getStage().getActors().stream();
-        if (aClass != null)
-            actorStream = actorStream.filter(aClass::isInstance);
-        return actorStream.filter(this::intersectsActor).toList();
+        ActorGrid actorGrid = _actorView.getStageView().getActorGrid();
+        List<ActorView> hitActorViews = actorGrid.getIntersectingActors(_actorView, Stage.getActorViewFilter(aClass, null), false);
+        return (List<T>) ListUtils.map(hitActorViews, Stage::getActorForView);
     }
     
     /**
@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.games;
+import snap.geom.Point;
+import snap.geom.Rect;
+import snap.geom.Shape;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A uniform grid broadphase for StageView actors, so collision and point queries only test nearby actors. The grid is
+ * rebuilt on first query of each frame and actors that move during a frame are re-binned on next query. Actor bounds
+ * shapes in stage coords are cached until actor changes.
+ */
+public class ActorGrid {
+
+    // The StageView
+    private StageView _stageView;
+
+    // The indexed actors (in stage child order)
+    private List<ActorView> _actors = new ArrayList<>();
+
+    // Whether grid needs full rebuild
+    private boolean _rebuild = true;
+
+    // The actors that changed since last rebuild (to re-bin before next query)
+    private List<ActorView> _changedActors = new ArrayList<>();
+
+    // The grid cell size and column/row counts
+    private double _cellSize;
+    private int _colCount, _rowCount;
+
+    // The grid cells
+    private List<ActorView>[] _cells;
+
+    // A query stamp to avoid testing actors in multiple cells more than once per query
+    private int _queryStamp;
+
+    // The number of narrow phase shape tests since last rebuild
+    private long _shapeTestCount;
+
+    // The min cell size
+    private static final double MIN_CELL_SIZE = 16;
+
+    /**
+     * Constructor.
+     */
+    public ActorGrid(StageView aStageView)
+    {
+        _stageView = aStageView;
+    }
+
+    /**
+     * Returns the cell size.
+     */
+    public double getCellSize()  { return _cellSize; }
+
+    /**
+     * Returns the number of narrow phase shape tests since last rebuild.
+     */
+    public long getShapeTestCount()  { return _shapeTestCount; }
+
+    /**
+     * Registers for full rebuild on next query (called every frame and when actors are added/removed).
+     */
+    public void invalidate()  { _rebuild = true; }
+
+    /**
+     * Called when actor bounds or transform changes.
+     */
+    protected void actorChanged(ActorView anActor)
+    {
+        // Clear cached shape and if not already pending, add to changed actors
+        GridEntry entry = anActor._gridEntry;
+        if (entry == null || entry._grid != this || _rebuild) return;
+        entry._boundsInStage = null;
+        entry._shapeInStage = null;
+        if (!entry._changed) {
+            entry._changed = true;
+            _changedActors.add(anActor);
+        }
+    }
+
+    /**
+     * Returns the first actor (in stage order) intersecting given actor that matches given filter (can be null).
+     */
+    public ActorView getIntersectingActor(ActorView anActor, Predicate<ActorView> aFilter)
+    {
+        List<ActorView> actors = getIntersectingActors(anActor, aFilter, true);
+        return !actors.isEmpty() ? actors.get(0) : null;
+    }
+
+    /**
+     * Returns the actors (in stage order) intersecting given actor that match given filter (can be null).
+     */
+    public List<ActorView> getIntersectingActors(ActorView anActor, Predicate<ActorView> aFilter, boolean firstOnly)
+    {
+        // Update grid and get actor entry
+        updateGrid();
+        GridEntry entry = getEntry(anActor);
+        if (entry == null)
+            return new ArrayList<>();
+
+        // Get candidates in actor bounds cells and filter by precise intersection
+        Rect bounds = entry.getBoundsInStage();
+        Shape shape = entry.getShapeInStage();
+        return findActors(bounds, aFilter, firstOnly, other -> {
+            GridEntry otherEntry = getEntry(other);
+            _shapeTestCount++;
+            return shape.intersectsShape(otherEntry.getShapeInStage());
+        });
+    }
+
+    /**
+     * Returns whether given actors intersect, using cached stage shapes.
+     */
+    public boolean intersectsActors(ActorView anActor1, ActorView anActor2)
+    {
+        // Update grid and get entries
+        updateGrid();
+        GridEntry entry1 = getEntry(anActor1);
+        GridEntry entry2 = getEntry(anActor2);
+        if (entry1 == null || entry2 == null)
+            return false;
+
+        // Check bounds, then shapes
+        if (!entry1.getBoundsInStage().intersectsRect(entry2.getBoundsInStage()))
+            return false;
+        _shapeTestCount++;
+        return entry1.getShapeInStage().intersectsShape(entry2.getShapeInStage());
+    }
+
+    /**
+     * Returns the actors (in stage order) at given stage XY that match given filter (can be null).
+     */
+    public List<ActorView> getActorsAtXY(double aX, double aY, Predicate<ActorView> aFilter, boolean firstOnly)
+    {
+        updateGrid();
+        Rect pointRect = new Rect(aX, aY, 0, 0);
+        return findActors(pointRect, aFilter, firstOnly, actor -> {
+            Point point = actor.parentToLocal(aX, aY, _stageView);
+            return actor.contains(point.x, point.y);
+        });
+    }
+
+    /**
+     * Returns the actors (in stage order) whose bounds intersect given stage rect that match given filter (can be null).
+     */
+    public List<ActorView> getActorsInRect(Rect aRect, Predicate<ActorView> aFilter)
+    {
+        updateGrid();
+        return findActors(aRect, aFilter, false, null);
+    }
+
+    /**
+     * Returns the actors (in stage order) in cells of given rect whose bounds intersect rect and pass given filter/test.
+     */
+    private List<ActorView> findActors(Rect aRect, Predicate<ActorView> aFilter, boolean firstOnly, Predicate<ActorView> aTest)
+    {
+        // Get cell range for rect
+        int col0 = getCol(aRect.x), col1 = getCol(aRect.getMaxX());
+        int row0 = getRow(aRect.y), row1 = getRow(aRect.getMaxY());
+        int queryStamp = ++_queryStamp;
+
+        // Iterate over cells and actors in cells to find matches
+        List<ActorView> matches = new ArrayList<>();
+        int firstIndex = Integer.MAX_VALUE;
+        for (int row = row0; row <= row1; row++) {
+            for (int col = col0; col <= col1; col++) {
+                List<ActorView> cellActors = _cells[row * _colCount + col];
+                if (cellActors == null) continue;
+
+                for (ActorView actor : cellActors) {
+
+                    // Skip actors already visited for query (or if first only, actors after current first)
+                    GridEntry entry = actor._gridEntry;
+                    if (entry._queryStamp == queryStamp) continue;
+                    entry._queryStamp = queryStamp;
+                    if (firstOnly && entry._index > firstIndex) continue;
+
+                    // Skip actors that don't match filter, bounds or test
+                    if (aFilter != null && !aFilter.test(actor)) continue;
+                    Rect actorBounds = entry.getBoundsInStage();
+                    if (!intersectsRectInclusive(actorBounds, aRect)) continue;
+                    if (aTest != null && !aTest.test(actor)) continue;
+
+                    // Add match
+                    if (firstOnly) {
+                        matches.clear();
+                        firstIndex = entry._index;
+                    }
+                    matches.add(actor);
+                }
+            }
+        }
+
+        // Sort by stage order and return
+        if (matches.size() > 1)
+            matches.sort((a1, a2) -> Integer.compare(a1._gridEntry._index, a2._gridEntry._index));
+        return matches;
+    }
+
+    /**
+     * Returns whether given rects intersect, including edges (so empty point rects can hit).
+     */
+    private static boolean intersectsRectInclusive(Rect aRect1, Rect aRect2)
+    {
+        return aRect1.x <= aRect2.getMaxX() && aRect2.x <= aRect1.getMaxX() &&
+            aRect1.y <= aRect2.getMaxY() && aRect2.y <= aRect1.getMaxY();
+    }
+
+    /**
+     * Returns the grid entry for given actor (null if not indexed).
+     */
+    private GridEntry getEntry(ActorView anActor)
+    {
+        GridEntry entry = anActor._gridEntry;
+        return entry != null && entry._grid == this ? entry : null;
+    }
+
+    /**
+     * Rebuilds grid if needed, or re-bins changed actors.
+     */
+    private void updateGrid()
+    {
+        // If rebuild needed, rebuild
+        if (_rebuild) {
+            rebuildGrid();
+            return;
+        }
+
+        // Re-bin changed actors
+        for (ActorView actor : _changedActors) {
+            GridEntry entry = actor._gridEntry;
+            entry._changed = false;
+            removeFromCells(actor, entry);
+            addToCells(actor, entry);
+        }
+        _changedActors.clear();
+    }
+
+    /**
+     * Rebuilds grid.
+     */
+    private void rebuildGrid()
+    {
+        // Get actors and create/reset entries
+        _actors.clear();
+        _actors.addAll(_stageView.getActors());
+        _changedActors.clear();
+        _shapeTestCount = 0;
+        double totalSize = 0;
+        for (int i = 0; i < _actors.size(); i++) {
+            ActorView actor = _actors.get(i);
+            GridEntry entry = actor._gridEntry;
+            if (entry == null || entry._grid != this)
+                entry = actor._gridEntry = new GridEntry(this, actor);
+            entry._index = i;
+            entry._changed = false;
+            entry._boundsInStage = null;
+            entry._shapeInStage = null;
+            Rect bounds = entry.getBoundsInStage();
+            totalSize += Math.max(bounds.width, bounds.height);
+        }
+
+        // Get cell size (twice average actor size) and grid size
+        double averageSize = !_actors.isEmpty() ? totalSize / _actors.size() : 0;
+        _cellSize = Math.max(averageSize * 2, MIN_CELL_SIZE);
+        _colCount = Math.max((int) Math.ceil(_stageView.getWidth() / _cellSize), 1);
+        _rowCount = Math.max((int) Math.ceil(_stageView.getHeight() / _cellSize), 1);
+        @SuppressWarnings("unchecked")
+        List<ActorView>[] cells = (List<ActorView>[]) new List<?>[_colCount * _rowCount];
+        _cells = cells;
+
+        // Add actors to cells
+        for (ActorView actor : _actors)
+            addToCells(actor, actor._gridEntry);
+        _rebuild = false;
+    }
+
+    /**
+     * Adds given actor to cells for its current bounds.
+     */
+    private void addToCells(ActorView anActor, GridEntry anEntry)
+    {
+        // Get cell range for bounds
+        Rect bounds = anEntry.getBoundsInStage();
+        anEntry._col0 = getCol(bounds.x);
+        anEntry._col1 = getCol(bounds.getMaxX());
+        anEntry._row0 = getRow(bounds.y);
+        anEntry._row1 = getRow(bounds.getMaxY());
+
+        // Add to cells
+        for (int row = anEntry._row0; row <= anEntry._row1; row++) {
+            for (int col = anEntry._col0; col <= anEntry._col1; col++) {
+                int cellIndex = row * _colCount + col;
+                List<ActorView> cellActors = _cells[cellIndex];
+                if (cellActors == null)
+                    cellActors = _cells[cellIndex] = new ArrayList<>(4);
+                cellActors.add(anActor);
+            }
+        }
+    }
+
+    /**
+     * Removes given actor from cells for its last binned bounds.
+     */
+    private void removeFromCells(ActorView anActor, GridEntry anEntry)
+    {
+        for (int row = anEntry._row0; row <= anEntry._row1; row++) {
+            for (int col = anEntry._col0; col <= anEntry._col1; col++) {
+                List<ActorView> cellActors = _cells[row * _colCount + col];
+                if (cellActors != null)
+                    cellActors.remove(anActor);
+            }
+        }
+    }
+
+    /**
+     * Returns the column for given stage x (clamped to grid, so actors outside stage are in edge cells).
+     */
+    private int getCol(double aX)
+    {
+        int col = (int) Math.floor(aX / _cellSize);
+        return Math.max(0, Math.min(col, _colCount - 1));
+    }
+
+    /**
+     * Returns the row for given stage y (clamped to grid, so actors outside stage are in edge cells).
+     */
+    private int getRow(double aY)
+    {
+        int row = (int) Math.floor(aY / _cellSize);
+        return Math.max(0, Math.min(row, _rowCount - 1));
+    }
+
+    /**
+     * The grid data for an actor.
+     */
+    protected static class GridEntry {
+
+        // The grid and actor
+        private ActorGrid _grid;
+        private ActorView _actor;
+
+        // The actor index in stage order
+        private int _index;
+
+        // The cached actor bounds and bounds shape in stage coords
+        private Rect _boundsInStage;
+        private Shape _shapeInStage;
+
+        // The cell range actor was last added to
+        private int _col0, _col1, _row0, _row1;
+
+        // Whether actor changed since last binned
+        private boolean _changed;
+
+        // The last query stamp
+        private int _queryStamp;
+
+        /**
+         * Constructor.
+         */
+        GridEntry(ActorGrid aGrid, ActorView anActor)
+        {
+            _grid = aGrid;
+            _actor = anActor;
+        }
+
+        /**
+         * Returns the grid.
+         */
+        ActorGrid getGrid()  { return _grid; }
+
+        /**
+         * Returns the actor bounds shape in stage coords.
+         */
+        Shape getShapeInStage()
+        {
+            if (_shapeInStage != null) return _shapeInStage;
+            return _shapeInStage = _actor.localToParent(_actor.getBoundsShape());
+        }
+
+        /**
+         * Returns the actor bounds in stage coords.
+         */
+        Rect getBoundsInStage()
+        {
+            if (_boundsInStage != null) return _boundsInStage;
+            return _boundsInStage = getShapeInStage().getBounds();
+        }
+    }
+}
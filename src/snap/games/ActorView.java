@@ -8,7 +8,6 @@ import snap.props.*;
 import snap.util.*;
 import snap.view.*;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
  * This class represents a game character in a StageView.
@@ -27,6 +26,9 @@ public class ActorView extends ParentView {
     // The ImageView
     private ImageView _imageView;
 
+    // The StageView ActorGrid entry
+    protected ActorGrid.GridEntry _gridEntry;
+
     // Constants for properties
     public static final String Image_Prop = ImageView.Image_Prop;
     private static final String ImageName_Prop = "ImageName";
@@ -116,8 +118,9 @@ public class ActorView extends ParentView {
             }
         }
 
-        // Fire prop change
+        // Fire prop change and notify grid
         fireBatchPropChanges();
+        boundsShapeChanged();
     }
 
     /**
@@ -185,6 +188,11 @@ public class ActorView extends ParentView {
      */
     public boolean intersectsActor(ActorView actorView)
     {
+        // If both in same stage, use stage grid cached shapes
+        StageView stageView = getStageView();
+        if (stageView != null && actorView.getParent() == stageView)
+            return stageView.getActorGrid().intersectsActors(this, actorView);
+
         if (!getBounds().intersectsShape(actorView.getBounds()))
             return false;
         Shape thisBoundsInParent = localToParent(getBoundsShape());
@@ -202,11 +210,8 @@ public class ActorView extends ParentView {
      */
     public <T extends ActorView> T getIntersectingActor(Class<T> aClass)
     {
-        List<? extends View> actorViews = getStageView().getChildren();
-        Stream<T> actorStream = (Stream<T>) actorViews.stream();
-        if (aClass != null)
-            actorStream = actorStream.filter(aClass::isInstance);
-        return actorStream.filter(this::intersectsActor).findFirst().orElse(null);
+        ActorGrid actorGrid = getStageView().getActorGrid();
+        return (T) actorGrid.getIntersectingActor(this, aClass != null ? aClass::isInstance : null);
     }
 
     /**
@@ -214,11 +219,8 @@ public class ActorView extends ParentView {
      */
     public <T extends ActorView> List<T> getIntersectingActors(Class<T> aClass)
     {
-        List<? extends View> actorViews = getStageView().getChildren();
-        Stream<T> actorStream = (Stream<T>) actorViews.stream();
-        if (aClass != null)
-            actorStream = actorStream.filter(aClass::isInstance);
-        return actorStream.filter(this::intersectsActor).toList();
+        ActorGrid actorGrid = getStageView().getActorGrid();
+        return (List<T>) actorGrid.getIntersectingActors(this, aClass != null ? aClass::isInstance : null, false);
     }
 
     /**
@@ -272,6 +274,114 @@ public class ActorView extends ParentView {
         }
     }
 
+    /**
+     * Notifies StageView ActorGrid that bounds or transform changed.
+     */
+    protected void boundsShapeChanged()
+    {
+        if (_gridEntry != null)
+            _gridEntry.getGrid().actorChanged(this);
+    }
+
+    /**
+     * Override to notify grid.
+     */
+    @Override
+    public void setX(double aValue)
+    {
+        if (aValue == getX()) return;
+        super.setX(aValue);
+        boundsShapeChanged();
+    }
+
+    /**
+     * Override to notify grid.
+     */
+    @Override
+    public void setY(double aValue)
+    {
+        if (aValue == getY()) return;
+        super.setY(aValue);
+        boundsShapeChanged();
+    }
+
+    /**
+     * Override to notify grid.
+     */
+    @Override
+    public void setWidth(double aValue)
+    {
+        if (aValue == getWidth()) return;
+        super.setWidth(aValue);
+        boundsShapeChanged();
+    }
+
+    /**
+     * Override to notify grid.
+     */
+    @Override
+    public void setHeight(double aValue)
+    {
+        if (aValue == getHeight()) return;
+        super.setHeight(aValue);
+        boundsShapeChanged();
+    }
+
+    /**
+     * Override to notify grid.
+     */
+    @Override
+    public void setTransX(double aValue)
+    {
+        if (aValue == getTransX()) return;
+        super.setTransX(aValue);
+        boundsShapeChanged();
+    }
+
+    /**
+     * Override to notify grid.
+     */
+    @Override
+    public void setTransY(double aValue)
+    {
+        if (aValue == getTransY()) return;
+        super.setTransY(aValue);
+        boundsShapeChanged();
+    }
+
+    /**
+     * Override to notify grid.
+     */
+    @Override
+    public void setRotate(double theDegrees)
+    {
+        if (theDegrees == getRotate()) return;
+        super.setRotate(theDegrees);
+        boundsShapeChanged();
+    }
+
+    /**
+     * Override to notify grid.
+     */
+    @Override
+    public void setScaleX(double aValue)
+    {
+        if (aValue == getScaleX()) return;
+        super.setScaleX(aValue);
+        boundsShapeChanged();
+    }
+
+    /**
+     * Override to notify grid.
+     */
+    @Override
+    public void setScaleY(double aValue)
+    {
+        if (aValue == getScaleY()) return;
+        super.setScaleY(aValue);
+        boundsShapeChanged();
+    }
+
     /**
      * Override to return stack layout.
      */
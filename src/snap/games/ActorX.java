@@ -2,8 +2,9 @@ package snap.games;
 import snap.geom.Point;
 import snap.geom.Rect;
 import snap.geom.Vector;
+import snap.util.ListUtils;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
  * This actor subclass provides extended functionality like velocity, hit detection, edge wrapping.
@@ -88,10 +89,8 @@ public class ActorX extends Actor {
      */
     public <T extends Actor> T getActorInRange(double aRadius, Class<T> aClass)
     {
-        Stream<T> actorStream = (Stream<T>) getStage().getActors().stream();
-        if (aClass != null)
-            actorStream = actorStream.filter(aClass::isInstance);
-        return actorStream.filter(actor -> getDistanceToActor(actor) <= aRadius).findFirst().orElse(null);
+        List<T> actors = getActorsInRange(aRadius, aClass, true);
+        return !actors.isEmpty() ? actors.get(0) : null;
     }
 
     /**
@@ -99,10 +98,30 @@ public class ActorX extends Actor {
      */
     public <T extends Actor> List<T> getActorsInRange(double aRadius, Class<T> aClass)
     {
-        Stream<T> actorStream = (Stream<T>) getStage().getActors().stream();
-        if (aClass != null)
-            actorStream = actorStream.filter(aClass::isInstance);
-        return actorStream.filter(actor -> getDistanceToActor(actor) <= aRadius).toList();
+        return getActorsInRange(aRadius, aClass, false);
+    }
+
+    /**
+     * Returns the actors in given range radius that match given class (class can be null), using stage grid for candidates.
+     */
+    private <T extends Actor> List<T> getActorsInRange(double aRadius, Class<T> aClass, boolean firstOnly)
+    {
+        // Get candidates with bounds in range rect
+        Rect rangeRect = new Rect(getMidX() - aRadius, getMidY() - aRadius, aRadius * 2, aRadius * 2);
+        ActorGrid actorGrid = getStage().getStageView().getActorGrid();
+        List<ActorView> actorViews = actorGrid.getActorsInRect(rangeRect, Stage.getActorViewFilter(aClass, null));
+
+        // Filter by distance
+        List<T> actors = new ArrayList<>();
+        for (ActorView actorView : actorViews) {
+            Actor actor = Stage.getActorForView(actorView);
+            if (getDistanceToActor(actor) <= aRadius) {
+                actors.add((T) actor);
+                if (firstOnly)
+                    break;
+            }
+        }
+        return actors;
     }
 
     /**
@@ -110,12 +129,8 @@ public class ActorX extends Actor {
      */
     public <T extends Actor> T getActorAtXY(double aX, double aY, Class<T> aClass)
     {
-        Stage stage = getStage();
-        Point stageXY = _actorView.localToParent(aX, aY, stage.getStageView());
-        Stream<T> actorStream = (Stream<T>) getStage().getActors().stream();
-        if (aClass != null)
-            actorStream = actorStream.filter(aClass::isInstance);
-        return actorStream.filter(actor -> actor != this && stage.isActorAtXY(actor, stageXY.x, stageXY.y)).findFirst().orElse(null);
+        List<T> actors = getActorsAtXY(aX, aY, aClass, true);
+        return !actors.isEmpty() ? actors.get(0) : null;
     }
 
     /**
@@ -123,12 +138,19 @@ public class ActorX extends Actor {
      */
     public <T extends Actor> List<T> getActorsAtXY(double aX, double aY, Class<T> aClass)
     {
-        Stage stage = getStage();
-        Point stageXY = _actorView.localToParent(aX, aY, stage.getStageView());
-        Stream<T> actorStream = (Stream<T>) getStage().getActors().stream();
-        if (aClass != null)
-            actorStream = actorStream.filter(aClass::isInstance);
-        return actorStream.filter(actor -> actor != this && stage.isActorAtXY(actor, stageXY.x, stageXY.y)).toList();
+        return getActorsAtXY(aX, aY, aClass, false);
+    }
+
+    /**
+     * Returns the actors hit by given point that match given class (class can be null), excluding this actor.
+     */
+    private <T extends Actor> List<T> getActorsAtXY(double aX, double aY, Class<T> aClass, boolean firstOnly)
+    {
+        StageView stageView = getStage().getStageView();
+        Point stageXY = _actorView.localToParent(aX, aY, stageView);
+        ActorGrid actorGrid = stageView.getActorGrid();
+        List<ActorView> actorViews = actorGrid.getActorsAtXY(stageXY.x, stageXY.y, Stage.getActorViewFilter(aClass, this), firstOnly);
+        return (List<T>) ListUtils.map(actorViews, Stage::getActorForView);
     }
 
     /**
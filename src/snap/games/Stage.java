@@ -7,7 +7,7 @@ import snap.geom.Size;
 import snap.gfx.*;
 import snap.util.ListUtils;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.function.Predicate;
 
 /**
  * This class is the main view for games and manages Actors.
@@ -151,10 +151,8 @@ public class Stage {
      */
     public <T extends Actor> T getActorAtXY(double aX, double aY, Class<T> aClass)
     {
-        Stream<T> actorStream = (Stream<T>) getActors().stream();
-        if (aClass != null)
-            actorStream = actorStream.filter(aClass::isInstance);
-        return actorStream.filter(actor -> isActorAtXY(actor, aX, aY)).findFirst().orElse(null);
+        List<ActorView> actorViews = _stageView.getActorGrid().getActorsAtXY(aX, aY, getActorViewFilter(aClass, null), true);
+        return !actorViews.isEmpty() ? (T) getActorForView(actorViews.get(0)) : null;
     }
 
     /**
@@ -162,10 +160,8 @@ public class Stage {
      */
     public <T extends Actor> List<T> getActorsAtXY(double aX, double aY, Class<T> aClass)
     {
-        Stream<T> actorStream = (Stream<T>) getActors().stream();
-        if (aClass != null)
-            actorStream = actorStream.filter(aClass::isInstance);
-        return actorStream.filter(actor -> isActorAtXY(actor, aX, aY)).toList();
+        List<ActorView> actorViews = _stageView.getActorGrid().getActorsAtXY(aX, aY, getActorViewFilter(aClass, null), false);
+        return (List<T>) ListUtils.map(actorViews, Stage::getActorForView);
     }
 
     /**
@@ -177,6 +173,20 @@ public class Stage {
         return anActor.getActorView().contains(actorXY.x, actorXY.y);
     }
 
+    /**
+     * Returns an ActorGrid filter for actor views with actor of given class (can be null), excluding given actor (can be null).
+     */
+    protected static Predicate<ActorView> getActorViewFilter(Class<? extends Actor> aClass, Actor excludeActor)
+    {
+        return actorView -> actorView instanceof ProxyActorView proxyActorView && proxyActorView.getActor() != excludeActor &&
+            (aClass == null || aClass.isInstance(proxyActorView.getActor()));
+    }
+
+    /**
+     * Returns the actor for given actor view.
+     */
+    protected static Actor getActorForView(ActorView anActorView)  { return ((ProxyActorView) anActorView).getActor(); }
+
     /**
      * Removes an actor.
      */
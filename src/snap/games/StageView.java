@@ -30,6 +30,9 @@ public class StageView extends ChildView {
     // The current list of actors
     private List<ActorView> _actors;
 
+    // The broadphase grid for actor hit queries
+    private ActorGrid _actorGrid;
+
     // Whether mouse is down
     private ViewEvent _mouseDown;
 
@@ -156,30 +159,29 @@ public class StageView extends ChildView {
     }
 
     /**
-     * Returns the first actor hit by given point in local coords.
+     * Returns the broadphase grid for actor hit queries.
      */
-    public <T extends ActorView> T getActorAtXY(double aX, double aY, Class<T> aClass)
+    public ActorGrid getActorGrid()
     {
-        return (T) ListUtils.findMatch(getActors(), actor -> isActorAtXY(actor, aX, aY, aClass));
+        if (_actorGrid != null) return _actorGrid;
+        return _actorGrid = new ActorGrid(this);
     }
 
     /**
-     * Returns the actors hit by given point in local coords.
+     * Returns the first actor hit by given point in local coords.
      */
-    public <T extends ActorView> List<T> getActorsAtXY(double aX, double aY, Class<T> aClass)
+    public <T extends ActorView> T getActorAtXY(double aX, double aY, Class<T> aClass)
     {
-        return (List<T>) ListUtils.filter(getActors(), actor -> isActorAtXY(actor, aX, aY, aClass));
+        List<ActorView> actors = getActorGrid().getActorsAtXY(aX, aY, aClass != null ? aClass::isInstance : null, true);
+        return !actors.isEmpty() ? (T) actors.get(0) : null;
     }
 
     /**
-     * Returns whether given actor is at given XY and of matching class.
+     * Returns the actors hit by given point in local coords.
      */
-    private boolean isActorAtXY(ActorView actorView, double aX, double aY, Class<?> aClass)
+    public <T extends ActorView> List<T> getActorsAtXY(double aX, double aY, Class<T> aClass)
     {
-        if (aClass != null && !aClass.isInstance(actorView))
-            return false;
-        Point point = actorView.parentToLocal(aX, aY, this);
-        return actorView.contains(point.x, point.y);
+        return (List<T>) getActorGrid().getActorsAtXY(aX, aY, aClass != null ? aClass::isInstance : null, false);
     }
 
     /**
@@ -251,6 +253,7 @@ public class StageView extends ChildView {
     protected void stepFrameForward()
     {
         try {
+            getActorGrid().invalidate();
             List<ActorView> actors = getActors();
             for (ActorView actorView : actors)
                 if (actorView.getParent() != null)
@@ -343,6 +346,8 @@ public class StageView extends ChildView {
     {
         super.addChild(aChild, anIndex);
         _actors = null;
+        if (_actorGrid != null)
+            _actorGrid.invalidate();
     }
 
     /**
@@ -353,6 +358,10 @@ public class StageView extends ChildView {
     {
         View child = super.removeChild(anIndex);
         _actors = null;
+        if (_actorGrid != null)
+            _actorGrid.invalidate();
+        if (child instanceof ActorView actorView)
+            actorView._gridEntry = null;
         return child;
     }
 
@@ -66,6 +66,12 @@ public abstract class Image implements Loadable {
     // Supported image type strings
     private static String[]  _types = {"gif", "jpg", "jpeg", "png", "tif", "tiff", "bmp"};
 
+    // Blur radius above which Auto blur quality uses fast box blur approximation
+    private static int _autoBlurFastRadius = 4;
+
+    // Constants for blur quality/speed tradeoff: Quality is true Gaussian, Speed is box blur approximation
+    public enum BlurQuality { Auto, Quality, Speed }
+
     /**
      * Constructor.
      */
@@ -468,11 +474,38 @@ public abstract class Image implements Loadable {
     /**
      * Blurs the image by mixing pixels with those around it to given radius.
      */
-    public void blur(int aRad, Color aColor)
+    public void blur(int aRad, Color aColor)  { blur(aRad, aColor, BlurQuality.Auto); }
+
+    /**
+     * Blurs the image by mixing pixels with those around it to given radius, with given quality/speed tradeoff.
+     */
+    public void blur(int aRad, Color aColor, BlurQuality aQuality)
     {
         System.err.println("Image.blur: Not impl");
     }
 
+    /**
+     * Returns whether blur should use fast box blur approximation for given radius and quality.
+     */
+    protected boolean isBlurFast(int aRad, BlurQuality aQuality)
+    {
+        return switch (aQuality) {
+            case Speed -> true;
+            case Quality -> false;
+            default -> aRad > _autoBlurFastRadius;
+        };
+    }
+
+    /**
+     * Returns the blur radius above which Auto blur quality uses fast box blur approximation.
+     */
+    public static int getAutoBlurFastRadius()  { return _autoBlurFastRadius; }
+
+    /**
+     * Sets the blur radius above which Auto blur quality uses fast box blur approximation.
+     */
+    public static void setAutoBlurFastRadius(int aValue)  { _autoBlurFastRadius = aValue; }
+
     /**
      * Embosses the image by mixing pixels with those around it to given radius.
      */
@@ -2,6 +2,7 @@ package snap.gfx;
 import java.lang.ref.WeakReference;
 import java.util.*;
 import snap.util.*;
+import snap.web.WebFile;
 import snap.web.WebURL;
 
 /**
@@ -106,7 +107,10 @@ public class ImageRef {
     protected void refresh()
     {
         WebURL url = getSourceURL(); if (url == null) return;
-        long modTime = url.getLastModTime();
+
+        // Get mod time (if source file is watched, cached file mod time is current, so no need to stat)
+        WebFile file = url.getFile();
+        long modTime = file != null && file.isWatched() ? file.getLastModTime() : url.getLastModTime();
         if (modTime > _modTime) {
             setSource(url);
             System.out.println("Refreshed ImageRef Image");
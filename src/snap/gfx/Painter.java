@@ -187,6 +187,40 @@ public abstract class Painter {
         fillRect(aX, aY, aW, aH);
     }
 
+    /**
+     * Draws a polyline for given array of x/y coords and point count.
+     */
+    public void drawPolyline(double[] xyCoords, int pointCount)
+    {
+        if (pointCount < 2) return;
+        Polygon polyline = new Polygon(Arrays.copyOf(xyCoords, pointCount * 2));
+        polyline.setClosed(false);
+        draw(polyline);
+    }
+
+    /**
+     * Fills rects for given array of x/y/w/h values and rect count.
+     */
+    public void fillRects(double[] xywhValues, int rectCount)
+    {
+        for (int i = 0, valueIndex = 0; i < rectCount; i++, valueIndex += 4)
+            fillRect(xywhValues[valueIndex], xywhValues[valueIndex + 1], xywhValues[valueIndex + 2], xywhValues[valueIndex + 3]);
+    }
+
+    /**
+     * Fills given marker shape (in coords relative to point) at each point for given array of x/y coords and point count.
+     */
+    public void drawPoints(double[] xyCoords, int pointCount, Shape aMarker)
+    {
+        for (int i = 0, coordIndex = 0; i < pointCount; i++, coordIndex += 2) {
+            double pointX = xyCoords[coordIndex];
+            double pointY = xyCoords[coordIndex + 1];
+            translate(pointX, pointY);
+            fill(aMarker);
+            translate(-pointX, -pointY);
+        }
+    }
+
     /**
      * Draw image with transform.
      */
@@ -540,7 +574,6 @@ public abstract class Painter {
     }
 
 //public void draw/fillArc(int x, int y, int width, int height, int startAngle, int arcAngle);
-//public void drawPolyline(int xPoints[], int yPoints[], int nPoints);
 //public void draw/fillPolygon(int xPoints[], int yPoints[], int nPoints);
 //public void fillPolygon(Polygon p);
 //public void shear(double shx, double shy);
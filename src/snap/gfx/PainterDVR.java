@@ -3,9 +3,7 @@
  */
 package snap.gfx;
 import java.util.*;
-import snap.geom.Rect;
-import snap.geom.Shape;
-import snap.geom.Transform;
+import snap.geom.*;
 import snap.util.StringUtils;
 
 /**
@@ -19,6 +17,12 @@ public class PainterDVR extends PainterImpl {
     // The Painter (for EffectPntr)
     private Painter  _pntr;
 
+    // The content hash of instructions, updated incrementally as instructions are added
+    private long  _contentHash = HASH_SEED;
+
+    // Constant for hash seed
+    private static final long HASH_SEED = 0xcbf29ce484222325L;
+
     /**
      * Constructor.
      */
@@ -45,7 +49,29 @@ public class PainterDVR extends PainterImpl {
     /**
      * Clears the instructions stored in this PainterDVR.
      */
-    public void clear()  { _instrs.clear(); }
+    public void clear()
+    {
+        _instrs.clear();
+        _contentHash = HASH_SEED;
+    }
+
+    /**
+     * Returns the number of instructions.
+     */
+    public int getInstructionCount()  { return _instrs.size(); }
+
+    /**
+     * Returns a 64-bit hash of instruction content, computed incrementally as instructions are added.
+     */
+    public long getContentHash()  { return _contentHash; }
+
+    /**
+     * Returns whether given PainterDVR has same content as this one, using instruction count and content hash (O(1)).
+     */
+    public boolean isContentEqual(PainterDVR aPDVR)
+    {
+        return aPDVR != null && aPDVR._instrs.size() == _instrs.size() && aPDVR._contentHash == _contentHash;
+    }
 
     /**
      * Returns image of given shape inside a gutter of given inset (maybe should be insets one day).
@@ -108,6 +134,39 @@ public class PainterDVR extends PainterImpl {
         add(new FillShape(aShape));
     }
 
+    /** Draw the given line (override to record new shape instead of shared one). */
+    public void drawLine(double x1, double y1, double x2, double y2)  { draw(new Line(x1, y1, x2, y2)); }
+
+    /** Fill the given rect (override to record new shape instead of shared one). */
+    public void fillRect(double x, double y, double w, double h)  { fill(new Rect(x, y, w, h)); }
+
+    /** Draw the given rect (override to record new shape instead of shared one). */
+    public void drawRect(double x, double y, double w, double h)  { draw(new Rect(x, y, w, h)); }
+
+    /** Clip to rect (override to record new shape instead of shared one). */
+    public void clipRect(double aX, double aY, double aW, double aH)  { clip(new Rect(aX, aY, aW, aH)); }
+
+    /** Draws a polyline for given array of x/y coords and point count. */
+    public void drawPolyline(double[] xyCoords, int pointCount)
+    {
+        super.drawPolyline(xyCoords, pointCount);
+        add(new DrawPolyline(Arrays.copyOf(xyCoords, pointCount * 2)));
+    }
+
+    /** Fills rects for given array of x/y/w/h values and rect count. */
+    public void fillRects(double[] xywhValues, int rectCount)
+    {
+        super.fillRects(xywhValues, rectCount);
+        add(new FillRects(Arrays.copyOf(xywhValues, rectCount * 4)));
+    }
+
+    /** Fills given marker shape at each point for given array of x/y coords and point count. */
+    public void drawPoints(double[] xyCoords, int pointCount, Shape aMarker)
+    {
+        super.drawPoints(xyCoords, pointCount, aMarker);
+        add(new DrawPoints(Arrays.copyOf(xyCoords, pointCount * 2), aMarker));
+    }
+
     /** Draw image with transform. */
     public void drawImage(Image anImg, Transform aTrans)
     {
@@ -185,6 +244,7 @@ public class PainterDVR extends PainterImpl {
     public void add(Instruction anInstr)
     {
         _instrs.add(anInstr);
+        _contentHash = hash(_contentHash, anInstr.getHash());
     }
 
     /**
@@ -195,6 +255,7 @@ public class PainterDVR extends PainterImpl {
         if (anObj == this) return true;
         PainterDVR other = anObj instanceof PainterDVR ? (PainterDVR) anObj : null; if (other == null) return false;
         int len = _instrs.size(); if (len != other._instrs.size()) return false;
+        if (_contentHash != other._contentHash) return false;
         for (int i=0; i<len; i++) { Instruction i1 = _instrs.get(i), i2 = other._instrs.get(i);
             if (i1.getClass() != i2.getClass()) return false;
             if (!i1.equals(i2)) return false;
@@ -202,6 +263,111 @@ public class PainterDVR extends PainterImpl {
         return true;
     }
 
+    /**
+     * Standard hashCode implementation.
+     */
+    public int hashCode()  { return Long.hashCode(_contentHash); }
+
+    /**
+     * Returns hash of given hash combined with given value.
+     */
+    protected static long hash(long aHash, long aValue)
+    {
+        long h = (aHash ^ aValue) * 0x100000001b3L;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        return h ^ h >>> 29;
+    }
+
+    /**
+     * Returns hash of given hash combined with given double value.
+     */
+    protected static long hash(long aHash, double aValue)  { return hash(aHash, Double.doubleToLongBits(aValue)); }
+
+    /**
+     * Returns hash of given hash combined with given double values.
+     */
+    protected static long hashValues(long aHash, double[] theValues)
+    {
+        for (double value : theValues)
+            aHash = hash(aHash, value);
+        return aHash;
+    }
+
+    /**
+     * Returns hash of given hash combined with given shape geometry.
+     */
+    protected static long hashShape(long aHash, Shape aShape)
+    {
+        // Handle Rect
+        if (aShape instanceof Rect rect) {
+            aHash = hash(hash(aHash, rect.x), rect.y);
+            return hash(hash(aHash, rect.width), rect.height);
+        }
+
+        // Handle general shape: Hash segments and points
+        double[] pnts = new double[6];
+        PathIter pathIter = aShape.getPathIter(null);
+        while (pathIter.hasNext()) {
+            Seg seg = pathIter.getNext(pnts);
+            aHash = hash(aHash, seg.ordinal());
+            for (int i = 0, iMax = seg.getCount() * 2; i < iMax; i++)
+                aHash = hash(aHash, pnts[i]);
+        }
+        return aHash;
+    }
+
+    /**
+     * Returns hash of given hash combined with given transform.
+     */
+    protected static long hashTransform(long aHash, Transform aTrans)
+    {
+        if (aTrans == null) return hash(aHash, 0L);
+        return hashValues(aHash, aTrans.getMatrix());
+    }
+
+    /**
+     * Returns hash of given hash combined with given paint.
+     */
+    protected static long hashPaint(long aHash, Paint aPaint)
+    {
+        // Handle GradientPaint
+        if (aPaint instanceof GradientPaint gradientPaint) {
+            aHash = hash(aHash, gradientPaint.getType().ordinal());
+            aHash = hash(hash(aHash, gradientPaint.getStartX()), gradientPaint.getStartY());
+            aHash = hash(hash(aHash, gradientPaint.getEndX()), gradientPaint.getEndY());
+            aHash = hash(hash(aHash, gradientPaint.getRoll()), gradientPaint.isAbsolute() ? 1L : 0L);
+            for (GradientPaint.Stop stop : gradientPaint.getStops())
+                aHash = hash(hash(aHash, stop.offset()), stop.color().hashCode());
+            return aHash;
+        }
+
+        // Handle ImagePaint
+        if (aPaint instanceof ImagePaint imagePaint) {
+            aHash = hash(aHash, System.identityHashCode(imagePaint.getImage()));
+            return hashShape(hash(aHash, imagePaint.isAbsolute() ? 1L : 0L), imagePaint.getBounds());
+        }
+
+        // Handle Color and anything else
+        return hash(aHash, aPaint != null ? aPaint.hashCode() : 0L);
+    }
+
+    /**
+     * Returns hash of given hash combined with given stroke.
+     */
+    protected static long hashStroke(long aHash, Stroke aStroke)
+    {
+        if (aStroke == null) return hash(aHash, 0L);
+        aHash = hash(hash(aHash, aStroke.getWidth()), aStroke.getCap().ordinal());
+        aHash = hash(hash(aHash, aStroke.getJoin().ordinal()), aStroke.getMiterLimit());
+        double[] dashArray = aStroke.getDashArray();
+        if (dashArray != null) {
+            for (double dash : dashArray)
+                aHash = hash(aHash, dash);
+        }
+        return hash(aHash, aStroke.getDashOffset());
+    }
+
     /**
      * A class to represent instructions.
      */
@@ -210,6 +376,9 @@ public class PainterDVR extends PainterImpl {
         /** Plays the op in given painter. */
         public abstract void exec(Painter aPntr);
 
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hash(HASH_SEED, getClass().getName().hashCode()); }
+
         /** Standard equals implementation. */
         public boolean equals(Object anObj) { return true; }
 
@@ -231,6 +400,9 @@ public class PainterDVR extends PainterImpl {
         /** Plays the op in given painter. */
         public void exec(Painter aPntr)  { aPntr.setFont(_font); }
 
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hash(super.getHash(), _font.hashCode()); }
+
         /** Standard equals implementation. */
         public boolean equals(Object anObj) { return _font.equals(((SetFont)anObj)._font); }
 
@@ -252,6 +424,9 @@ public class PainterDVR extends PainterImpl {
         /** Plays the op in given painter. */
         public void exec(Painter aPntr)  { aPntr.setPaint(_paint); }
 
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hashPaint(super.getHash(), _paint); }
+
         /** Standard equals implementation. */
         public boolean equals(Object anObj) { return _paint.equals(((SetPaint)anObj)._paint); }
 
@@ -273,6 +448,9 @@ public class PainterDVR extends PainterImpl {
         /** Plays the op in given painter. */
         public void exec(Painter aPntr)  { aPntr.setStroke(_stroke); }
 
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hashStroke(super.getHash(), _stroke); }
+
         /** Standard equals implementation. */
         public boolean equals(Object anObj) { return _stroke.equals(((SetStroke)anObj)._stroke); }
 
@@ -294,8 +472,11 @@ public class PainterDVR extends PainterImpl {
         /** Plays the op in given painter. */
         public void exec(Painter aPntr)  { aPntr.setOpacity(_opacity); }
 
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hash(super.getHash(), _opacity); }
+
         /** Standard equals implementation. */
-        public boolean equals(Object anObj) { return _opacity!=((SetOpacity)anObj)._opacity; }
+        public boolean equals(Object anObj) { return _opacity==((SetOpacity)anObj)._opacity; }
 
         /** Standard toString implementation. */
         public String toString()  { return StringUtils.toString(this, "Opacity").toString(); }
@@ -315,6 +496,9 @@ public class PainterDVR extends PainterImpl {
         /** Plays the op in given painter. */
         public void exec(Painter aPntr)  { aPntr.draw(_shape); }
 
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hashShape(super.getHash(), _shape); }
+
         /** Standard equals implementation. */
         public boolean equals(Object anObj) { return _shape.equals(((DrawShape)anObj)._shape); }
 
@@ -336,6 +520,9 @@ public class PainterDVR extends PainterImpl {
         /** Plays the op in given painter. */
         public void exec(Painter aPntr)  { aPntr.fill(_shape); }
 
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hashShape(super.getHash(), _shape); }
+
         /** Standard equals implementation. */
         public boolean equals(Object anObj) { return _shape.equals(((FillShape)anObj)._shape); }
 
@@ -343,6 +530,74 @@ public class PainterDVR extends PainterImpl {
         public String toString()  { return StringUtils.toString(this, "Shape").toString(); }
     }
 
+    /**
+     * An instruction to drawPolyline(xyCoords,count).
+     */
+    public static class DrawPolyline extends Instruction {
+
+        /** Creates a new DrawPolyline. */
+        public DrawPolyline(double[] xyCoords)  { _coords = xyCoords; } double[] _coords;
+
+        /** Plays the op in given painter. */
+        public void exec(Painter aPntr)  { aPntr.drawPolyline(_coords, _coords.length / 2); }
+
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hashValues(super.getHash(), _coords); }
+
+        /** Standard equals implementation. */
+        public boolean equals(Object anObj) { return Arrays.equals(_coords, ((DrawPolyline)anObj)._coords); }
+
+        /** Standard hashCode implementation. */
+        public int hashCode()  { return Long.hashCode(getHash()); }
+    }
+
+    /**
+     * An instruction to fillRects(xywhValues,count).
+     */
+    public static class FillRects extends Instruction {
+
+        /** Creates a new FillRects. */
+        public FillRects(double[] xywhValues)  { _values = xywhValues; } double[] _values;
+
+        /** Plays the op in given painter. */
+        public void exec(Painter aPntr)  { aPntr.fillRects(_values, _values.length / 4); }
+
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hashValues(super.getHash(), _values); }
+
+        /** Standard equals implementation. */
+        public boolean equals(Object anObj) { return Arrays.equals(_values, ((FillRects)anObj)._values); }
+
+        /** Standard hashCode implementation. */
+        public int hashCode()  { return Long.hashCode(getHash()); }
+    }
+
+    /**
+     * An instruction to drawPoints(xyCoords,count,marker).
+     */
+    public static class DrawPoints extends Instruction {
+
+        /** Creates a new DrawPoints. */
+        public DrawPoints(double[] xyCoords, Shape aMarker)  { _coords = xyCoords; _marker = aMarker; }
+        double[] _coords; Shape _marker;
+
+        /** Plays the op in given painter. */
+        public void exec(Painter aPntr)  { aPntr.drawPoints(_coords, _coords.length / 2, _marker); }
+
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hashShape(hashValues(super.getHash(), _coords), _marker); }
+
+        /** Standard equals implementation. */
+        public boolean equals(Object anObj)
+        {
+            DrawPoints o = (DrawPoints)anObj;
+            return Arrays.equals(_coords, o._coords) && _marker.equals(o._marker);
+        }
+
+        /** Standard hashCode implementation. */
+        public int hashCode()  { return Long.hashCode(getHash()); }
+    }
+
     /**
      * An instruction to drawImage(Image,Transform).
      */
@@ -360,12 +615,19 @@ public class PainterDVR extends PainterImpl {
         /** Plays the op in given painter. */
         public void exec(Painter aPntr)  { aPntr.drawImage(_img, _sx, _sy, _sw, _sh, _dx, _dy, _dw, _dh); }
 
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()
+        {
+            long h = hash(super.getHash(), System.identityHashCode(_img));
+            return hashValues(h, new double[] { _sx, _sy, _sw, _sh, _dx, _dy, _dw, _dh });
+        }
+
         /** Standard equals implementation. */
         public boolean equals(Object anObj)
         {
             DrawImage o = (DrawImage)anObj;
             return _img==o._img && _sx==o._sx && _sy==o._sy && _sw==o._sw && _sh==o._sh &&
-                _sx==o._sx && _sy==o._sy && _sw==o._sw && _sh==o._sh;
+                _dx==o._dx && _dy==o._dy && _dw==o._dw && _dh==o._dh;
         }
 
         /** Standard toString implementation. */
@@ -383,6 +645,9 @@ public class PainterDVR extends PainterImpl {
         /** Plays the op in given painter. */
         public void exec(Painter aPntr)  { aPntr.drawImage(_img, _xfm); }
 
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hashTransform(hash(super.getHash(), System.identityHashCode(_img)), _xfm); }
+
         /** Standard equals implementation. */
         public boolean equals(Object anObj)
         {
@@ -408,6 +673,9 @@ public class PainterDVR extends PainterImpl {
         /** Plays the op in given painter. */
         public void exec(Painter aPntr)  { aPntr.drawString(_str, _x, _y, _cs); }
 
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hash(hash(hash(hash(super.getHash(), _str.hashCode()), _x), _y), _cs); }
+
         /** Standard equals implementation. */
         public boolean equals(Object anObj)
         {
@@ -441,6 +709,9 @@ public class PainterDVR extends PainterImpl {
         /** Plays the op in given painter. */
         public void exec(Painter aPntr)  { aPntr.strokeString(_str, _x, _y, _cs); }
 
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hash(hash(hash(hash(super.getHash(), _str.hashCode()), _x), _y), _cs); }
+
         /** Standard equals implementation. */
         public boolean equals(Object anObj)
         {
@@ -463,6 +734,9 @@ public class PainterDVR extends PainterImpl {
         /** Plays the op in given painter. */
         public void exec(Painter aPntr)  { aPntr.setTransform(_xfm); }
 
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hashTransform(super.getHash(), _xfm); }
+
         /** Standard equals implementation. */
         public boolean equals(Object anObj) { return _xfm.equals(((SetTransform)anObj)._xfm); }
 
@@ -481,6 +755,9 @@ public class PainterDVR extends PainterImpl {
         /** Plays the op in given painter. */
         public void exec(Painter aPntr)  { aPntr.transform(_xfm); }
 
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hashTransform(super.getHash(), _xfm); }
+
         /** Standard equals implementation. */
         public boolean equals(Object anObj) { return _xfm.equals(((TransformBy)anObj)._xfm); }
 
@@ -516,5 +793,14 @@ public class PainterDVR extends PainterImpl {
 
         /** Plays the op in given painter. */
         public void exec(Painter aPntr)  { aPntr.clip(_shape); }
+
+        /** Standard equals implementation. */
+        public boolean equals(Object anObj) { return _shape.equals(((ClipBy)anObj)._shape); }
+
+        /** Returns a 64-bit hash of instruction content. */
+        public long getHash()  { return hashShape(super.getHash(), _shape); }
+
+        /** Standard hashCode implementation. */
+        public int hashCode()  { return Long.hashCode(getHash()); }
     }
 }
\ No newline at end of file
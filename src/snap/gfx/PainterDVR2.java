@@ -8,6 +8,8 @@ import java.util.Arrays;
 
 /**
  * A Painter subclass that records painting operations for later execution instead of executing them immediately.
+ * State changes that don't change the recorded state (font, paint, stroke, opacity) are dropped and save/restore
+ * pairs that contain no drawing are collapsed, to keep instruction stream small.
  */
 public class PainterDVR2 extends PainterImpl {
 
@@ -44,6 +46,22 @@ public class PainterDVR2 extends PainterImpl {
     // The Painter (for EffectPntr)
     protected Painter  _pntr;
 
+    // The last recorded font, paint, stroke and opacity (null/NaN if not yet recorded since clear)
+    private Font  _recordedFont;
+    private Paint  _recordedPaint;
+    private Stroke  _recordedStroke;
+    private double  _recordedOpacity = Double.NaN;
+
+    // The stack of save marks and its size
+    private SaveMark[]  _saveMarks = new SaveMark[8];
+    private int  _saveMarksSize;
+
+    // The number of drawing instructions recorded since clear (to find save/restore pairs with no drawing)
+    private int  _drawInstructionCount;
+
+    // The number of instructions dropped as redundant since clear
+    private int  _droppedInstructionCount;
+
     // Constants for operations
     public static final int SET_FONT = 1;
     public static final int SET_PAINT = 2;
@@ -62,6 +80,9 @@ public class PainterDVR2 extends PainterImpl {
     public static final int GRESTORE = 15;
     public static final int CLEAR_RECT = 16;
     public static final int SET_IMAGE_QUALITY = 17;
+    public static final int DRAW_POLYLINE = 18;
+    public static final int FILL_RECTS = 19;
+    public static final int DRAW_POINTS = 20;
 
     /**
      * Constructor.
@@ -85,6 +106,8 @@ public class PainterDVR2 extends PainterImpl {
         if (_instructionStackSize == _instructionStack.length)
             _instructionStack = Arrays.copyOf(_instructionStack, _instructionStackSize * 2);
         _instructionStack[_instructionStackSize++] = aValue;
+        if (isDrawInstruction(aValue))
+            _drawInstructionCount++;
     }
 
     /**
@@ -107,6 +130,18 @@ public class PainterDVR2 extends PainterImpl {
         _doubleStack[_doubleStackSize++] = aValue;
     }
 
+    /**
+     * Adds given count of doubles from given array.
+     */
+    public void addDoubles(double[] theValues, int aCount)
+    {
+        int newSize = _doubleStackSize + aCount;
+        if (newSize > _doubleStack.length)
+            _doubleStack = Arrays.copyOf(_doubleStack, Math.max(newSize, _doubleStackSize * 2));
+        System.arraycopy(theValues, 0, _doubleStack, _doubleStackSize, aCount);
+        _doubleStackSize = newSize;
+    }
+
     /**
      * Adds a string.
      */
@@ -130,7 +165,7 @@ public class PainterDVR2 extends PainterImpl {
     @Override
     public void flush()
     {
-        new Executor(_pntr).exec();
+        new Executor(this, _pntr).exec();
     }
 
     /**
@@ -139,9 +174,38 @@ public class PainterDVR2 extends PainterImpl {
     public void exec(Painter aPntr)
     {
         _pntr = aPntr;
-        new Executor(aPntr).exec();
+        new Executor(this, aPntr).exec();
+    }
+
+    /**
+     * Makes sure recorded images are loaded, so instructions can be executed on other threads.
+     */
+    public void loadImages()
+    {
+        for (int i = 0; i < _nativeStackSize; i++) {
+            Object nativeObj = _nativeStack[i];
+            Image image = nativeObj instanceof Image ? (Image) nativeObj :
+                nativeObj instanceof ImagePaint ? ((ImagePaint) nativeObj).getImage() : null;
+            if (image != null)
+                image.getNative();
+        }
+    }
+
+    /**
+     * Returns a PainterDVR with the instructions stored in this PainterDVR2.
+     */
+    public PainterDVR getPainterDVR()
+    {
+        PainterDVR painterDVR = new PainterDVR(_pntr);
+        new Executor(this, painterDVR).exec();
+        return painterDVR;
     }
 
+    /**
+     * Returns the instructions stored in this PainterDVR2 as compact binary bytes (see PainterDVR2Codec).
+     */
+    public byte[] getBytes()  { return PainterDVR2Codec.getBytes(this); }
+
     /**
      * Clears the instructions stored in this PainterDVR.
      */
@@ -154,12 +218,39 @@ public class PainterDVR2 extends PainterImpl {
         _doubleStackSize = 0;
         _stringStackSize = 0;
         _nativeStackSize = 0;
+        _recordedFont = null;
+        _recordedPaint = null;
+        _recordedStroke = null;
+        _recordedOpacity = Double.NaN;
+        _saveMarksSize = 0;
+        _drawInstructionCount = 0;
+        _droppedInstructionCount = 0;
     }
 
+    /**
+     * Returns the number of instructions recorded.
+     */
+    public int getInstructionCount()  { return _instructionStackSize; }
+
+    /**
+     * Returns the number of instructions dropped as redundant since last clear (no-op state changes and empty
+     * save/restore pairs).
+     */
+    public int getDroppedInstructionCount()  { return _droppedInstructionCount; }
+
     /** Sets the font. */
     public void setFont(Font aFont)
     {
         super.setFont(aFont);
+
+        // If font already recorded, just return
+        if (aFont == _recordedFont || aFont != null && aFont.equals(_recordedFont)) {
+            _droppedInstructionCount++;
+            return;
+        }
+
+        // Record font
+        _recordedFont = aFont;
         addInstruction(SET_FONT);
         addNative(aFont);
     }
@@ -168,6 +259,15 @@ public class PainterDVR2 extends PainterImpl {
     public void setPaint(Paint aPaint)
     {
         super.setPaint(aPaint);
+
+        // If paint already recorded, just return
+        if (aPaint == _recordedPaint || aPaint != null && aPaint.equals(_recordedPaint)) {
+            _droppedInstructionCount++;
+            return;
+        }
+
+        // Record paint
+        _recordedPaint = aPaint;
         addInstruction(SET_PAINT);
         addNative(aPaint);
     }
@@ -180,6 +280,15 @@ public class PainterDVR2 extends PainterImpl {
 
         // Do normal version
         super.setStroke(aStroke);
+
+        // If stroke already recorded, just return
+        if (aStroke == _recordedStroke || aStroke.equals(_recordedStroke)) {
+            _droppedInstructionCount++;
+            return;
+        }
+
+        // Record stroke
+        _recordedStroke = aStroke;
         addInstruction(SET_STROKE);
 
         // Set LineWidth
@@ -219,6 +328,15 @@ public class PainterDVR2 extends PainterImpl {
     public void setOpacity(double aValue)
     {
         super.setOpacity(aValue);
+
+        // If opacity already recorded, just return
+        if (aValue == _recordedOpacity) {
+            _droppedInstructionCount++;
+            return;
+        }
+
+        // Record opacity
+        _recordedOpacity = aValue;
         addInstruction(SET_OPACITY);
         addDouble(aValue);
     }
@@ -259,6 +377,34 @@ public class PainterDVR2 extends PainterImpl {
         }
     }
 
+    /** Draws a polyline for given array of x/y coords and point count. */
+    public void drawPolyline(double[] xyCoords, int pointCount)
+    {
+        if (pointCount < 2) return;
+        addInstruction(DRAW_POLYLINE);
+        addInt(pointCount);
+        addDoubles(xyCoords, pointCount * 2);
+    }
+
+    /** Fills rects for given array of x/y/w/h values and rect count. */
+    public void fillRects(double[] xywhValues, int rectCount)
+    {
+        if (rectCount < 1) return;
+        addInstruction(FILL_RECTS);
+        addInt(rectCount);
+        addDoubles(xywhValues, rectCount * 4);
+    }
+
+    /** Fills given marker shape at each point for given array of x/y coords and point count. */
+    public void drawPoints(double[] xyCoords, int pointCount, Shape aMarker)
+    {
+        if (pointCount < 1) return;
+        addInstruction(DRAW_POINTS);
+        addShape(aMarker);
+        addInt(pointCount);
+        addDoubles(xyCoords, pointCount * 2);
+    }
+
     /** Draw image with transform. */
     public void drawImage(Image image, Transform aTrans)
     {
@@ -340,6 +486,17 @@ public class PainterDVR2 extends PainterImpl {
     public void save()
     {
         super.save();
+
+        // Push save mark for current recorded state and stack sizes
+        if (_saveMarksSize == _saveMarks.length)
+            _saveMarks = Arrays.copyOf(_saveMarks, _saveMarksSize * 2);
+        SaveMark saveMark = _saveMarks[_saveMarksSize];
+        if (saveMark == null)
+            saveMark = _saveMarks[_saveMarksSize] = new SaveMark();
+        saveMark.setMark(this);
+        _saveMarksSize++;
+
+        // Add instruction
         addInstruction(GSAVE);
     }
 
@@ -347,6 +504,33 @@ public class PainterDVR2 extends PainterImpl {
     public void restore()
     {
         super.restore();
+
+        // If no save mark (unbalanced restore), just add instruction
+        if (_saveMarksSize == 0) {
+            addInstruction(GRESTORE);
+            return;
+        }
+
+        // Pop save mark and reset recorded state to state at save
+        SaveMark saveMark = _saveMarks[--_saveMarksSize];
+        _recordedFont = saveMark._font;
+        _recordedPaint = saveMark._paint;
+        _recordedStroke = saveMark._stroke;
+        _recordedOpacity = saveMark._opacity;
+
+        // If nothing drawn since save, collapse save/restore by removing everything recorded since save
+        if (saveMark._drawInstructionCount == _drawInstructionCount) {
+            _droppedInstructionCount += _instructionStackSize - saveMark._instructionStackSize + 1;
+            _instructionStackSize = saveMark._instructionStackSize;
+            _intStackSize = saveMark._intStackSize;
+            _doubleStackSize = saveMark._doubleStackSize;
+            _stringStackSize = saveMark._stringStackSize;
+            Arrays.fill(_nativeStack, saveMark._nativeStackSize, _nativeStackSize, null);
+            _nativeStackSize = saveMark._nativeStackSize;
+            return;
+        }
+
+        // Add instruction
         addInstruction(GRESTORE);
     }
 
@@ -384,6 +568,18 @@ public class PainterDVR2 extends PainterImpl {
         return true;
     }
 
+    /**
+     * Returns whether given instruction draws (as opposed to just changing state).
+     */
+    private static boolean isDrawInstruction(int anInstruction)
+    {
+        switch (anInstruction) {
+            case DRAW_SHAPE: case FILL_SHAPE: case DRAW_IMAGE: case DRAW_IMAGE2: case DRAW_STRING: case STROKE_STRING:
+            case CLEAR_RECT: case DRAW_POLYLINE: case FILL_RECTS: case DRAW_POINTS: return true;
+            default: return false;
+        }
+    }
+
     /**
      * Adds a transform.
      */
@@ -426,13 +622,51 @@ public class PainterDVR2 extends PainterImpl {
         _intStack[intStackIndex] = intOpCount;
     }
 
+    /**
+     * This class holds the recorded state and stack sizes at a save.
+     */
+    private static class SaveMark {
+
+        // The recorded font, paint, stroke and opacity
+        private Font  _font;
+        private Paint  _paint;
+        private Stroke  _stroke;
+        private double  _opacity;
+
+        // The stack sizes
+        private int  _instructionStackSize, _intStackSize, _doubleStackSize, _stringStackSize, _nativeStackSize;
+
+        // The draw instruction count
+        private int  _drawInstructionCount;
+
+        /**
+         * Sets mark values from given painter.
+         */
+        void setMark(PainterDVR2 aDVR)
+        {
+            _font = aDVR._recordedFont;
+            _paint = aDVR._recordedPaint;
+            _stroke = aDVR._recordedStroke;
+            _opacity = aDVR._recordedOpacity;
+            _instructionStackSize = aDVR._instructionStackSize;
+            _intStackSize = aDVR._intStackSize;
+            _doubleStackSize = aDVR._doubleStackSize;
+            _stringStackSize = aDVR._stringStackSize;
+            _nativeStackSize = aDVR._nativeStackSize;
+            _drawInstructionCount = aDVR._drawInstructionCount;
+        }
+    }
+
     /**
      * This class paints the instruction arrays.
      */
-    private class Executor {
+    protected static class Executor {
+
+        // The PainterDVR2 with stacks
+        private PainterDVR2 _dvr;
 
         // The painter
-        private Painter _painter;
+        protected Painter _painter;
 
         // The stack indexes
         private int _intIndex = 0;
@@ -443,9 +677,10 @@ public class PainterDVR2 extends PainterImpl {
         /**
          * Constructor.
          */
-        public Executor(Painter aPntr)
+        public Executor(PainterDVR2 aDVR, Painter aPntr)
         {
             super();
+            _dvr = aDVR;
             _painter = aPntr;
         }
 
@@ -454,29 +689,39 @@ public class PainterDVR2 extends PainterImpl {
          */
         public void exec()
         {
-            // Iterate over instructions
-            for (int i = 0; i < _instructionStackSize; i++) {
-
-                // Get next instruction and handle
-                switch (_instructionStack[i]) {
-                    case SET_FONT: setFont(); break;
-                    case SET_PAINT: setPaint(); break;
-                    case SET_STROKE: setStroke(); break;
-                    case SET_OPACITY: setOpacity(); break;
-                    case DRAW_SHAPE: drawShape(); break;
-                    case FILL_SHAPE: fillShape(); break;
-                    case CLIP_SHAPE: clipShape(); break;
-                    case DRAW_IMAGE: drawImage(); break;
-                    case DRAW_IMAGE2: drawImage2(); break;
-                    case DRAW_STRING: drawString(); break;
-                    case STROKE_STRING: strokeString(); break;
-                    case TRANSFORM: transform(); break;
-                    case SET_TRANSFORM: setTransform(); break;
-                    case GSAVE: save(); break;
-                    case GRESTORE: restore(); break;
-                    case SET_IMAGE_QUALITY: setImageQuality(); break;
-                    default: System.out.println("Executor.exec: Unknown instruction"); break;
-                }
+            // Iterate over instructions and execute
+            int[] instructionStack = _dvr._instructionStack;
+            for (int i = 0, iMax = _dvr._instructionStackSize; i < iMax; i++)
+                execInstruction(instructionStack[i]);
+        }
+
+        /**
+         * Executes given instruction.
+         */
+        protected void execInstruction(int anInstruction)
+        {
+            switch (anInstruction) {
+                case SET_FONT: setFont(); break;
+                case SET_PAINT: setPaint(); break;
+                case SET_STROKE: setStroke(); break;
+                case SET_OPACITY: setOpacity(); break;
+                case DRAW_SHAPE: drawShape(); break;
+                case FILL_SHAPE: fillShape(); break;
+                case CLIP_SHAPE: clipShape(); break;
+                case DRAW_IMAGE: drawImage(); break;
+                case DRAW_IMAGE2: drawImage2(); break;
+                case DRAW_STRING: drawString(); break;
+                case STROKE_STRING: strokeString(); break;
+                case TRANSFORM: transform(); break;
+                case SET_TRANSFORM: setTransform(); break;
+                case GSAVE: save(); break;
+                case GRESTORE: restore(); break;
+                case CLEAR_RECT: clearRect(); break;
+                case SET_IMAGE_QUALITY: setImageQuality(); break;
+                case DRAW_POLYLINE: drawPolyline(); break;
+                case FILL_RECTS: fillRects(); break;
+                case DRAW_POINTS: drawPoints(); break;
+                default: System.out.println("Executor.exec: Unknown instruction"); break;
             }
         }
 
@@ -547,7 +792,7 @@ public class PainterDVR2 extends PainterImpl {
         public void drawImage2()
         {
             Image image = (Image) getNative();
-            Transform xfm = null;
+            Transform xfm = getTransform();
             _painter.drawImage(image, xfm);
         }
 
@@ -561,6 +806,28 @@ public class PainterDVR2 extends PainterImpl {
             _painter.drawImage(image, sx, sy, sw, sh, dx, dy, dw, dh);
         }
 
+        public void drawPolyline()
+        {
+            int pointCount = getInt();
+            double[] xyCoords = getDoubles(pointCount * 2);
+            _painter.drawPolyline(xyCoords, pointCount);
+        }
+
+        public void fillRects()
+        {
+            int rectCount = getInt();
+            double[] xywhValues = getDoubles(rectCount * 4);
+            _painter.fillRects(xywhValues, rectCount);
+        }
+
+        public void drawPoints()
+        {
+            Shape marker = getShape();
+            int pointCount = getInt();
+            double[] xyCoords = getDoubles(pointCount * 2);
+            _painter.drawPoints(xyCoords, pointCount, marker);
+        }
+
         /** Draw string at location with char spacing. */
         public void drawString()
         {
@@ -601,6 +868,13 @@ public class PainterDVR2 extends PainterImpl {
 
         public void restore()  { _painter.restore(); }
 
+        public void clearRect()
+        {
+            double x = getDouble(), y = getDouble();
+            double w = getDouble(), h = getDouble();
+            _painter.clearRect(x, y, w, h);
+        }
+
         public void setImageQuality()
         {
             double quality = getDouble();
@@ -633,6 +907,7 @@ public class PainterDVR2 extends PainterImpl {
                     case 1: path2D.lineTo(getDouble(), getDouble()); break;
                     case 2: path2D.curveTo(getDouble(), getDouble(), getDouble(), getDouble(), getDouble(), getDouble()); break;
                     case 3: path2D.close(); break;
+                    case 4: path2D.quadTo(getDouble(), getDouble(), getDouble(), getDouble()); break;
                 }
             }
 
@@ -641,9 +916,15 @@ public class PainterDVR2 extends PainterImpl {
         }
 
         // Get stack values
-        private int getInt()  { return _intStack[_intIndex++]; }
-        private double getDouble()  { return _doubleStack[_doubleIndex++]; }
-        private String getString()  { return _stringStack[_stringIndex++]; }
-        private Object getNative()  { return _nativeStack[_nativeIndex++]; }
+        protected int getInt()  { return _dvr._intStack[_intIndex++]; }
+        protected double getDouble()  { return _dvr._doubleStack[_doubleIndex++]; }
+        protected double[] getDoubles(int aCount)
+        {
+            double[] doubles = Arrays.copyOfRange(_dvr._doubleStack, _doubleIndex, _doubleIndex + aCount);
+            _doubleIndex += aCount;
+            return doubles;
+        }
+        protected String getString()  { return _dvr._stringStack[_stringIndex++]; }
+        protected Object getNative()  { return _dvr._nativeStack[_nativeIndex++]; }
     }
 }
\ No newline at end of file
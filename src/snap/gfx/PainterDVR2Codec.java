@@ -0,0 +1,539 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.gfx;
+import snap.geom.Rect;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * This class encodes a PainterDVR2 recording to a compact, versioned binary form and replays it back onto a Painter.
+ *
+ * The format is a header, a table of interned native objects (fonts, paints, images), a table of interned strings,
+ * then the instructions with their operands inline (so a recording can be replayed while it streams in).
+ * Ints are written as zig-zag varints, doubles as floats when every double in the recording fits a float exactly.
+ */
+public class PainterDVR2Codec {
+
+    // Constants for header
+    public static final int MAGIC = 0x53445632; // "SDV2"
+    public static final int VERSION = 1;
+
+    // Constants for header flags
+    private static final int FLAG_FLOAT_DOUBLES = 1;
+
+    // Constants for native object kinds
+    private static final int KIND_NULL = 0;
+    private static final int KIND_FONT = 1;
+    private static final int KIND_COLOR = 2;
+    private static final int KIND_GRADIENT = 3;
+    private static final int KIND_IMAGE = 4;
+    private static final int KIND_IMAGE_PAINT = 5;
+
+    /**
+     * Returns the encoded bytes for given PainterDVR2.
+     */
+    public static byte[] getBytes(PainterDVR2 aDVR)
+    {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream(aDVR._doubleStackSize * 4 + 256);
+        writeDVR(aDVR, byteStream);
+        return byteStream.toByteArray();
+    }
+
+    /**
+     * Writes given PainterDVR2 to given output stream.
+     */
+    public static void writeDVR(PainterDVR2 aDVR, OutputStream anOutputStream)
+    {
+        try {
+            DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(anOutputStream));
+            new Encoder(aDVR, dataOut).write();
+            dataOut.flush();
+        }
+        catch (IOException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Replays given encoded bytes to given painter.
+     */
+    public static void execBytes(byte[] theBytes, Painter aPntr)
+    {
+        execStream(new ByteArrayInputStream(theBytes), aPntr);
+    }
+
+    /**
+     * Replays encoded recording from given input stream to given painter, executing instructions as they are read.
+     */
+    public static void execStream(InputStream anInputStream, Painter aPntr)
+    {
+        DataInputStream dataIn = new DataInputStream(new BufferedInputStream(anInputStream));
+        new StreamExecutor(dataIn, aPntr).exec();
+    }
+
+    /**
+     * Returns a new PainterDVR2 for given encoded bytes.
+     */
+    public static PainterDVR2 getDVRForBytes(byte[] theBytes)
+    {
+        PainterDVR2 painterDVR = new PainterDVR2();
+        execBytes(theBytes, painterDVR);
+        return painterDVR;
+    }
+
+    /**
+     * This class writes the PainterDVR2 stacks.
+     */
+    private static class Encoder {
+
+        // The PainterDVR2 and output stream
+        private PainterDVR2 _dvr;
+        private DataOutputStream _out;
+
+        // Whether doubles are written as floats
+        private boolean _floatDoubles;
+
+        // The table indexes for each native and string stack entry
+        private int[] _nativeIndexes, _stringIndexes;
+
+        // The stack indexes
+        private int _intIndex, _doubleIndex, _stringIndex, _nativeIndex;
+
+        // The native table and map of native objects to table index
+        private List<Object> _natives = new ArrayList<>();
+        private Map<Object,Integer> _nativeTableIndexes = new HashMap<>();
+        private Map<Object,Integer> _nativeTableIdentityIndexes = new IdentityHashMap<>();
+
+        /**
+         * Constructor.
+         */
+        public Encoder(PainterDVR2 aDVR, DataOutputStream anOut)
+        {
+            _dvr = aDVR;
+            _out = anOut;
+        }
+
+        /**
+         * Writes the recording.
+         */
+        public void write() throws IOException
+        {
+            // Get whether all doubles fit in floats
+            _floatDoubles = true;
+            for (int i = 0; i < _dvr._doubleStackSize && _floatDoubles; i++)
+                _floatDoubles = (float) _dvr._doubleStack[i] == _dvr._doubleStack[i];
+
+            // Write header
+            _out.writeInt(MAGIC);
+            _out.writeShort(VERSION);
+            _out.writeByte(_floatDoubles ? FLAG_FLOAT_DOUBLES : 0);
+
+            // Intern natives and write native table
+            _nativeIndexes = new int[_dvr._nativeStackSize];
+            for (int i = 0; i < _dvr._nativeStackSize; i++)
+                _nativeIndexes[i] = internNative(_dvr._nativeStack[i]);
+            writeVarInt(_natives.size());
+            for (Object nativeObj : _natives)
+                writeNative(nativeObj);
+
+            // Intern strings and write string table
+            Map<String,Integer> stringTableIndexes = new HashMap<>();
+            List<String> strings = new ArrayList<>();
+            _stringIndexes = new int[_dvr._stringStackSize];
+            for (int i = 0; i < _dvr._stringStackSize; i++) {
+                String str = _dvr._stringStack[i];
+                Integer index = stringTableIndexes.get(str);
+                if (index == null) {
+                    stringTableIndexes.put(str, index = strings.size());
+                    strings.add(str);
+                }
+                _stringIndexes[i] = index;
+            }
+            writeVarInt(strings.size());
+            for (String str : strings)
+                writeString(str);
+
+            // Write instructions with inline operands
+            writeVarInt(_dvr._instructionStackSize);
+            for (int i = 0; i < _dvr._instructionStackSize; i++)
+                writeInstruction(_dvr._instructionStack[i]);
+        }
+
+        /**
+         * Writes an instruction and its operands.
+         */
+        private void writeInstruction(int anInstruction) throws IOException
+        {
+            _out.writeByte(anInstruction);
+
+            switch (anInstruction) {
+                case PainterDVR2.SET_FONT: case PainterDVR2.SET_PAINT: copyNative(); break;
+                case PainterDVR2.SET_STROKE: copyStroke(); break;
+                case PainterDVR2.SET_OPACITY: case PainterDVR2.SET_IMAGE_QUALITY: copyDoubles(1); break;
+                case PainterDVR2.DRAW_SHAPE: case PainterDVR2.FILL_SHAPE: case PainterDVR2.CLIP_SHAPE: copyShape(); break;
+                case PainterDVR2.DRAW_IMAGE: copyNative(); copyDoubles(8); break;
+                case PainterDVR2.DRAW_IMAGE2: copyNative(); copyDoubles(6); break;
+                case PainterDVR2.DRAW_STRING: case PainterDVR2.STROKE_STRING: copyString(); copyDoubles(3); break;
+                case PainterDVR2.TRANSFORM: case PainterDVR2.SET_TRANSFORM: copyDoubles(6); break;
+                case PainterDVR2.GSAVE: case PainterDVR2.GRESTORE: break;
+                case PainterDVR2.CLEAR_RECT: copyDoubles(4); break;
+                case PainterDVR2.DRAW_POLYLINE: copyDoubles(copyInt() * 2); break;
+                case PainterDVR2.FILL_RECTS: copyDoubles(copyInt() * 4); break;
+                case PainterDVR2.DRAW_POINTS: copyShape(); copyDoubles(copyInt() * 2); break;
+                default: throw new RuntimeException("PainterDVR2Codec: Unknown instruction: " + anInstruction);
+            }
+        }
+
+        /**
+         * Copies stroke operands.
+         */
+        private void copyStroke() throws IOException
+        {
+            copyDoubles(1);
+            int dashArrayLen = copyInt();
+            if (dashArrayLen > 0)
+                copyDoubles(dashArrayLen + 1);
+            copyInt();
+            int joinInt = copyInt();
+            if (joinInt == 2)
+                copyDoubles(1);
+        }
+
+        /**
+         * Copies shape operands.
+         */
+        private void copyShape() throws IOException
+        {
+            int opCount = copyInt();
+            if (opCount == -1) {
+                copyDoubles(4);
+                return;
+            }
+
+            for (int i = 0; i < opCount; i++) {
+                switch (copyInt()) {
+                    case 0: case 1: copyDoubles(2); break;
+                    case 4: copyDoubles(4); break;
+                    case 2: copyDoubles(6); break;
+                }
+            }
+        }
+
+        // Copy stack values to output
+        private int copyInt() throws IOException
+        {
+            int value = _dvr._intStack[_intIndex++];
+            writeVarInt(value << 1 ^ value >> 31);
+            return value;
+        }
+        private void copyDoubles(int aCount) throws IOException
+        {
+            double[] doubleStack = _dvr._doubleStack;
+            for (int i = 0; i < aCount; i++) {
+                if (_floatDoubles) _out.writeFloat((float) doubleStack[_doubleIndex++]);
+                else _out.writeDouble(doubleStack[_doubleIndex++]);
+            }
+        }
+        private void copyString() throws IOException  { writeVarInt(_stringIndexes[_stringIndex++]); }
+        private void copyNative() throws IOException  { writeVarInt(_nativeIndexes[_nativeIndex++]); }
+
+        /**
+         * Interns given native object, returning its table index.
+         */
+        private int internNative(Object anObj)
+        {
+            // Fonts and colors are interned by value, everything else by reference
+            boolean isValue = anObj instanceof Font || anObj instanceof Color;
+            Map<Object,Integer> tableIndexes = isValue ? _nativeTableIndexes : _nativeTableIdentityIndexes;
+            Integer index = anObj != null ? tableIndexes.get(anObj) : null;
+            if (index != null)
+                return index;
+
+            // If ImagePaint, intern image first so it is defined before paint in table
+            if (anObj instanceof ImagePaint imagePaint)
+                internNative(imagePaint.getImage());
+
+            // Add to table
+            index = _natives.size();
+            _natives.add(anObj);
+            if (anObj != null)
+                tableIndexes.put(anObj, index);
+            return index;
+        }
+
+        /**
+         * Writes a native object table entry.
+         */
+        private void writeNative(Object anObj) throws IOException
+        {
+            // Handle Font
+            if (anObj instanceof Font font) {
+                _out.writeByte(KIND_FONT);
+                writeString(font.getName());
+                _out.writeDouble(font.getSize());
+            }
+
+            // Handle Color
+            else if (anObj instanceof Color color) {
+                _out.writeByte(KIND_COLOR);
+                writeColor(color);
+            }
+
+            // Handle GradientPaint
+            else if (anObj instanceof GradientPaint gradientPaint) {
+                _out.writeByte(KIND_GRADIENT);
+                _out.writeByte(gradientPaint.getType().ordinal());
+                _out.writeDouble(gradientPaint.getStartX()); _out.writeDouble(gradientPaint.getStartY());
+                _out.writeDouble(gradientPaint.getEndX()); _out.writeDouble(gradientPaint.getEndY());
+                _out.writeBoolean(gradientPaint.isAbsolute());
+                _out.writeDouble(gradientPaint.getRoll());
+                writeVarInt(gradientPaint.getStopCount());
+                for (GradientPaint.Stop stop : gradientPaint.getStops()) {
+                    _out.writeDouble(stop.offset());
+                    writeColor(stop.color());
+                }
+            }
+
+            // Handle Image
+            else if (anObj instanceof Image image) {
+                _out.writeByte(KIND_IMAGE);
+                byte[] bytes = image.getBytes();
+                writeVarInt(bytes.length);
+                _out.write(bytes);
+            }
+
+            // Handle ImagePaint
+            else if (anObj instanceof ImagePaint imagePaint) {
+                _out.writeByte(KIND_IMAGE_PAINT);
+                writeVarInt(_nativeTableIdentityIndexes.get(imagePaint.getImage()));
+                _out.writeDouble(imagePaint.getX()); _out.writeDouble(imagePaint.getY());
+                _out.writeDouble(imagePaint.getWidth()); _out.writeDouble(imagePaint.getHeight());
+                _out.writeBoolean(imagePaint.isAbsolute());
+            }
+
+            // Handle anything else
+            else {
+                if (anObj != null)
+                    System.err.println("PainterDVR2Codec: Can't encode native: " + anObj.getClass().getName());
+                _out.writeByte(KIND_NULL);
+            }
+        }
+
+        /**
+         * Writes a color.
+         */
+        private void writeColor(Color aColor) throws IOException
+        {
+            _out.writeDouble(aColor.getRed()); _out.writeDouble(aColor.getGreen());
+            _out.writeDouble(aColor.getBlue()); _out.writeDouble(aColor.getAlpha());
+        }
+
+        /**
+         * Writes a string.
+         */
+        private void writeString(String aStr) throws IOException
+        {
+            byte[] bytes = aStr.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            _out.write(bytes);
+        }
+
+        /**
+         * Writes an unsigned varint.
+         */
+        private void writeVarInt(int aValue) throws IOException
+        {
+            while ((aValue & ~0x7F) != 0) {
+                _out.writeByte((aValue & 0x7F) | 0x80);
+                aValue >>>= 7;
+            }
+            _out.writeByte(aValue);
+        }
+    }
+
+    /**
+     * This class executes instructions as they are read from an encoded stream.
+     */
+    private static class StreamExecutor extends PainterDVR2.Executor {
+
+        // The input stream
+        private DataInputStream _in;
+
+        // Whether doubles are read as floats
+        private boolean _floatDoubles;
+
+        // The native and string tables
+        private Object[] _natives;
+        private String[] _strings;
+
+        /**
+         * Constructor.
+         */
+        public StreamExecutor(DataInputStream anIn, Painter aPntr)
+        {
+            super(null, aPntr);
+            _in = anIn;
+        }
+
+        /**
+         * Override to read header and tables, then execute instructions as they are read.
+         */
+        @Override
+        public void exec()
+        {
+            try {
+                // Read header
+                if (_in.readInt() != MAGIC)
+                    throw new RuntimeException("PainterDVR2Codec: Not a PainterDVR2 recording");
+                int version = _in.readShort();
+                if (version > VERSION)
+                    throw new RuntimeException("PainterDVR2Codec: Unsupported version: " + version);
+                int flags = _in.readByte();
+                _floatDoubles = (flags & FLAG_FLOAT_DOUBLES) != 0;
+
+                // Read native table
+                _natives = new Object[readVarInt()];
+                for (int i = 0; i < _natives.length; i++)
+                    _natives[i] = readNative();
+
+                // Read string table
+                _strings = new String[readVarInt()];
+                for (int i = 0; i < _strings.length; i++)
+                    _strings[i] = readString();
+
+                // Read and execute instructions
+                int instructionCount = readVarInt();
+                for (int i = 0; i < instructionCount; i++)
+                    execInstruction(_in.readUnsignedByte());
+            }
+            catch (IOException e) { throw new RuntimeException(e); }
+        }
+
+        /**
+         * Reads a native object table entry.
+         */
+        private Object readNative() throws IOException
+        {
+            int kind = _in.readUnsignedByte();
+            switch (kind) {
+
+                // Handle Font
+                case KIND_FONT: {
+                    String name = readString();
+                    double size = _in.readDouble();
+                    return new Font(name, size);
+                }
+
+                // Handle Color
+                case KIND_COLOR: return readColor();
+
+                // Handle GradientPaint
+                case KIND_GRADIENT: {
+                    GradientPaint.Type type = GradientPaint.Type.values()[_in.readUnsignedByte()];
+                    double sx = _in.readDouble(), sy = _in.readDouble();
+                    double ex = _in.readDouble(), ey = _in.readDouble();
+                    boolean isAbs = _in.readBoolean();
+                    double roll = _in.readDouble();
+                    GradientPaint.Stop[] stops = new GradientPaint.Stop[readVarInt()];
+                    for (int i = 0; i < stops.length; i++) {
+                        double offset = _in.readDouble();
+                        stops[i] = new GradientPaint.Stop(offset, readColor());
+                    }
+                    GradientPaint gradientPaint = new GradientPaint(type, sx, sy, ex, ey, stops, isAbs);
+                    if (roll != 0) {
+                        gradientPaint.setRoll(roll, new Rect(0, 0, 1, 1));
+                        gradientPaint = gradientPaint.copyForPoints(sx, sy, ex, ey);
+                    }
+                    return gradientPaint;
+                }
+
+                // Handle Image
+                case KIND_IMAGE: {
+                    byte[] bytes = new byte[readVarInt()];
+                    _in.readFully(bytes);
+                    return Image.getImageForBytes(bytes);
+                }
+
+                // Handle ImagePaint
+                case KIND_IMAGE_PAINT: {
+                    Image image = (Image) _natives[readVarInt()];
+                    double x = _in.readDouble(), y = _in.readDouble();
+                    double w = _in.readDouble(), h = _in.readDouble();
+                    boolean isAbs = _in.readBoolean();
+                    return new ImagePaint(image, x, y, w, h, isAbs);
+                }
+
+                // Handle null
+                default: return null;
+            }
+        }
+
+        /**
+         * Reads a color.
+         */
+        private Color readColor() throws IOException
+        {
+            double r = _in.readDouble(), g = _in.readDouble();
+            double b = _in.readDouble(), a = _in.readDouble();
+            return new Color(r, g, b, a);
+        }
+
+        /**
+         * Reads a string.
+         */
+        private String readString() throws IOException
+        {
+            byte[] bytes = new byte[readVarInt()];
+            _in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Reads an unsigned varint.
+         */
+        private int readVarInt() throws IOException
+        {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = _in.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                    return value;
+            }
+        }
+
+        // Read stack values from stream
+        @Override
+        protected int getInt()
+        {
+            try { int value = readVarInt(); return value >>> 1 ^ -(value & 1); }
+            catch (IOException e) { throw new RuntimeException(e); }
+        }
+        @Override
+        protected double getDouble()
+        {
+            try { return _floatDoubles ? _in.readFloat() : _in.readDouble(); }
+            catch (IOException e) { throw new RuntimeException(e); }
+        }
+        @Override
+        protected double[] getDoubles(int aCount)
+        {
+            double[] doubles = new double[aCount];
+            for (int i = 0; i < aCount; i++)
+                doubles[i] = getDouble();
+            return doubles;
+        }
+        @Override
+        protected String getString()
+        {
+            try { return _strings[readVarInt()]; }
+            catch (IOException e) { throw new RuntimeException(e); }
+        }
+        @Override
+        protected Object getNative()
+        {
+            try { return _natives[readVarInt()]; }
+            catch (IOException e) { throw new RuntimeException(e); }
+        }
+    }
+}
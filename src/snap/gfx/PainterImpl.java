@@ -71,6 +71,70 @@ public abstract class PainterImpl extends Painter {
         updateMarkedBounds(aShape, getPaint().isOpaque());
     }
 
+    /** Draws a polyline for given array of x/y coords and point count. */
+    public void drawPolyline(double[] xyCoords, int pointCount)
+    {
+        if (pointCount < 2) return;
+        Rect bounds = getBoundsForPoints(xyCoords, pointCount);
+        bounds.inset(-getStroke().getWidth() / 2);
+        updateMarkedBounds(bounds, false);
+    }
+
+    /** Fills rects for given array of x/y/w/h values and rect count. */
+    public void fillRects(double[] xywhValues, int rectCount)
+    {
+        if (rectCount < 1) return;
+        Rect bounds = getBoundsForRects(xywhValues, rectCount);
+        updateMarkedBounds(bounds, rectCount == 1 && getPaint().isOpaque());
+    }
+
+    /** Fills given marker shape at each point for given array of x/y coords and point count. */
+    public void drawPoints(double[] xyCoords, int pointCount, Shape aMarker)
+    {
+        if (pointCount < 1) return;
+        Rect bounds = getBoundsForPoints(xyCoords, pointCount, aMarker);
+        updateMarkedBounds(bounds, false);
+    }
+
+    /**
+     * Returns the bounds of given array of x/y coords.
+     */
+    private static Rect getBoundsForPoints(double[] xyCoords, int pointCount)
+    {
+        double minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = 0, coordIndex = 0; i < pointCount; i++, coordIndex += 2) {
+            double pointX = xyCoords[coordIndex], pointY = xyCoords[coordIndex + 1];
+            minX = Math.min(minX, pointX); maxX = Math.max(maxX, pointX);
+            minY = Math.min(minY, pointY); maxY = Math.max(maxY, pointY);
+        }
+        return new Rect(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Returns the bounds of given marker shape at each of given array of x/y coords.
+     */
+    private static Rect getBoundsForPoints(double[] xyCoords, int pointCount, Shape aMarker)
+    {
+        Rect bounds = getBoundsForPoints(xyCoords, pointCount);
+        Rect markerBounds = aMarker.getBounds();
+        bounds.setRect(bounds.x + markerBounds.x, bounds.y + markerBounds.y, bounds.width + markerBounds.width, bounds.height + markerBounds.height);
+        return bounds;
+    }
+
+    /**
+     * Returns the bounds of given array of x/y/w/h values.
+     */
+    private static Rect getBoundsForRects(double[] xywhValues, int rectCount)
+    {
+        double minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = 0, valueIndex = 0; i < rectCount; i++, valueIndex += 4) {
+            double rectX = xywhValues[valueIndex], rectY = xywhValues[valueIndex + 1];
+            minX = Math.min(minX, rectX); maxX = Math.max(maxX, rectX + xywhValues[valueIndex + 2]);
+            minY = Math.min(minY, rectY); maxY = Math.max(maxY, rectY + xywhValues[valueIndex + 3]);
+        }
+        return new Rect(minX, minY, maxX - minX, maxY - minY);
+    }
+
     /** Draw image with transform. */
     public void drawImage(Image image, Transform aTrans)
     {
@@ -66,6 +66,15 @@ public class PainterProxy extends Painter {
     @Override
     public void drawRect(double x, double y, double w, double h)  { _pntr.drawRect(x, y, w, h); }
 
+    @Override
+    public void drawPolyline(double[] xyCoords, int pointCount)  { _pntr.drawPolyline(xyCoords, pointCount); }
+
+    @Override
+    public void fillRects(double[] xywhValues, int rectCount)  { _pntr.fillRects(xywhValues, rectCount); }
+
+    @Override
+    public void drawPoints(double[] xyCoords, int pointCount, Shape aMarker)  { _pntr.drawPoints(xyCoords, pointCount, aMarker); }
+
     @Override
     public void drawButton(double x, double y, double w, double h, boolean isPrsd)  { _pntr.drawButton(x,y,w,h,isPrsd); }
 
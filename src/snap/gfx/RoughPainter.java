@@ -5,6 +5,7 @@ package snap.gfx;
 import snap.geom.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
@@ -189,6 +190,40 @@ public class RoughPainter extends PainterProxy {
         else super.strokeString(aStr, aX, aY, charSpacing);
     }
 
+    /**
+     * Draws a polyline — routed through draw() so it gets rough outline.
+     */
+    @Override
+    public void drawPolyline(double[] xyCoords, int pointCount)
+    {
+        if (pointCount < 2) return;
+        Polygon polyline = new Polygon(Arrays.copyOf(xyCoords, pointCount * 2));
+        polyline.setClosed(false);
+        draw(polyline);
+    }
+
+    /**
+     * Fills rects — routed through fill() so each gets rough fill.
+     */
+    @Override
+    public void fillRects(double[] xywhValues, int rectCount)
+    {
+        for (int i = 0, valueIndex = 0; i < rectCount; i++, valueIndex += 4)
+            fill(new Rect(xywhValues[valueIndex], xywhValues[valueIndex + 1], xywhValues[valueIndex + 2], xywhValues[valueIndex + 3]));
+    }
+
+    /**
+     * Draws points — routed through fill() so each marker gets rough fill.
+     */
+    @Override
+    public void drawPoints(double[] xyCoords, int pointCount, Shape aMarker)
+    {
+        for (int i = 0, coordIndex = 0; i < pointCount; i++, coordIndex += 2) {
+            Transform pointTrans = new Transform(xyCoords[coordIndex], xyCoords[coordIndex + 1]);
+            fill(aMarker.copyForTransform(pointTrans));
+        }
+    }
+
     // -------- Rough Outline Generation --------
 
     /**
@@ -69,6 +69,11 @@ public class PropChange {
      */
     public Object getNewValue()  { return _newVal; }
 
+    /**
+     * Sets the old and new values (used by UndoSet to spill and restore values).
+     */
+    void setValues(Object oldVal, Object newVal)  { _oldVal = oldVal; _newVal = newVal; }
+
     /**
      * Returns the index.
      */
@@ -3,8 +3,10 @@
  */
 package snap.props;
 import snap.util.ArrayUtils;
-
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A class to easily add propery change support to a class (and DeepChange support).
@@ -19,6 +21,15 @@ public class PropChangeSupport {
     
     // The named prop (optional)
     private String[]  _lsnrProps = EMPTY_PROP_ARRAY;
+
+    // The prop IDs of named props, parallel to listeners (-1 for listeners of all props)
+    private int[]  _lsnrPropIds = EMPTY_PROP_ID_ARRAY;
+
+    // The number of listeners for all props
+    private int  _allPropsLsnrCount;
+
+    // A bit set of prop IDs that have listeners
+    private long[]  _lsnrPropIdBits = EMPTY_PROP_ID_BITS;
     
     // The DeepChangeListener
     private DeepChangeListener[]  _deepLsnrs = EMPTY_DEEP_ARRAY;
@@ -27,6 +38,11 @@ public class PropChangeSupport {
     private static final PropChangeListener[] EMPTY_LISTENER_ARRAY = new PropChangeListener[0];
     private static final String[] EMPTY_PROP_ARRAY = new String[0];
     private static final DeepChangeListener[] EMPTY_DEEP_ARRAY = new DeepChangeListener[0];
+    private static final int[] EMPTY_PROP_ID_ARRAY = new int[0];
+    private static final long[] EMPTY_PROP_ID_BITS = new long[0];
+
+    // The global map of prop names to prop IDs (assigned when first listened to)
+    private static final Map<String,Integer> _propIds = new ConcurrentHashMap<>();
 
     // An empty PropChangeSupport
     public static final PropChangeSupport EMPTY = new PropChangeSupport("");
@@ -53,6 +69,7 @@ public class PropChangeSupport {
         // Add to listener and prop array
         _lsnrs = ArrayUtils.add(_lsnrs, aLsnr);
         _lsnrProps = ArrayUtils.add(_lsnrProps, null);
+        resetListenerIndex();
     }
 
     /**
@@ -66,6 +83,7 @@ public class PropChangeSupport {
                 _lsnrProps = ArrayUtils.remove(_lsnrProps, i);
             }
         }
+        resetListenerIndex();
     }
 
     /**
@@ -82,6 +100,7 @@ public class PropChangeSupport {
         // Add to listener and prop array
         _lsnrs = ArrayUtils.add(_lsnrs, aLsnr);
         _lsnrProps = ArrayUtils.add(_lsnrProps, aProp);
+        resetListenerIndex();
     }
 
     /**
@@ -95,6 +114,39 @@ public class PropChangeSupport {
                 _lsnrProps = ArrayUtils.remove(_lsnrProps, i);
             }
         }
+        resetListenerIndex();
+    }
+
+    /**
+     * Resets listener prop IDs, count of listeners for all props and bit set of prop IDs with listeners.
+     */
+    private void resetListenerIndex()
+    {
+        int[] lsnrPropIds = new int[_lsnrProps.length];
+        int allPropsLsnrCount = 0;
+        long[] lsnrPropIdBits = EMPTY_PROP_ID_BITS;
+
+        // Iterate over listener props and set prop ID (or count if listener for all props)
+        for (int i = 0; i < _lsnrProps.length; i++) {
+            String prop = _lsnrProps[i];
+            if (prop == null) {
+                lsnrPropIds[i] = -1;
+                allPropsLsnrCount++;
+                continue;
+            }
+
+            // Get prop ID and set bit
+            int propId = lsnrPropIds[i] = getPropId(prop);
+            int bitsIndex = propId >> 6;
+            if (bitsIndex >= lsnrPropIdBits.length)
+                lsnrPropIdBits = Arrays.copyOf(lsnrPropIdBits, bitsIndex + 1);
+            lsnrPropIdBits[bitsIndex] |= 1L << propId;
+        }
+
+        // Set
+        _lsnrPropIds = lsnrPropIds;
+        _allPropsLsnrCount = allPropsLsnrCount;
+        _lsnrPropIdBits = lsnrPropIdBits;
     }
 
     /**
@@ -102,11 +154,23 @@ public class PropChangeSupport {
      */
     public boolean hasListener(String aProp)
     {
-        for (int i = 0; i < _lsnrs.length; i++) {
-            if (_lsnrProps[i] == null || aProp == null || Objects.equals(_lsnrProps[i], aProp))
-                return true;
-        }
-        return false;
+        // If listeners for all props (or no prop given), return whether any listeners
+        if (_allPropsLsnrCount > 0 || aProp == null)
+            return _lsnrs.length > 0;
+
+        // Return whether prop ID bit is set
+        int propId = getPropIdIfAssigned(aProp);
+        return isListenerPropId(propId);
+    }
+
+    /**
+     * Returns whether there is a named listener for given prop ID.
+     */
+    private boolean isListenerPropId(int propId)
+    {
+        if (propId < 0) return false;
+        int bitsIndex = propId >> 6;
+        return bitsIndex < _lsnrPropIdBits.length && (_lsnrPropIdBits[bitsIndex] & (1L << propId)) != 0;
     }
 
     /**
@@ -144,28 +208,37 @@ public class PropChangeSupport {
      */
     public void firePropChange(PropChange aPC)
     {
-        String propName = aPC.getPropName();
+        // Get prop ID (if no named listener for prop, only listeners for all props will match)
+        int propId = getPropIdIfAssigned(aPC.getPropName());
+        if (_allPropsLsnrCount == 0 && !isListenerPropId(propId))
+            return;
+
+        // Iterate over listeners (local copies, since listeners can be removed during dispatch) and fire for matches
+        PropChangeListener[] lsnrs = _lsnrs;
+        int[] lsnrPropIds = _lsnrPropIds;
         boolean hasOneShot = false;
-        for (int i = 0; i < _lsnrs.length; i++) {
-            PropChangeListener lsnr = _lsnrs[i];
-            String prop = _lsnrProps[i];
-            if (prop == null || prop.equals(propName)) {
+        for (int i = 0; i < lsnrs.length; i++) {
+            int lsnrPropId = lsnrPropIds[i];
+            if (lsnrPropId < 0 || lsnrPropId == propId) {
+                PropChangeListener lsnr = lsnrs[i];
                 lsnr.handlePropChange(aPC);
                 hasOneShot |= lsnr instanceof PropChangeListener.OneShot;
             }
         }
 
+        // If one shot listeners were fired, remove them
         if (hasOneShot) {
             for (int i = _lsnrs.length - 1; i >= 0; i--) {
                 PropChangeListener lsnr = _lsnrs[i];
                 if (lsnr instanceof PropChangeListener.OneShot) {
-                    String prop = _lsnrProps[i];
-                    if (prop == null || prop.equals(propName)) {
+                    int lsnrPropId = _lsnrPropIds[i];
+                    if (lsnrPropId < 0 || lsnrPropId == propId) {
                         _lsnrs = ArrayUtils.remove(_lsnrs, i);
                         _lsnrProps = ArrayUtils.remove(_lsnrProps, i);
                     }
                 }
             }
+            resetListenerIndex();
         }
     }
 
@@ -232,4 +305,27 @@ public class PropChangeSupport {
         for (DeepChangeListener lsnr : _deepLsnrs)
             lsnr.deepChange(aSrc, aPC);
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the global prop ID for given prop name (assigning a new one if needed).
+     */
+    private static int getPropId(String aProp)
+    {
+        Integer propId = _propIds.get(aProp);
+        if (propId != null)
+            return propId;
+        synchronized (_propIds) {
+            return _propIds.computeIfAbsent(aProp, prop -> _propIds.size());
+        }
+    }
+
+    /**
+     * Returns the global prop ID for given prop name, or -1 if none assigned (no listener has ever used prop name).
+     */
+    private static int getPropIdIfAssigned(String aProp)
+    {
+        if (aProp == null) return -1;
+        Integer propId = _propIds.get(aProp);
+        return propId != null ? propId : -1;
+    }
+}
@@ -191,7 +191,7 @@ public abstract class PropObject {
      */
     protected final void firePropChange(String aProp, Object oldVal, Object newVal)
     {
-        if (_pcs == PropChangeSupport.EMPTY) return; // if (!_pcs.hasListener(aProp)) return;
+        if (!_pcs.hasListener(aProp)) return;
         PropChange propChange = new PropChange(this, aProp, oldVal, newVal);
         firePropChange(propChange);
     }
@@ -201,11 +201,31 @@ public abstract class PropObject {
      */
     protected final void firePropChange(String aProp, Object oldVal, Object newVal, int anIndex)
     {
-        if (_pcs == PropChangeSupport.EMPTY) return; // if (!_pcs.hasListener(aProp)) return;
+        if (!_pcs.hasListener(aProp)) return;
         PropChange propChange = new PropChange(this, aProp, oldVal, newVal, anIndex);
         firePropChange(propChange);
     }
 
+    /**
+     * Fires a property change for given property name and primitive double values (only boxed if prop has listener).
+     */
+    protected final void fireDoubleChange(String aProp, double oldVal, double newVal)
+    {
+        if (!_pcs.hasListener(aProp)) return;
+        PropChange propChange = new PropChange(this, aProp, oldVal, newVal);
+        firePropChange(propChange);
+    }
+
+    /**
+     * Fires a property change for given property name and primitive int values (only boxed if prop has listener).
+     */
+    protected final void fireIntChange(String aProp, int oldVal, int newVal)
+    {
+        if (!_pcs.hasListener(aProp)) return;
+        PropChange propChange = new PropChange(this, aProp, oldVal, newVal);
+        firePropChange(propChange);
+    }
+
     /**
      * Fires a given property change.
      */
@@ -230,7 +250,7 @@ public abstract class PropObject {
      */
     protected void batchPropChange(String aProp, Object oldVal, Object newVal)
     {
-        if (_pcs == PropChangeSupport.EMPTY) return; // if (!_pcs.hasListener(aProp)) return;
+        if (!_pcs.hasListener(aProp)) return;
         PropChange propChange = new PropChange(this, aProp, oldVal, newVal);
         batchPropChange(propChange);
     }
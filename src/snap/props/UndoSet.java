@@ -3,7 +3,12 @@
  */
 package snap.props;
 import snap.util.ListUtils;
+import java.io.*;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
  * This class represents a single undo but holds a list of PropChanges.
@@ -25,6 +30,22 @@ public class UndoSet {
     // Whether this set is fully closed (can't try to merge)
     protected boolean _closed;
 
+    // The estimated memory size in bytes (-1 if not yet computed)
+    private long _estimatedSize = -1;
+
+    // The estimated size counted for this set in Undoer undo size
+    protected long _undoerSize;
+
+    // The spilled text values (deflated) and bit set of spilled values (two bits per change: old, new)
+    private byte[] _spilledBytes;
+    private BitSet _spilledValues;
+
+    // The estimated memory size of a PropChange with no values
+    private static final int PROP_CHANGE_SIZE = 48;
+
+    // The min number of text chars in set worth spilling
+    private static final int MIN_SPILL_CHARS = 256;
+
     /**
      * Creates a new empty undo set.
      */
@@ -58,9 +79,14 @@ public class UndoSet {
     public int getChangeCount()  { return _changes.size(); }
 
     /**
-     * Returns the selection to be set if undo is executed.
+     * Returns the list of changes (restoring spilled values if needed).
      */
-    public List<PropChange> getChanges()  { return _changes; }
+    public List<PropChange> getChanges()
+    {
+        if (_spilledBytes != null)
+            unspill();
+        return _changes;
+    }
 
     /**
      * Returns the selection to be set if undo is executed.
@@ -80,9 +106,13 @@ public class UndoSet {
      */
     public boolean mergePropChange(PropChange newPC)
     {
+        // Get changes and clear estimated size
+        List<PropChange> changes = getChanges();
+        _estimatedSize = -1;
+
         // Iterate over changes and if duplicate exists, coalesce (go backward so we only check last same prop name event)
-        for (int i = _changes.size() - 1; i >= 0; i--) {
-            PropChange oldPC = _changes.get(i);
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            PropChange oldPC = changes.get(i);
 
             // If source and prop are equal, try merge
             if (oldPC.getSource() == newPC.getSource() && oldPC.getPropName().equals(newPC.getPropName())) {
@@ -93,9 +123,9 @@ public class UndoSet {
                     return false;
 
                 // Remove old event and add new
-                _changes.remove(i);
+                changes.remove(i);
                 if (!Objects.equals(mergePC.getOldValue(), mergePC.getNewValue()))
-                    _changes.add(mergePC);
+                    changes.add(mergePC);
                 return true;
             }
         }
@@ -109,14 +139,18 @@ public class UndoSet {
      */
     public void addPropChange(PropChange anEvent)
     {
+        // Get changes and clear estimated size
+        List<PropChange> changes = getChanges();
+        _estimatedSize = -1;
+
         // Iterate over changes and if duplicate exists, coalesce (go backward so we only check last same prop name event)
-        for (int i = _changes.size() - 1; i >= 0; i--) {
-            PropChange e = _changes.get(i);
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            PropChange e = changes.get(i);
             if (e.getSource() == anEvent.getSource() && e.getPropName().equals(anEvent.getPropName())) {
                 PropChange event = e.merge(anEvent);
                 if (event != null) {
                     anEvent = event;
-                    _changes.remove(i);
+                    changes.remove(i);
                 }
                 break;
             }
@@ -127,7 +161,7 @@ public class UndoSet {
             return;
 
         // Add change
-        _changes.add(anEvent);
+        changes.add(anEvent);
     }
 
     /**
@@ -136,8 +170,9 @@ public class UndoSet {
     public void undo()
     {
         // Iterate over changes and execute
-        for (int i = _changes.size() - 1; i >= 0; i--) {
-            PropChange pce = _changes.get(i);
+        List<PropChange> changes = getChanges();
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            PropChange pce = changes.get(i);
             System.out.println("Undoing " + getPropChangeString(pce, true));
             pce.undoChange();
         }
@@ -153,7 +188,7 @@ public class UndoSet {
     public void redo()
     {
         // Iterate over changes and execute
-        for (PropChange pce : _changes) {
+        for (PropChange pce : getChanges()) {
             System.out.println("Redoing " + getPropChangeString(pce, false));
             pce.redoChange();
         }
@@ -171,6 +206,146 @@ public class UndoSet {
         _undoTitle = null;
         _undoSelection = _redoSelection = null;
         _changes.clear();
+        _estimatedSize = -1;
+        _spilledBytes = null;
+        _spilledValues = null;
+    }
+
+    /**
+     * Returns the estimated memory size of this set in bytes (values referenced by changes are estimated shallowly,
+     * except for text and arrays, which are usually owned by the change).
+     */
+    public long getEstimatedSize()
+    {
+        // If already set, just return
+        if (_estimatedSize >= 0) return _estimatedSize;
+
+        // Sum change sizes (spilled values are null, so they are counted by spilled bytes length)
+        long size = PROP_CHANGE_SIZE;
+        for (PropChange propChange : _changes)
+            size += PROP_CHANGE_SIZE + getEstimatedSizeForValue(propChange.getOldValue()) + getEstimatedSizeForValue(propChange.getNewValue());
+        if (_spilledBytes != null)
+            size += _spilledBytes.length;
+
+        // Set and return
+        return _estimatedSize = size;
+    }
+
+    /**
+     * Returns whether text values of this set are spilled to compact form.
+     */
+    public boolean isSpilled()  { return _spilledBytes != null; }
+
+    /**
+     * Spills text values of changes to compact (deflated) form, to be restored on next access to changes. Returns
+     * whether anything was spilled.
+     */
+    protected boolean spill()
+    {
+        // If already spilled or not enough text to be worth it, just return
+        if (_spilledBytes != null) return false;
+        long charCount = 0;
+        for (PropChange propChange : _changes)
+            charCount += getCharCount(propChange.getOldValue()) + getCharCount(propChange.getNewValue());
+        if (charCount < MIN_SPILL_CHARS)
+            return false;
+
+        // Write text values to deflated bytes and clear from changes
+        BitSet spilledValues = new BitSet(_changes.size() * 2);
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        try (DataOutputStream dataOut = new DataOutputStream(new DeflaterOutputStream(bytesOut))) {
+            for (int i = 0; i < _changes.size(); i++) {
+                PropChange propChange = _changes.get(i);
+                Object oldVal = propChange.getOldValue();
+                Object newVal = propChange.getNewValue();
+                if (oldVal instanceof CharSequence) {
+                    writeChars(dataOut, (CharSequence) oldVal);
+                    spilledValues.set(i * 2);
+                    oldVal = null;
+                }
+                if (newVal instanceof CharSequence) {
+                    writeChars(dataOut, (CharSequence) newVal);
+                    spilledValues.set(i * 2 + 1);
+                    newVal = null;
+                }
+                propChange.setValues(oldVal, newVal);
+            }
+        }
+        catch (IOException e) { throw new RuntimeException(e); }
+
+        // Set spilled bytes and reset estimated size
+        _spilledBytes = bytesOut.toByteArray();
+        _spilledValues = spilledValues;
+        _estimatedSize = -1;
+        return true;
+    }
+
+    /**
+     * Restores spilled text values of changes.
+     */
+    private void unspill()
+    {
+        // Read text values from deflated bytes and restore to changes
+        try (DataInputStream dataIn = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(_spilledBytes)))) {
+            for (int i = 0; i < _changes.size(); i++) {
+                PropChange propChange = _changes.get(i);
+                Object oldVal = _spilledValues.get(i * 2) ? readChars(dataIn) : propChange.getOldValue();
+                Object newVal = _spilledValues.get(i * 2 + 1) ? readChars(dataIn) : propChange.getNewValue();
+                propChange.setValues(oldVal, newVal);
+            }
+        }
+        catch (IOException e) { throw new RuntimeException(e); }
+
+        // Clear spilled bytes and reset estimated size
+        _spilledBytes = null;
+        _spilledValues = null;
+        _estimatedSize = -1;
+    }
+
+    /**
+     * Writes given chars as length prefixed UTF-8.
+     */
+    private static void writeChars(DataOutputStream dataOut, CharSequence theChars) throws IOException
+    {
+        byte[] bytes = theChars.toString().getBytes(StandardCharsets.UTF_8);
+        dataOut.writeInt(bytes.length);
+        dataOut.write(bytes);
+    }
+
+    /**
+     * Reads length prefixed UTF-8 chars.
+     */
+    private static String readChars(DataInputStream dataIn) throws IOException
+    {
+        byte[] bytes = new byte[dataIn.readInt()];
+        dataIn.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the char count for given value (zero if not text).
+     */
+    private static int getCharCount(Object aValue)
+    {
+        return aValue instanceof CharSequence ? ((CharSequence) aValue).length() : 0;
+    }
+
+    /**
+     * Returns the estimated memory size of given change value.
+     */
+    private static long getEstimatedSizeForValue(Object aValue)
+    {
+        if (aValue == null)
+            return 0;
+        if (aValue instanceof CharSequence)
+            return 40 + ((CharSequence) aValue).length() * 2L;
+        if (aValue instanceof byte[])
+            return 16 + ((byte[]) aValue).length;
+        if (aValue.getClass().isArray())
+            return 16 + Array.getLength(aValue) * 8L;
+        if (aValue instanceof Collection)
+            return 40 + ((Collection<?>) aValue).size() * 8L;
+        return 16;
     }
 
     /**
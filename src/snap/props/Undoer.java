@@ -29,8 +29,23 @@ public class Undoer extends PropObject {
     // Whether undoer is at last save state for client
     private boolean _atLastSaveState;
 
-    // The undo state at last save state for client
-    private List<UndoSet> _lastSaveState;
+    // The last undo set at last save state for client (null if there were no undos)
+    private UndoSet _lastSaveUndoSet;
+
+    // The max number of undo sets (0 for no limit)
+    private int _maxUndoCount = DEFAULT_MAX_UNDO_COUNT;
+
+    // The max estimated memory size of undo sets in bytes (0 for no limit)
+    private long _maxUndoSize = DEFAULT_MAX_UNDO_SIZE;
+
+    // Whether to spill text of old undo sets to compact form before evicting for size
+    private boolean _spillEnabled;
+
+    // The estimated memory size of undo sets in bytes (sum of undo set UndoerSize values)
+    private long _undoSize;
+
+    // The number of undo sets evicted
+    private long _evictedUndoCount;
 
     // The run to auto save
     private Runnable _autoSaveRun;
@@ -38,9 +53,16 @@ public class Undoer extends PropObject {
     // Constants for properties
     public static final String AtLastSaveState_Prop = "AtLastSaveState";
 
+    // Constants for default limits
+    public static final int DEFAULT_MAX_UNDO_COUNT = 1000;
+    public static final long DEFAULT_MAX_UNDO_SIZE = 32 * 1024 * 1024;
+
     // A shared instance of an Undoer that is disabled
     public static final Undoer DISABLED_UNDOER = new DisabledUndoer();
 
+    // A marker for LastSaveUndoSet when undo set at last save state was evicted (so it can't match again)
+    private static final UndoSet UNREACHABLE_SAVE_UNDO_SET = new UndoSet();
+
     /**
      * Constructor.
      */
@@ -51,7 +73,7 @@ public class Undoer extends PropObject {
         _undoSets = new ArrayList<>();
         _redoSets = new ArrayList<>();
         _activeUndoSet = new UndoSet();
-        markLastSaveState();
+        _atLastSaveState = true;
     }
 
     /**
@@ -93,6 +115,66 @@ public class Undoer extends PropObject {
      */
     public void setAutoSave(boolean aValue)  { _autoSave = aValue; }
 
+    /**
+     * Returns the max number of undo sets (0 for no limit).
+     */
+    public int getMaxUndoCount()  { return _maxUndoCount; }
+
+    /**
+     * Sets the max number of undo sets (oldest are evicted first).
+     */
+    public void setMaxUndoCount(int aValue)
+    {
+        _maxUndoCount = aValue;
+        trimUndoSets();
+    }
+
+    /**
+     * Returns the max estimated memory size of undo sets in bytes (0 for no limit).
+     */
+    public long getMaxUndoSize()  { return _maxUndoSize; }
+
+    /**
+     * Sets the max estimated memory size of undo sets in bytes (oldest undo sets are spilled or evicted first). Redo sets
+     * aren't counted, since they were undo sets within limit and are cleared by the next change.
+     */
+    public void setMaxUndoSize(long aValue)
+    {
+        _maxUndoSize = aValue;
+        trimUndoSets();
+    }
+
+    /**
+     * Returns whether to spill text of old undo sets to compact form before evicting them for size.
+     */
+    public boolean isSpillEnabled()  { return _spillEnabled; }
+
+    /**
+     * Sets whether to spill text of old undo sets to compact form before evicting them for size.
+     */
+    public void setSpillEnabled(boolean aValue)
+    {
+        _spillEnabled = aValue;
+        trimUndoSets();
+    }
+
+    /**
+     * Returns the estimated memory size of undo sets in bytes.
+     */
+    public long getUndoSize()
+    {
+        // Update size of last undo set, since it can still merge changes
+        UndoSet lastUndoSet = getLastUndoSet();
+        if (lastUndoSet != null)
+            updateUndoSize(lastUndoSet);
+        return _undoSize;
+    }
+
+    /**
+     * Returns the number of undo sets evicted to stay within limits.
+     */
+    public long getEvictedUndoCount()  { return _evictedUndoCount; }
+
     /**
      * Sets the list of objects that should be selected after current undo is fired.
      */
@@ -122,6 +204,9 @@ public class Undoer extends PropObject {
         if (!didMerge)
             _activeUndoSet.addPropChange(propChange);
 
+        // If merged into last undo set, evict or spill old undo sets if now over limits
+        else trimUndoSets();
+
         // If AutoSave, register to call saveChange()
         if (_autoSave) {
             if (_autoSaveRun == null) {
@@ -169,13 +254,16 @@ public class Undoer extends PropObject {
         if (!_activeUndoSet.isEmpty()) {
 
             // Add current undo
-            _undoSets.add(_activeUndoSet);
+            addUndoSet(_activeUndoSet);
 
             // Create new current undo
             _activeUndoSet = new UndoSet();
 
             // Clear redos
             _redoSets.clear();
+
+            // Evict or spill old undo sets if over limits
+            trimUndoSets();
         }
 
         // If no outstanding changes, just reset current undo
@@ -185,6 +273,83 @@ public class Undoer extends PropObject {
         _autoSaveRun = null;
     }
 
+    /**
+     * Evicts oldest undo sets while over max count or size (spilling oldest sets first for size, if enabled).
+     */
+    private void trimUndoSets()
+    {
+        // Evict oldest undo sets while over max count
+        while (_maxUndoCount > 0 && _undoSets.size() > _maxUndoCount)
+            evictOldestUndoSet();
+
+        // If no size limit or under it, just return
+        if (_maxUndoSize <= 0)
+            return;
+        if (getUndoSize() <= _maxUndoSize)
+            return;
+
+        // If spill enabled, spill oldest undo sets until under limit (skip last set, since it may still merge changes)
+        if (_spillEnabled) {
+            for (int i = 0, iMax = _undoSets.size() - 1; i < iMax && _undoSize > _maxUndoSize; i++) {
+                UndoSet undoSet = _undoSets.get(i);
+                if (undoSet.spill())
+                    updateUndoSize(undoSet);
+            }
+        }
+
+        // Evict oldest undo sets while over limit (always keep last one)
+        while (_undoSize > _maxUndoSize && _undoSets.size() > 1)
+            evictOldestUndoSet();
+    }
+
+    /**
+     * Removes the oldest undo set.
+     */
+    private void evictOldestUndoSet()
+    {
+        UndoSet undoSet = removeUndoSet(0);
+        _evictedUndoCount++;
+
+        // If last save state was at or before evicted set, it can't be reached by undo anymore
+        if (_lastSaveUndoSet == null || _lastSaveUndoSet == undoSet)
+            _lastSaveUndoSet = UNREACHABLE_SAVE_UNDO_SET;
+    }
+
+    /**
+     * Adds given undo set to end of undo sets and adds its estimated size to undo size.
+     */
+    private void addUndoSet(UndoSet anUndoSet)
+    {
+        // Update size of previous last undo set (it may have merged changes) and add set
+        UndoSet lastUndoSet = getLastUndoSet();
+        if (lastUndoSet != null)
+            updateUndoSize(lastUndoSet);
+        _undoSets.add(anUndoSet);
+        anUndoSet._undoerSize = anUndoSet.getEstimatedSize();
+        _undoSize += anUndoSet._undoerSize;
+    }
+
+    /**
+     * Removes the undo set at given index and removes its counted size from undo size.
+     */
+    private UndoSet removeUndoSet(int anIndex)
+    {
+        UndoSet undoSet = _undoSets.remove(anIndex);
+        _undoSize -= undoSet._undoerSize;
+        undoSet._undoerSize = 0;
+        return undoSet;
+    }
+
+    /**
+     * Updates undo size for current estimated size of given undo set (after merge or spill).
+     */
+    private void updateUndoSize(UndoSet anUndoSet)
+    {
+        long size = anUndoSet.getEstimatedSize();
+        _undoSize += size - anUndoSet._undoerSize;
+        anUndoSet._undoerSize = size;
+    }
+
     /**
      * Saves changes and closes last undo set.
      */
@@ -210,7 +375,7 @@ public class Undoer extends PropObject {
         // If there are Undos, remove last undo, execute and add to RedoSets
         UndoSet undoSet = null;
         if (!_undoSets.isEmpty()) {
-            undoSet = _undoSets.remove(_undoSets.size() - 1);
+            undoSet = removeUndoSet(_undoSets.size() - 1);
             undoSet._closed = true;
             _redoSets.add(undoSet);
             undoSet.undo();
@@ -237,8 +402,9 @@ public class Undoer extends PropObject {
         UndoSet undoSet = null;
         if (!_redoSets.isEmpty()) {
             undoSet = _redoSets.remove(_redoSets.size() - 1);
-            _undoSets.add(undoSet);
+            addUndoSet(undoSet);
             undoSet.redo();
+            trimUndoSets();
         }
 
         // Enable undoer and return UndoSet
@@ -270,6 +436,7 @@ public class Undoer extends PropObject {
         _activeUndoSet.reset();
         _undoSets.clear();
         _redoSets.clear();
+        _undoSize = 0;
         _disabled = 0;
         resetAtLastSaveState();
     }
@@ -309,7 +476,8 @@ public class Undoer extends PropObject {
      */
     private void resetAtLastSaveState()
     {
-        boolean atLastSaveState = _lastSaveState.equals(_undoSets);
+        // Undo sets are a stack and last undo set isn't modified while at last save state, so same last undo set means same state
+        boolean atLastSaveState = getLastUndoSet() == _lastSaveUndoSet;
         setAtLastSaveState(atLastSaveState);
     }
 
@@ -319,7 +487,7 @@ public class Undoer extends PropObject {
     public void markLastSaveState()
     {
         if (isAtLastSaveState()) return;
-        _lastSaveState = List.copyOf(_undoSets);
+        _lastSaveUndoSet = getLastUndoSet();
         setAtLastSaveState(true);
     }
 
@@ -2,6 +2,8 @@ package snap.swing;
 import java.awt.*;
 import java.awt.image.*;
 import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.IntConsumer;
 import java.util.stream.IntStream;
 import javax.imageio.ImageIO;
@@ -293,6 +295,134 @@ public class AWTImageUtils {
         return gaussianKernel;
     }
 
+    /**
+     * Blurs given premultiplied ARGB pixels in place with three box blur passes that approximate a Gaussian blur of
+     * given radius. Uses running sums, so cost per pixel is independent of radius.
+     */
+    public static void boxBlur(int[] thePix, int pixW, int pixH, int aRad)
+    {
+        // Get box radii for three passes that approximate Gaussian with same deviation as getGaussianKernel()
+        int[] boxRadii = getBoxRadiiForGaussian(aRad / 3d, 3);
+        int[] tempPix = new int[pixW * pixH];
+
+        // Run horizontal pass then vertical pass for each box
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (int boxRad : boxRadii) {
+            if (boxRad < 1) continue;
+            pool.invoke(new BoxBlurTask(thePix, tempPix, pixW, pixH, boxRad, true, 0, pixH));
+            pool.invoke(new BoxBlurTask(tempPix, thePix, pixW, pixH, boxRad, false, 0, pixW));
+        }
+    }
+
+    /**
+     * Returns the box radii for given number of box blur passes to approximate a Gaussian of given deviation.
+     */
+    private static int[] getBoxRadiiForGaussian(double aDev, int aCount)
+    {
+        // Get ideal box width and the odd widths just below and above it
+        double idealW = Math.sqrt(12 * aDev * aDev / aCount + 1);
+        int lowerW = (int) Math.floor(idealW);
+        if (lowerW % 2 == 0) lowerW--;
+        int upperW = lowerW + 2;
+
+        // Get number of passes that use lower width so variance matches
+        double idealLowerCount = (12 * aDev * aDev - aCount * lowerW * lowerW - 4 * aCount * lowerW - 3 * aCount) / (-4 * lowerW - 4);
+        int lowerCount = (int) Math.round(idealLowerCount);
+
+        // Return box radii
+        int[] boxRadii = new int[aCount];
+        for (int i = 0; i < aCount; i++)
+            boxRadii[i] = ((i < lowerCount ? lowerW : upperW) - 1) / 2;
+        return boxRadii;
+    }
+
+    /**
+     * A fork/join task to box blur a range of rows (horizontal) or columns (vertical) from source to dest pixels.
+     */
+    private static class BoxBlurTask extends RecursiveAction {
+
+        // Serial version (tasks are never serialized)
+        private static final long serialVersionUID = 1L;
+
+        // The source and dest pixels, size, box radius and whether horizontal
+        private int[] _srcPix, _destPix;
+        private int _pixW, _pixH, _rad;
+        private boolean _horizontal;
+
+        // The range of rows or columns
+        private int _start, _end;
+
+        // The minimum number of pixels to blur in a single task
+        private static final int MIN_TASK_PIXELS = 64 * 1024;
+
+        /**
+         * Constructor.
+         */
+        BoxBlurTask(int[] srcPix, int[] destPix, int pixW, int pixH, int aRad, boolean isHorizontal, int aStart, int anEnd)
+        {
+            _srcPix = srcPix; _destPix = destPix;
+            _pixW = pixW; _pixH = pixH;
+            _rad = aRad;
+            _horizontal = isHorizontal;
+            _start = aStart; _end = anEnd;
+        }
+
+        @Override
+        protected void compute()
+        {
+            // If range is too big, split in half
+            int lineLength = _horizontal ? _pixW : _pixH;
+            int lineCount = _end - _start;
+            if (lineCount > 1 && lineCount * lineLength > MIN_TASK_PIXELS) {
+                int mid = _start + lineCount / 2;
+                invokeAll(new BoxBlurTask(_srcPix, _destPix, _pixW, _pixH, _rad, _horizontal, _start, mid),
+                          new BoxBlurTask(_srcPix, _destPix, _pixW, _pixH, _rad, _horizontal, mid, _end));
+                return;
+            }
+
+            // Blur lines: for horizontal, lines are rows (step 1), for vertical, columns (step pixW)
+            int step = _horizontal ? 1 : _pixW;
+            for (int line = _start; line < _end; line++) {
+                int lineOffset = _horizontal ? line * _pixW : line;
+                blurLine(lineOffset, step, lineLength);
+            }
+        }
+
+        /**
+         * Blurs a single line of pixels with a running sum per channel (pixels outside the line are transparent).
+         */
+        private void blurLine(int lineOffset, int step, int lineLength)
+        {
+            int rad = _rad;
+            float boxScale = 1f / (rad * 2 + 1);
+            int sumA = 0, sumR = 0, sumG = 0, sumB = 0;
+
+            // Prime sums with pixels in window for first pixel
+            for (int i = 0, iMax = Math.min(rad, lineLength - 1); i <= iMax; i++) {
+                int pixel = _srcPix[lineOffset + i * step];
+                sumA += pixel >>> 24; sumR += (pixel >> 16) & 0xff; sumG += (pixel >> 8) & 0xff; sumB += pixel & 0xff;
+            }
+
+            // Iterate over line pixels: set average, then slide window by adding next pixel and removing last
+            for (int i = 0, offset = lineOffset; i < lineLength; i++, offset += step) {
+                int a = (int) (sumA * boxScale + .5f), r = (int) (sumR * boxScale + .5f);
+                int g = (int) (sumG * boxScale + .5f), b = (int) (sumB * boxScale + .5f);
+                _destPix[offset] = a << 24 | r << 16 | g << 8 | b;
+
+                int addIndex = i + rad + 1;
+                if (addIndex < lineLength) {
+                    int pixel = _srcPix[lineOffset + addIndex * step];
+                    sumA += pixel >>> 24; sumR += (pixel >> 16) & 0xff; sumG += (pixel >> 8) & 0xff; sumB += pixel & 0xff;
+                }
+                int removeIndex = i - rad;
+                if (removeIndex >= 0) {
+                    int pixel = _srcPix[lineOffset + removeIndex * step];
+                    sumA -= pixel >>> 24; sumR -= (pixel >> 16) & 0xff; sumG -= (pixel >> 8) & 0xff; sumB -= pixel & 0xff;
+                }
+            }
+        }
+    }
+
     /**
      * Runs the given int consumer in given number of threads.
      */
@@ -302,4 +432,66 @@ public class AWTImageUtils {
             aConsumer.accept(0);
         else IntStream.range(0, threadCount).parallel().forEach(aConsumer);
     }
-}
\ No newline at end of file
+
+    /**
+     * Blurs given pixels with exact Gaussian (two 1D convolves) or box blur approximation and returns milliseconds.
+     */
+    public static double runBenchmark(int[] thePix, int pixW, int pixH, int aRad, boolean isBoxBlur)
+    {
+        long startNanos = System.nanoTime();
+        if (isBoxBlur)
+            boxBlur(thePix, pixW, pixH, aRad);
+        else {
+            int[] tpix = new int[pixW * pixH];
+            float[] kern1 = getGaussianKernel(aRad, 0);
+            convolve(thePix, tpix, pixW, pixH, kern1, aRad * 2 + 1);
+            convolve(tpix, thePix, pixW, pixH, kern1, 1);
+        }
+        return (System.nanoTime() - startNanos) / 1e6;
+    }
+
+    /**
+     * Returns premultiplied ARGB pixels of shapes with transparent background (for benchmark).
+     */
+    private static int[] createBenchmarkPixels(int pixW, int pixH)
+    {
+        int[] pix = new int[pixW * pixH];
+        for (int y = 0; y < pixH; y++) {
+            for (int x = 0; x < pixW; x++) {
+                boolean inRect = x % 200 > 40 && x % 200 < 160 && y % 150 > 30 && y % 150 < 120;
+                if (inRect)
+                    pix[y * pixW + x] = (x + y) % 3 == 0 ? 0xff204080 : 0xff000000;
+            }
+        }
+        return pix;
+    }
+
+    /**
+     * Runs benchmark comparing exact Gaussian blur and box blur approximation: AWTImageUtils [width] [height].
+     */
+    public static void main(String[] args)
+    {
+        int pixW = args.length > 0 ? Integer.parseInt(args[0]) : 1200;
+        int pixH = args.length > 1 ? Integer.parseInt(args[1]) : 900;
+        int[] pix = createBenchmarkPixels(pixW, pixH);
+        runBenchmark(pix.clone(), pixW, pixH, 8, false); // Warm up
+        runBenchmark(pix.clone(), pixW, pixH, 8, true);
+
+        // Iterate over radii and print times and max channel difference of approximation (convolve skips edge pixels)
+        for (int rad : new int[] { 2, 4, 8, 16, 32 }) {
+            int[] exactPix = null, boxPix = null;
+            double exactMillis = Double.MAX_VALUE, boxMillis = Double.MAX_VALUE;
+            for (int run = 0; run < 3; run++) { // Best of 3
+                exactMillis = Math.min(exactMillis, runBenchmark(exactPix = pix.clone(), pixW, pixH, rad, false));
+                boxMillis = Math.min(boxMillis, runBenchmark(boxPix = pix.clone(), pixW, pixH, rad, true));
+            }
+            int maxDiff = 0;
+            for (int y = rad * 2; y < pixH - rad * 2; y++) {
+                for (int x = rad * 2, i = y * pixW + x; x < pixW - rad * 2; x++, i++)
+                    for (int shift = 0; shift < 32; shift += 8)
+                        maxDiff = Math.max(maxDiff, Math.abs((exactPix[i] >>> shift & 0xff) - (boxPix[i] >>> shift & 0xff)));
+            }
+            System.out.printf("Radius %d: Exact %.1f ms, Box %.1f ms, Max channel diff %d\n", rad, exactMillis, boxMillis, maxDiff);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package snap.swing;
+import snap.util.Prefs;
+import snap.view.HeadlessViewEnv;
+
+/**
+ * An AWTEnv for servers and batch jobs with no display: Images and painters are Java2D image backed (which works with
+ * java.awt.headless), views run in a HeadlessViewEnv and desktop services (beep, open file, exit) do nothing.
+ */
+public class HeadlessEnv extends AWTEnv {
+
+    /**
+     * Constructor.
+     */
+    public HeadlessEnv()
+    {
+        super();
+    }
+
+    /**
+     * Override to return standard resolution.
+     */
+    @Override
+    public double getScreenResolution()  { return 72; }
+
+    /**
+     * Override to return standard scale.
+     */
+    @Override
+    public double getScreenDpiScale()  { return 1; }
+
+    /**
+     * Override to do nothing.
+     */
+    @Override
+    public void beep()  { }
+
+    /**
+     * Override to complain.
+     */
+    @Override
+    public void openFile(Object aSource)  { System.err.println("HeadlessEnv.openFile: Not supported: " + aSource); }
+
+    /**
+     * Override to complain.
+     */
+    @Override
+    public void openURL(Object aSource)  { System.err.println("HeadlessEnv.openURL: Not supported: " + aSource); }
+
+    /**
+     * Override to complain.
+     */
+    @Override
+    public void openTextFile(Object aSource)  { System.err.println("HeadlessEnv.openTextFile: Not supported: " + aSource); }
+
+    /**
+     * Override to return fake prefs (so batch jobs don't write user preferences).
+     */
+    @Override
+    public Prefs getPrefs(String aName)  { return Prefs.getFake(); }
+
+    /**
+     * Override to do nothing, so closing last offscreen window doesn't exit server.
+     */
+    @Override
+    public void exit(int aValue)  { }
+
+    /**
+     * Returns new HeadlessViewEnv.
+     */
+    @Override
+    protected snap.view.ViewEnv createViewEnv()  { return new HeadlessViewEnv(); }
+
+    /**
+     * Sets HeadlessEnv to be the default env (should be called before any views are created).
+     */
+    public static void set()
+    {
+        System.setProperty("java.awt.headless", "true");
+        if (!(_env instanceof HeadlessEnv))
+            _env = new HeadlessEnv();
+    }
+}
@@ -206,7 +206,7 @@ public class J2DImage extends Image {
     /**
      * Blurs the image by mixing pixels with those around it to given radius.
      */
-    public void blur(int aRad, Color aColor)
+    public void blur(int aRad, Color aColor, BlurQuality aQuality)
     {
         // If color provided, apply to image with SRC_IN
         if (aColor != null) {
@@ -219,16 +219,22 @@ public class J2DImage extends Image {
         // Make image premultiplied
         setPremultiplied(true);
 
-        // Get image data (and temp data)
+        // Get image data
         int pixW = getPixWidth();
         int pixH = getPixHeight();
         int[] spix = getArrayARGB(); if (spix == null) { System.err.println("Image.blur: No data"); return; }
-        int[] tpix = new int[pixW * pixH];
 
-        // Apply 1D gausian kernal for speed, as horizontal, then vertical (order = 2*rad instead of rad^2)
-        float[] kern1 = AWTImageUtils.getGaussianKernel(aRad,0); // size = aRad*2+1 x 1
-        AWTImageUtils.convolve(spix, tpix, pixW, pixH, kern1, aRad*2+1);  // Horizontal 1D, kern size = aRad*2+1 x 1
-        AWTImageUtils.convolve(tpix, spix, pixW, pixH, kern1, 1);         // Vertical 1D, kern size = 1 x aRad*2+1
+        // If speed requested, do box blur approximation (cost per pixel is independent of radius)
+        if (isBlurFast(aRad, aQuality))
+            AWTImageUtils.boxBlur(spix, pixW, pixH, aRad);
+
+        // Otherwise apply 1D gausian kernal for speed, as horizontal, then vertical (order = 2*rad instead of rad^2)
+        else {
+            int[] tpix = new int[pixW * pixH];
+            float[] kern1 = AWTImageUtils.getGaussianKernel(aRad,0); // size = aRad*2+1 x 1
+            AWTImageUtils.convolve(spix, tpix, pixW, pixH, kern1, aRad*2+1);  // Horizontal 1D, kern size = aRad*2+1 x 1
+            AWTImageUtils.convolve(tpix, spix, pixW, pixH, kern1, 1);         // Vertical 1D, kern size = 1 x aRad*2+1
+        }
 
         // Convert blur image to non-premultiplied and return
         setPremultiplied(false);
@@ -5,6 +5,8 @@ import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.font.FontRenderContext;
 import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
 import java.util.Arrays;
 import snap.geom.Shape;
@@ -34,6 +36,9 @@ public class J2DPainter extends Painter {
     // The size of graphics stack
     private int  _gsize;
 
+    // A shared transform for drawPoints marker placement
+    private AffineTransform  _pointTrans = new AffineTransform();
+
     /**
      * Creates a new J2DPainter.
      */
@@ -172,6 +177,51 @@ public class J2DPainter extends Painter {
         _gfx.fill(AWT.snapToAwtShape(aShape));
     }
 
+    /**
+     * Draws a polyline as a single Java2D path.
+     */
+    public void drawPolyline(double[] xyCoords, int pointCount)
+    {
+        if (pointCount < 2) return;
+        Path2D.Double path = new Path2D.Double(Path2D.WIND_NON_ZERO, pointCount);
+        path.moveTo(xyCoords[0], xyCoords[1]);
+        for (int i = 1, coordIndex = 2; i < pointCount; i++, coordIndex += 2)
+            path.lineTo(xyCoords[coordIndex], xyCoords[coordIndex + 1]);
+        _gfx.draw(path);
+    }
+
+    /**
+     * Fills rects as a single Java2D path.
+     */
+    public void fillRects(double[] xywhValues, int rectCount)
+    {
+        Path2D.Double path = new Path2D.Double(Path2D.WIND_NON_ZERO, rectCount * 5);
+        for (int i = 0, valueIndex = 0; i < rectCount; i++, valueIndex += 4) {
+            double rectX = xywhValues[valueIndex], rectY = xywhValues[valueIndex + 1];
+            double rectMaxX = rectX + xywhValues[valueIndex + 2], rectMaxY = rectY + xywhValues[valueIndex + 3];
+            path.moveTo(rectX, rectY);
+            path.lineTo(rectMaxX, rectY);
+            path.lineTo(rectMaxX, rectMaxY);
+            path.lineTo(rectX, rectMaxY);
+            path.closePath();
+        }
+        _gfx.fill(path);
+    }
+
+    /**
+     * Fills marker at each point as a single Java2D path.
+     */
+    public void drawPoints(double[] xyCoords, int pointCount, Shape aMarker)
+    {
+        java.awt.Shape awtMarker = AWT.snapToAwtShape(aMarker);
+        Path2D.Double path = new Path2D.Double(Path2D.WIND_NON_ZERO, pointCount * 6);
+        for (int i = 0, coordIndex = 0; i < pointCount; i++, coordIndex += 2) {
+            _pointTrans.setToTranslation(xyCoords[coordIndex], xyCoords[coordIndex + 1]);
+            path.append(awtMarker.getPathIterator(_pointTrans), false);
+        }
+        _gfx.fill(path);
+    }
+
     /**
      * Draw image with transform.
      */
@@ -103,8 +103,8 @@ public class SwingEvent extends ViewEvent {
     public double getScrollY()
     {
         MouseWheelEvent me = getEvent(MouseWheelEvent.class);
-        if (me == null || me.isShiftDown()) return 0;
-        return me.getUnitsToScroll();
+        if (me == null || me.isShiftDown()) return _coalescedScrollY;
+        return me.getUnitsToScroll() + _coalescedScrollY;
     }
 
     /**
@@ -114,8 +114,8 @@ public class SwingEvent extends ViewEvent {
     public double getScrollX()
     {
         MouseWheelEvent me = getEvent(MouseWheelEvent.class);
-        if (me == null || !me.isShiftDown()) return 0;
-        return me.getUnitsToScroll();
+        if (me == null || !me.isShiftDown()) return _coalescedScrollX;
+        return me.getUnitsToScroll() + _coalescedScrollX;
     }
 
     /**
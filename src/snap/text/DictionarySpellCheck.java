@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.text;
+import snap.util.SnapUtils;
+import snap.web.WebURL;
+import java.util.*;
+
+/**
+ * A SpellCheck implementation that checks words against a SpellDictionary. The default constructor loads a word list
+ * resource (one word per line) if available - with no words, no words are reported as misspelled.
+ */
+public class DictionarySpellCheck extends SpellCheck {
+
+    // The dictionary
+    private SpellDictionary _dictionary;
+
+    // The name of default word list resource
+    public static final String DEFAULT_WORDS_RESOURCE = "SpellCheckWords_US.txt";
+
+    /**
+     * Constructor for default word list resource.
+     */
+    public DictionarySpellCheck()
+    {
+        this(getDefaultDictionary());
+    }
+
+    /**
+     * Constructor for given dictionary.
+     */
+    public DictionarySpellCheck(SpellDictionary aDictionary)
+    {
+        super();
+        _dictionary = aDictionary;
+    }
+
+    /**
+     * Returns the dictionary.
+     */
+    public SpellDictionary getDictionary()  { return _dictionary; }
+
+    /**
+     * Override to find words not in dictionary.
+     */
+    @Override
+    public Word getNextMisspelledWord(String aString, int anIndex)
+    {
+        // If no words, just return
+        if (_dictionary.getWordCount() == 0)
+            return null;
+
+        // Iterate over words in string
+        for (int i = anIndex, iMax = aString.length(); i < iMax; ) {
+
+            // Skip to word start
+            if (!Character.isLetter(aString.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            // Find word end (letters and inner apostrophes)
+            int wordStart = i;
+            boolean hasDigit = false;
+            while (i < iMax) {
+                char c = aString.charAt(i);
+                if (Character.isLetter(c))
+                    i++;
+                else if (Character.isDigit(c)) {
+                    hasDigit = true;
+                    i++;
+                }
+                else if ((c == '\'' || c == '’') && i + 1 < iMax && Character.isLetter(aString.charAt(i + 1)))
+                    i++;
+                else break;
+            }
+
+            // If word is misspelled, return it
+            String word = aString.substring(wordStart, i);
+            if (!hasDigit && word.length() > 1 && !isKnownWord(word))
+                return new Word(word, wordStart);
+        }
+
+        // Return not found
+        return null;
+    }
+
+    /**
+     * Returns whether given word is known (in dictionary, or possessive of word in dictionary).
+     */
+    protected boolean isKnownWord(String aWord)
+    {
+        if (_dictionary.contains(aWord))
+            return true;
+
+        // Handle possessive
+        int wordLength = aWord.length();
+        if (wordLength > 2 && (aWord.charAt(wordLength - 1) == 's' || aWord.charAt(wordLength - 1) == 'S')) {
+            char apostrophe = aWord.charAt(wordLength - 2);
+            if (apostrophe == '\'' || apostrophe == '’')
+                return _dictionary.contains(aWord.substring(0, wordLength - 2));
+        }
+
+        // Return not known
+        return false;
+    }
+
+    /**
+     * Override to return dictionary suggestions.
+     */
+    @Override
+    protected List<String> getSuggestionsForWord(Word aWord)
+    {
+        return _dictionary.getSuggestions(aWord.getString());
+    }
+
+    /**
+     * Returns the dictionary for default word list resource (empty if not found).
+     */
+    private static SpellDictionary getDefaultDictionary()
+    {
+        WebURL wordsURL = WebURL.getResourceUrl(DictionarySpellCheck.class, DEFAULT_WORDS_RESOURCE);
+        String wordsText = wordsURL != null ? SnapUtils.getText(wordsURL) : null;
+        if (wordsText == null) {
+            System.err.println("DictionarySpellCheck: Word list not found: " + DEFAULT_WORDS_RESOURCE);
+            return new SpellDictionary(Collections.emptyList());
+        }
+        return SpellDictionary.newForText(wordsText);
+    }
+}
@@ -66,6 +66,15 @@ public class SpellCheck {
         return _shared = shared;
     }
 
+    /**
+     * Sets the shared spell checker.
+     */
+    public static void setShared(SpellCheck aSpellCheck)
+    {
+        _shared = aSpellCheck;
+        _sharedClass = aSpellCheck != null ? aSpellCheck.getClass() : null;
+    }
+
     /**
      * Returns the shared spell checker.
      */
@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.text;
+import java.util.*;
+
+/**
+ * A compact word dictionary stored as a DAWG (directed acyclic word graph: a trie with shared suffixes), with fast
+ * lookup and bounded edit distance suggestions. The graph is built from a word list by incremental minimization and
+ * frozen into flat arrays, so it is immutable and safe to use from multiple threads.
+ */
+public class SpellDictionary {
+
+    // The start index of edges for each node (node count + 1 entries)
+    private int[] _nodeEdgeStarts;
+
+    // Whether each node ends a word
+    private boolean[] _nodeFinals;
+
+    // The edge chars (sorted for each node) and target nodes
+    private char[] _edgeChars;
+    private int[] _edgeTargets;
+
+    // The number of words
+    private int _wordCount;
+
+    // The max number of suggestions
+    private static final int MAX_SUGGESTION_COUNT = 10;
+
+    // The max edit distance for suggestions
+    private static final int MAX_SUGGESTION_DISTANCE = 2;
+
+    /**
+     * Constructor for given words.
+     */
+    public SpellDictionary(Collection<String> theWords)
+    {
+        // Get unique, sorted, lowercase words
+        TreeSet<String> words = new TreeSet<>();
+        for (String word : theWords) {
+            String lcWord = word.trim().toLowerCase(Locale.ROOT);
+            if (!lcWord.isEmpty())
+                words.add(lcWord);
+        }
+
+        // Build graph and freeze to arrays
+        BuildNode root = new DawgBuilder(words).build();
+        freeze(root);
+        _wordCount = words.size();
+    }
+
+    /**
+     * Returns the number of words.
+     */
+    public int getWordCount()  { return _wordCount; }
+
+    /**
+     * Returns the number of graph nodes.
+     */
+    public int getNodeCount()  { return _nodeFinals.length; }
+
+    /**
+     * Returns whether dictionary contains given word (case insensitive).
+     */
+    public boolean contains(CharSequence aWord)
+    {
+        int node = 0;
+        for (int i = 0, iMax = aWord.length(); i < iMax && node >= 0; i++)
+            node = getChildNode(node, Character.toLowerCase(aWord.charAt(i)));
+        return node >= 0 && _nodeFinals[node];
+    }
+
+    /**
+     * Returns suggestions for given word, ordered by edit distance (insertions, deletions, substitutions and
+     * transpositions). Suggestions are capitalized if word is capitalized.
+     */
+    public List<String> getSuggestions(String aWord)
+    {
+        // Find words within max distance
+        String lcWord = aWord.toLowerCase(Locale.ROOT);
+        List<Suggestion> suggestions = new ArrayList<>();
+        new SuggestionSearch(lcWord, suggestions).search();
+
+        // Sort by distance, then by length difference, then alphabetically
+        suggestions.sort(Comparator.comparingInt((Suggestion s) -> s._distance)
+            .thenComparingInt(s -> Math.abs(s._word.length() - lcWord.length()))
+            .thenComparing(s -> s._word));
+
+        // Get words (capitalized if given word is capitalized)
+        boolean isCapitalized = !aWord.isEmpty() && Character.isUpperCase(aWord.charAt(0));
+        List<String> words = new ArrayList<>();
+        for (int i = 0, iMax = Math.min(suggestions.size(), MAX_SUGGESTION_COUNT); i < iMax; i++) {
+            String word = suggestions.get(i)._word;
+            if (isCapitalized)
+                word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+            words.add(word);
+        }
+
+        // Return
+        return words;
+    }
+
+    /**
+     * Returns the child node of given node for given char (or -1 if none).
+     */
+    private int getChildNode(int aNode, char aChar)
+    {
+        int low = _nodeEdgeStarts[aNode];
+        int high = _nodeEdgeStarts[aNode + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = _edgeChars[mid];
+            if (midChar < aChar) low = mid + 1;
+            else if (midChar > aChar) high = mid - 1;
+            else return _edgeTargets[mid];
+        }
+        return -1;
+    }
+
+    /**
+     * Freezes graph from given root node into arrays.
+     */
+    private void freeze(BuildNode aRoot)
+    {
+        // Get unique nodes in breadth first order and assign indexes (root is 0)
+        List<BuildNode> nodes = new ArrayList<>();
+        Map<BuildNode,Integer> nodeIndexes = new IdentityHashMap<>();
+        nodes.add(aRoot);
+        nodeIndexes.put(aRoot, 0);
+        int edgeCount = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            BuildNode node = nodes.get(i);
+            edgeCount += node._chars.length();
+            for (BuildNode child : node._children) {
+                if (!nodeIndexes.containsKey(child)) {
+                    nodeIndexes.put(child, nodes.size());
+                    nodes.add(child);
+                }
+            }
+        }
+
+        // Create arrays
+        int nodeCount = nodes.size();
+        _nodeEdgeStarts = new int[nodeCount + 1];
+        _nodeFinals = new boolean[nodeCount];
+        _edgeChars = new char[edgeCount];
+        _edgeTargets = new int[edgeCount];
+
+        // Fill arrays
+        int edgeIndex = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            BuildNode node = nodes.get(i);
+            _nodeEdgeStarts[i] = edgeIndex;
+            _nodeFinals[i] = node._final;
+            for (int j = 0; j < node._chars.length(); j++, edgeIndex++) {
+                _edgeChars[edgeIndex] = node._chars.charAt(j);
+                _edgeTargets[edgeIndex] = nodeIndexes.get(node._children.get(j));
+            }
+        }
+        _nodeEdgeStarts[nodeCount] = edgeIndex;
+    }
+
+    /**
+     * Returns a new dictionary for given text with one word per line.
+     */
+    public static SpellDictionary newForText(String aText)
+    {
+        List<String> words = new ArrayList<>();
+        for (String line : aText.split("\\R")) {
+            String word = line.trim();
+            if (!word.isEmpty() && !word.startsWith("#"))
+                words.add(word);
+        }
+        return new SpellDictionary(words);
+    }
+
+    /**
+     * A node used while building graph.
+     */
+    private static class BuildNode {
+
+        // Whether node ends a word
+        private boolean _final;
+
+        // The edge chars (in sorted order, since words are added in sorted order) and children
+        private StringBuilder _chars = new StringBuilder(2);
+        private List<BuildNode> _children = new ArrayList<>(2);
+
+        // The unique id (assigned when registered)
+        private int _id = -1;
+
+        /** Returns the key that identifies equivalent nodes (final flag and edges to registered children). */
+        String getKey()
+        {
+            StringBuilder sb = new StringBuilder(_chars.length() * 8 + 1);
+            sb.append(_final ? '1' : '0');
+            for (int i = 0; i < _chars.length(); i++)
+                sb.append(_chars.charAt(i)).append(_children.get(i)._id).append(',');
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Builds a minimal graph for sorted words (incremental construction from Daciuk et al.).
+     */
+    private static class DawgBuilder {
+
+        // The sorted words
+        private Collection<String> _words;
+
+        // The root node
+        private BuildNode _root = new BuildNode();
+
+        // The registered (minimized) nodes by key
+        private Map<String,BuildNode> _register = new HashMap<>();
+
+        // The path of nodes for last word that haven't been checked for equivalents
+        private List<BuildNode> _uncheckedParents = new ArrayList<>();
+        private List<BuildNode> _uncheckedChildren = new ArrayList<>();
+
+        /** Constructor. */
+        DawgBuilder(Collection<String> theWords)  { _words = theWords; }
+
+        /** Builds graph and returns root. */
+        BuildNode build()
+        {
+            String prevWord = "";
+            for (String word : _words) {
+
+                // Get common prefix length with previous word and minimize nodes after prefix
+                int prefixLength = 0;
+                int maxPrefixLength = Math.min(word.length(), prevWord.length());
+                while (prefixLength < maxPrefixLength && word.charAt(prefixLength) == prevWord.charAt(prefixLength))
+                    prefixLength++;
+                minimize(prefixLength);
+
+                // Add suffix nodes
+                BuildNode node = _uncheckedChildren.isEmpty() ? _root : _uncheckedChildren.get(_uncheckedChildren.size() - 1);
+                for (int i = prefixLength; i < word.length(); i++) {
+                    BuildNode child = new BuildNode();
+                    node._chars.append(word.charAt(i));
+                    node._children.add(child);
+                    _uncheckedParents.add(node);
+                    _uncheckedChildren.add(child);
+                    node = child;
+                }
+                node._final = true;
+                prevWord = word;
+            }
+
+            // Minimize remaining nodes and return root
+            minimize(0);
+            return _root;
+        }
+
+        /** Replaces unchecked nodes down to given depth with registered equivalents (or registers them). */
+        private void minimize(int aDepth)
+        {
+            for (int i = _uncheckedChildren.size() - 1; i >= aDepth; i--) {
+                BuildNode parent = _uncheckedParents.remove(i);
+                BuildNode child = _uncheckedChildren.remove(i);
+                String key = child.getKey();
+                BuildNode existing = _register.get(key);
+                if (existing != null)
+                    parent._children.set(parent._children.size() - 1, existing);
+                else {
+                    child._id = _register.size();
+                    _register.put(key, child);
+                }
+            }
+        }
+    }
+
+    /**
+     * A suggested word and its edit distance.
+     */
+    private static class Suggestion {
+
+        // The word and distance
+        private String _word;
+        private int _distance;
+
+        /** Constructor. */
+        Suggestion(String aWord, int aDistance)  { _word = aWord; _distance = aDistance; }
+    }
+
+    /**
+     * Searches graph for words within max edit distance, computing one edit distance row per graph depth.
+     */
+    private class SuggestionSearch {
+
+        // The word
+        private String _word;
+
+        // The suggestions found
+        private List<Suggestion> _suggestions;
+
+        // The edit distance rows for each depth and the chars for each depth
+        private int[][] _rows;
+        private char[] _chars;
+
+        /** Constructor. */
+        SuggestionSearch(String aWord, List<Suggestion> theSuggestions)
+        {
+            _word = aWord;
+            _suggestions = theSuggestions;
+            int maxDepth = aWord.length() + MAX_SUGGESTION_DISTANCE + 1;
+            _rows = new int[maxDepth + 1][aWord.length() + 1];
+            _chars = new char[maxDepth + 1];
+            for (int j = 0; j <= aWord.length(); j++)
+                _rows[0][j] = j;
+        }
+
+        /** Runs search. */
+        void search()  { searchChildren(0, 0); }
+
+        /** Searches children of given node at given depth. */
+        private void searchChildren(int aNode, int aDepth)
+        {
+            if (aDepth + 1 >= _rows.length)
+                return;
+            for (int i = _nodeEdgeStarts[aNode], iMax = _nodeEdgeStarts[aNode + 1]; i < iMax; i++)
+                searchNode(_edgeTargets[i], _edgeChars[i], aDepth + 1);
+        }
+
+        /** Computes row for given node and char at given depth, adds suggestion if word and recurses if in range. */
+        private void searchNode(int aNode, char aChar, int aDepth)
+        {
+            // Compute edit distance row for depth
+            int wordLength = _word.length();
+            int[] prevRow = _rows[aDepth - 1];
+            int[] row = _rows[aDepth];
+            _chars[aDepth] = aChar;
+            row[0] = aDepth;
+            int rowMin = row[0];
+            for (int j = 1; j <= wordLength; j++) {
+                int cost = _word.charAt(j - 1) == aChar ? 0 : 1;
+                int dist = Math.min(Math.min(row[j - 1] + 1, prevRow[j] + 1), prevRow[j - 1] + cost);
+
+                // Handle transposition
+                if (aDepth > 1 && j > 1 && _word.charAt(j - 1) == _chars[aDepth - 1] && _word.charAt(j - 2) == aChar)
+                    dist = Math.min(dist, _rows[aDepth - 2][j - 2] + 1);
+                row[j] = dist;
+                rowMin = Math.min(rowMin, dist);
+            }
+
+            // If word within distance (and not the word itself), add suggestion
+            int distance = row[wordLength];
+            if (_nodeFinals[aNode] && distance <= MAX_SUGGESTION_DISTANCE && distance > 0)
+                _suggestions.add(new Suggestion(new String(_chars, 1, aDepth), distance));
+
+            // If any prefix still in range, search children
+            if (rowMin <= MAX_SUGGESTION_DISTANCE)
+                searchChildren(aNode, aDepth);
+        }
+    }
+}
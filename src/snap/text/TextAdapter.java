@@ -67,6 +67,12 @@ public class TextAdapter extends PropObject {
     // The text undoer
     private Undoer _undoer = Undoer.DISABLED_UNDOER;
 
+    // Whether to do check-as-you-type spelling
+    private boolean _spellChecking;
+
+    // The incremental spell checker
+    private TextSpellChecker _spellChecker;
+
     // A PropChangeListener to send TextModel PropChanges to adapter client.
     private PropChangeListener[] _textModelPropChangeLsnrs = new PropChangeListener[0];
 
@@ -380,7 +386,31 @@ public class TextAdapter extends PropObject {
     /**
      * Returns whether editor is doing check-as-you-type spelling.
      */
-    public boolean isSpellChecking()  { return false; }
+    public boolean isSpellChecking()  { return _spellChecking; }
+
+    /**
+     * Sets whether editor is doing check-as-you-type spelling.
+     */
+    public void setSpellChecking(boolean aValue)
+    {
+        if (aValue == _spellChecking) return;
+        _spellChecking = aValue;
+        if (!aValue)
+            _spellChecker = null;
+        if (_textArea != null)
+            _textArea.repaint();
+    }
+
+    /**
+     * Returns the incremental spell checker (which checks lines in background and caches results).
+     */
+    public TextSpellChecker getSpellChecker()
+    {
+        if (_spellChecker != null) return _spellChecker;
+        TextSpellChecker spellChecker = new TextSpellChecker();
+        spellChecker.setResultsHandler(() -> { if (_textArea != null) _textArea.repaint(); });
+        return _spellChecker = spellChecker;
+    }
 
     /**
      * Returns whether text supports multiple styles.
@@ -621,6 +651,28 @@ public class TextAdapter extends PropObject {
         setSel(aStart + strLen);
     }
 
+    /**
+     * Replaces all matches of given search with given chars as a single edit (and undo) and returns the match count.
+     */
+    public int replaceAll(TextSearch aSearch, CharSequence theChars)
+    {
+        // Save any pending undo changes, so replace all is its own undo
+        Undoer undoer = getUndoer();
+        undoer.saveChanges();
+
+        // Replace all
+        int matchCount = _textModel.replaceAll(aSearch, theChars);
+
+        // Save undo changes and reset selection
+        if (matchCount > 0) {
+            undoer.saveChanges();
+            setSel(Math.min(getSelStart(), length()));
+        }
+
+        // Return
+        return matchCount;
+    }
+
     /**
      * Deletes the current selection.
      */
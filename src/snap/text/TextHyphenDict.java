@@ -24,172 +24,262 @@ import snap.web.WebURL;
  * @author Raph Levien (raph@acm.org)
  */
 public class TextHyphenDict {
-    
-    // Current array of states
-    private List<HyphenState> _states = new ArrayList<>();
-    
+
+    // The number of states
+    private int _stateCount;
+
+    // The start index of transitions for each state (state count + 1 entries)
+    private int[] _transStarts;
+
+    // The transition chars (sorted for each state) and target states
+    private char[] _transChars;
+    private int[] _transTargets;
+
+    // The fallback state for each state (-1 for none)
+    private int[] _fallbacks;
+
+    // The start index and length of match values for each state (length 0 for no match)
+    private int[] _matchStarts;
+    private byte[] _matchLengths;
+
+    // The match values (hyphenation digits) for all states
+    private byte[] _matchValues;
+
+    // The word cache (2-way set associative, with LRU replacement in each set)
+    private CacheEntry[] _cache = new CacheEntry[CACHE_SET_COUNT * 2];
+
     // Shared instance
     private static TextHyphenDict _shared;
-    
+
+    // The number of word cache sets (must be power of 2)
+    private static final int CACHE_SET_COUNT = 2048;
+
+    // The max word length for cache
+    private static final int MAX_CACHE_WORD_LENGTH = 48;
+
+    // Shared empty hyphens array
+    private static final int[] NO_HYPHENS = new int[0];
+
     /**
-     * Constructor based on the given filename. Reads and parses the given file into internal storage.
-     * */
+     * Constructor. Reads and parses the US hyphenation dictionary and compiles it into a flat transition table.
+     */
     public TextHyphenDict()
     {
         try { loadHyphenDict(); }
         catch(Exception e) { e.printStackTrace(); }
     }
-    
+
     /** Return the shared instance of the HyphenDict. */
     public static TextHyphenDict getShared()  { return _shared!=null? _shared : (_shared = new TextHyphenDict()); }
-    
-    /** Returns the hyphen just prior to line end given chars, start index, chars end and line end. */
+
+    /**
+     * Returns the hyphen just prior to line end given chars, start index, chars end and line end.
+     */
     public int getHyphen(CharSequence anInput, int aStart, int anEnd)
     {
         // If there are only a few characters before line end, just bail
-        if(anEnd-aStart<3)
+        if (anEnd - aStart < 3)
             return -1;
 
         // Find word end
         int wordEnd = anEnd;
-        for(int i=aStart; i<anEnd; i++)
-            if(Character.isWhitespace(anInput.charAt(i))) {
-                wordEnd = i; break; }
-        
+        for (int i = aStart; i < anEnd; i++) {
+            if (Character.isWhitespace(anInput.charAt(i))) {
+                wordEnd = i;
+                break;
+            }
+        }
+
         // If word is zero length, return
-        if(wordEnd-aStart<=2)
+        int wordLength = wordEnd - aStart;
+        if (wordLength <= 2)
             return -1;
-        
-        // Get word
-        String word = anInput.subSequence(aStart, wordEnd).toString();
-        
-        // Return
-        int hyphen = getHyphen(word, wordEnd - aStart);
-        return hyphen>0? (aStart + hyphen) : -1;
-            
-        // Get Hyphens and bail if null
-        //int hyphens[] = getHyphens(word); if(hyphens==null) return -1;
-        // If hyphen prior to lineEnd, return it
-        //for(int i=hyphens.length-1; i>=0; i--) if(start + hyphens[i]<lineEnd) return start + hyphens[i];
-        // If no hyphens before lineEnd: return -1;
+
+        // Get hyphens for word range and return last
+        int[] hyphens = getHyphensForRange(anInput, aStart, wordEnd);
+        int hyphen = getLastHyphenBefore(hyphens, wordLength);
+        return hyphen > 0 ? (aStart + hyphen) : -1;
     }
-    
+
+    /**
+     * Returns the last hyphen index in given word before given line end (or -1 if none).
+     */
     public int getHyphen(String aWord, int lineEnd)
     {
-        // Returns a string buffer for word with hyphen data inserted
-        StringBuffer hyphens = getHyphensBuffer(aWord);
-
-        // Added this code to return hyphen index instead of hyphen array below
-        for(int i=lineEnd-2; i>0; i--)
-            if((hyphens.charAt(i)&1)!=0)
-                return i+1;
-        
-        // 
-        return -1;        
+        int[] hyphens = getHyphensForRange(aWord, 0, aWord.length());
+        return getLastHyphenBefore(hyphens, lineEnd);
     }
-    
+
+    /**
+     * Returns the hyphen indexes for given word (or null if none).
+     */
     public int[] getHyphens(String aWord)
     {
-        // Returns a string buffer for word with hyphen data inserted
-        StringBuffer hyphens = getHyphensBuffer(aWord);
-
-        // count the number of hyphens
-        int nHyphens = 0;
-        for(int i=0; i<hyphens.length(); i++)
-            if((hyphens.charAt(i)&1) != 0)
-                nHyphens++;
-        
-        // convert into an array of integers        
-        if(nHyphens > 0) {
-            int[] hypos = new int[nHyphens];
-            for(int i=0, hno=0; i<hyphens.length(); i++)
-                if((hyphens.charAt(i)&1) != 0)
-                    hypos[hno++] = i+1;
-            
-            // Return hyphens
-            return hypos;
-        }
-        
-        // Return null
-        return null;
+        int[] hyphens = getHyphensForRange(aWord, 0, aWord.length());
+        return hyphens.length > 0 ? hyphens.clone() : null;
     }
-    
-    /** Perform hyphenation on a word. Fills in the word's hyphenationPositions array. */
+
+    /**
+     * Returns a string buffer of hyphenation digits for given word (odd digits mark hyphen after char).
+     */
     public StringBuffer getHyphensBuffer(String aWord)
     {
-        // Get word as lowercase 
-        String lcword = aWord.toLowerCase();
-        int nulen = lcword.length()+3;
-        
-        StringBuffer prepWord = new StringBuffer(nulen);
-        prepWord.append('.');
-        prepWord.append(lcword);
-        prepWord.append('.');
-        
-        StringBuffer hyphens = mkBuffer(nulen,'0');
-        
-        HyphenState state = _states.get(0);
-        
-        // Iterate over word characters
-        NEXT_LETTER: for(int i=0;i<prepWord.length();i++) {
-            
-            // Get current character
-            char ch = prepWord.charAt(i);
-            
-            // Iterate?
-            TRANS_LOOP: while(true) {
-                
-                // Null state?
-                if(state == null) {
-                    state = _states.get(0);
-                    continue NEXT_LETTER;
-                }
-                
-                // Iterate?
-                for(int k = 0; k < state.getNumTrans(); k++) {
-                    HyphenTrans trans = state.getTrans(k);
-                    if(trans.ch == ch) {
-                        state = trans.newState;
-                        break TRANS_LOOP;
-                    }
-                }
-                
-                // State?
-                state = state.fallbackState;
+        byte[] values = getHyphenValuesForRange(aWord, 0, aWord.length());
+        StringBuffer hyphens = new StringBuffer(aWord.length());
+        for (int i = 0; i < aWord.length(); i++)
+            hyphens.append((char) ('0' + values[i]));
+        return hyphens;
+    }
+
+    /**
+     * Returns the last hyphen in given hyphens before given line end (or -1 if none).
+     */
+    private static int getLastHyphenBefore(int[] theHyphens, int lineEnd)
+    {
+        for (int i = theHyphens.length - 1; i >= 0; i--) {
+            int hyphen = theHyphens[i];
+            if (hyphen <= lineEnd - 1)
+                return hyphen;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the hyphen indexes for word in given chars range, using word cache.
+     */
+    private int[] getHyphensForRange(CharSequence theChars, int aStart, int anEnd)
+    {
+        // If word too long for cache, just compute
+        int wordLength = anEnd - aStart;
+        if (wordLength > MAX_CACHE_WORD_LENGTH)
+            return computeHyphensForRange(theChars, aStart, anEnd);
+
+        // Get hash and cache set index for word
+        int hash = 0;
+        for (int i = aStart; i < anEnd; i++)
+            hash = hash * 31 + theChars.charAt(i);
+        int setIndex = (hash ^ (hash >>> 16)) & (CACHE_SET_COUNT - 1);
+        int entryIndex = setIndex * 2;
+
+        // Check set entries for word (if found in second entry, swap to make it most recent)
+        CacheEntry[] cache = _cache;
+        CacheEntry entry0 = cache[entryIndex];
+        if (entry0 != null && entry0.matches(hash, theChars, aStart, anEnd))
+            return entry0._hyphens;
+        CacheEntry entry1 = cache[entryIndex + 1];
+        if (entry1 != null && entry1.matches(hash, theChars, aStart, anEnd)) {
+            cache[entryIndex] = entry1;
+            cache[entryIndex + 1] = entry0;
+            return entry1._hyphens;
+        }
+
+        // Compute hyphens and add as most recent entry (evicting least recent)
+        int[] hyphens = computeHyphensForRange(theChars, aStart, anEnd);
+        char[] word = new char[wordLength];
+        for (int i = 0; i < wordLength; i++)
+            word[i] = theChars.charAt(aStart + i);
+        cache[entryIndex + 1] = entry0;
+        cache[entryIndex] = new CacheEntry(hash, word, hyphens);
+        return hyphens;
+    }
+
+    /**
+     * Computes the hyphen indexes for word in given chars range.
+     */
+    private int[] computeHyphensForRange(CharSequence theChars, int aStart, int anEnd)
+    {
+        // Get hyphen values and count hyphens
+        byte[] values = getHyphenValuesForRange(theChars, aStart, anEnd);
+        int wordLength = anEnd - aStart;
+        int hyphenCount = 0;
+        for (int i = 0; i < wordLength; i++)
+            if ((values[i] & 1) != 0)
+                hyphenCount++;
+        if (hyphenCount == 0)
+            return NO_HYPHENS;
+
+        // Get hyphen indexes
+        int[] hyphens = new int[hyphenCount];
+        for (int i = 0, hyphenIndex = 0; i < wordLength; i++)
+            if ((values[i] & 1) != 0)
+                hyphens[hyphenIndex++] = i + 1;
+        return hyphens;
+    }
+
+    /**
+     * Returns the hyphenation values for word in given chars range (odd values mark hyphen after char). This runs
+     * the pattern matching state machine (Knuth/Liang) over '.' + lowercase word + '.' without building strings.
+     */
+    private byte[] getHyphenValuesForRange(CharSequence theChars, int aStart, int anEnd)
+    {
+        int wordLength = anEnd - aStart;
+        int prepLength = wordLength + 2;
+        byte[] values = new byte[wordLength + 3];
+
+        // If no states (dictionary failed to load), just return
+        if (_stateCount == 0)
+            return values;
+
+        // Iterate over chars of prepared word ('.' + word + '.')
+        int state = 0;
+        for (int i = 0; i < prepLength; i++) {
+            char ch = i == 0 || i == prepLength - 1 ? '.' : Character.toLowerCase(theChars.charAt(aStart + i - 1));
+
+            // Follow transition for char (or fallbacks until found) - if none found, reset to start state for next char
+            int nextState = getTransition(state, ch);
+            while (nextState < 0) {
+                state = _fallbacks[state];
+                if (state < 0)
+                    break;
+                nextState = getTransition(state, ch);
             }
-            
-            // If match
-            if(state.match != null) {
-                
-                // Get match length and offset
-                int ml = state.match.length();
-                int offset = i + 1 - ml;
-                
-                // Iterate?
-                for(int k = 0; k < ml; k++)
-                    if(hyphens.charAt(offset + k) < state.match.charAt(k))
-                        hyphens.setCharAt(offset + k, state.match.charAt(k));
+            if (nextState < 0) {
+                state = 0;
+                continue;
+            }
+            state = nextState;
+
+            // If state has match, apply match values
+            int matchLength = _matchLengths[state];
+            if (matchLength > 0) {
+                int matchStart = _matchStarts[state];
+                int offset = i + 1 - matchLength;
+                for (int k = 0; k < matchLength; k++) {
+                    byte matchValue = _matchValues[matchStart + k];
+                    if (values[offset + k] < matchValue)
+                        values[offset + k] = matchValue;
+                }
             }
-            
         }
-        
-        // Iterate?
-        for(int i=0; i<prepWord.length() - 4; i++)
-            hyphens.setCharAt(i, hyphens.charAt(i + 1));
-        
-        // Set char
-        hyphens.setCharAt(0, '0');
-        
-        // Iterate
-        for(int i=prepWord.length()-4; i<lcword.length(); i++)
-            hyphens.setCharAt(i, '0');
-        
-        // Set length
-        hyphens.setLength(lcword.length());
-        
-        return hyphens;
+
+        // Shift values to word indexes and clear values too close to word start or end
+        for (int i = 0; i < prepLength - 4; i++)
+            values[i] = values[i + 1];
+        values[0] = 0;
+        for (int i = Math.max(prepLength - 4, 0); i < values.length; i++)
+            values[i] = 0;
+
+        // Return
+        return values;
     }
-   
+
+    /**
+     * Returns the transition target for given state and char (or -1 if none).
+     */
+    private int getTransition(int aState, char aChar)
+    {
+        int low = _transStarts[aState];
+        int high = _transStarts[aState + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = _transChars[mid];
+            if (midChar < aChar) low = mid + 1;
+            else if (midChar > aChar) high = mid - 1;
+            else return _transTargets[mid];
+        }
+        return -1;
+    }
+
     /** Loads hyphen dict from source. */
     private void loadHyphenDict() throws IOException
     {
@@ -218,9 +308,10 @@ public class TextHyphenDict {
         Map<String,HyphenState> hashmap = new HashMap<>();
         
         // create the first one.
+        List<HyphenState> states = new ArrayList<>();
         HyphenState hs = new HyphenState();
         hashmap.put("", hs);
-        _states.add(hs);
+        states.add(hs);
         
         String buf;
         while((buf=bufferedReader.readLine()) != null) {
@@ -254,7 +345,7 @@ public class TextHyphenDict {
             if (found == null) {
                 state = new HyphenState();
                 hashmap.put(word.toString(), state);
-                _states.add(state);
+                states.add(state);
             }
             state.setMatch(pattern.toString());
             
@@ -268,7 +359,7 @@ public class TextHyphenDict {
                 if(found == null) {
                     state = new HyphenState();
                     hashmap.put(word.toString(), state);
-                    _states.add(state);
+                    states.add(state);
                 }
                 HyphenTrans ht = new HyphenTrans();
                 ht.ch = ch;
@@ -291,7 +382,67 @@ public class TextHyphenDict {
                 }
             }
         }
-        
+
+        // Compile states into flat arrays
+        compileStates(states);
+    }
+
+    /**
+     * Compiles given parsed states into flat transition, fallback and match arrays.
+     */
+    private void compileStates(List<HyphenState> theStates)
+    {
+        // Get state indexes and array sizes
+        int stateCount = theStates.size();
+        Map<HyphenState,Integer> stateIndexes = new IdentityHashMap<>(stateCount * 2);
+        int transCount = 0, matchValuesLength = 0;
+        for (int i = 0; i < stateCount; i++) {
+            HyphenState state = theStates.get(i);
+            stateIndexes.put(state, i);
+            transCount += state.getNumTrans();
+            if (state.match != null)
+                matchValuesLength += state.match.length();
+        }
+
+        // Create arrays
+        _transStarts = new int[stateCount + 1];
+        _transChars = new char[transCount];
+        _transTargets = new int[transCount];
+        _fallbacks = new int[stateCount];
+        _matchStarts = new int[stateCount];
+        _matchLengths = new byte[stateCount];
+        _matchValues = new byte[matchValuesLength];
+
+        // Iterate over states and fill arrays
+        int transIndex = 0, matchIndex = 0;
+        for (int i = 0; i < stateCount; i++) {
+            HyphenState state = theStates.get(i);
+
+            // Add transitions sorted by char (first transition for char wins, as in original linear search)
+            List<HyphenTrans> transList = new ArrayList<>(state.trans);
+            transList.sort(Comparator.comparingInt(trans -> trans.ch));
+            _transStarts[i] = transIndex;
+            for (int j = 0; j < transList.size(); j++) {
+                HyphenTrans trans = transList.get(j);
+                if (j > 0 && trans.ch == transList.get(j - 1).ch)
+                    continue;
+                _transChars[transIndex] = trans.ch;
+                _transTargets[transIndex++] = stateIndexes.get(trans.newState);
+            }
+
+            // Set fallback
+            _fallbacks[i] = state.fallbackState != null ? stateIndexes.get(state.fallbackState) : -1;
+
+            // Add match values
+            if (state.match != null) {
+                _matchStarts[i] = matchIndex;
+                _matchLengths[i] = (byte) state.match.length();
+                for (int k = 0; k < state.match.length(); k++)
+                    _matchValues[matchIndex++] = (byte) (state.match.charAt(k) - '0');
+            }
+        }
+        _transStarts[stateCount] = transIndex;
+        _stateCount = stateCount;
     }
     
     /** Create a StringBuffer of the specified length and fill it with a character */
@@ -302,6 +453,80 @@ public class TextHyphenDict {
         return ret;
     }
     
+    /**
+     * Runs a benchmark of getHyphen() for all words of given text and returns words per millisecond.
+     */
+    public static double runBenchmark(String aText, int aPassCount)
+    {
+        TextHyphenDict hyphenDict = new TextHyphenDict();
+        int wordCount = 0;
+        long hyphenSum = 0;
+        long startTime = System.nanoTime();
+
+        // Iterate over passes and words in text (whitespace separated) and get hyphen
+        for (int pass = 0; pass < aPassCount; pass++) {
+            for (int i = 0, iMax = aText.length(); i < iMax; ) {
+                while (i < iMax && Character.isWhitespace(aText.charAt(i))) i++;
+                int wordStart = i;
+                while (i < iMax && !Character.isWhitespace(aText.charAt(i))) i++;
+                if (i > wordStart) {
+                    hyphenSum += hyphenDict.getHyphen(aText, wordStart, i);
+                    wordCount++;
+                }
+            }
+        }
+
+        // Return words per millisecond
+        double elapsedMillis = Math.max(System.nanoTime() - startTime, 1) / 1e6;
+        if (hyphenSum == Long.MIN_VALUE) System.out.println(); // Keep result live
+        return wordCount / elapsedMillis;
+    }
+
+    /**
+     * Standard main implementation: Runs benchmark for text file given as arg (or sample text repeated).
+     */
+    public static void main(String[] args)
+    {
+        // Get text from file arg or sample text
+        String text = args.length > 0 ? SnapUtils.getText(new File(args[0])) : null;
+        if (text == null)
+            text = ("Hyphenation breaks words at syllable boundaries so justified paragraphs of considerable " +
+                "length keep reasonably uniform spacing. Typographers traditionally consulted comprehensive " +
+                "dictionaries, whereas contemporary implementations interpret compressed pattern tables. ").repeat(2000);
+        int passCount = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        // Warm up and run
+        runBenchmark(text, 1);
+        System.out.printf("TextHyphenDict: %.0f words/ms\n", runBenchmark(text, passCount));
+    }
+
+    /**
+     * A word cache entry.
+     */
+    private static class CacheEntry {
+
+        // The word hash and chars
+        private int _hash;
+        private char[] _word;
+
+        // The hyphen indexes
+        private int[] _hyphens;
+
+        /** Constructor. */
+        CacheEntry(int aHash, char[] aWord, int[] theHyphens)  { _hash = aHash; _word = aWord; _hyphens = theHyphens; }
+
+        /** Returns whether entry matches given hash and chars range. */
+        boolean matches(int aHash, CharSequence theChars, int aStart, int anEnd)
+        {
+            if (aHash != _hash || anEnd - aStart != _word.length)
+                return false;
+            for (int i = 0; i < _word.length; i++)
+                if (_word[i] != theChars.charAt(aStart + i))
+                    return false;
+            return true;
+        }
+    }
+
     /** HyphenState. */
     static class HyphenState {
         
@@ -382,6 +382,73 @@ public class TextModel extends TextLayout {
         addCharsWithStyle(theChars, style, startCharIndex);
     }
 
+    /**
+     * Replaces all matches of given search with given replacement chars and returns the number of matches replaced.
+     * All replacements are made in one edit of the range from first match start to last match end, so there is just
+     * one pair of Chars prop changes (one undo) and one line update, instead of one per match.
+     */
+    public int replaceAll(TextSearch aSearch, CharSequence theChars)
+    {
+        // Get matches (just return if none)
+        String string = getString();
+        List<TextSearch.Match> matches = aSearch.getMatches(string);
+        if (matches.isEmpty())
+            return 0;
+
+        // Get replace range
+        int rangeStart = matches.get(0).start();
+        int rangeEnd = matches.get(matches.size() - 1).end();
+
+        // If plain text, build new chars for range and replace
+        if (!isRichText()) {
+            StringBuilder sb = new StringBuilder(rangeEnd - rangeStart);
+            int charIndex = rangeStart;
+            for (TextSearch.Match match : matches) {
+                sb.append(string, charIndex, match.start()).append(theChars);
+                charIndex = match.end();
+            }
+            replaceChars(sb, rangeStart, rangeEnd);
+        }
+
+        // If rich text, build rich text for range (keeping styles of chars between matches) and replace
+        else replaceAllRich(matches, theChars, rangeStart, rangeEnd);
+
+        // Return number of matches
+        return matches.size();
+    }
+
+    /**
+     * Replaces rich text matches in given range with given chars.
+     */
+    private void replaceAllRich(List<TextSearch.Match> matches, CharSequence theChars, int rangeStart, int rangeEnd)
+    {
+        // Build rich text for range: Copy of chars between matches and replacement chars with match style
+        TextModel rangeText = new TextModel(true);
+        rangeText.setPropChangeEnabled(false);
+        int charIndex = rangeStart;
+        for (TextSearch.Match match : matches) {
+            if (match.start() > charIndex)
+                rangeText.addCharsForTextModel(copyForRange(charIndex, match.start()), rangeText.length());
+            TextStyle matchStyle = getTextStyleForCharRange(match.start(), match.end());
+            rangeText.addCharsWithStyle(theChars, matchStyle, rangeText.length());
+            charIndex = match.end();
+        }
+
+        // Remove range and add new rich text with prop changes disabled
+        CharSequence removedChars = subSequence(rangeStart, rangeEnd);
+        boolean propChangeEnabled = isPropChangeEnabled();
+        setPropChangeEnabled(false);
+        removeChars(rangeStart, rangeEnd);
+        addCharsForTextModel(rangeText, rangeStart);
+        setPropChangeEnabled(propChangeEnabled);
+
+        // Send single remove/add prop changes
+        if (propChangeEnabled) {
+            firePropChange(new TextModelUtils.CharsChange(this, removedChars, null, rangeStart));
+            firePropChange(new TextModelUtils.CharsChange(this, null, rangeText.getString(), rangeStart));
+        }
+    }
+
     /**
      * Clears the text.
      */
@@ -355,6 +355,17 @@ public class TextModelUtils {
 
             if (newVal != null && eventNewVal != null && newVal.length() + index == event.getIndex())
                 return new CharsChange(textModel,null, newVal.toString() + eventNewVal, index);
+
+            // Merge consecutive removes: Backspace removes chars just before index, forward delete removes at index
+            CharSequence oldVal = getOldValue();
+            CharSequence eventOldVal = event.getOldValue();
+            if (oldVal != null && eventOldVal != null && newVal == null && eventNewVal == null) {
+                int eventIndex = event.getIndex();
+                if (eventIndex + eventOldVal.length() == index)
+                    return new CharsChange(textModel, eventOldVal.toString() + oldVal, null, eventIndex);
+                if (eventIndex == index)
+                    return new CharsChange(textModel, oldVal.toString() + eventOldVal, null, index);
+            }
             return null;
         }
     }
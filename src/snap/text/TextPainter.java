@@ -189,7 +189,8 @@ public class TextPainter {
     {
         // Get spelling path
         TextLayout textLayout = textAdapter.getTextLayout();
-        Shape spellingPath = getSpellingPathForTextLayout(textLayout, textAdapter.getSelStart());
+        TextSpellChecker spellChecker = textAdapter.getSpellChecker();
+        Shape spellingPath = getSpellingPathForTextLayout(textLayout, spellChecker, aPntr.getClipBounds(), textAdapter.getSelStart());
 
         // Paint spelling path
         aPntr.setColor(Color.RED);
@@ -200,54 +201,44 @@ public class TextPainter {
     }
 
     /**
-     * Returns a path of misspelled word underlining for given text layout.
+     * Returns a path of misspelled word underlining for visible lines of given text layout, using cached spell check
+     * results (lines not yet checked are checked in background and painted when results are available).
      */
-    private static Shape getSpellingPathForTextLayout(TextLayout textLayout, int selStart)
+    private static Shape getSpellingPathForTextLayout(TextLayout textLayout, TextSpellChecker spellChecker, Rect clipBounds, int selStart)
     {
-        // Get text string and path object
-        String string = textLayout.getString();
         Path2D spellingPath = new Path2D();
 
-        // Iterate over text
-        for (SpellCheck.Word word = SpellCheck.getMisspelledWord(string, 0); word != null;
-             word = SpellCheck.getMisspelledWord(string, word.getEnd())) {
+        // Iterate over lines
+        for (int i = 0, iMax = textLayout.getLineCount(); i < iMax; i++) {
 
-            // Get word bounds
-            int wordStart = word.getStart();
-            if (wordStart >= textLayout.getEndCharIndex())
+            // If line not yet visible, skip; if no longer visible, break
+            TextLine textLine = textLayout.getLine(i);
+            if (clipBounds != null && textLine.getTextMaxY() < clipBounds.y)
+                continue;
+            if (clipBounds != null && textLine.getTextY() >= clipBounds.getMaxY())
                 break;
-            int wordEnd = word.getEnd();
-            if (wordEnd > textLayout.getEndCharIndex())
-                wordEnd = textLayout.getEndCharIndex();
 
-            // If text editor selection starts in word bounds, just continue - they are still working on this word
-            if (wordStart <= selStart && selStart <= wordEnd)
+            // Get misspelled ranges for line (just continue if not yet checked)
+            int[] misspelledRanges = spellChecker.getMisspelledRangesForLine(textLine);
+            if (misspelledRanges == null)
                 continue;
 
-            // Get the selection's start line index and end line index
-            int startLineIndex = textLayout.getLineForCharIndex(wordStart).getLineIndex();
-            int endLineIndex = textLayout.getLineForCharIndex(wordEnd).getLineIndex();
-
-            // Iterate over selected lines
-            for (int i = startLineIndex; i <= endLineIndex; i++) {
-                TextLine textLine = textLayout.getLine(i);
-
-                // Get the bounds of line
-                double lineX = textLine.getTextX();
-                double lineMaxX = textLine.getTextMaxX();
-                double lineBaseY = textLine.getTextBaseline() + 3;
-
-                // If starting line, adjust x1 for starting character
-                if (i == startLineIndex)
-                    lineX = textLine.getTextXForCharIndex(wordStart - textLine.getStartCharIndex());
-
-                // If ending line, adjust x2 for ending character
-                if (i == endLineIndex)
-                    lineMaxX = textLine.getTextXForCharIndex(wordEnd - textLine.getStartCharIndex());
-
-                // Append rect for line to path
-                spellingPath.moveTo(lineX, lineBaseY);
-                spellingPath.lineTo(lineMaxX, lineBaseY);
+            // Iterate over misspelled words
+            int lineStart = textLine.getStartCharIndex();
+            double lineBaseY = textLine.getTextBaseline() + 3;
+            for (int j = 0; j < misspelledRanges.length; j += 2) {
+
+                // If text editor selection starts in word bounds, just continue - they are still working on this word
+                int wordStart = misspelledRanges[j];
+                int wordEnd = misspelledRanges[j + 1];
+                if (wordStart + lineStart <= selStart && selStart <= wordEnd + lineStart)
+                    continue;
+
+                // Append word underline to path
+                double wordX = textLine.getTextXForCharIndex(wordStart);
+                double wordMaxX = textLine.getTextXForCharIndex(Math.min(wordEnd, textLine.length()));
+                spellingPath.moveTo(wordX, lineBaseY);
+                spellingPath.lineTo(wordMaxX, lineBaseY);
             }
         }
 
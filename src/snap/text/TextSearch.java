@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.text;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class finds matches of a search string (using Boyer-Moore-Horspool) or regex pattern in text. Searches run over
+ * a flat CharSequence (like TextModel.getString()), so matches can span line boundaries. Matches can be iterated
+ * lazily (for highlight all) or collected for bulk replace with TextModel.replaceAll().
+ */
+public class TextSearch {
+
+    // The search string (if not regex)
+    private String _findString;
+
+    // Whether search is case sensitive
+    private boolean _matchCase;
+
+    // The regex pattern (if regex)
+    private Pattern _pattern;
+
+    // The search string chars (case folded if not match case)
+    private char[] _findChars;
+
+    // The Horspool shift table (indexed by low byte of char - collisions keep min shift, so it is always safe)
+    private int[] _shifts;
+
+    /**
+     * Constructor for given search string and whether search is case sensitive.
+     */
+    public TextSearch(String findString, boolean matchCase)
+    {
+        _findString = findString;
+        _matchCase = matchCase;
+
+        // Get find chars
+        _findChars = findString.toCharArray();
+        if (!matchCase) {
+            for (int i = 0; i < _findChars.length; i++)
+                _findChars[i] = foldCase(_findChars[i]);
+        }
+
+        // Create shift table
+        int findLength = _findChars.length;
+        _shifts = new int[256];
+        Arrays.fill(_shifts, Math.max(findLength, 1));
+        for (int i = 0; i < findLength - 1; i++) {
+            int shiftIndex = _findChars[i] & 0xFF;
+            _shifts[shiftIndex] = Math.min(_shifts[shiftIndex], findLength - 1 - i);
+        }
+    }
+
+    /**
+     * Constructor for given regex pattern.
+     */
+    public TextSearch(Pattern aPattern)
+    {
+        _pattern = aPattern;
+        _matchCase = (aPattern.flags() & Pattern.CASE_INSENSITIVE) == 0;
+    }
+
+    /**
+     * Returns the search string (null if regex).
+     */
+    public String getFindString()  { return _findString; }
+
+    /**
+     * Returns whether search is case sensitive.
+     */
+    public boolean isMatchCase()  { return _matchCase; }
+
+    /**
+     * Returns the regex pattern (null if not regex).
+     */
+    public Pattern getPattern()  { return _pattern; }
+
+    /**
+     * Returns the first match in given text at or after given index (or null if not found).
+     */
+    public Match find(CharSequence aText, int aStart)
+    {
+        // Handle regex
+        if (_pattern != null) {
+            Matcher matcher = _pattern.matcher(aText);
+            return aStart <= aText.length() && matcher.find(aStart) ? new Match(matcher.start(), matcher.end()) : null;
+        }
+
+        // Handle string
+        int index = indexOf(aText, aStart);
+        return index >= 0 ? new Match(index, index + _findChars.length) : null;
+    }
+
+    /**
+     * Returns the index of search string in given text at or after given index (Boyer-Moore-Horspool).
+     */
+    private int indexOf(CharSequence aText, int aStart)
+    {
+        // Handle empty find string: Never match
+        int findLength = _findChars.length;
+        if (findLength == 0)
+            return -1;
+
+        // Iterate over text, comparing from end of find string and shifting for last char of window
+        int lastFindIndex = findLength - 1;
+        char lastFindChar = _findChars[lastFindIndex];
+        for (int i = Math.max(aStart, 0), iMax = aText.length() - findLength; i <= iMax; ) {
+            char textChar = getChar(aText, i + lastFindIndex);
+            if (textChar == lastFindChar && matchesAt(aText, i))
+                return i;
+            i += _shifts[textChar & 0xFF];
+        }
+
+        // Return not found
+        return -1;
+    }
+
+    /**
+     * Returns whether find chars (excluding last) match given text at given index.
+     */
+    private boolean matchesAt(CharSequence aText, int anIndex)
+    {
+        for (int j = _findChars.length - 2; j >= 0; j--)
+            if (getChar(aText, anIndex + j) != _findChars[j])
+                return false;
+        return true;
+    }
+
+    /**
+     * Returns the char at given index in text (case folded if not match case).
+     */
+    private char getChar(CharSequence aText, int anIndex)
+    {
+        char c = aText.charAt(anIndex);
+        return _matchCase ? c : foldCase(c);
+    }
+
+    /**
+     * Returns an iterator over matches in given text (matches are found lazily as iterator advances).
+     */
+    public Iterator<Match> getMatchIterator(CharSequence aText)
+    {
+        // Handle regex
+        if (_pattern != null) {
+            Matcher matcher = _pattern.matcher(aText);
+            return new MatchIterator() {
+                protected Match findNext()  { return matcher.find() ? new Match(matcher.start(), matcher.end()) : null; }
+            };
+        }
+
+        // Handle string
+        return new MatchIterator() {
+            private int _index;
+            protected Match findNext()
+            {
+                int index = indexOf(aText, _index);
+                if (index < 0)
+                    return null;
+                _index = index + _findChars.length;
+                return new Match(index, _index);
+            }
+        };
+    }
+
+    /**
+     * Calls given consumer for each match in given text.
+     */
+    public void forEachMatch(CharSequence aText, Consumer<Match> aConsumer)
+    {
+        for (Iterator<Match> matchIter = getMatchIterator(aText); matchIter.hasNext(); )
+            aConsumer.accept(matchIter.next());
+    }
+
+    /**
+     * Returns all matches in given text.
+     */
+    public List<Match> getMatches(CharSequence aText)
+    {
+        List<Match> matches = new ArrayList<>();
+        forEachMatch(aText, matches::add);
+        return matches;
+    }
+
+    /**
+     * Returns the given char folded for case insensitive compare.
+     */
+    private static char foldCase(char aChar)
+    {
+        return Character.toLowerCase(Character.toUpperCase(aChar));
+    }
+
+    /**
+     * A record for a match start/end char index.
+     */
+    public record Match(int start, int end) { }
+
+    /**
+     * An iterator that finds next match on demand.
+     */
+    private static abstract class MatchIterator implements Iterator<Match> {
+
+        // The next match
+        private Match _next;
+
+        // Whether next match has been found
+        private boolean _nextFound;
+
+        /** Returns the next match (or null if no more). */
+        protected abstract Match findNext();
+
+        /** Returns whether there is another match. */
+        public boolean hasNext()
+        {
+            if (!_nextFound) {
+                _next = findNext();
+                _nextFound = true;
+            }
+            return _next != null;
+        }
+
+        /** Returns the next match. */
+        public Match next()
+        {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            _nextFound = false;
+            return _next;
+        }
+    }
+}
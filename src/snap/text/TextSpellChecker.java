@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.text;
+import snap.view.ViewUtils;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class checks spelling of text lines incrementally on a background thread and caches misspelled word ranges
+ * per TextLine. Results are keyed by the line string that was checked, so edited lines (which get a new string) are
+ * rechecked while unchanged lines reuse cached results. Painting only asks for visible lines.
+ */
+public class TextSpellChecker {
+
+    // The cached results for lines
+    private Map<TextLine,LineResult> _lineResults = new WeakHashMap<>();
+
+    // The lines with checks pending
+    private Set<TextLine> _pendingLines = Collections.newSetFromMap(new WeakHashMap<>());
+
+    // The runnable to call when new results are available (like repaint)
+    private Runnable _resultsHandler;
+
+    // The shared executor for spell check tasks
+    private static ExecutorService _executor;
+
+    // Shared empty ranges
+    private static final int[] EMPTY_RANGES = new int[0];
+
+    /**
+     * Constructor.
+     */
+    public TextSpellChecker()
+    {
+        super();
+    }
+
+    /**
+     * Returns the runnable to call when new results are available.
+     */
+    public Runnable getResultsHandler()  { return _resultsHandler; }
+
+    /**
+     * Sets the runnable to call when new results are available.
+     */
+    public void setResultsHandler(Runnable aRun)  { _resultsHandler = aRun; }
+
+    /**
+     * Returns the misspelled word ranges (as line start/end char index pairs) for given line, or null if line hasn't
+     * been checked since last edit (a check is scheduled).
+     */
+    public int[] getMisspelledRangesForLine(TextLine aLine)
+    {
+        // If cached result still matches line string, return ranges
+        String lineString = aLine.getString();
+        LineResult lineResult = _lineResults.get(aLine);
+        if (lineResult != null && (lineResult._string == lineString || lineResult._string.equals(lineString))) {
+            lineResult._string = lineString;
+            return lineResult._ranges;
+        }
+
+        // Schedule check and return null
+        checkLineLater(aLine, lineString);
+        return null;
+    }
+
+    /**
+     * Clears cached results (like when SpellCheck or dictionary changes).
+     */
+    public void clearResults()
+    {
+        _lineResults.clear();
+    }
+
+    /**
+     * Schedules check of given line on background thread.
+     */
+    private void checkLineLater(TextLine aLine, String lineString)
+    {
+        // If already pending, just return
+        if (!_pendingLines.add(aLine))
+            return;
+
+        // Check line on background thread and set result on event thread
+        getExecutor().execute(() -> {
+            int[] ranges = getMisspelledRangesForString(lineString);
+            ViewUtils.runLater(() -> setLineResult(aLine, lineString, ranges));
+        });
+    }
+
+    /**
+     * Sets line result (called on event thread).
+     */
+    private void setLineResult(TextLine aLine, String lineString, int[] theRanges)
+    {
+        _pendingLines.remove(aLine);
+
+        // If line changed since check, just return (it will be rescheduled when painted)
+        if (!lineString.equals(aLine.getString()))
+            return;
+
+        // Set result and notify
+        _lineResults.put(aLine, new LineResult(lineString, theRanges));
+        if (_resultsHandler != null)
+            _resultsHandler.run();
+    }
+
+    /**
+     * Returns misspelled word ranges for given string.
+     */
+    private static int[] getMisspelledRangesForString(String aString)
+    {
+        int[] ranges = EMPTY_RANGES;
+        int rangesLength = 0;
+
+        // Iterate over misspelled words and add ranges
+        try {
+            for (SpellCheck.Word word = SpellCheck.getMisspelledWord(aString, 0); word != null;
+                 word = SpellCheck.getMisspelledWord(aString, word.getEnd())) {
+                if (rangesLength == ranges.length)
+                    ranges = Arrays.copyOf(ranges, Math.max(rangesLength * 2, 4));
+                ranges[rangesLength++] = word.getStart();
+                ranges[rangesLength++] = word.getEnd();
+            }
+        }
+
+        // Spell check engine failures shouldn't break painting
+        catch (Exception e) { System.err.println("TextSpellChecker: Spell check failed: " + e); }
+
+        // Return
+        return rangesLength < ranges.length ? Arrays.copyOf(ranges, rangesLength) : ranges;
+    }
+
+    /**
+     * Returns the shared executor for spell check tasks.
+     */
+    private static synchronized ExecutorService getExecutor()
+    {
+        if (_executor != null) return _executor;
+        return _executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TextSpellChecker");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Holds misspelled ranges for checked line string.
+     */
+    private static class LineResult {
+
+        // The line string that was checked
+        private String _string;
+
+        // The misspelled ranges
+        private int[] _ranges;
+
+        /** Constructor. */
+        LineResult(String aString, int[] theRanges)  { _string = aString; _ranges = theRanges; }
+    }
+}
@@ -110,7 +110,7 @@ public class JsonNode {
     {
         WebURL url = WebURL.createUrl(aSource);
         JsonParser parser = new JsonParser();
-        String text = url.getText();
-        return parser.readString(text);
+        CharSequence chars = url.getTextChars();
+        return chars != null ? parser.readChars(chars) : null;
     }
 }
\ No newline at end of file
@@ -4,6 +4,8 @@
 package snap.util;
 import snap.parse.*;
 import snap.web.*;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.stream.Stream;
 
 /**
@@ -39,17 +41,31 @@ public class JsonParser extends Parser {
     public JsonNode readSource(Object aSource)
     {
         WebURL url = WebURL.getUrl(aSource); assert (url != null);
-        String urlText = url.getText();
-        return readString(urlText);
+        CharSequence urlChars = url.getTextChars();
+        return urlChars != null ? readChars(urlChars) : null;
+    }
+
+    /**
+     * Reads JSON from given input stream.
+     */
+    public JsonNode readStream(InputStream inputStream)
+    {
+        try { return readChars(WebUtils.readChars(inputStream)); }
+        catch (IOException e) { throw new RuntimeException(e); }
     }
 
     /**
      * Returns a KeyChain for given string.
      */
-    public JsonNode readString(String aString)
+    public JsonNode readString(String aString)  { return readChars(aString); }
+
+    /**
+     * Returns a KeyChain for given chars.
+     */
+    public JsonNode readChars(CharSequence theChars)
     {
-        // Parse string
-        try { return parse(aString).getCustomNode(JsonNode.class); }
+        // Parse chars
+        try { return parse(theChars).getCustomNode(JsonNode.class); }
         catch(Throwable e) { e.printStackTrace(); }
         return null;
     }
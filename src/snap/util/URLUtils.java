@@ -52,15 +52,30 @@ public class URLUtils {
             return FileUtils.getBytesOrThrow(file);
         }
 
+        // Return bytes
+        try (InputStream inputStream = openStream(aURL)) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    /**
+     * Opens an input stream for url.
+     */
+    public static InputStream openStream(URL aURL) throws IOException
+    {
+        // If url is file, return stream for file
+        if (aURL.getProtocol().equals("file")) {
+            File file = getFile(aURL); assert file != null;
+            return new FileInputStream(file);
+        }
+
         // Get connection (if desktop add User-Agent header because some servers need it)
         URLConnection urlConnection = aURL.openConnection();
         if (SnapEnv.isDesktop)
             urlConnection.addRequestProperty("User-Agent", "Mozilla/5.0 (SnapKit)");
 
-        // Return bytes
-        try (InputStream inputStream = urlConnection.getInputStream()) {
-            return inputStream.readAllBytes();
-        }
+        // Return stream
+        return urlConnection.getInputStream();
     }
 
     /**
@@ -46,15 +46,16 @@ public class XMLParser extends Parser {
      */
     public XMLElement parseXMLFromUrl(WebURL xmlUrl)
     {
-        // Get XML string from source
-        String xmlString = xmlUrl.getText();
-        if (xmlString == null) {
+        // Get XML chars from source stream
+        CharSequence xmlChars = xmlUrl.getTextChars();
+        if (xmlChars == null) {
             System.err.println("XMLParser.parseXMLFromUrl: Couldn't load text from url: " + xmlUrl);
             return null;
         }
 
-        // Parse XML from string and return
-        return parseXMLFromString(xmlString);
+        // Parse XML from chars and return
+        ParseNode node = parse(xmlChars);
+        return (XMLElement) node.getCustomNode();
     }
 
     /**
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.view;
+import java.util.ArrayDeque;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import snap.geom.Insets;
+import snap.gfx.*;
+
+/**
+ * This class renders DocView pages to images with a pipeline: Each page is recorded into a PainterDVR2 display list on
+ * the calling (UI) thread, which is cheap, then rasterized on a worker pool. The number of pages in flight is bounded
+ * (so memory stays bounded for long documents) and results are handed to the caller in page order as they complete.
+ */
+public class DocViewRenderer {
+
+    // The DocView
+    private DocView _docView;
+
+    // The dpi scale for page images (1 = 72 dpi, 2 = 144 dpi)
+    private double _dpiScale = 1;
+
+    // The max number of pages recorded but not yet handed to caller
+    private int _maxPagesInFlight = getThreadCount() * 2;
+
+    // The shared worker pool for rasterizing pages
+    private static ExecutorService _executor;
+
+    /**
+     * Constructor for given DocView.
+     */
+    public DocViewRenderer(DocView aDocView)
+    {
+        _docView = aDocView;
+    }
+
+    /**
+     * Returns the DocView.
+     */
+    public DocView getDocView()  { return _docView; }
+
+    /**
+     * Returns the dpi scale for page images.
+     */
+    public double getDpiScale()  { return _dpiScale; }
+
+    /**
+     * Sets the dpi scale for page images.
+     */
+    public void setDpiScale(double aValue)  { _dpiScale = aValue; }
+
+    /**
+     * Returns the max number of pages recorded but not yet handed to caller.
+     */
+    public int getMaxPagesInFlight()  { return _maxPagesInFlight; }
+
+    /**
+     * Sets the max number of pages recorded but not yet handed to caller.
+     */
+    public void setMaxPagesInFlight(int aValue)  { _maxPagesInFlight = Math.max(aValue, 1); }
+
+    /**
+     * Renders all pages and calls given handler with each page index and image (in page order, on calling thread).
+     */
+    public void renderPages(BiConsumer<Integer,Image> aHandler)
+    {
+        renderPages(0, _docView.getPageCount(), aHandler);
+    }
+
+    /**
+     * Renders pages in given range and calls given handler with each page index and image (in page order, on calling thread).
+     */
+    public void renderPages(int aStart, int anEnd, BiConsumer<Integer,Image> aHandler)
+    {
+        renderPagesImpl(aStart, anEnd, image -> image, aHandler);
+    }
+
+    /**
+     * Renders pages in given range and calls given handler with each page index and PNG bytes (in page order, on calling
+     * thread). PNG encoding is also done on worker pool.
+     */
+    public void renderPagesToPNG(int aStart, int anEnd, BiConsumer<Integer,byte[]> aHandler)
+    {
+        renderPagesImpl(aStart, anEnd, Image::getBytesPNG, aHandler);
+    }
+
+    /**
+     * Records pages in given range on calling thread, converts them on worker pool and hands results to handler in order.
+     */
+    private <T> void renderPagesImpl(int aStart, int anEnd, Function<Image,T> aConverter, BiConsumer<Integer,T> aHandler)
+    {
+        ArrayDeque<Future<T>> pageFutures = new ArrayDeque<>();
+        int handlePageIndex = aStart;
+
+        // Iterate over pages
+        try {
+            for (int i = aStart; i < anEnd; i++) {
+
+                // If max pages in flight, wait for oldest page and hand to caller
+                if (pageFutures.size() >= _maxPagesInFlight)
+                    aHandler.accept(handlePageIndex++, getFutureResult(pageFutures.poll()));
+
+                // Record page display list and submit rasterization
+                PageView page = _docView.getPage(i);
+                PainterDVR2 pageDVR = getDisplayListForPage(page);
+                double pageW = page.getWidth();
+                double pageH = page.getHeight();
+                double dpiScale = _dpiScale;
+                pageFutures.add(getExecutor().submit(() -> aConverter.apply(getImageForDisplayList(pageDVR, pageW, pageH, dpiScale))));
+            }
+
+            // Hand remaining pages to caller
+            while (!pageFutures.isEmpty())
+                aHandler.accept(handlePageIndex++, getFutureResult(pageFutures.poll()));
+        }
+
+        // If handler or rasterization failed, cancel remaining pages
+        finally {
+            for (Future<T> pageFuture : pageFutures)
+                pageFuture.cancel(false);
+        }
+    }
+
+    /**
+     * Returns a display list for given page (page content without page effect, painted as if printing).
+     */
+    public static PainterDVR2 getDisplayListForPage(PageView aPage)
+    {
+        // Create display list painter
+        PainterDVR2 pageDVR = new PainterDVR2();
+        pageDVR.setPrinting(true);
+
+        // Layout and paint page, clipped to page bounds
+        ViewUtils.layoutDeep(aPage);
+        pageDVR.clipRect(0, 0, aPage.getWidth(), aPage.getHeight());
+        aPage.paintBack(pageDVR);
+        aPage.paintFront(pageDVR);
+        aPage.paintChildren(pageDVR);
+        aPage.paintAbove(pageDVR);
+
+        // Make sure images are loaded (so display list can be executed on worker thread) and return
+        pageDVR.loadImages();
+        return pageDVR;
+    }
+
+    /**
+     * Returns an image for given display list and size (can be called from any thread).
+     */
+    public static Image getImageForDisplayList(PainterDVR2 aDVR, double aWidth, double aHeight, double dpiScale)
+    {
+        Image image = Image.getImageForSizeAndDpiScale(Math.ceil(aWidth), Math.ceil(aHeight), true, dpiScale);
+        Painter pntr = image.getPainter();
+        pntr.setPrinting(true);
+        aDVR.exec(pntr);
+        pntr.flush();
+        return image;
+    }
+
+    /**
+     * Returns the result of given future, waiting if needed.
+     */
+    private static <T> T getFutureResult(Future<T> aFuture)
+    {
+        try { return aFuture.get(); }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e) { throw new RuntimeException(e.getCause()); }
+    }
+
+    /**
+     * Returns the number of worker threads.
+     */
+    public static int getThreadCount()  { return Math.max(Runtime.getRuntime().availableProcessors(), 1); }
+
+    /**
+     * Returns the shared worker pool for rasterizing pages.
+     */
+    private static synchronized ExecutorService getExecutor()
+    {
+        if (_executor != null) return _executor;
+        return _executor = Executors.newFixedThreadPool(getThreadCount(), runnable -> {
+            Thread thread = new Thread(runnable, "DocViewRenderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs given number of pages serially (record and rasterize on calling thread) or with pipeline and returns pages/sec.
+     */
+    public static double runBenchmark(DocView aDocView, boolean isPipelined)
+    {
+        int pageCount = aDocView.getPageCount();
+        long[] pixelSum = new long[1];
+        long startNanos = System.nanoTime();
+
+        // Handle pipelined
+        if (isPipelined)
+            new DocViewRenderer(aDocView).renderPages((pageIndex, image) -> pixelSum[0] += image.getRGB(10, 10));
+
+        // Handle serial
+        else {
+            for (int i = 0; i < pageCount; i++) {
+                PageView page = aDocView.getPage(i);
+                PainterDVR2 pageDVR = getDisplayListForPage(page);
+                Image image = getImageForDisplayList(pageDVR, page.getWidth(), page.getHeight(), 1);
+                pixelSum[0] += image.getRGB(10, 10);
+            }
+        }
+
+        // Return pages per second
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return pageCount / seconds;
+    }
+
+    /**
+     * Returns a DocView with given number of text pages (for benchmark).
+     */
+    private static DocView createBenchmarkDocView(int aPageCount)
+    {
+        DocView docView = new DocView();
+        docView.setPageMargin(new Insets(36));
+        for (int i = 0; i < aPageCount; i++) {
+
+            // Create page
+            PageView page = new PageView();
+            page.setSize(612, 792);
+
+            // Add text rows and a shape to page
+            for (int row = 0; row < 48; row++) {
+                Label label = new Label("Page " + (i + 1) + " row " + (row + 1) + ": The quick brown fox jumps over the lazy dog");
+                label.setBounds(36, 36 + row * 15, 540, 14);
+                page.addChild(label);
+            }
+            RectView rectView = new RectView(36, 760, 540, 2);
+            rectView.setFill(Color.GRAY);
+            page.addChild(rectView);
+            docView.addPage(page);
+        }
+
+        // Return
+        return docView;
+    }
+
+    /**
+     * Runs benchmark: DocViewRenderer [pageCount].
+     */
+    public static void main(String[] args)
+    {
+        int pageCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        DocView docView = createBenchmarkDocView(pageCount);
+        runBenchmark(docView, true); // Warm up
+        System.out.printf("Threads: %d\n", getThreadCount());
+        System.out.printf("Serial: %.1f pages/sec\n", runBenchmark(docView, false));
+        System.out.printf("Pipelined: %.1f pages/sec\n", runBenchmark(docView, true));
+    }
+}
@@ -42,6 +42,22 @@ public class EventDispatcher {
     // A counter to track if user is requesting debug panel (hit control key 3 times)
     private long _debugTrigger;
 
+    // Whether to coalesce consecutive MouseMove/MouseDrag/Scroll events until next ViewUpdater frame
+    private boolean _coalesceEvents;
+
+    // Whether coalesced events keep a history of the events they replaced
+    private boolean _coalesceHistory;
+
+    // The pending coalesced event waiting for next frame
+    private ViewEvent _pendingEvent;
+
+    // The runnable to dispatch pending coalesced event
+    private Runnable _pendingEventRun = this::flushPendingEvent;
+
+    // Reusable arrays of deep view and target view parents for mouse dispatch, and nesting depth of mouse dispatch
+    private ParentArray _deepParents = new ParentArray(), _targParents = new ParentArray();
+    private int _mouseDispatchDepth;
+
     // Whether mouse is currently down
     private static boolean _mouseDown;
 
@@ -117,10 +133,54 @@ public class EventDispatcher {
         _popup = aPopup;
     }
 
+    /**
+     * Returns whether to coalesce consecutive MouseMove/MouseDrag/Scroll events until next ViewUpdater frame.
+     */
+    public boolean isCoalesceEvents()  { return _coalesceEvents; }
+
+    /**
+     * Sets whether to coalesce consecutive MouseMove/MouseDrag/Scroll events until next ViewUpdater frame.
+     */
+    public void setCoalesceEvents(boolean aValue)
+    {
+        if (aValue == _coalesceEvents) return;
+        _coalesceEvents = aValue;
+        if (!aValue)
+            flushPendingEvent();
+    }
+
+    /**
+     * Returns whether coalesced events keep a history of the events they replaced (see ViewEvent.getCoalescedEvents()).
+     */
+    public boolean isCoalesceHistory()  { return _coalesceHistory; }
+
+    /**
+     * Sets whether coalesced events keep a history of the events they replaced (see ViewEvent.getCoalescedEvents()).
+     */
+    public void setCoalesceHistory(boolean aValue)  { _coalesceHistory = aValue; }
+
     /**
      * Dispatch event.
      */
     public void dispatchEvent(ViewEvent anEvent)
+    {
+        // If coalescing, hold coalescable events for next frame - and dispatch pending event before any other event
+        if (_coalesceEvents) {
+            if (isCoalescable(anEvent)) {
+                coalesceEvent(anEvent);
+                return;
+            }
+            flushPendingEvent();
+        }
+
+        // Do real dispatch
+        dispatchEventImpl(anEvent);
+    }
+
+    /**
+     * Dispatch event.
+     */
+    protected void dispatchEventImpl(ViewEvent anEvent)
     {
         // If popup window is set, see if it needs close
         if (_popup != null)
@@ -153,10 +213,72 @@ public class EventDispatcher {
         }
     }
 
+    /**
+     * Returns whether given event can be coalesced with consecutive events of same type.
+     */
+    private static boolean isCoalescable(ViewEvent anEvent)
+    {
+        EventType eventType = anEvent.getType();
+        return eventType == MouseMove || eventType == MouseDrag || eventType == Scroll;
+    }
+
+    /**
+     * Merges given event with pending event (if same type) and registers to dispatch before next frame.
+     */
+    private void coalesceEvent(ViewEvent anEvent)
+    {
+        // If window has no updater yet, just dispatch
+        ViewUpdater updater = _win.getUpdater();
+        if (updater == null) {
+            flushPendingEvent();
+            dispatchEventImpl(anEvent);
+            return;
+        }
+
+        // If pending event of same type, merge it into new event, otherwise dispatch it
+        ViewEvent pendingEvent = _pendingEvent;
+        if (pendingEvent != null) {
+            _pendingEvent = null;
+            if (pendingEvent.getType() == anEvent.getType())
+                anEvent.coalesceEvent(pendingEvent, _coalesceHistory);
+            else dispatchEventImpl(pendingEvent);
+        }
+
+        // Set new pending event and register to dispatch before next update
+        _pendingEvent = anEvent;
+        updater.runBeforeUpdate(_pendingEventRun);
+    }
+
+    /**
+     * Dispatches the pending coalesced event, if set.
+     */
+    public void flushPendingEvent()
+    {
+        ViewEvent pendingEvent = _pendingEvent;
+        if (pendingEvent == null) return;
+        _pendingEvent = null;
+        dispatchEventImpl(pendingEvent);
+    }
+
     /**
      * Dispatch Mouse event.
      */
     public void dispatchMouseEvent(ViewEvent anEvent)
+    {
+        // Use reusable parent arrays unless this is a nested dispatch
+        _mouseDispatchDepth++;
+        try {
+            if (_mouseDispatchDepth == 1)
+                dispatchMouseEvent(anEvent, _deepParents, _targParents);
+            else dispatchMouseEvent(anEvent, new ParentArray(), new ParentArray());
+        }
+        finally { _mouseDispatchDepth--; }
+    }
+
+    /**
+     * Dispatch Mouse event with given parent arrays.
+     */
+    private void dispatchMouseEvent(ViewEvent anEvent, ParentArray deepParents, ParentArray targParents)
     {
         // Update LastMouseDown
         if (anEvent.isMousePress())
@@ -178,7 +300,7 @@ public class EventDispatcher {
 
         // Get DeepView for event and update MouseOvers for DeepView+Event
         View deepView = ViewUtils.getDeepestViewAt(_win.getRootView(), anEvent.getX(), anEvent.getY());
-        View[] deepParents = getParents(deepView);
+        deepParents.loadParents(deepView);
         updateMouseOvers(deepParents, anEvent);
 
         // Get target view (if bogus, just return)
@@ -187,10 +309,13 @@ public class EventDispatcher {
             return;
 
         // Get target parents
-        View[] targParents = targView != deepView ? getParents(targView) : deepParents;
+        ParentArray parentArray = targView != deepView ? targParents.loadParents(targView) : deepParents;
+        View[] parents = parentArray._views;
+        int parentCount = parentArray._count;
 
         // Forward event to View EventFilters (iterate from root to target)
-        for (View view : targParents) {
+        for (int i = 0; i < parentCount; i++) {
+            View view = parents[i];
             if (view.getEventAdapter().isFilterTypeEnabled(anEvent.getType())) {
                 ViewEvent e2 = anEvent.copyForView(view);
                 view.processEventFilters(e2);
@@ -200,8 +325,8 @@ public class EventDispatcher {
         }
 
         // Forward event to View EventHandlers: (iterate from target to root)
-        for (int i = targParents.length - 1; i >= 0; i--) {
-            View view = targParents[i];
+        for (int i = parentCount - 1; i >= 0; i--) {
+            View view = parents[i];
             if (view.getEventAdapter().isHandlerTypeEnabled(anEvent.getType())) {
                 ViewEvent e2 = anEvent.copyForView(view);
                 view.processEventHandlers(e2);
@@ -303,14 +428,14 @@ public class EventDispatcher {
     /**
      * Update MouseOvers for new deepView/parents.
      */
-    private void updateMouseOvers(View[] deepParents, ViewEvent anEvent)
+    private void updateMouseOvers(ParentArray deepParents, ViewEvent anEvent)
     {
         // Update MouseOvers: Remove views no longer under mouse and dispatch MouseExit events
         for (int i = _mouseOvers.size() - 1; i >= 0; i--) {
             View view = _mouseOvers.get(i);
 
             // Remove views no longer under mouse
-            if (!ArrayUtils.containsId(deepParents, view)) {
+            if (!deepParents.contains(view)) {
                 _mouseOvers.remove(i);
                 _mouseOverView = i > 0 ? _mouseOvers.get(i - 1) : null;
                 if (!view.getEventAdapter().isTypeEnabled(MouseExit))
@@ -325,8 +450,8 @@ public class EventDispatcher {
         }
 
         // Update MouseOvers: Add views now under mouse and dispatch MouseEnter events
-        for (int i = _mouseOvers.size(); i < deepParents.length; i++) {
-            View view = deepParents[i];
+        for (int i = _mouseOvers.size(); i < deepParents._count; i++) {
+            View view = deepParents._views[i];
             _mouseOvers.add(view);
             _mouseOverView = view;
             if (!view.getEventAdapter().isTypeEnabled(MouseEnter))
@@ -551,7 +676,8 @@ public class EventDispatcher {
     {
         ViewEvent event = ViewEvent.createEvent(_win, null, MouseMove, null);
         event = event.copyForViewAndPoint(_win, _win.getWidth() + 100, 0);
-        dispatchEvent(event);
+        flushPendingEvent();
+        dispatchEventImpl(event);
     }
 
     /**
@@ -615,6 +741,48 @@ public class EventDispatcher {
         return pars;
     }
 
+    /**
+     * A reusable array of parents of a view up to and including RootView.
+     */
+    private class ParentArray {
+
+        // The parent views and count
+        private View[] _views = new View[16];
+        private int _count;
+
+        /**
+         * Loads parents of given view up to and including RootView (from root to view).
+         */
+        ParentArray loadParents(View aView)
+        {
+            // Clear previous views and get new count (grow array if needed)
+            Arrays.fill(_views, 0, _count, null);
+            _count = getParentCount(aView);
+            if (_count > _views.length)
+                _views = new View[Math.max(_count, _views.length * 2)];
+            if (_count == 0) return this;
+
+            // Load views
+            View rootView = _win.getRootView();
+            int index = _count;
+            for (View view = aView; view != rootView; view = view.getParent())
+                _views[--index] = view;
+            _views[0] = rootView;
+            return this;
+        }
+
+        /**
+         * Returns whether array contains given view.
+         */
+        boolean contains(View aView)
+        {
+            for (int i = 0; i < _count; i++)
+                if (_views[i] == aView)
+                    return true;
+            return false;
+        }
+    }
+
     /**
      * Tracks whether user is requesting DevPane.
      */
@@ -0,0 +1,466 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.view;
+import java.util.*;
+import snap.geom.Insets;
+import snap.geom.Point;
+import snap.geom.Rect;
+import snap.gfx.Image;
+import snap.gfx.Painter;
+
+/**
+ * A ViewEnv that runs without a native toolkit or event thread, for rendering views on servers and in batch jobs.
+ * Events run on a deterministic single threaded run loop driven by the owner thread: runLater() queues runnables that
+ * run (in order) when runPending() is called, and runDelayed()/runIntervals()/ViewTimer run on a virtual clock that
+ * only moves when advanceTime() is called. Windows are hosted offscreen and painted into images.
+ *
+ * Each thread can install its own environment with installForCurrentThread(), so many threads can render in parallel.
+ * Use with snap.swing.HeadlessEnv (or another image capable GFXEnv) for fonts and image painters.
+ */
+public class HeadlessViewEnv extends ViewEnv {
+
+    // The thread that owns the run loop (the event thread)
+    private Thread _thread;
+
+    // The queue of runnables from runLater
+    private final ArrayDeque<Runnable> _runQueue = new ArrayDeque<>();
+
+    // The tasks scheduled on virtual clock (from runDelayed and runIntervals), ordered by time then schedule order
+    private final PriorityQueue<ScheduledTask> _scheduledTasks = new PriorityQueue<>();
+
+    // The interval tasks by runnable
+    private final Map<Runnable,ScheduledTask> _intervalTasks = new HashMap<>();
+
+    // The virtual clock time in milliseconds
+    private volatile long _time;
+
+    // The number of tasks scheduled (to keep tasks at same time in schedule order)
+    private long _scheduleCount;
+
+    // The screen size reported for window placement
+    private double _screenWidth = 1920, _screenHeight = 1080;
+
+    // The dpi scale for window images
+    private double _dpiScale = 1;
+
+    // The max number of runnables run by one runPending() call (to stop runaway runLater loops)
+    private static final int MAX_PENDING_RUN_COUNT = 1000000;
+
+    /**
+     * Constructor. The current thread becomes the event thread.
+     */
+    public HeadlessViewEnv()
+    {
+        super();
+        _thread = Thread.currentThread();
+    }
+
+    /**
+     * Returns the thread that owns the run loop.
+     */
+    public Thread getThread()  { return _thread; }
+
+    /**
+     * Override to return whether current thread is owner thread.
+     */
+    @Override
+    public boolean isEventThread()  { return Thread.currentThread() == _thread; }
+
+    /**
+     * Override to add runnable to run queue.
+     */
+    @Override
+    public void runLater(Runnable aRun)
+    {
+        synchronized (_runQueue) { _runQueue.add(aRun); }
+    }
+
+    /**
+     * Override to schedule runnable on virtual clock.
+     */
+    @Override
+    public void runDelayed(Runnable aRun, int aDelay)
+    {
+        scheduleTask(new ScheduledTask(aRun, Math.max(aDelay, 0), 0));
+    }
+
+    /**
+     * Override to schedule runnable on virtual clock.
+     */
+    @Override
+    public void runIntervals(Runnable aRun, int aPeriod)
+    {
+        ScheduledTask task = new ScheduledTask(aRun, aPeriod, Math.max(aPeriod, 1));
+        synchronized (_scheduledTasks) { _intervalTasks.put(aRun, task); }
+        scheduleTask(task);
+    }
+
+    /**
+     * Override to cancel interval task.
+     */
+    @Override
+    public void stopIntervals(Runnable aRun)
+    {
+        synchronized (_scheduledTasks) {
+            ScheduledTask task = _intervalTasks.remove(aRun);
+            if (task != null) {
+                task._cancelled = true;
+                _scheduledTasks.remove(task);
+            }
+        }
+    }
+
+    /**
+     * Adds given task to scheduled tasks.
+     */
+    private void scheduleTask(ScheduledTask aTask)
+    {
+        synchronized (_scheduledTasks) {
+            aTask._fireTime = _time + aTask._delay;
+            aTask._order = _scheduleCount++;
+            _scheduledTasks.add(aTask);
+        }
+    }
+
+    /**
+     * Override to return virtual clock time.
+     */
+    @Override
+    public long getNanoTime()  { return _time * 1000000; }
+
+    /**
+     * Returns the virtual clock time in milliseconds.
+     */
+    public long getTime()  { return _time; }
+
+    /**
+     * Runs all queued runnables (including those queued while running) and returns the number run.
+     */
+    public int runPending()
+    {
+        checkEventThread("runPending");
+
+        // Run queued runnables in order until queue is empty
+        int runCount = 0;
+        while (runCount < MAX_PENDING_RUN_COUNT) {
+            Runnable run;
+            synchronized (_runQueue) { run = _runQueue.poll(); }
+            if (run == null)
+                break;
+            run.run();
+            runCount++;
+        }
+
+        // Complain if queue never emptied
+        if (runCount == MAX_PENDING_RUN_COUNT)
+            System.err.println("HeadlessViewEnv.runPending: Run queue not empty after " + runCount + " runs");
+
+        // Return
+        return runCount;
+    }
+
+    /**
+     * Advances virtual clock by given milliseconds, running scheduled tasks (and the runnables they queue) in time order.
+     */
+    public void advanceTime(long aMillis)
+    {
+        checkEventThread("advanceTime");
+        long endTime = _time + Math.max(aMillis, 0);
+
+        // Run pending, then run scheduled tasks due by end time
+        runPending();
+        while (true) {
+
+            // Get next task due by end time (just break if none)
+            ScheduledTask task;
+            synchronized (_scheduledTasks) {
+                task = _scheduledTasks.peek();
+                if (task == null || task._fireTime > endTime)
+                    break;
+                _scheduledTasks.poll();
+
+                // Move clock to task time and reschedule if interval
+                _time = task._fireTime;
+                if (task._period > 0) {
+                    task._delay = task._period;
+                    scheduleTask(task);
+                }
+            }
+
+            // Run task and anything it queued
+            if (!task._cancelled)
+                task._run.run();
+            runPending();
+        }
+
+        // Move clock to end time
+        _time = endTime;
+    }
+
+    /**
+     * Returns the virtual time of next scheduled task (or -1 if none).
+     */
+    public long getNextTaskTime()
+    {
+        synchronized (_scheduledTasks) {
+            ScheduledTask task = _scheduledTasks.peek();
+            return task != null ? task._fireTime : -1;
+        }
+    }
+
+    /**
+     * Sets the screen size reported for window placement.
+     */
+    public void setScreenSize(double aWidth, double aHeight)
+    {
+        _screenWidth = aWidth;
+        _screenHeight = aHeight;
+    }
+
+    /**
+     * Returns the dpi scale for window images.
+     */
+    public double getDpiScale()  { return _dpiScale; }
+
+    /**
+     * Sets the dpi scale for window images (1 = 72 dpi, 2 = 144 dpi).
+     */
+    public void setDpiScale(double aValue)  { _dpiScale = aValue; }
+
+    /**
+     * Override to create headless event (event object can be a Point to give event location in view coords).
+     */
+    @Override
+    public ViewEvent createEvent(View aView, Object anEvent, EventType aType, String aName)
+    {
+        ViewEvent event = new HeadlessEvent();
+        event.setView(aView);
+        event.setEvent(anEvent);
+        event.setType(aType);
+        event.setName(aName != null ? aName : aView != null ? aView.getName() : null);
+        return event;
+    }
+
+    /**
+     * Override to return offscreen window helper.
+     */
+    @Override
+    public WindowView.WindowHpr createHelper(View aView)  { return new HeadlessWindowHpr(_dpiScale); }
+
+    /**
+     * Override to return virtual screen bounds.
+     */
+    @Override
+    public Rect getScreenBoundsInset()  { return new Rect(0, 0, _screenWidth, _screenHeight); }
+
+    /**
+     * Override to do nothing.
+     */
+    @Override
+    public void activateApp(View aView)  { }
+
+    /**
+     * Shows given view in an offscreen window with given size (or preferred size if zero) and runs pending.
+     */
+    public WindowView showView(View aView, double aWidth, double aHeight)
+    {
+        // Create window for view
+        WindowView window = new WindowView();
+        window.setType(WindowView.Type.PLAIN);
+        window.setContent(aView);
+
+        // Show window (packs to preferred size) and set size if provided
+        window.show(null, 0, 0);
+        if (aWidth > 0 && aHeight > 0)
+            window.setSize(aWidth, aHeight);
+
+        // Run pending to layout and paint
+        runPending();
+        return window;
+    }
+
+    /**
+     * Returns the current image for given offscreen window (after running pending layout and paints).
+     */
+    public Image getWindowImage(WindowView aWin)
+    {
+        runPending();
+        HeadlessWindowHpr windowHpr = (HeadlessWindowHpr) aWin.getHelper();
+        return windowHpr.getImage();
+    }
+
+    /**
+     * Renders given view in an offscreen window with given size (or preferred size if zero) and returns image.
+     */
+    public Image getImageForView(View aView, double aWidth, double aHeight)
+    {
+        // Show view in window and get image
+        WindowView window = showView(aView, aWidth, aHeight);
+        Image image = getWindowImage(window);
+
+        // Hide window, remove view and return image
+        window.hide();
+        window.setContent(null);
+        runPending();
+        return image;
+    }
+
+    /**
+     * Renders given view in an offscreen window with given size (or preferred size if zero) and returns PNG bytes.
+     */
+    public byte[] getPNGBytesForView(View aView, double aWidth, double aHeight)
+    {
+        Image image = getImageForView(aView, aWidth, aHeight);
+        return image != null ? image.getBytesPNG() : null;
+    }
+
+    /**
+     * Complains if current thread isn't owner thread.
+     */
+    private void checkEventThread(String aMethodName)
+    {
+        if (!isEventThread())
+            throw new IllegalStateException("HeadlessViewEnv." + aMethodName + ": Called from non-owner thread: " + Thread.currentThread().getName());
+    }
+
+    /**
+     * Creates a new HeadlessViewEnv and sets it as the environment for current thread (and threads it creates).
+     */
+    public static HeadlessViewEnv installForCurrentThread()
+    {
+        HeadlessViewEnv viewEnv = new HeadlessViewEnv();
+        ViewEnv.setThreadEnv(viewEnv);
+        return viewEnv;
+    }
+
+    /**
+     * A task scheduled on virtual clock.
+     */
+    private static class ScheduledTask implements Comparable<ScheduledTask> {
+
+        // The runnable
+        private Runnable _run;
+
+        // The delay and period (zero if not interval)
+        private long _delay, _period;
+
+        // The fire time and schedule order
+        private long _fireTime, _order;
+
+        // Whether task is cancelled
+        private boolean _cancelled;
+
+        /** Constructor. */
+        ScheduledTask(Runnable aRun, long aDelay, long aPeriod)  { _run = aRun; _delay = aDelay; _period = aPeriod; }
+
+        /** Compares by fire time, then schedule order. */
+        public int compareTo(ScheduledTask aTask)
+        {
+            int comp = Long.compare(_fireTime, aTask._fireTime);
+            return comp != 0 ? comp : Long.compare(_order, aTask._order);
+        }
+    }
+
+    /**
+     * A ViewEvent with no native event.
+     */
+    private static class HeadlessEvent extends ViewEvent {
+
+        /** Override to return null (type is always set). */
+        protected EventType getTypeImpl()  { return null; }
+
+        /** Override to return event object point (in view coords) if event is a Point, otherwise origin. */
+        protected Point getPointImpl()
+        {
+            Object eventObj = getEvent();
+            return eventObj instanceof Point point ? new Point(point.x, point.y) : new Point(0, 0);
+        }
+    }
+
+    /**
+     * A WindowHpr that hosts window offscreen and paints it into an image.
+     */
+    public static class HeadlessWindowHpr extends WindowView.WindowHpr {
+
+        // The window
+        private WindowView _win;
+
+        // The window image
+        private Image _image;
+
+        // The dpi scale for image
+        private double _dpiScale;
+
+        // The number of paints
+        private int _paintCount;
+
+        /** Constructor for given dpi scale. */
+        public HeadlessWindowHpr(double dpiScale)  { _dpiScale = dpiScale; }
+
+        /** Initializes helper for given window. */
+        @Override
+        public void initForWindow(WindowView aWin)
+        {
+            _win = aWin;
+            _win.addPropChangeListener(pc -> syncRootViewBounds(), View.Width_Prop, View.Height_Prop);
+            syncRootViewBounds();
+        }
+
+        /** Syncs RootView bounds to window bounds (as a native window would). */
+        private void syncRootViewBounds()
+        {
+            Insets ins = _win.getInsetsAll();
+            double rootW = Math.max(_win.getWidth() - ins.getWidth(), 0);
+            double rootH = Math.max(_win.getHeight() - ins.getHeight(), 0);
+            _win.getRootView().setBounds(ins.left, ins.top, rootW, rootH);
+        }
+
+        /** Initializes native window: Nothing to do. */
+        @Override
+        public void initializeNativeWindow()  { }
+
+        /** Shows window. */
+        @Override
+        public void show()  { ViewUtils.setShowing(_win, true); }
+
+        /** Hides window. */
+        @Override
+        public void hide()  { ViewUtils.setShowing(_win, false); }
+
+        /** Orders window to front: Nothing to do. */
+        @Override
+        public void toFront()  { }
+
+        /** Paints given rect into window image (called by ViewUpdater while updating views). */
+        @Override
+        public void requestPaint(Rect aRect)
+        {
+            // Get root view size (just return if empty)
+            RootView rootView = _win.getRootView();
+            int imageW = (int) Math.ceil(rootView.getWidth());
+            int imageH = (int) Math.ceil(rootView.getHeight());
+            if (imageW <= 0 || imageH <= 0)
+                return;
+
+            // If image missing or size changed, create new image and paint all
+            Rect paintRect = aRect;
+            if (_image == null || _image.getWidth() != imageW || _image.getHeight() != imageH) {
+                _image = Image.getImageForSizeAndDpiScale(imageW, imageH, true, _dpiScale);
+                paintRect = new Rect(0, 0, imageW, imageH);
+            }
+
+            // Paint views into image
+            Painter pntr = _image.getPainter();
+            _win.getUpdater().paintViews(pntr, paintRect);
+            pntr.flush();
+            _paintCount++;
+        }
+
+        /** Returns the window image (null if window never painted). */
+        public Image getImage()  { return _image; }
+
+        /** Returns the number of paints. */
+        public int getPaintCount()  { return _paintCount; }
+    }
+}
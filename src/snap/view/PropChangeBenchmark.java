@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.view;
+import snap.props.PropChangeListener;
+
+/**
+ * A benchmark of View.setXY() throughput, with no listeners, with a listener for an unrelated prop and with a
+ * listener for all props, to measure prop change dispatch (and allocation) cost.
+ */
+class PropChangeBenchmark {
+
+    /**
+     * Runs setXY on given number of views for given number of iterations (with given listener for given prop, or all
+     * props if null) and returns millions of calls per second.
+     */
+    public static double runBenchmark(int aViewCount, int anIterCount, PropChangeListener aLsnr, String aProp)
+    {
+        // Create views and add listener
+        View[] views = new View[aViewCount];
+        for (int i = 0; i < aViewCount; i++) {
+            views[i] = new RectView();
+            if (aLsnr != null && aProp != null)
+                views[i].addPropChangeListener(aLsnr, aProp);
+            else if (aLsnr != null)
+                views[i].addPropChangeListener(aLsnr);
+        }
+
+        // Run setXY for views for iterations
+        long startTime = System.nanoTime();
+        for (int iter = 0; iter < anIterCount; iter++) {
+            for (int i = 0; i < aViewCount; i++)
+                views[i].setXY(iter, i + iter);
+        }
+        long elapsedTime = Math.max(System.nanoTime() - startTime, 1);
+
+        // Return millions of setXY calls per second
+        return (double) aViewCount * anIterCount * 1000 / elapsedTime;
+    }
+
+    /**
+     * Runs prop change dispatch benchmark: PropChangeBenchmark [viewCount] [iterCount].
+     */
+    public static void main(String[] args)
+    {
+        int viewCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int iterCount = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        long[] lsnrCallCount = new long[1];
+        PropChangeListener lsnr = pc -> lsnrCallCount[0]++;
+
+        // Warm up
+        for (int i = 0; i < 3; i++) {
+            runBenchmark(viewCount, iterCount / 4, null, null);
+            runBenchmark(viewCount, iterCount / 4, lsnr, View.Opacity_Prop);
+            runBenchmark(viewCount, iterCount / 4, lsnr, null);
+        }
+
+        // Run and print results
+        System.out.printf("No listeners: %.1f M setXY/sec\n", runBenchmark(viewCount, iterCount, null, null));
+        System.out.printf("Unrelated prop listener: %.1f M setXY/sec\n", runBenchmark(viewCount, iterCount, lsnr, View.Opacity_Prop));
+        System.out.printf("All props listener: %.1f M setXY/sec\n", runBenchmark(viewCount, iterCount, lsnr, null));
+        System.out.println("Listener calls: " + lsnrCallCount[0]);
+    }
+}
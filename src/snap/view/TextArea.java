@@ -332,6 +332,11 @@ public class TextArea extends ParentView {
      */
     public boolean isSpellChecking()  { return _textAdapter.isSpellChecking(); }
 
+    /**
+     * Sets whether editor is doing check-as-you-type spelling.
+     */
+    public void setSpellChecking(boolean aValue)  { _textAdapter.setSpellChecking(aValue); }
+
     /**
      * Returns the font scale of the text.
      */
@@ -66,6 +66,18 @@ public class View extends PropObject implements EventType.AllTypes {
     // The ViewEffectPainter to facilitate effect rendering for this view and current effect
     private ViewEffectPainter _effectPainter;
 
+    // The tiled backing store (if view is tile cached)
+    ViewTileCache _tileCache;
+
+    // The layer image cache (if view is layer cached)
+    ViewLayerCache _layerCache;
+
+    // Whether registered repaint is just for transform or visibility change (so tile and layer caches are still valid)
+    boolean _repaintTransformOnly;
+
+    // Whether repaintInParent(null) is deferred (ViewAnim repaints union of old/new bounds in parent for transform anims)
+    boolean _repaintInParentDeferred;
+
     // The opacity
     private double  _opacity;
 
@@ -117,6 +129,9 @@ public class View extends PropObject implements EventType.AllTypes {
     // An object to help with layout and hold cached layout info
     private ViewLayout _viewLayout;
 
+    // The measure cache: computed pref width/height for two most recent constraints (null until first measure)
+    private double[] _measureCache;
+
     // The class name to use at runtime (for archival/unarchival use)
     private String _runtimeClassName;
 
@@ -249,7 +264,7 @@ public class View extends PropObject implements EventType.AllTypes {
         repaintInParent(null);
 
         // Set value and fire prop change
-        firePropChange(X_Prop, _x, _x = aValue);
+        fireDoubleChange(X_Prop, _x, _x = aValue);
     }
 
     /**
@@ -268,7 +283,7 @@ public class View extends PropObject implements EventType.AllTypes {
         repaintInParent(null);
 
         // Set value and fire prop change
-        firePropChange(Y_Prop, _y, _y = aValue);
+        fireDoubleChange(Y_Prop, _y, _y = aValue);
     }
 
     /**
@@ -289,7 +304,7 @@ public class View extends PropObject implements EventType.AllTypes {
         repaint(0, 0, Math.max(_width, aValue), getHeight());
 
         // Set value, fire prop change and register for relayout
-        firePropChange(Width_Prop, _width, _width = aValue);
+        fireDoubleChange(Width_Prop, _width, _width = aValue);
         relayout();
     }
 
@@ -311,7 +326,7 @@ public class View extends PropObject implements EventType.AllTypes {
         repaint(0, 0, getWidth(), Math.max(_height, aValue));
 
         // Set value, fire prop change and register for relayout
-        firePropChange(Height_Prop, _height, _height = aValue);
+        fireDoubleChange(Height_Prop, _height, _height = aValue);
         relayout();
     }
 
@@ -439,7 +454,7 @@ public class View extends PropObject implements EventType.AllTypes {
     {
         if (aValue == _transX) return;
         repaintInParent(null);
-        firePropChange(TransX_Prop, _transX, _transX = aValue);
+        fireDoubleChange(TransX_Prop, _transX, _transX = aValue);
     }
 
     /**
@@ -454,7 +469,7 @@ public class View extends PropObject implements EventType.AllTypes {
     {
         if (aValue == _transY) return;
         repaintInParent(null);
-        firePropChange(TransY_Prop, _transY, _transY = aValue);
+        fireDoubleChange(TransY_Prop, _transY, _transY = aValue);
     }
 
     /**
@@ -469,7 +484,7 @@ public class View extends PropObject implements EventType.AllTypes {
     {
         if (theDegrees == _rotate) return;
         repaintInParent(null);
-        firePropChange(Rotate_Prop, _rotate, _rotate = theDegrees);
+        fireDoubleChange(Rotate_Prop, _rotate, _rotate = theDegrees);
     }
 
     /**
@@ -484,7 +499,7 @@ public class View extends PropObject implements EventType.AllTypes {
     {
         if (aValue == _scaleX) return;
         repaintInParent(null);
-        firePropChange(ScaleX_Prop, _scaleX, _scaleX = aValue);
+        fireDoubleChange(ScaleX_Prop, _scaleX, _scaleX = aValue);
     }
 
     /**
@@ -499,7 +514,7 @@ public class View extends PropObject implements EventType.AllTypes {
     {
         if (aValue == _scaleY) return;
         repaintInParent(null);
-        firePropChange(ScaleY_Prop, _scaleY, _scaleY = aValue);
+        fireDoubleChange(ScaleY_Prop, _scaleY, _scaleY = aValue);
     }
 
     /**
@@ -632,6 +647,49 @@ public class View extends PropObject implements EventType.AllTypes {
         firePropChange(Effect_Prop, old, anEffect);
     }
 
+    /**
+     * Returns whether view is painted from a tiled backing store (for large views with mostly static painting).
+     */
+    public boolean isTileCached()  { return _tileCache != null; }
+
+    /**
+     * Sets whether view is painted from a tiled backing store (for large views with mostly static painting).
+     */
+    public void setTileCached(boolean aValue)
+    {
+        if (aValue == isTileCached()) return;
+        _tileCache = aValue ? new ViewTileCache(this) : null;
+        repaint();
+    }
+
+    /**
+     * Returns the tiled backing store (null if not tile cached).
+     */
+    public ViewTileCache getTileCache()  { return _tileCache; }
+
+    /**
+     * Returns whether view and children are painted from a cached image while they don't change ("cache as bitmap").
+     */
+    public boolean isLayerCached()  { return _layerCache != null; }
+
+    /**
+     * Sets whether view and children are painted from a cached image while they don't change ("cache as bitmap").
+     * Cached painting is clipped to view bounds.
+     */
+    public void setLayerCached(boolean aValue)
+    {
+        if (aValue == isLayerCached()) return;
+        if (_layerCache != null)
+            _layerCache.clear();
+        _layerCache = aValue ? new ViewLayerCache(this) : null;
+        repaint();
+    }
+
+    /**
+     * Returns the layer image cache (null if not layer cached).
+     */
+    public ViewLayerCache getLayerCache()  { return _layerCache; }
+
     /**
      * Returns the opacity of the view.
      */
@@ -643,7 +701,7 @@ public class View extends PropObject implements EventType.AllTypes {
     public void setOpacity(double aValue)
     {
         if (aValue == _opacity) return;
-        firePropChange(Opacity_Prop, _opacity, _opacity = aValue);
+        fireDoubleChange(Opacity_Prop, _opacity, _opacity = aValue);
         repaint();
     }
 
@@ -1151,6 +1209,14 @@ public class View extends PropObject implements EventType.AllTypes {
         if (!aValue && isFocused())
             setFocused(false);
 
+        // If hidden, clear caches (repaints aren't registered while hidden, so caches could go stale)
+        if (!aValue) {
+            if (_tileCache != null)
+                _tileCache.clear();
+            if (_layerCache != null)
+                _layerCache.clear();
+        }
+
         // If Anim set, play/suspend
         ViewAnim anim = getAnim(-1);
         if (anim != null) {
@@ -1386,7 +1452,7 @@ public class View extends PropObject implements EventType.AllTypes {
     public void setMinWidth(double aWidth)
     {
         if (aWidth == _minWidth) return;
-        firePropChange(MinWidth_Prop, _minWidth, _minWidth = aWidth);
+        fireDoubleChange(MinWidth_Prop, _minWidth, _minWidth = aWidth);
         relayoutParent();
     }
 
@@ -1406,7 +1472,7 @@ public class View extends PropObject implements EventType.AllTypes {
     public void setMinHeight(double aHeight)
     {
         if (aHeight == _minHeight) return;
-        firePropChange(MinHeight_Prop, _minHeight, _minHeight = aHeight);
+        fireDoubleChange(MinHeight_Prop, _minHeight, _minHeight = aHeight);
         relayoutParent();
     }
 
@@ -1455,7 +1521,7 @@ public class View extends PropObject implements EventType.AllTypes {
     public void setMaxWidth(double aWidth)
     {
         if (aWidth == _maxWidth) return;
-        firePropChange(MaxWidth_Prop, _maxWidth, _maxWidth = aWidth);
+        fireDoubleChange(MaxWidth_Prop, _maxWidth, _maxWidth = aWidth);
         relayoutParent();
     }
 
@@ -1475,7 +1541,7 @@ public class View extends PropObject implements EventType.AllTypes {
     public void setMaxHeight(double aHeight)
     {
         if (aHeight == _maxHeight) return;
-        firePropChange(MaxHeight_Prop, _maxHeight, _maxHeight = aHeight);
+        fireDoubleChange(MaxHeight_Prop, _maxHeight, _maxHeight = aHeight);
         relayoutParent();
     }
 
@@ -1514,7 +1580,7 @@ public class View extends PropObject implements EventType.AllTypes {
     public double getPrefWidth(double aH)
     {
         if (_prefWidth >= 0) return _prefWidth;
-        return computePrefWidth(aH);
+        return getMeasure(0, aH);
     }
 
     /**
@@ -1523,7 +1589,7 @@ public class View extends PropObject implements EventType.AllTypes {
     public void setPrefWidth(double aWidth)
     {
         if (aWidth == _prefWidth) return;
-        firePropChange(PrefWidth_Prop, _prefWidth, _prefWidth = aWidth);
+        fireDoubleChange(PrefWidth_Prop, _prefWidth, _prefWidth = aWidth);
         relayoutParent();
     }
 
@@ -1543,7 +1609,7 @@ public class View extends PropObject implements EventType.AllTypes {
     public double getPrefHeight(double aW)
     {
         if (_prefHeight >= 0) return _prefHeight;
-        return computePrefHeight(aW);
+        return getMeasure(4, aW);
     }
 
     /**
@@ -1552,10 +1618,56 @@ public class View extends PropObject implements EventType.AllTypes {
     public void setPrefHeight(double aHeight)
     {
         if (aHeight == _prefHeight) return;
-        firePropChange(PrefHeight_Prop, _prefHeight, _prefHeight = aHeight);
+        fireDoubleChange(PrefHeight_Prop, _prefHeight, _prefHeight = aHeight);
         relayoutParent();
     }
 
+    /**
+     * Returns the computed pref width (cache offset 0) or height (cache offset 4) for given constraint, using measure
+     * cache. Cache holds two most recent constraint/value pairs per axis and is cleared by relayoutParent().
+     */
+    private double getMeasure(int cacheOffset, double aConstraint)
+    {
+        // If cached value found for constraint, return it (keys are NaN when empty, so never match)
+        double[] measureCache = _measureCache;
+        if (measureCache != null) {
+            if (measureCache[cacheOffset] == aConstraint) {
+                ViewEnv.getEnv()._measureCacheHits++;
+                return measureCache[cacheOffset + 1];
+            }
+            if (measureCache[cacheOffset + 2] == aConstraint) {
+                ViewEnv.getEnv()._measureCacheHits++;
+                return measureCache[cacheOffset + 3];
+            }
+        }
+
+        // Otherwise, create cache if needed
+        else {
+            measureCache = _measureCache = new double[8];
+            Arrays.fill(measureCache, Double.NaN);
+        }
+
+        // Compute value
+        ViewEnv.getEnv()._measureCacheMisses++;
+        double value = cacheOffset == 0 ? computePrefWidth(aConstraint) : computePrefHeight(aConstraint);
+
+        // Move previous entry to second slot and add new entry to first
+        measureCache[cacheOffset + 2] = measureCache[cacheOffset];
+        measureCache[cacheOffset + 3] = measureCache[cacheOffset + 1];
+        measureCache[cacheOffset] = aConstraint;
+        measureCache[cacheOffset + 1] = value;
+        return value;
+    }
+
+    /**
+     * Clears the measure cache.
+     */
+    private void clearMeasureCache()
+    {
+        if (_measureCache != null)
+            Arrays.fill(_measureCache, Double.NaN);
+    }
+
     /**
      * Computes the preferred width of this view.
      */
@@ -1823,17 +1935,26 @@ public class View extends PropObject implements EventType.AllTypes {
 
         // If view has effect or is focused, get effect painter and have it paint
         ViewEffectPainter effectPainter = isFocused() && isFocusPainted() ? ViewEffectPainter.getFocusEffectPainterForView(this) : _effectPainter;
+        boolean paintedCache = false;
         if (effectPainter != null)
             effectPainter.paintAll(aPntr);
 
+        // If tile cached, paint tiles
+        else if (_tileCache != null && _tileCache.paint(aPntr))
+            paintedCache = true;
+
+        // If layer cached, paint layer image
+        else if (_layerCache != null && _layerCache.paint(aPntr))
+            paintedCache = true;
+
         // Otherwise, do normal paint
         else {
             paintBack(aPntr);
             paintFront(aPntr);
         }
 
-        // If parent view and no effect, paint children and paint above
-        if (this instanceof ParentView parentView && effectPainter == null) {
+        // If parent view and no effect or cached painting, paint children and paint above
+        if (this instanceof ParentView parentView && effectPainter == null && !paintedCache) {
             parentView.paintChildren(aPntr);
             parentView.paintAbove(aPntr);
         }
@@ -1966,6 +2087,7 @@ public class View extends PropObject implements EventType.AllTypes {
     public void relayoutParent()
     {
         _viewLayout = null;
+        clearMeasureCache();
         if (_parent == null)
             return;
         _parent.relayout();
@@ -1997,6 +2119,9 @@ public class View extends PropObject implements EventType.AllTypes {
         if (aW < .001 || aH < .001)
             return;
 
+        // Content repaint (clear transform only flag set by repaintInParent)
+        _repaintTransformOnly = false;
+
         // If RepaintRect already set, just union with given bounds and return
         if (_repaintRect != null) {
             _repaintRect.union(aX, aY, aW, aH);
@@ -2031,9 +2156,14 @@ public class View extends PropObject implements EventType.AllTypes {
 
         // Do normal repaint
         if (aRect == null) {
-            if (_repaintRect != null) // Calling with null rect is meant to be called before any other repaint
+            if (_repaintRect != null || _repaintInParentDeferred) // Calling with null rect is meant to be called before any other repaint
                 return;
+
             repaint(0, 0, getWidth(), getHeight());
+
+            // If tile or layer cached, mark repaint as transform only (moves, visibility and effect changes don't change cache)
+            if (_tileCache != null || _layerCache != null)
+                _repaintTransformOnly = _repaintRect != null;
         }
         else repaint(aRect);
 
@@ -2046,6 +2176,19 @@ public class View extends PropObject implements EventType.AllTypes {
         }
     }
 
+    /**
+     * Returns the view bounds in parent coords (expanded for effect, if applicable) for repaint in parent.
+     */
+    Rect getRepaintBoundsInParent()
+    {
+        Rect boundsLocal = getBoundsLocal();
+        Effect effect = getEffect();
+        Rect repaintRect = effect != null ? effect.getBounds(boundsLocal) : boundsLocal;
+        Rect repaintRectInParent = localToParent(repaintRect).getBounds();
+        repaintRectInParent.inset(-1);
+        return repaintRectInParent;
+    }
+
     /**
      * Returns the rect that has been registered for repaint (expanded for focus/effects, if applicable).
      */
@@ -2816,4 +2959,4 @@ public class View extends PropObject implements EventType.AllTypes {
 
     @Deprecated
     public void setClipToBounds(boolean aValue)  { setOverflow(aValue ? Overflow.Clip : Overflow.Visible); }
-}
\ No newline at end of file
+}
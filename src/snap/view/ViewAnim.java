@@ -2,6 +2,7 @@
  * Copyright (c) 2010, ReportMill Software. All rights reserved.
  */
 package snap.view;
+import snap.geom.Rect;
 import snap.gfx.Color;
 import snap.gfx.Paint;
 import snap.props.Prop;
@@ -69,6 +70,12 @@ public class ViewAnim {
     // List of changes encountered by AutoRegisterChanges PropChangeListener
     private List<PropChange> _autoRegisterChanges;
 
+    // The channels to apply key values to view (resolved on first update after keys/values change)
+    private ViewAnimChannel[] _channels;
+
+    // Whether all channels only change view transform or opacity
+    private boolean _transformOnly;
+
     /**
      * Constructor.
      */
@@ -366,10 +373,61 @@ public class ViewAnim {
      */
     protected void updateValues()
     {
-        for (String key : getKeys()) {
-            Object val = getValueForKeyAndTime(key, _time);
-            _view.setPropValue(key, val);
+        // Get channels and ratio for current time
+        ViewAnimChannel[] channels = getChannels();
+        if (channels.length == 0) return;
+        double ratio = (_time - getStart()) / (double) getFrameLength();
+
+        // If transform only, apply channels and repaint union of old and new bounds in parent once (no relayout needed)
+        ParentView parent = _view.getParent();
+        if (_transformOnly && parent != null) {
+            Rect repaintRect = _view.getRepaintBoundsInParent();
+            _view._repaintInParentDeferred = true;
+            try {
+                for (ViewAnimChannel channel : channels)
+                    channel.applyForRatio(_view, ratio, _interp);
+            }
+            finally { _view._repaintInParentDeferred = false; }
+            repaintRect.union(_view.getRepaintBoundsInParent());
+            parent.repaint(repaintRect);
+            return;
         }
+
+        // Apply channels
+        for (ViewAnimChannel channel : channels)
+            channel.applyForRatio(_view, ratio, _interp);
+    }
+
+    /**
+     * Returns the channels to apply key values to view.
+     */
+    protected ViewAnimChannel[] getChannels()
+    {
+        // If already set, just return
+        if (_channels != null) return _channels;
+
+        // Create channels for keys
+        ViewAnimChannel[] channels = new ViewAnimChannel[_keys.size()];
+        boolean transformOnly = true;
+        for (int i = 0; i < channels.length; i++) {
+            String key = _keys.get(i);
+            channels[i] = ViewAnimChannel.getChannelForKeyAndValues(this, key, getStartValue(key), getEndVal(key));
+            transformOnly &= channels[i].isTransformOnly();
+        }
+
+        // Set and return
+        _transformOnly = transformOnly;
+        return _channels = channels;
+    }
+
+    /**
+     * Clears channels for this anim and children (called when keys or values change).
+     */
+    private void clearChannelsDeep()
+    {
+        _channels = null;
+        for (ViewAnim child : _anims)
+            child.clearChannelsDeep();
     }
 
     /**
@@ -521,6 +579,9 @@ public class ViewAnim {
         ListUtils.addUnique(_keys, aKey);
         _endVals.put(aKey, aVal1);
 
+        // Clear channels, since this end value is also start value for child anims
+        clearChannelsDeep();
+
         // If Start value provided, set it
         if (aVal0 != null)
             setStartValue(aKey, aVal0);
@@ -681,6 +742,7 @@ public class ViewAnim {
         _keys.clear();
         _endVals.clear();
         _anims.clear();
+        _channels = null;
         return this;
     }
 
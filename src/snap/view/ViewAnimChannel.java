@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.view;
+import snap.gfx.Color;
+import snap.util.Interpolator;
+import java.util.function.BiConsumer;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * A class to apply the interpolated value of a single ViewAnim key to a view. Channels are resolved once for a key and
+ * its start/end values, so common double and color props are set with direct setters and no per-frame boxing or
+ * prop name lookup.
+ */
+public abstract class ViewAnimChannel {
+
+    // The prop name
+    protected String _key;
+
+    /**
+     * Constructor.
+     */
+    protected ViewAnimChannel(String aKey)
+    {
+        _key = aKey;
+    }
+
+    /**
+     * Returns the prop name.
+     */
+    public String getKey()  { return _key; }
+
+    /**
+     * Returns whether channel only changes view transform or opacity (and never requires relayout).
+     */
+    public boolean isTransformOnly()  { return false; }
+
+    /**
+     * Sets the interpolated value for given ratio in given view.
+     */
+    public abstract void applyForRatio(View aView, double aRatio, Interpolator anInterp);
+
+    /**
+     * Returns a channel for given anim, key and start/end values.
+     */
+    public static ViewAnimChannel getChannelForKeyAndValues(ViewAnim anAnim, String aKey, Object aVal1, Object aVal2)
+    {
+        // Handle numbers with known double setter
+        if (aVal1 instanceof Number num1 && aVal2 instanceof Number num2) {
+            ObjDoubleConsumer<View> doubleSetter = getDoubleSetterForKey(aKey);
+            if (doubleSetter != null)
+                return new DoubleChannel(aKey, num1.doubleValue(), num2.doubleValue(), doubleSetter);
+        }
+
+        // Handle colors with known color setter
+        else if (aVal1 instanceof Color || aVal2 instanceof Color) {
+            BiConsumer<View,Color> colorSetter = getColorSetterForKey(aKey);
+            if (colorSetter != null) {
+                Color color1 = aVal1 instanceof Color ? (Color) aVal1 : Color.CLEAR;
+                Color color2 = aVal2 instanceof Color ? (Color) aVal2 : Color.CLEAR;
+                return new ColorChannel(aKey, color1, color2, colorSetter);
+            }
+        }
+
+        // Handle anything else
+        return new ObjectChannel(anAnim, aKey, aVal1, aVal2);
+    }
+
+    /**
+     * Returns a direct double setter for given prop name.
+     */
+    private static ObjDoubleConsumer<View> getDoubleSetterForKey(String aKey)
+    {
+        return switch (aKey) {
+            case View.X_Prop -> View::setX;
+            case View.Y_Prop -> View::setY;
+            case View.Width_Prop -> View::setWidth;
+            case View.Height_Prop -> View::setHeight;
+            case View.PrefWidth_Prop -> View::setPrefWidth;
+            case View.PrefHeight_Prop -> View::setPrefHeight;
+            case View.TransX_Prop -> View::setTransX;
+            case View.TransY_Prop -> View::setTransY;
+            case View.ScaleX_Prop -> View::setScaleX;
+            case View.ScaleY_Prop -> View::setScaleY;
+            case View.Rotate_Prop -> View::setRotate;
+            case View.Opacity_Prop -> View::setOpacity;
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns a direct color setter for given prop name.
+     */
+    private static BiConsumer<View,Color> getColorSetterForKey(String aKey)
+    {
+        return switch (aKey) {
+            case View.Fill_Prop -> View::setFill;
+            case View.TextColor_Prop -> View::setTextColor;
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns whether given prop name only changes view transform or opacity.
+     */
+    private static boolean isTransformKey(String aKey)
+    {
+        return switch (aKey) {
+            case View.TransX_Prop, View.TransY_Prop, View.ScaleX_Prop, View.ScaleY_Prop, View.Rotate_Prop, View.Opacity_Prop -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * A channel for double values.
+     */
+    private static class DoubleChannel extends ViewAnimChannel {
+
+        // The start/end values
+        private double _val1, _val2;
+
+        // The setter
+        private ObjDoubleConsumer<View> _setter;
+
+        // Whether key is transform or opacity
+        private boolean _transformOnly;
+
+        /**
+         * Constructor.
+         */
+        DoubleChannel(String aKey, double aVal1, double aVal2, ObjDoubleConsumer<View> aSetter)
+        {
+            super(aKey);
+            _val1 = aVal1;
+            _val2 = aVal2;
+            _setter = aSetter;
+            _transformOnly = isTransformKey(aKey);
+        }
+
+        @Override
+        public boolean isTransformOnly()  { return _transformOnly; }
+
+        @Override
+        public void applyForRatio(View aView, double aRatio, Interpolator anInterp)
+        {
+            double value = aRatio <= 0 || _val1 == _val2 ? _val1 : aRatio >= 1 ? _val2 : anInterp.getValue(aRatio, _val1, _val2);
+            _setter.accept(aView, value);
+        }
+    }
+
+    /**
+     * A channel for color values.
+     */
+    private static class ColorChannel extends ViewAnimChannel {
+
+        // The start/end values
+        private Color _val1, _val2;
+
+        // The setter
+        private BiConsumer<View,Color> _setter;
+
+        /**
+         * Constructor.
+         */
+        ColorChannel(String aKey, Color aVal1, Color aVal2, BiConsumer<View,Color> aSetter)
+        {
+            super(aKey);
+            _val1 = aVal1;
+            _val2 = aVal2;
+            _setter = aSetter;
+        }
+
+        @Override
+        public void applyForRatio(View aView, double aRatio, Interpolator anInterp)
+        {
+            Color value = aRatio <= 0 || _val1.equals(_val2) ? _val1 : aRatio >= 1 ? _val2 :
+                _val1.blend(_val2, anInterp.getValue(aRatio, 0, 1));
+            _setter.accept(aView, value);
+        }
+    }
+
+    /**
+     * A channel for any other values: Uses ViewAnim.interpolateValuesForRatio() and View.setPropValue().
+     */
+    private static class ObjectChannel extends ViewAnimChannel {
+
+        // The anim
+        private ViewAnim _anim;
+
+        // The start/end values
+        private Object _val1, _val2;
+
+        /**
+         * Constructor.
+         */
+        ObjectChannel(ViewAnim anAnim, String aKey, Object aVal1, Object aVal2)
+        {
+            super(aKey);
+            _anim = anAnim;
+            _val1 = aVal1;
+            _val2 = aVal2;
+        }
+
+        @Override
+        public void applyForRatio(View aView, double aRatio, Interpolator anInterp)
+        {
+            Object value = _anim.interpolateValuesForRatio(_val1, _val2, aRatio);
+            aView.setPropValue(_key, value);
+        }
+    }
+}
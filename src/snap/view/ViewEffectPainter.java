@@ -102,7 +102,7 @@ class ViewEffectPainter {
         // If painting hasn't changed since last cache, just return
         double viewW = _view.getWidth();
         double viewH = _view.getHeight();
-        if (viewW == _viewW && viewH == _viewH && pdvr.equals(_pdvrX))
+        if (viewW == _viewW && viewH == _viewH && pdvr.isContentEqual(_pdvrX))
             return;
 
         // Render and cache effect of painting to second PainterDVR
@@ -132,7 +132,7 @@ class ViewEffectPainter {
         }
 
         // If painting hasn't changed since last cache, just return
-        if (viewW == _viewW && viewH == _viewH && pdvr.equals(_pdvrX))
+        if (viewW == _viewW && viewH == _viewH && pdvr.isContentEqual(_pdvrX))
             return;
 
         // Render and cache effect of painting to second PainterDVR
@@ -13,24 +13,56 @@ import snap.web.WebFile;
  */
 public abstract class ViewEnv {
 
-    // The timer for runIntervals and runDelayed
-    private java.util.Timer  _timer = new java.util.Timer();
+    // The timer for runIntervals and runDelayed (created lazily)
+    private java.util.Timer  _timer;
     
     // A map of timer tasks
     private Map <Runnable,TimerTask>  _timerTasks = new HashMap<>();
+
+    // The frame clock that ticks all ViewTimers
+    private ViewFrameClock  _frameClock;
+
+    // The view measure cache hit and miss counts (views of an environment are measured on its event thread)
+    long  _measureCacheHits, _measureCacheMisses;
     
     // The node environment
     protected static ViewEnv  _env;
-    
+
+    // The environments set for specific threads (like headless environments for batch rendering threads)
+    private static InheritableThreadLocal<ViewEnv>  _threadEnvs = new InheritableThreadLocal<>();
+
+    // Whether any thread environment has been set (so getEnv() can skip thread local lookup)
+    private static volatile boolean  _hasThreadEnvs;
+
     /**
      * Returns the node environment.
      */
     public static ViewEnv getEnv()
     {
+        // If thread environment set for current thread, return it
+        if (_hasThreadEnvs) {
+            ViewEnv threadEnv = _threadEnvs.get();
+            if (threadEnv != null)
+                return threadEnv;
+        }
+
+        // Return shared environment
         if (_env != null) return _env;
         return _env = GFXEnv.getEnv().getViewEnv();
     }
 
+    /**
+     * Sets the node environment for current thread (and threads it creates). Null restores shared environment.
+     */
+    public static void setThreadEnv(ViewEnv anEnv)
+    {
+        if (anEnv != null) {
+            _hasThreadEnvs = true;
+            _threadEnvs.set(anEnv);
+        }
+        else _threadEnvs.remove();
+    }
+
     /**
      * Returns whether current thread is event thread.
      */
@@ -41,6 +73,11 @@ public abstract class ViewEnv {
      */
     public abstract void runLater(Runnable aRun);
 
+    /**
+     * Returns the environment clock time in nanoseconds (monotonic). Used by frame clock to time ViewTimers.
+     */
+    public long getNanoTime()  { return System.nanoTime(); }
+
     /**
      * Runs given runnable after delay.
      */
@@ -49,7 +86,7 @@ public abstract class ViewEnv {
         TimerTask task = new TimerTask() {
             public void run() { runLater(aRun); }
         };
-        _timer.schedule(task, aDelay);
+        getTimer().schedule(task, aDelay);
     }
 
     /**
@@ -64,7 +101,7 @@ public abstract class ViewEnv {
 
         // Add task and schedule
         _timerTasks.put(aRun, task);
-        _timer.schedule(task, aPeriod, aPeriod);
+        getTimer().schedule(task, aPeriod, aPeriod);
     }
 
     /**
@@ -77,6 +114,24 @@ public abstract class ViewEnv {
             task.cancel();
     }
 
+    /**
+     * Returns the timer for runIntervals and runDelayed.
+     */
+    private synchronized java.util.Timer getTimer()
+    {
+        if (_timer != null) return _timer;
+        return _timer = new java.util.Timer();
+    }
+
+    /**
+     * Returns the frame clock that ticks all ViewTimers.
+     */
+    public synchronized ViewFrameClock getFrameClock()
+    {
+        if (_frameClock != null) return _frameClock;
+        return _frameClock = new ViewFrameClock(this);
+    }
+
     /**
      * Returns the system clipboard.
      */
@@ -48,6 +48,12 @@ public abstract class ViewEvent implements Cloneable {
     // The shared action (if action event for SharedAction)
     private SharedAction _sharedAction;
 
+    // The earlier events coalesced into this event (if EventDispatcher coalescing and history requested)
+    private List<ViewEvent>  _coalescedEvents;
+
+    // The scroll amounts of earlier events coalesced into this event
+    protected double  _coalescedScrollX, _coalescedScrollY;
+
     // Constants for double/triple click constraints
     private static int  CLICK_TIME = 500;
     private static double  CLICK_DIST = 1;
@@ -493,6 +499,38 @@ public abstract class ViewEvent implements Cloneable {
     /** Returns the scroll amount Y. */
     public double getScrollY()  { complain("getScrollAmountY"); return 0; }
 
+    /**
+     * Returns the list of events this event represents: earlier events coalesced into this event, followed by this event.
+     * Only includes earlier events if EventDispatcher.CoalesceHistory is set.
+     */
+    public List<ViewEvent> getCoalescedEvents()
+    {
+        if (_coalescedEvents == null)
+            return Collections.singletonList(this);
+        List<ViewEvent> events = new ArrayList<>(_coalescedEvents);
+        events.add(this);
+        return events;
+    }
+
+    /**
+     * Merges the given earlier event into this event, accumulating scroll amounts and optionally history.
+     */
+    protected void coalesceEvent(ViewEvent anEvent, boolean keepHistory)
+    {
+        // Accumulate scroll amounts
+        if (isScroll()) {
+            _coalescedScrollX += anEvent.getScrollX();
+            _coalescedScrollY += anEvent.getScrollY();
+        }
+
+        // Add event and its history to coalesced events
+        if (keepHistory) {
+            if (_coalescedEvents == null)
+                _coalescedEvents = new ArrayList<>();
+            _coalescedEvents.addAll(anEvent.getCoalescedEvents());
+        }
+    }
+
     /** Returns the event keycode. */
     public int getKeyCode()  { complain("getKeyCode"); return 0; }
 
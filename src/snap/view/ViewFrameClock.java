@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.view;
+import java.util.Arrays;
+
+/**
+ * A single frame clock that ticks all running ViewTimers, using the environment monotonic clock (which is virtual for
+ * HeadlessViewEnv). Each tick is scheduled for the earliest next fire time of running timers, so every timer fires on its
+ * own period (timers due at the same time fire in the same tick). Timers fire at most once per tick, so when the event
+ * thread falls behind, missed frames are dropped instead of queued.
+ */
+public class ViewFrameClock {
+
+    // The environment that provides intervals
+    private ViewEnv _env;
+
+    // The running timers
+    private ViewTimer[] _timers = new ViewTimer[0];
+
+    // The clock time of next scheduled tick (Long.MAX_VALUE if none)
+    private long _nextTickTime = Long.MAX_VALUE;
+
+    // The nano time of clock creation (so clock time fits in int millis) and of last tick
+    private long _originNanos;
+    private long _lastTickNanos;
+
+    // The number of ticks and frames dropped
+    private long _tickCount, _droppedFrameCount;
+
+    // The recent tick intervals and tick work times in nanos (ring buffers)
+    private long[] _tickIntervals = new long[STATS_FRAME_COUNT];
+    private long[] _tickWorkTimes = new long[STATS_FRAME_COUNT];
+
+    // The number of recent frames to keep stats for
+    private static final int STATS_FRAME_COUNT = 60;
+
+    /**
+     * Constructor for given environment.
+     */
+    public ViewFrameClock(ViewEnv anEnv)
+    {
+        _env = anEnv;
+        _originNanos = anEnv.getNanoTime();
+    }
+
+    /**
+     * Returns the clock time in milliseconds (monotonic).
+     */
+    public long getTime()  { return (_env.getNanoTime() - _originNanos) / 1000000; }
+
+    /**
+     * Returns whether clock is running.
+     */
+    public boolean isRunning()  { return _timers.length > 0; }
+
+    /**
+     * Adds a timer.
+     */
+    protected synchronized void addTimer(ViewTimer aTimer)
+    {
+        // Add timer and schedule first fire
+        _timers = Arrays.copyOf(_timers, _timers.length + 1);
+        _timers[_timers.length - 1] = aTimer;
+        aTimer._nextFireTime = getTime() + aTimer.getPeriod();
+
+        // Schedule tick (if earlier than next scheduled tick)
+        scheduleNextTick();
+    }
+
+    /**
+     * Removes a timer.
+     */
+    protected synchronized void removeTimer(ViewTimer aTimer)
+    {
+        // Remove timer
+        int index = Arrays.asList(_timers).indexOf(aTimer);
+        if (index < 0) return;
+        ViewTimer[] timers = new ViewTimer[_timers.length - 1];
+        System.arraycopy(_timers, 0, timers, 0, index);
+        System.arraycopy(_timers, index + 1, timers, index, timers.length - index);
+        _timers = timers;
+    }
+
+    /**
+     * Schedules a tick for the earliest next fire time of running timers (unless a tick is already scheduled by then).
+     */
+    private synchronized void scheduleNextTick()
+    {
+        // Get earliest next fire time (just return if no timers or tick already scheduled by then)
+        long nextFireTime = Long.MAX_VALUE;
+        for (ViewTimer timer : _timers)
+            nextFireTime = Math.min(nextFireTime, timer._nextFireTime);
+        if (nextFireTime >= _nextTickTime)
+            return;
+
+        // Schedule tick
+        long tickTime = _nextTickTime = nextFireTime;
+        int delay = (int) Math.max(tickTime - getTime(), 0);
+        _env.runDelayed(() -> tick(tickTime), delay);
+    }
+
+    /**
+     * Called on event thread at scheduled tick time to fire timers that are due.
+     */
+    protected void tick(long aTickTime)
+    {
+        // If tick was replaced by an earlier one, just return
+        synchronized (this) {
+            if (aTickTime != _nextTickTime)
+                return;
+            _nextTickTime = Long.MAX_VALUE;
+        }
+
+        // Get tick time and interval
+        long tickNanos = _env.getNanoTime();
+        long tickInterval = tickNanos - _lastTickNanos;
+        _lastTickNanos = tickNanos;
+
+        // Fire timers that are due - if more than a period late, drop missed frames instead of catching up
+        long time = (tickNanos - _originNanos) / 1000000;
+        ViewTimer[] timers = _timers;
+        for (ViewTimer timer : timers) {
+            if (time < timer._nextFireTime || !timer.isRunning())
+                continue;
+            int period = Math.max(timer.getPeriod(), 1);
+            long lateFrames = (time - timer._nextFireTime) / period;
+            _droppedFrameCount += lateFrames;
+            timer._nextFireTime += (lateFrames + 1) * period;
+            timer.sendEvent();
+        }
+
+        // Update stats
+        int statsIndex = (int) (_tickCount++ % STATS_FRAME_COUNT);
+        _tickIntervals[statsIndex] = _tickCount > 1 ? tickInterval : 0;
+        _tickWorkTimes[statsIndex] = _env.getNanoTime() - tickNanos;
+
+        // Schedule next tick
+        scheduleNextTick();
+    }
+
+    /**
+     * Returns the total number of ticks.
+     */
+    public long getFrameCount()  { return _tickCount; }
+
+    /**
+     * Returns the total number of timer frames dropped because event thread was behind.
+     */
+    public long getDroppedFrameCount()  { return _droppedFrameCount; }
+
+    /**
+     * Returns the average time between recent frames in milliseconds.
+     */
+    public double getAverageFrameTime()  { return getAverage(_tickIntervals) / 1e6; }
+
+    /**
+     * Returns the max time between recent frames in milliseconds.
+     */
+    public double getMaxFrameTime()  { return getMax(_tickIntervals) / 1e6; }
+
+    /**
+     * Returns the average time spent in timers for recent frames in milliseconds.
+     */
+    public double getAverageWorkTime()  { return getAverage(_tickWorkTimes) / 1e6; }
+
+    /**
+     * Returns the max time spent in timers for recent frames in milliseconds.
+     */
+    public double getMaxWorkTime()  { return getMax(_tickWorkTimes) / 1e6; }
+
+    /**
+     * Returns the frame rate for recent frames.
+     */
+    public double getFrameRate()
+    {
+        double frameTime = getAverageFrameTime();
+        return frameTime > 0 ? 1000 / frameTime : 0;
+    }
+
+    /**
+     * Returns a string of frame stats.
+     */
+    public String getFrameStats()
+    {
+        return String.format("%.1f fps, frame avg/max %.1f/%.1f ms, work avg/max %.1f/%.1f ms, frames %d, dropped %d",
+            getFrameRate(), getAverageFrameTime(), getMaxFrameTime(), getAverageWorkTime(), getMaxWorkTime(),
+            getFrameCount(), getDroppedFrameCount());
+    }
+
+    /**
+     * Returns the average of recent non-zero values in given stats array.
+     */
+    private double getAverage(long[] theValues)
+    {
+        long total = 0;
+        int count = 0;
+        for (int i = 0, iMax = (int) Math.min(_tickCount, STATS_FRAME_COUNT); i < iMax; i++) {
+            if (theValues[i] > 0) {
+                total += theValues[i];
+                count++;
+            }
+        }
+        return count > 0 ? total / (double) count : 0;
+    }
+
+    /**
+     * Returns the max of recent values in given stats array.
+     */
+    private long getMax(long[] theValues)
+    {
+        long max = 0;
+        for (int i = 0, iMax = (int) Math.min(_tickCount, STATS_FRAME_COUNT); i < iMax; i++)
+            max = Math.max(max, theValues[i]);
+        return max;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.view;
+import java.util.*;
+import snap.geom.Transform;
+import snap.gfx.Image;
+import snap.gfx.Painter;
+import snap.gfx.PainterDVR;
+import snap.gfx.PainterDVR2;
+
+/**
+ * This class caches the painting of a view subtree (like a toolbar or rich label next to an animating sibling) as an
+ * image, so it can be painted as a single image draw while the subtree doesn't change. The image is invalidated by
+ * ViewUpdater for repaints of view or its descendants and reused through transform changes (moves, rotations and scales
+ * down). Layer images share a global memory budget, and least recently painted layers are released when it is exceeded.
+ */
+public class ViewLayerCache {
+
+    // The view
+    private View _view;
+
+    // The layer image (released when invalid or evicted)
+    private volatile Image _image;
+
+    // The scale and view size of layer image
+    private double _imageScale, _imageW, _imageH;
+
+    // The number of bytes held by image
+    private long _imageBytes;
+
+    // The number of times layer was rendered and painted from image
+    private long _renderCount, _hitCount;
+
+    // The layers with images (in access order for LRU)
+    private static LinkedHashMap<ViewLayerCache,Boolean> _imageLayers = new LinkedHashMap<>(16, .75f, true);
+
+    // The total number of bytes held by layer images
+    private static long _totalBytes;
+
+    // The default memory budget (64 MB)
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    // The max number of bytes for all layer images
+    private static long _memoryBudget = DEFAULT_MEMORY_BUDGET;
+
+    /**
+     * Constructor for given view.
+     */
+    public ViewLayerCache(View aView)
+    {
+        _view = aView;
+    }
+
+    /**
+     * Returns the view.
+     */
+    public View getView()  { return _view; }
+
+    /**
+     * Returns whether layer has a valid image.
+     */
+    public boolean isImageValid()  { return _image != null; }
+
+    /**
+     * Returns the number of times layer was rendered.
+     */
+    public long getRenderCount()  { return _renderCount; }
+
+    /**
+     * Returns the number of times layer was painted from image.
+     */
+    public long getHitCount()  { return _hitCount; }
+
+    /**
+     * Paints view with layer image (rendering it if needed). Returns false if layer is too big for memory budget or
+     * painter is printing or recording (image isn't used).
+     */
+    protected boolean paint(Painter aPntr)
+    {
+        // If printing or recording display list, just return false (should get vector painting)
+        if (aPntr.isPrinting() || aPntr instanceof PainterDVR || aPntr instanceof PainterDVR2)
+            return false;
+
+        // Get painter scale (for rotated/skewed transforms, use length of transformed unit vector)
+        Transform xfm = aPntr.getTransform();
+        double[] matrix = xfm.getMatrix();
+        double scale = Math.max(Math.hypot(matrix[0], matrix[1]), Math.hypot(matrix[2], matrix[3]));
+        if (scale <= 0)
+            return false;
+
+        // If image is invalid (released, resized, or painted at a larger scale), render it
+        Image image = _image;
+        double viewW = _view.getWidth();
+        double viewH = _view.getHeight();
+        if (image == null || viewW != _imageW || viewH != _imageH || scale > _imageScale * 1.01 ||
+            _view instanceof ParentView parentView && parentView.isNeedsRepaintDeep()) {
+            image = renderImage(viewW, viewH, scale);
+            if (image == null)
+                return false;
+        }
+
+        // Otherwise, mark layer used
+        else {
+            touchLayer(this);
+            _hitCount++;
+        }
+
+        // Draw image
+        aPntr.drawImage(image, 0, 0, _imageW, _imageH);
+        return true;
+    }
+
+    /**
+     * Renders the layer image for given view size and scale (or returns null if too big for memory budget).
+     */
+    private Image renderImage(double viewW, double viewH, double aScale)
+    {
+        // Release old image
+        clear();
+
+        // Get pixel size (just return if empty or too big for budget)
+        int pixW = (int) Math.ceil(viewW * aScale);
+        int pixH = (int) Math.ceil(viewH * aScale);
+        long imageBytes = pixW * (long) pixH * 4;
+        if (pixW <= 0 || pixH <= 0 || imageBytes > _memoryBudget)
+            return null;
+
+        // Create image (one pixel per device pixel) and painter scaled to view coords
+        Image image = Image.getImageForSize(pixW, pixH, true);
+        Painter pntr = image.getPainter();
+        pntr.scale(aScale, aScale);
+
+        // Paint view (without its own clip, opacity or effect, which are applied when layer is painted)
+        _view.paintBack(pntr);
+        _view.paintFront(pntr);
+        if (_view instanceof ParentView parentView) {
+            parentView.paintChildren(pntr);
+            parentView.paintAbove(pntr);
+        }
+        pntr.flush();
+
+        // Set image and add to budget
+        _image = image;
+        _imageScale = aScale;
+        _imageW = pixW / aScale;
+        _imageH = pixH / aScale;
+        _imageBytes = imageBytes;
+        _renderCount++;
+        addLayer(this);
+        return image;
+    }
+
+    /**
+     * Releases the layer image (called by ViewUpdater when view or descendant repaints).
+     */
+    public void clear()
+    {
+        if (_image != null)
+            removeLayer(this);
+    }
+
+    /**
+     * Returns the total number of bytes held by layer images.
+     */
+    public static synchronized long getTotalBytes()  { return _totalBytes; }
+
+    /**
+     * Returns the max number of bytes for all layer images.
+     */
+    public static synchronized long getMemoryBudget()  { return _memoryBudget; }
+
+    /**
+     * Sets the max number of bytes for all layer images.
+     */
+    public static synchronized void setMemoryBudget(long aValue)
+    {
+        _memoryBudget = Math.max(aValue, 0);
+        trimLayers(null);
+    }
+
+    /**
+     * Adds given layer image to budget and releases least recently used layers if over budget.
+     */
+    private static synchronized void addLayer(ViewLayerCache aLayer)
+    {
+        _imageLayers.put(aLayer, Boolean.TRUE);
+        _totalBytes += aLayer._imageBytes;
+        trimLayers(aLayer);
+    }
+
+    /**
+     * Marks given layer as most recently used.
+     */
+    private static synchronized void touchLayer(ViewLayerCache aLayer)
+    {
+        _imageLayers.get(aLayer);
+    }
+
+    /**
+     * Releases given layer image and removes it from budget.
+     */
+    private static synchronized void removeLayer(ViewLayerCache aLayer)
+    {
+        if (_imageLayers.remove(aLayer) != null)
+            _totalBytes -= aLayer._imageBytes;
+        aLayer._image = null;
+        aLayer._imageBytes = 0;
+    }
+
+    /**
+     * Releases least recently used layer images (other than given layer) until total is within budget.
+     */
+    private static void trimLayers(ViewLayerCache aLayer)
+    {
+        for (Iterator<ViewLayerCache> layerIter = _imageLayers.keySet().iterator(); _totalBytes > _memoryBudget && layerIter.hasNext(); ) {
+            ViewLayerCache layer = layerIter.next();
+            if (layer == aLayer)
+                continue;
+            layerIter.remove();
+            _totalBytes -= layer._imageBytes;
+            layer._image = null;
+            layer._imageBytes = 0;
+        }
+    }
+}
@@ -382,8 +382,10 @@ public abstract class ViewLayout extends Rect {
     public double getBestWidth(double aH)
     {
         // If cached case, return cached value
-        if (MathUtils.equals(aH, _bestWidthParam) && _bestWidth >= 0)
+        if (MathUtils.equals(aH, _bestWidthParam) && _bestWidth >= 0) {
+            ViewEnv.getEnv()._measureCacheHits++;
             return _bestWidth;
+        }
 
         // Calculate best width
         double prefW = _view.getPrefWidth(aH);
@@ -402,8 +404,10 @@ public abstract class ViewLayout extends Rect {
     public double getBestHeight(double aW)
     {
         // If common case, return cached value (set if needed)
-        if (MathUtils.equals(aW, _bestHeightParam) && _bestHeight >= 0)
+        if (MathUtils.equals(aW, _bestHeightParam) && _bestHeight >= 0) {
+            ViewEnv.getEnv()._measureCacheHits++;
             return _bestHeight;
+        }
 
         // Calculate best height
         double prefH = _view.getPrefHeight(aW);
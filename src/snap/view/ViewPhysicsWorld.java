@@ -0,0 +1,867 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.view;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * A pure Java 2D rigid body simulation for the children of a ParentView that have ViewPhysics. Bodies are boxes for
+ * the view bounds, held in primitive arrays, with a sweep-and-prune broadphase, box clipping contacts and a sequential
+ * impulse solver with warm starting. Contacts are grouped into islands each step, which can be solved in parallel.
+ */
+public class ViewPhysicsWorld {
+
+    // The parent view
+    private ParentView _parentView;
+
+    // The body views
+    private View[] _views = new View[0];
+
+    // The number of bodies
+    private int _bodyCount;
+
+    // The body centers (meters), angles (radians) and linear/angular velocities
+    private double[] _posX, _posY, _angle, _velX, _velY, _angVel;
+
+    // The body half sizes (meters), inverse mass and inverse inertia
+    private double[] _halfW, _halfH, _invMass, _invI;
+
+    // The body friction and restitution
+    private double[] _friction, _restitution;
+
+    // The body group indexes
+    private int[] _groupIndex;
+
+    // The body axis aligned bounds
+    private double[] _minX, _minY, _maxX, _maxY;
+
+    // The body indexes sorted by min X for sweep and prune
+    private int[] _sortedBodies;
+
+    // The persistent contact arbiters, keyed by body index pair
+    private Map<Long,Arbiter> _arbiters = new HashMap<>();
+
+    // The arbiters for current step, grouped by island
+    private Arbiter[] _stepArbiters = new Arbiter[0];
+
+    // The island start indexes into step arbiters
+    private int[] _islandStarts = new int[1];
+
+    // The number of islands for current step
+    private int _islandCount;
+
+    // The union-find parents for island building
+    private int[] _islandParents;
+
+    // The current step stamp
+    private int _stepStamp;
+
+    // The gravity (meters/sec^2)
+    private double _gravityX, _gravityY = 9.8;
+
+    // The pixels per meter
+    private double _pixelsPerMeter = 100;
+
+    // The fixed time step (seconds)
+    private double _timeStep = 1 / 60d;
+
+    // The number of solver iterations per step
+    private int _iterations = 10;
+
+    // Whether to solve islands in parallel
+    private boolean _parallel;
+
+    // The leftover time not yet simulated in a fixed step
+    private double _accumTime;
+
+    // The timer to run simulation
+    private ViewTimer _timer;
+
+    // The nano time of last timer fire
+    private long _lastFireNanos;
+
+    // Scratch clip vertices for collide (x, y, feature)
+    private double[] _clipX = new double[2], _clipY = new double[2], _clipX2 = new double[2], _clipY2 = new double[2];
+    private int[] _clipFeature = new int[2], _clipFeature2 = new int[2];
+
+    // Constants for solver
+    private static final double ALLOWED_PENETRATION = .01;
+    private static final double BIAS_FACTOR = .2;
+    private static final double RESTITUTION_THRESHOLD = 1;
+    private static final int MAX_STEPS_PER_FRAME = 5;
+    private static final int PARALLEL_MIN_ARBITERS = 64;
+
+    // Constants for box edges in contact features
+    private static final int NO_EDGE = 0, EDGE1 = 1, EDGE2 = 2, EDGE3 = 3, EDGE4 = 4;
+
+    /**
+     * Constructor for given parent view.
+     */
+    public ViewPhysicsWorld(ParentView aParentView)
+    {
+        _parentView = aParentView;
+        resetBodies();
+    }
+
+    /**
+     * Returns the parent view.
+     */
+    public ParentView getParentView()  { return _parentView; }
+
+    /**
+     * Returns the number of bodies.
+     */
+    public int getBodyCount()  { return _bodyCount; }
+
+    /**
+     * Returns the number of body pairs in contact.
+     */
+    public int getContactCount()  { return _arbiters.size(); }
+
+    /**
+     * Returns the number of islands in last step.
+     */
+    public int getIslandCount()  { return _islandCount; }
+
+    /**
+     * Sets the gravity in meters/sec^2 (default is 0, 9.8).
+     */
+    public void setGravity(double aX, double aY)
+    {
+        _gravityX = aX;
+        _gravityY = aY;
+    }
+
+    /**
+     * Returns the pixels per meter.
+     */
+    public double getPixelsPerMeter()  { return _pixelsPerMeter; }
+
+    /**
+     * Sets the pixels per meter (call resetBodies() after).
+     */
+    public void setPixelsPerMeter(double aValue)  { _pixelsPerMeter = aValue; }
+
+    /**
+     * Returns the fixed time step in seconds.
+     */
+    public double getTimeStep()  { return _timeStep; }
+
+    /**
+     * Sets the fixed time step in seconds.
+     */
+    public void setTimeStep(double aValue)  { _timeStep = aValue; }
+
+    /**
+     * Returns the number of solver iterations per step.
+     */
+    public int getIterations()  { return _iterations; }
+
+    /**
+     * Sets the number of solver iterations per step.
+     */
+    public void setIterations(int aValue)  { _iterations = aValue; }
+
+    /**
+     * Returns whether islands are solved in parallel.
+     */
+    public boolean isParallel()  { return _parallel; }
+
+    /**
+     * Sets whether islands are solved in parallel.
+     */
+    public void setParallel(boolean aValue)  { _parallel = aValue; }
+
+    /**
+     * Reloads bodies from parent view children with physics (joints are ignored).
+     */
+    public void resetBodies()
+    {
+        // Get views with physics
+        List<View> views = new ArrayList<>();
+        for (View child : _parentView.getChildren()) {
+            ViewPhysics physics = child.getPhysics();
+            if (physics != null && !physics.isJoint())
+                views.add(child);
+        }
+
+        // Allocate arrays
+        int count = _bodyCount = views.size();
+        _views = views.toArray(new View[0]);
+        _posX = new double[count]; _posY = new double[count]; _angle = new double[count];
+        _velX = new double[count]; _velY = new double[count]; _angVel = new double[count];
+        _halfW = new double[count]; _halfH = new double[count];
+        _invMass = new double[count]; _invI = new double[count];
+        _friction = new double[count]; _restitution = new double[count];
+        _groupIndex = new int[count];
+        _minX = new double[count]; _minY = new double[count]; _maxX = new double[count]; _maxY = new double[count];
+        _sortedBodies = new int[count];
+        _islandParents = new int[count];
+        _arbiters.clear();
+
+        // Load bodies
+        for (int i = 0; i < count; i++) {
+            View view = _views[i];
+            ViewPhysics physics = view.getPhysics();
+            _posX[i] = view.getMidX() / _pixelsPerMeter;
+            _posY[i] = view.getMidY() / _pixelsPerMeter;
+            _angle[i] = Math.toRadians(view.getRotate());
+            _halfW[i] = view.getWidth() / _pixelsPerMeter / 2;
+            _halfH[i] = view.getHeight() / _pixelsPerMeter / 2;
+            _friction[i] = physics.getFriction();
+            _restitution[i] = physics.getRestitution();
+            _groupIndex[i] = physics.getGroupIndex();
+            _sortedBodies[i] = i;
+
+            // Set mass and inertia for dynamic bodies (static bodies have zero inverse mass)
+            double mass = physics.isDynamic() ? physics.getDensity() * _halfW[i] * _halfH[i] * 4 : 0;
+            if (mass > 0) {
+                double inertia = mass * (_halfW[i] * _halfW[i] + _halfH[i] * _halfH[i]) / 3;
+                _invMass[i] = 1 / mass;
+                _invI[i] = 1 / inertia;
+            }
+        }
+    }
+
+    /**
+     * Returns the view for given body index.
+     */
+    public View getBodyView(int anIndex)  { return _views[anIndex]; }
+
+    /**
+     * Sets the linear velocity for given body index (in meters/sec).
+     */
+    public void setBodyVelocity(int anIndex, double aVelX, double aVelY)
+    {
+        _velX[anIndex] = aVelX;
+        _velY[anIndex] = aVelY;
+    }
+
+    /**
+     * Advances simulation by given elapsed time in fixed steps (limited to a few steps per call) and updates views.
+     */
+    public void stepForTime(double theSeconds)
+    {
+        // Run fixed steps for accumulated time, dropping time if too far behind
+        _accumTime = Math.min(_accumTime + theSeconds, _timeStep * MAX_STEPS_PER_FRAME);
+        while (_accumTime >= _timeStep) {
+            step();
+            _accumTime -= _timeStep;
+        }
+
+        // Update views
+        updateViews();
+    }
+
+    /**
+     * Runs one fixed time step.
+     */
+    public void step()
+    {
+        double dt = _timeStep;
+        double invDt = 1 / dt;
+        _stepStamp++;
+
+        // Update bounds and find contacts
+        updateBounds();
+        findContacts();
+
+        // Integrate forces
+        for (int i = 0; i < _bodyCount; i++) {
+            if (_invMass[i] == 0) continue;
+            _velX[i] += dt * _gravityX;
+            _velY[i] += dt * _gravityY;
+        }
+
+        // Build islands and solve contacts
+        buildIslands();
+        if (_parallel && _islandCount > 1 && _stepArbiters.length >= PARALLEL_MIN_ARBITERS)
+            IntStream.range(0, _islandCount).parallel().forEach(i -> solveIsland(i, invDt));
+        else for (int i = 0; i < _islandCount; i++)
+            solveIsland(i, invDt);
+
+        // Integrate velocities
+        for (int i = 0; i < _bodyCount; i++) {
+            if (_invMass[i] == 0) continue;
+            _posX[i] += dt * _velX[i];
+            _posY[i] += dt * _velY[i];
+            _angle[i] += dt * _angVel[i];
+        }
+    }
+
+    /**
+     * Writes body positions and angles back to dynamic views.
+     */
+    public void updateViews()
+    {
+        for (int i = 0; i < _bodyCount; i++) {
+            if (_invMass[i] == 0) continue;
+            View view = _views[i];
+            view.setXY(_posX[i] * _pixelsPerMeter - view.getWidth() / 2, _posY[i] * _pixelsPerMeter - view.getHeight() / 2);
+            view.setRotate(Math.toDegrees(_angle[i]));
+        }
+    }
+
+    /**
+     * Returns whether simulation timer is running.
+     */
+    public boolean isRunning()  { return _timer != null && _timer.isRunning(); }
+
+    /**
+     * Sets whether simulation timer is running.
+     */
+    public void setRunning(boolean aValue)
+    {
+        if (aValue == isRunning()) return;
+
+        // Start or stop timer
+        if (aValue) {
+            if (_timer == null)
+                _timer = new ViewTimer(this::timerFired, (int) Math.round(_timeStep * 1000));
+            _lastFireNanos = System.nanoTime();
+            _timer.start();
+        }
+        else _timer.stop();
+    }
+
+    /**
+     * Called when timer fires.
+     */
+    private void timerFired()
+    {
+        long fireNanos = System.nanoTime();
+        double elapsed = (fireNanos - _lastFireNanos) / 1e9;
+        _lastFireNanos = fireNanos;
+        stepForTime(elapsed);
+    }
+
+    /**
+     * Updates body axis aligned bounds.
+     */
+    private void updateBounds()
+    {
+        for (int i = 0; i < _bodyCount; i++) {
+            double cos = Math.abs(Math.cos(_angle[i])), sin = Math.abs(Math.sin(_angle[i]));
+            double extentX = cos * _halfW[i] + sin * _halfH[i];
+            double extentY = sin * _halfW[i] + cos * _halfH[i];
+            _minX[i] = _posX[i] - extentX;
+            _maxX[i] = _posX[i] + extentX;
+            _minY[i] = _posY[i] - extentY;
+            _maxY[i] = _posY[i] + extentY;
+        }
+    }
+
+    /**
+     * Finds contacts with sweep and prune on X axis, updating persistent arbiters.
+     */
+    private void findContacts()
+    {
+        // Insertion sort bodies by min X (nearly sorted from last step, so roughly linear)
+        int[] sorted = _sortedBodies;
+        for (int i = 1; i < _bodyCount; i++) {
+            int body = sorted[i];
+            double minX = _minX[body];
+            int j = i - 1;
+            while (j >= 0 && _minX[sorted[j]] > minX) {
+                sorted[j + 1] = sorted[j];
+                j--;
+            }
+            sorted[j + 1] = body;
+        }
+
+        // Sweep: For each body, check following bodies until min X is past its max X
+        for (int i = 0; i < _bodyCount; i++) {
+            int bodyA = sorted[i];
+            double maxX = _maxX[bodyA];
+            for (int j = i + 1; j < _bodyCount; j++) {
+                int bodyB = sorted[j];
+                if (_minX[bodyB] > maxX) break;
+                if (_minY[bodyB] > _maxY[bodyA] || _minY[bodyA] > _maxY[bodyB]) continue;
+                if (!shouldCollide(bodyA, bodyB)) continue;
+                updateArbiter(Math.min(bodyA, bodyB), Math.max(bodyA, bodyB));
+            }
+        }
+
+        // Remove arbiters not touched this step
+        _arbiters.values().removeIf(arbiter -> arbiter._stepStamp != _stepStamp);
+    }
+
+    /**
+     * Returns whether given bodies should collide.
+     */
+    private boolean shouldCollide(int bodyA, int bodyB)
+    {
+        if (_invMass[bodyA] == 0 && _invMass[bodyB] == 0)
+            return false;
+        int groupIndex = _groupIndex[bodyA];
+        if (groupIndex != 0 && groupIndex == _groupIndex[bodyB])
+            return groupIndex > 0;
+        return true;
+    }
+
+    /**
+     * Collides given bodies and updates (or adds) arbiter if touching.
+     */
+    private void updateArbiter(int bodyA, int bodyB)
+    {
+        // Get arbiter (or create new one)
+        long key = (long) bodyA << 32 | bodyB;
+        Arbiter arbiter = _arbiters.get(key);
+        Arbiter newArbiter = arbiter != null ? null : new Arbiter(bodyA, bodyB);
+
+        // Collide into arbiter
+        Arbiter target = arbiter != null ? arbiter : newArbiter;
+        if (!collide(target))
+            return;
+
+        // Add new arbiter
+        if (newArbiter != null) {
+            newArbiter._friction = Math.sqrt(_friction[bodyA] * _friction[bodyB]);
+            newArbiter._restitution = Math.max(_restitution[bodyA], _restitution[bodyB]);
+            _arbiters.put(key, newArbiter);
+        }
+        target._stepStamp = _stepStamp;
+    }
+
+    /**
+     * Groups step arbiters by island (bodies connected by contacts, not counting static bodies).
+     */
+    private void buildIslands()
+    {
+        // Union dynamic bodies connected by arbiters
+        int[] parents = _islandParents;
+        for (int i = 0; i < _bodyCount; i++)
+            parents[i] = i;
+        for (Arbiter arbiter : _arbiters.values()) {
+            if (_invMass[arbiter._bodyA] == 0 || _invMass[arbiter._bodyB] == 0) continue;
+            int rootA = findRoot(arbiter._bodyA), rootB = findRoot(arbiter._bodyB);
+            if (rootA != rootB)
+                parents[rootA] = rootB;
+        }
+
+        // Get arbiters sorted by island root (and body pair, for determinism)
+        Arbiter[] arbiters = _stepArbiters = _arbiters.values().toArray(new Arbiter[0]);
+        for (Arbiter arbiter : arbiters)
+            arbiter._island = findRoot(_invMass[arbiter._bodyA] != 0 ? arbiter._bodyA : arbiter._bodyB);
+        Arrays.sort(arbiters, Comparator.comparingInt((Arbiter a) -> a._island).thenComparingInt(a -> a._bodyA).thenComparingInt(a -> a._bodyB));
+
+        // Get island starts
+        int islandCount = 0;
+        if (_islandStarts.length < arbiters.length + 1)
+            _islandStarts = new int[arbiters.length + 1];
+        for (int i = 0; i < arbiters.length; i++)
+            if (i == 0 || arbiters[i]._island != arbiters[i - 1]._island)
+                _islandStarts[islandCount++] = i;
+        _islandStarts[islandCount] = arbiters.length;
+        _islandCount = islandCount;
+    }
+
+    /**
+     * Returns the union-find root for given body (with path halving).
+     */
+    private int findRoot(int aBody)
+    {
+        int[] parents = _islandParents;
+        while (parents[aBody] != aBody)
+            aBody = parents[aBody] = parents[parents[aBody]];
+        return aBody;
+    }
+
+    /**
+     * Solves contacts for given island.
+     */
+    private void solveIsland(int anIsland, double invDt)
+    {
+        int start = _islandStarts[anIsland], end = _islandStarts[anIsland + 1];
+        for (int i = start; i < end; i++)
+            preStep(_stepArbiters[i], invDt);
+        for (int i = start; i < end; i++)
+            warmStart(_stepArbiters[i]);
+        for (int iter = 0; iter < _iterations; iter++)
+            for (int i = start; i < end; i++)
+                applyImpulse(_stepArbiters[i]);
+    }
+
+    /**
+     * Precomputes arbiter contact masses and biases (before any warm starting, so restitution sees approach velocity).
+     */
+    private void preStep(Arbiter anArb, double invDt)
+    {
+        int bodyA = anArb._bodyA, bodyB = anArb._bodyB;
+        double invMassA = _invMass[bodyA], invMassB = _invMass[bodyB], invIA = _invI[bodyA], invIB = _invI[bodyB];
+        double normX = anArb._normX, normY = anArb._normY;
+        double tangX = normY, tangY = -normX;
+
+        for (int i = 0; i < anArb._contactCount; i++) {
+
+            // Get contact offsets from body centers
+            double r1X = anArb._contactX[i] - _posX[bodyA], r1Y = anArb._contactY[i] - _posY[bodyA];
+            double r2X = anArb._contactX[i] - _posX[bodyB], r2Y = anArb._contactY[i] - _posY[bodyB];
+
+            // Get normal and tangent effective masses
+            double rn1 = r1X * normX + r1Y * normY, rn2 = r2X * normX + r2Y * normY;
+            double kNormal = invMassA + invMassB + invIA * (r1X * r1X + r1Y * r1Y - rn1 * rn1) + invIB * (r2X * r2X + r2Y * r2Y - rn2 * rn2);
+            anArb._massNormal[i] = 1 / kNormal;
+            double rt1 = r1X * tangX + r1Y * tangY, rt2 = r2X * tangX + r2Y * tangY;
+            double kTangent = invMassA + invMassB + invIA * (r1X * r1X + r1Y * r1Y - rt1 * rt1) + invIB * (r2X * r2X + r2Y * r2Y - rt2 * rt2);
+            anArb._massTangent[i] = 1 / kTangent;
+
+            // Get position correction bias, or restitution bias if approaching fast enough
+            double bias = -BIAS_FACTOR * invDt * Math.min(0, anArb._separation[i] + ALLOWED_PENETRATION);
+            double dvX = _velX[bodyB] - _angVel[bodyB] * r2Y - _velX[bodyA] + _angVel[bodyA] * r1Y;
+            double dvY = _velY[bodyB] + _angVel[bodyB] * r2X - _velY[bodyA] - _angVel[bodyA] * r1X;
+            double vn = dvX * normX + dvY * normY;
+            if (vn < -RESTITUTION_THRESHOLD)
+                bias = Math.max(bias, -anArb._restitution * vn);
+            anArb._bias[i] = bias;
+        }
+    }
+
+    /**
+     * Applies arbiter accumulated impulses from last step (warm starting).
+     */
+    private void warmStart(Arbiter anArb)
+    {
+        int bodyA = anArb._bodyA, bodyB = anArb._bodyB;
+        double normX = anArb._normX, normY = anArb._normY;
+        double tangX = normY, tangY = -normX;
+
+        for (int i = 0; i < anArb._contactCount; i++) {
+            double r1X = anArb._contactX[i] - _posX[bodyA], r1Y = anArb._contactY[i] - _posY[bodyA];
+            double r2X = anArb._contactX[i] - _posX[bodyB], r2Y = anArb._contactY[i] - _posY[bodyB];
+            double pX = anArb._impulseNormal[i] * normX + anArb._impulseTangent[i] * tangX;
+            double pY = anArb._impulseNormal[i] * normY + anArb._impulseTangent[i] * tangY;
+            applyBodyImpulse(bodyA, -pX, -pY, r1X, r1Y);
+            applyBodyImpulse(bodyB, pX, pY, r2X, r2Y);
+        }
+    }
+
+    /**
+     * Applies normal and friction impulses for arbiter contacts.
+     */
+    private void applyImpulse(Arbiter anArb)
+    {
+        int bodyA = anArb._bodyA, bodyB = anArb._bodyB;
+        double normX = anArb._normX, normY = anArb._normY;
+        double tangX = normY, tangY = -normX;
+
+        for (int i = 0; i < anArb._contactCount; i++) {
+            double r1X = anArb._contactX[i] - _posX[bodyA], r1Y = anArb._contactY[i] - _posY[bodyA];
+            double r2X = anArb._contactX[i] - _posX[bodyB], r2Y = anArb._contactY[i] - _posY[bodyB];
+
+            // Get relative velocity at contact and apply clamped normal impulse
+            double dvX = _velX[bodyB] - _angVel[bodyB] * r2Y - _velX[bodyA] + _angVel[bodyA] * r1Y;
+            double dvY = _velY[bodyB] + _angVel[bodyB] * r2X - _velY[bodyA] - _angVel[bodyA] * r1X;
+            double vn = dvX * normX + dvY * normY;
+            double dPn = anArb._massNormal[i] * (-vn + anArb._bias[i]);
+            double pn0 = anArb._impulseNormal[i];
+            anArb._impulseNormal[i] = Math.max(pn0 + dPn, 0);
+            dPn = anArb._impulseNormal[i] - pn0;
+            applyBodyImpulse(bodyA, -dPn * normX, -dPn * normY, r1X, r1Y);
+            applyBodyImpulse(bodyB, dPn * normX, dPn * normY, r2X, r2Y);
+
+            // Get relative velocity at contact again and apply friction impulse clamped to normal impulse
+            dvX = _velX[bodyB] - _angVel[bodyB] * r2Y - _velX[bodyA] + _angVel[bodyA] * r1Y;
+            dvY = _velY[bodyB] + _angVel[bodyB] * r2X - _velY[bodyA] - _angVel[bodyA] * r1X;
+            double vt = dvX * tangX + dvY * tangY;
+            double dPt = anArb._massTangent[i] * -vt;
+            double maxPt = anArb._friction * anArb._impulseNormal[i];
+            double pt0 = anArb._impulseTangent[i];
+            anArb._impulseTangent[i] = Math.max(-maxPt, Math.min(pt0 + dPt, maxPt));
+            dPt = anArb._impulseTangent[i] - pt0;
+            applyBodyImpulse(bodyA, -dPt * tangX, -dPt * tangY, r1X, r1Y);
+            applyBodyImpulse(bodyB, dPt * tangX, dPt * tangY, r2X, r2Y);
+        }
+    }
+
+    /**
+     * Applies given impulse at given offset to body (static bodies are skipped, since they are shared across islands).
+     */
+    private void applyBodyImpulse(int aBody, double pX, double pY, double rX, double rY)
+    {
+        double invMass = _invMass[aBody];
+        if (invMass == 0) return;
+        _velX[aBody] += invMass * pX;
+        _velY[aBody] += invMass * pY;
+        _angVel[aBody] += _invI[aBody] * (rX * pY - rY * pX);
+    }
+
+    /**
+     * Collides arbiter boxes with separating axis test and incident edge clipping. Updates arbiter contacts, keeping
+     * accumulated impulses for contacts with matching features. Returns whether boxes touch.
+     */
+    private boolean collide(Arbiter anArb)
+    {
+        int bodyA = anArb._bodyA, bodyB = anArb._bodyB;
+        double hAX = _halfW[bodyA], hAY = _halfH[bodyA], hBX = _halfW[bodyB], hBY = _halfH[bodyB];
+        double posAX = _posX[bodyA], posAY = _posY[bodyA], posBX = _posX[bodyB], posBY = _posY[bodyB];
+        double cosA = Math.cos(_angle[bodyA]), sinA = Math.sin(_angle[bodyA]);
+        double cosB = Math.cos(_angle[bodyB]), sinB = Math.sin(_angle[bodyB]);
+
+        // Get offset in A and B frames, and relative rotation
+        double dpX = posBX - posAX, dpY = posBY - posAY;
+        double dAX = cosA * dpX + sinA * dpY, dAY = -sinA * dpX + cosA * dpY;
+        double dBX = cosB * dpX + sinB * dpY, dBY = -sinB * dpX + cosB * dpY;
+        double cosC = Math.abs(cosA * cosB + sinA * sinB), sinC = Math.abs(cosA * sinB - sinA * cosB);
+
+        // Check box A faces and box B faces
+        double faceAX = Math.abs(dAX) - hAX - (cosC * hBX + sinC * hBY);
+        double faceAY = Math.abs(dAY) - hAY - (sinC * hBX + cosC * hBY);
+        if (faceAX > 0 || faceAY > 0) { anArb._contactCount = 0; return false; }
+        double faceBX = Math.abs(dBX) - (cosC * hAX + sinC * hAY) - hBX;
+        double faceBY = Math.abs(dBY) - (sinC * hAX + cosC * hAY) - hBY;
+        if (faceBX > 0 || faceBY > 0) { anArb._contactCount = 0; return false; }
+
+        // Find best axis (favoring A then B faces for coherence)
+        final double relativeTol = .95, absoluteTol = .01;
+        int axis = 0;
+        double separation = faceAX;
+        double normX = dAX > 0 ? cosA : -cosA, normY = dAX > 0 ? sinA : -sinA;
+        if (faceAY > relativeTol * separation + absoluteTol * hAY) {
+            axis = 1; separation = faceAY;
+            normX = dAY > 0 ? -sinA : sinA; normY = dAY > 0 ? cosA : -cosA;
+        }
+        if (faceBX > relativeTol * separation + absoluteTol * hBX) {
+            axis = 2; separation = faceBX;
+            normX = dBX > 0 ? cosB : -cosB; normY = dBX > 0 ? sinB : -sinB;
+        }
+        if (faceBY > relativeTol * separation + absoluteTol * hBY) {
+            axis = 3;
+            normX = dBY > 0 ? -sinB : sinB; normY = dBY > 0 ? cosB : -cosB;
+        }
+
+        // Get reference face clipping planes and incident edge of other box (side normal is rotation column 2 for X faces
+        // and negated column 1 for Y faces, as in Box2D-lite, so clip edge features match its numbering)
+        boolean refA = axis < 2;
+        double frontX = refA ? normX : -normX, frontY = refA ? normY : -normY;
+        double refPosX = refA ? posAX : posBX, refPosY = refA ? posAY : posBY;
+        double refCos = refA ? cosA : cosB, refSin = refA ? sinA : sinB;
+        double refHX = refA ? hAX : hBX, refHY = refA ? hAY : hBY;
+        boolean faceX = axis == 0 || axis == 2;
+        double front = refPosX * frontX + refPosY * frontY + (faceX ? refHX : refHY);
+        double sideX = faceX ? -refSin : -refCos, sideY = faceX ? refCos : -refSin;
+        double side = refPosX * sideX + refPosY * sideY;
+        double sideHalf = faceX ? refHY : refHX;
+        double negSide = -side + sideHalf, posSide = side + sideHalf;
+        int negEdge = faceX ? EDGE3 : EDGE2, posEdge = faceX ? EDGE1 : EDGE4;
+        if (refA)
+            computeIncidentEdge(hBX, hBY, posBX, posBY, cosB, sinB, frontX, frontY);
+        else computeIncidentEdge(hAX, hAY, posAX, posAY, cosA, sinA, frontX, frontY);
+
+        // Clip incident edge to side planes
+        if (clipSegmentToLine(_clipX, _clipY, _clipFeature, _clipX2, _clipY2, _clipFeature2, -sideX, -sideY, negSide, negEdge) < 2 ||
+            clipSegmentToLine(_clipX2, _clipY2, _clipFeature2, _clipX, _clipY, _clipFeature, sideX, sideY, posSide, posEdge) < 2) {
+            anArb._contactCount = 0;
+            return false;
+        }
+
+        // Get contacts for clip points behind front face
+        double[] oldImpulseNormal = anArb._oldImpulseNormal, oldImpulseTangent = anArb._oldImpulseTangent;
+        int[] oldFeatures = anArb._oldFeature;
+        System.arraycopy(anArb._impulseNormal, 0, oldImpulseNormal, 0, 2);
+        System.arraycopy(anArb._impulseTangent, 0, oldImpulseTangent, 0, 2);
+        System.arraycopy(anArb._feature, 0, oldFeatures, 0, 2);
+        int oldCount = anArb._contactCount;
+        int count = 0;
+        for (int i = 0; i < 2; i++) {
+            double sep = frontX * _clipX[i] + frontY * _clipY[i] - front;
+            if (sep > 0) continue;
+
+            // Set contact, sliding point onto reference face
+            int feature = refA ? _clipFeature[i] : flipFeature(_clipFeature[i]);
+            anArb._separation[count] = sep;
+            anArb._contactX[count] = _clipX[i] - sep * frontX;
+            anArb._contactY[count] = _clipY[i] - sep * frontY;
+            anArb._feature[count] = feature;
+
+            // Keep accumulated impulses for matching old contact (warm starting)
+            anArb._impulseNormal[count] = anArb._impulseTangent[count] = 0;
+            for (int j = 0; j < oldCount; j++) {
+                if (oldFeatures[j] == feature) {
+                    anArb._impulseNormal[count] = oldImpulseNormal[j];
+                    anArb._impulseTangent[count] = oldImpulseTangent[j];
+                    break;
+                }
+            }
+            count++;
+        }
+
+        // Set normal and count
+        anArb._normX = normX;
+        anArb._normY = normY;
+        anArb._contactCount = count;
+        return count > 0;
+    }
+
+    /**
+     * Loads clip vertices with the edge of given incident box most anti-parallel to given reference normal.
+     */
+    private void computeIncidentEdge(double hX, double hY, double posX, double posY, double cos, double sin, double normX, double normY)
+    {
+        // Get normal in incident box frame, flipped
+        double nX = -(cos * normX + sin * normY), nY = -(-sin * normX + cos * normY);
+        double x0, y0, x1, y1;
+        if (Math.abs(nX) > Math.abs(nY)) {
+            if (nX > 0) {
+                x0 = hX; y0 = -hY; _clipFeature[0] = getFeature(NO_EDGE, EDGE3, NO_EDGE, EDGE4);
+                x1 = hX; y1 = hY; _clipFeature[1] = getFeature(NO_EDGE, EDGE4, NO_EDGE, EDGE1);
+            }
+            else {
+                x0 = -hX; y0 = hY; _clipFeature[0] = getFeature(NO_EDGE, EDGE1, NO_EDGE, EDGE2);
+                x1 = -hX; y1 = -hY; _clipFeature[1] = getFeature(NO_EDGE, EDGE2, NO_EDGE, EDGE3);
+            }
+        }
+        else {
+            if (nY > 0) {
+                x0 = hX; y0 = hY; _clipFeature[0] = getFeature(NO_EDGE, EDGE4, NO_EDGE, EDGE1);
+                x1 = -hX; y1 = hY; _clipFeature[1] = getFeature(NO_EDGE, EDGE1, NO_EDGE, EDGE2);
+            }
+            else {
+                x0 = -hX; y0 = -hY; _clipFeature[0] = getFeature(NO_EDGE, EDGE2, NO_EDGE, EDGE3);
+                x1 = hX; y1 = -hY; _clipFeature[1] = getFeature(NO_EDGE, EDGE3, NO_EDGE, EDGE4);
+            }
+        }
+
+        // Transform to world
+        _clipX[0] = posX + cos * x0 - sin * y0; _clipY[0] = posY + sin * x0 + cos * y0;
+        _clipX[1] = posX + cos * x1 - sin * y1; _clipY[1] = posY + sin * x1 + cos * y1;
+    }
+
+    /**
+     * Clips segment in given in arrays to half plane for given normal and offset, writing to out arrays. Returns count.
+     */
+    private static int clipSegmentToLine(double[] inX, double[] inY, int[] inFeature, double[] outX, double[] outY, int[] outFeature,
+        double normX, double normY, double anOffset, int clipEdge)
+    {
+        int count = 0;
+        double dist0 = normX * inX[0] + normY * inY[0] - anOffset;
+        double dist1 = normX * inX[1] + normY * inY[1] - anOffset;
+
+        // Add points behind plane
+        if (dist0 <= 0) { outX[count] = inX[0]; outY[count] = inY[0]; outFeature[count++] = inFeature[0]; }
+        if (dist1 <= 0) { outX[count] = inX[1]; outY[count] = inY[1]; outFeature[count++] = inFeature[1]; }
+
+        // If points on different sides of plane, add intersection point
+        if (dist0 * dist1 < 0) {
+            double interp = dist0 / (dist0 - dist1);
+            outX[count] = inX[0] + interp * (inX[1] - inX[0]);
+            outY[count] = inY[0] + interp * (inY[1] - inY[0]);
+            if (dist0 > 0)
+                outFeature[count] = getFeature(clipEdge, NO_EDGE, getOutEdge1(inFeature[0]), getOutEdge2(inFeature[0]));
+            else outFeature[count] = getFeature(getInEdge1(inFeature[1]), getInEdge2(inFeature[1]), clipEdge, NO_EDGE);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns a contact feature key for given in/out edges of reference and incident boxes.
+     */
+    private static int getFeature(int inEdge1, int inEdge2, int outEdge1, int outEdge2)
+    {
+        return inEdge1 | inEdge2 << 8 | outEdge1 << 16 | outEdge2 << 24;
+    }
+
+    /** Feature edge accessors. */
+    private static int getInEdge1(int aFeature)  { return aFeature & 0xff; }
+    private static int getInEdge2(int aFeature)  { return aFeature >> 8 & 0xff; }
+    private static int getOutEdge1(int aFeature)  { return aFeature >> 16 & 0xff; }
+    private static int getOutEdge2(int aFeature)  { return aFeature >> 24 & 0xff; }
+
+    /**
+     * Returns given feature with reference and incident edges swapped.
+     */
+    private static int flipFeature(int aFeature)
+    {
+        return getFeature(getInEdge2(aFeature), getInEdge1(aFeature), getOutEdge2(aFeature), getOutEdge1(aFeature));
+    }
+
+    /**
+     * Runs a headless benchmark of a pyramid of boxes and returns body steps per millisecond.
+     */
+    public static double runBenchmark(int aBoxCount, int aStepCount, boolean isParallel)
+    {
+        // Create ground and columns of boxes (several columns, so there are several islands)
+        ChildView parentView = new ChildView();
+        parentView.setSize(2000, 1000);
+        View ground = new RectView(0, 980, 2000, 20);
+        ground.getPhysics(true);
+        parentView.addChild(ground);
+        int columnCount = Math.max(aBoxCount / 20, 1);
+        for (int i = 0; i < aBoxCount; i++) {
+            int column = i % columnCount, row = i / columnCount;
+            View box = new RectView(20 + column * 2000d / columnCount, 950 - row * 31, 30, 30);
+            box.getPhysics(true).setDynamic(true);
+            parentView.addChild(box);
+        }
+
+        // Create world and run steps
+        ViewPhysicsWorld world = new ViewPhysicsWorld(parentView);
+        world.setParallel(isParallel);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < aStepCount; i++)
+            world.step();
+        double millis = (System.nanoTime() - startNanos) / 1e6;
+        return world.getBodyCount() * (double) aStepCount / millis;
+    }
+
+    /**
+     * Runs headless benchmark: ViewPhysicsWorld [boxCount] [stepCount].
+     */
+    public static void main(String[] args)
+    {
+        int boxCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int stepCount = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+        runBenchmark(boxCount, stepCount / 4, false); // Warm up
+        System.out.printf("Serial: %.1f bodies/ms\n", runBenchmark(boxCount, stepCount, false));
+        System.out.printf("Parallel: %.1f bodies/ms\n", runBenchmark(boxCount, stepCount, true));
+    }
+
+    /**
+     * A class to hold contacts and accumulated impulses for a pair of touching bodies.
+     */
+    private static class Arbiter {
+
+        // The bodies
+        private int _bodyA, _bodyB;
+
+        // The combined friction and restitution
+        private double _friction, _restitution;
+
+        // The contact normal (from body A to body B)
+        private double _normX, _normY;
+
+        // The number of contacts (up to 2)
+        private int _contactCount;
+
+        // The contact points, separations and features
+        private double[] _contactX = new double[2], _contactY = new double[2], _separation = new double[2];
+        private int[] _feature = new int[2];
+
+        // The accumulated normal and tangent impulses
+        private double[] _impulseNormal = new double[2], _impulseTangent = new double[2];
+
+        // The features and accumulated impulses of previous contacts (scratch for collide warm starting)
+        private int[] _oldFeature = new int[2];
+        private double[] _oldImpulseNormal = new double[2], _oldImpulseTangent = new double[2];
+
+        // The normal and tangent effective masses and velocity bias
+        private double[] _massNormal = new double[2], _massTangent = new double[2], _bias = new double[2];
+
+        // The last step this arbiter was touched
+        private int _stepStamp;
+
+        // The island root body
+        private int _island;
+
+        /**
+         * Constructor.
+         */
+        Arbiter(int bodyA, int bodyB)
+        {
+            _bodyA = bodyA;
+            _bodyB = bodyB;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.view;
+import java.util.*;
+import snap.geom.Rect;
+import snap.geom.RectBase;
+import snap.geom.Transform;
+import snap.gfx.Image;
+import snap.gfx.Paint;
+import snap.gfx.Painter;
+import snap.gfx.PainterDVR;
+import snap.gfx.PainterDVR2;
+
+/**
+ * This class provides a tiled backing store for a large view (like scroller content with static painting). The view is
+ * rasterized into fixed size image tiles (TILE_SIZE pixels at current painter scale), kept in an LRU keyed by tile
+ * column, row and scale, and painted by drawing the tiles that intersect the painter clip. ViewUpdater invalidates tiles
+ * for repaint rects of view and its descendants. After each paint, tiles ahead of scroll direction are rendered during
+ * idle event loop time.
+ */
+public class ViewTileCache {
+
+    // The view
+    private View _view;
+
+    // The tile images by key (in access order for LRU)
+    private LinkedHashMap<TileKey,Image> _tiles = new LinkedHashMap<>(64, .75f, true);
+
+    // The max number of tiles
+    private int _maxTileCount = DEFAULT_MAX_TILE_COUNT;
+
+    // The view size when tiles were rendered (tiles are cleared if it changes)
+    private double _viewW, _viewH;
+
+    // Whether tiles are opaque
+    private boolean _opaque;
+
+    // The visible rect and scale of last paint and the scroll direction (sign of visible rect movement)
+    private Rect _lastVisibleRect;
+    private double _lastScale;
+    private int _scrollDirX, _scrollDirY;
+
+    // Whether prerender is scheduled
+    private boolean _prerenderScheduled;
+
+    // The number of tiles rendered and tiles painted from cache
+    private long _tileRenderCount, _tileHitCount;
+
+    // The tile size in pixels
+    public static final int TILE_SIZE = 256;
+
+    // The default max number of tiles
+    public static final int DEFAULT_MAX_TILE_COUNT = 128;
+
+    // The max number of tiles to prerender per idle event
+    private static final int PRERENDER_TILES_PER_RUN = 2;
+
+    /**
+     * Constructor for given view.
+     */
+    public ViewTileCache(View aView)
+    {
+        _view = aView;
+    }
+
+    /**
+     * Returns the view.
+     */
+    public View getView()  { return _view; }
+
+    /**
+     * Returns the max number of tiles.
+     */
+    public int getMaxTileCount()  { return _maxTileCount; }
+
+    /**
+     * Sets the max number of tiles.
+     */
+    public void setMaxTileCount(int aValue)
+    {
+        _maxTileCount = Math.max(aValue, 1);
+        trimTiles();
+    }
+
+    /**
+     * Returns the number of cached tiles.
+     */
+    public int getTileCount()  { return _tiles.size(); }
+
+    /**
+     * Returns the number of tiles rendered.
+     */
+    public long getTileRenderCount()  { return _tileRenderCount; }
+
+    /**
+     * Returns the number of tiles painted from cache.
+     */
+    public long getTileHitCount()  { return _tileHitCount; }
+
+    /**
+     * Paints view with cached tiles. Returns false if painter transform is rotated or skewed, or painter is printing or
+     * recording (tiles aren't used).
+     */
+    protected boolean paint(Painter aPntr)
+    {
+        // If printing or recording display list, just return false (should get vector painting)
+        if (aPntr.isPrinting() || aPntr instanceof PainterDVR || aPntr instanceof PainterDVR2)
+            return false;
+
+        // Get painter scale (just return false if not simple scale)
+        Transform xfm = aPntr.getTransform();
+        double[] matrix = xfm.getMatrix();
+        double scale = matrix[0];
+        if (xfm.isRotated() || scale <= 0 || scale != matrix[3])
+            return false;
+
+        // If view size changed, clear tiles
+        double viewW = _view.getWidth();
+        double viewH = _view.getHeight();
+        if (viewW != _viewW || viewH != _viewH) {
+            _tiles.clear();
+            _viewW = viewW;
+            _viewH = viewH;
+        }
+
+        // Get visible rect: painter clip bounds in view bounds
+        Rect visibleRect = _view.getBoundsLocal();
+        Rect clipBounds = aPntr.getClipBounds();
+        if (clipBounds != null)
+            visibleRect = visibleRect.getIntersectRect(clipBounds);
+        if (visibleRect.isEmpty())
+            return true;
+
+        // Get whether tiles are opaque (view has opaque fill and rect bounds)
+        boolean isOpaque = isViewOpaque();
+        if (isOpaque != _opaque) {
+            _tiles.clear();
+            _opaque = isOpaque;
+        }
+
+        // Paint tiles in visible rect (clipped to view bounds, since edge tiles extend past them)
+        aPntr.save();
+        aPntr.clipRect(0, 0, viewW, viewH);
+        double tileSize = TILE_SIZE / scale;
+        int col0 = (int) Math.floor(visibleRect.x / tileSize), col1 = (int) Math.ceil(visibleRect.getMaxX() / tileSize);
+        int row0 = (int) Math.floor(visibleRect.y / tileSize), row1 = (int) Math.ceil(visibleRect.getMaxY() / tileSize);
+        for (int row = row0; row < row1; row++) {
+            for (int col = col0; col < col1; col++) {
+                Image tileImage = getTileImage(col, row, scale);
+                aPntr.drawImage(tileImage, col * tileSize, row * tileSize, tileSize, tileSize);
+            }
+        }
+        aPntr.restore();
+
+        // Update scroll direction and schedule prerender of tiles ahead
+        updateScrollDirection(visibleRect, scale);
+        return true;
+    }
+
+    /**
+     * Returns the tile image for given column, row and scale (rendering it if not cached).
+     */
+    private Image getTileImage(int aCol, int aRow, double aScale)
+    {
+        // If tile cached, return it
+        TileKey tileKey = new TileKey(aCol, aRow, aScale);
+        Image tileImage = _tiles.get(tileKey);
+        if (tileImage != null) {
+            _tileHitCount++;
+            return tileImage;
+        }
+
+        // Render tile, add and return
+        tileImage = renderTile(aCol, aRow, aScale);
+        _tiles.put(tileKey, tileImage);
+        trimTiles();
+        return tileImage;
+    }
+
+    /**
+     * Renders the tile image for given column, row and scale.
+     */
+    private Image renderTile(int aCol, int aRow, double aScale)
+    {
+        // Create tile image (TILE_SIZE pixels) and painter scaled and translated to tile origin in view coords
+        double tileSize = TILE_SIZE / aScale;
+        Image tileImage = Image.getImageForSize(TILE_SIZE, TILE_SIZE, !_opaque);
+        Painter pntr = tileImage.getPainter();
+        pntr.scale(aScale, aScale);
+        pntr.translate(-aCol * tileSize, -aRow * tileSize);
+
+        // Paint view (without its own clip, opacity or effect, which are applied when tiles are painted)
+        _view.paintBack(pntr);
+        _view.paintFront(pntr);
+        if (_view instanceof ParentView parentView) {
+            parentView.paintChildren(pntr);
+            parentView.paintAbove(pntr);
+        }
+        pntr.flush();
+
+        // Return
+        _tileRenderCount++;
+        return tileImage;
+    }
+
+    /**
+     * Returns whether view paints all of its bounds with opaque fill (so tiles don't need alpha, which blit faster).
+     */
+    private boolean isViewOpaque()
+    {
+        Paint fill = _view.getFill();
+        return fill != null && fill.isOpaque() && _view.getBoundsShape() instanceof RectBase;
+    }
+
+    /**
+     * Removes least recently used tiles over max.
+     */
+    private void trimTiles()
+    {
+        for (Iterator<TileKey> tileKeyIter = _tiles.keySet().iterator(); _tiles.size() > _maxTileCount; ) {
+            tileKeyIter.next();
+            tileKeyIter.remove();
+        }
+    }
+
+    /**
+     * Removes tiles that intersect given rect in view coords (called by ViewUpdater for repaint rects).
+     */
+    public void invalidateRect(Rect aRect)
+    {
+        if (_tiles.isEmpty())
+            return;
+
+        // Remove tiles that intersect rect
+        for (Iterator<TileKey> tileKeyIter = _tiles.keySet().iterator(); tileKeyIter.hasNext(); ) {
+            TileKey tileKey = tileKeyIter.next();
+            double tileSize = TILE_SIZE / tileKey.scale();
+            double tileX = tileKey.col() * tileSize;
+            double tileY = tileKey.row() * tileSize;
+            if (aRect.x < tileX + tileSize && tileX < aRect.getMaxX() && aRect.y < tileY + tileSize && tileY < aRect.getMaxY())
+                tileKeyIter.remove();
+        }
+    }
+
+    /**
+     * Removes all tiles.
+     */
+    public void clear()
+    {
+        _tiles.clear();
+        _lastVisibleRect = null;
+    }
+
+    /**
+     * Updates scroll direction from given visible rect and schedules prerender if scrolling.
+     */
+    private void updateScrollDirection(Rect visibleRect, double aScale)
+    {
+        // Get direction of visible rect movement (only reset if moved, so direction holds through partial repaints)
+        if (_lastVisibleRect != null && aScale == _lastScale && visibleRect.getSize().equals(_lastVisibleRect.getSize())) {
+            int dirX = (int) Math.signum(visibleRect.x - _lastVisibleRect.x);
+            int dirY = (int) Math.signum(visibleRect.y - _lastVisibleRect.y);
+            if (dirX != 0 || dirY != 0) {
+                _scrollDirX = dirX;
+                _scrollDirY = dirY;
+            }
+        }
+        _lastVisibleRect = visibleRect;
+        _lastScale = aScale;
+
+        // If scrolling, schedule prerender
+        if ((_scrollDirX != 0 || _scrollDirY != 0) && !_prerenderScheduled) {
+            _prerenderScheduled = true;
+            ViewUtils.runLater(this::prerenderTiles);
+        }
+    }
+
+    /**
+     * Renders a few missing tiles ahead of scroll direction and reschedules if more are missing.
+     */
+    private void prerenderTiles()
+    {
+        _prerenderScheduled = false;
+
+        // If view no longer showing or has repaint pending (painting now would clear descendant repaint rects), just return
+        if (!_view.isShowing() || _lastVisibleRect == null || _view.isNeedsRepaint() ||
+            _view instanceof ParentView parentView && parentView.isNeedsRepaintDeep())
+            return;
+
+        // Get rect ahead of visible rect in scroll direction
+        Rect visibleRect = _lastVisibleRect;
+        Rect aheadRect = new Rect(visibleRect.x + _scrollDirX * visibleRect.width, visibleRect.y + _scrollDirY * visibleRect.height,
+            visibleRect.width, visibleRect.height);
+        aheadRect = aheadRect.getIntersectRect(_view.getBoundsLocal());
+        if (aheadRect.isEmpty())
+            return;
+
+        // Render missing tiles in rect (up to max per run, so events aren't delayed)
+        double scale = _lastScale;
+        double tileSize = TILE_SIZE / scale;
+        int col0 = (int) Math.floor(aheadRect.x / tileSize), col1 = (int) Math.ceil(aheadRect.getMaxX() / tileSize);
+        int row0 = (int) Math.floor(aheadRect.y / tileSize), row1 = (int) Math.ceil(aheadRect.getMaxY() / tileSize);
+        int renderCount = 0;
+        for (int row = row0; row < row1; row++) {
+            for (int col = col0; col < col1; col++) {
+
+                // If tile cached, just continue
+                TileKey tileKey = new TileKey(col, row, scale);
+                if (_tiles.containsKey(tileKey))
+                    continue;
+
+                // If max tiles rendered for this run, reschedule and return
+                if (renderCount == PRERENDER_TILES_PER_RUN || _tiles.size() >= _maxTileCount) {
+                    if (_tiles.size() < _maxTileCount) {
+                        _prerenderScheduled = true;
+                        ViewUtils.runLater(this::prerenderTiles);
+                    }
+                    return;
+                }
+
+                // Render tile
+                _tiles.put(tileKey, renderTile(col, row, scale));
+                renderCount++;
+            }
+        }
+    }
+
+    /**
+     * A key for a tile.
+     */
+    private record TileKey(int col, int row, double scale) { }
+}
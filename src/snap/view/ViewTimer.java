@@ -4,7 +4,7 @@
 package snap.view;
 
 /**
- * A Timer to fire on node event thread.
+ * A Timer to fire on node event thread. Running timers are ticked together by the ViewEnv frame clock.
  */
 public class ViewTimer {
 
@@ -26,11 +26,14 @@ public class ViewTimer {
     // The number of times the timer has fired
     private int  _count;
     
-    // The run that fires over intervals
-    private Runnable _timerRun;
-    
-    // The environment
-    private ViewEnv  _env = ViewEnv.getEnv();
+    // Whether timer is running
+    private boolean  _running;
+
+    // The clock time of next fire (set by frame clock)
+    protected long  _nextFireTime;
+
+    // The frame clock
+    private ViewFrameClock  _clock = ViewEnv.getEnv().getFrameClock();
     
     /**
      * Constructor for runnable and period.
@@ -67,7 +70,7 @@ public class ViewTimer {
     /**
      * Returns whether timer is running.
      */
-    public boolean isRunning()  { return _timerRun != null; }
+    public boolean isRunning()  { return _running; }
 
     /**
      * Returns whether timer is running.
@@ -81,7 +84,7 @@ public class ViewTimer {
     {
         if (_time > 0)
             return _time;
-        return (int) (System.currentTimeMillis() - _startTime);
+        return (int) (_clock.getTime() - _startTime);
     }
 
     /**
@@ -94,16 +97,15 @@ public class ViewTimer {
      */
     public synchronized void start()
     {
-        // If task already present, return
-        if (_timerRun != null) return;
-
-        // Create task and schedule
-        _timerRun = this::sendEvent;
+        // If already running, return
+        if (_running) return;
+        _running = true;
 
-        // Initialize times and Schedule task
-        _startTime = System.currentTimeMillis() - (_pauseTime>0 ? (_pauseTime - _startTime) : 0);
+        // Initialize times and add to frame clock
+        long time = _clock.getTime();
+        _startTime = time - (_pauseTime>0 ? (_pauseTime - _startTime) : 0);
         _pauseTime = 0;
-        _env.runIntervals(_timerRun, getPeriod());
+        _clock.addTimer(this);
     }
 
     /**
@@ -112,7 +114,7 @@ public class ViewTimer {
     public void start(int aDelay)
     {
         if (aDelay > 0)
-            _env.runDelayed(this::start, aDelay);
+            ViewEnv.getEnv().runDelayed(this::start, aDelay);
         else start();
     }
 
@@ -121,9 +123,9 @@ public class ViewTimer {
      */
     public synchronized void stop()
     {
-        if (_timerRun != null)
-            _env.stopIntervals(_timerRun);
-        _timerRun = null;
+        if (_running)
+            _clock.removeTimer(this);
+        _running = false;
         _pauseTime = 0;
     }
 
@@ -133,21 +135,26 @@ public class ViewTimer {
     public void pause()
     {
         stop();
-        _pauseTime = System.currentTimeMillis();
+        _pauseTime = _clock.getTime();
     }
 
+    /**
+     * Returns the frame clock.
+     */
+    public ViewFrameClock getClock()  { return _clock; }
+
     /**
      * Sends the event.
      */
     protected void sendEvent()
     {
-        // If no run, just return. Can happen because final interval fires?
-        if (_timerRun == null) return; //System.out.println("ViewTimer.sendEvent: Run is null - shouldn't happen");
+        // If not running, just return. Can happen if stopped by earlier timer in same frame
+        if (!_running) return;
 
         // Set time and fire
-        _time = (int) (System.currentTimeMillis() - _startTime);
+        _time = (int) (_clock.getTime() - _startTime);
         _run.run();
         _count++;
         _time = -1;
     }
-}
\ No newline at end of file
+}
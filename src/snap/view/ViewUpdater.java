@@ -39,6 +39,9 @@ public class ViewUpdater {
     // Whether currently painting
     private boolean  _painting;
 
+    // The view measure cache hits and misses during layout of this window
+    private long  _measureCacheHits, _measureCacheMisses;
+
     // Whether painting in debug mode
     protected static boolean _paintDebug = false;
     private static boolean _clearFlash;
@@ -57,6 +60,16 @@ public class ViewUpdater {
         _rootView = _win.getRootView();
     }
 
+    /**
+     * Returns the number of view pref size queries answered from measure cache during layout of this window.
+     */
+    public long getMeasureCacheHitCount()  { return _measureCacheHits; }
+
+    /**
+     * Returns the number of view pref size queries computed during layout of this window.
+     */
+    public long getMeasureCacheMissCount()  { return _measureCacheMisses; }
+
     /**
      * Adds a given ViewController to set of owners that need reset on next UI update call.
      */
@@ -158,10 +171,14 @@ public class ViewUpdater {
                 owner.invokeResetUI();
         }
 
-        // Layout all views that need it
+        // Layout all views that need it (and record measure cache hits/misses for window)
+        ViewEnv env = ViewEnv.getEnv();
+        long measureCacheHits = env._measureCacheHits, measureCacheMisses = env._measureCacheMisses;
         if (_win.isNeedsLayout())
             _win.layout();
         _rootView.layoutDeep();
+        _measureCacheHits += env._measureCacheHits - measureCacheHits;
+        _measureCacheMisses += env._measureCacheMisses - measureCacheMisses;
 
         // Get composite repaint rect from all repaint views
         Rect rect = getRepaintRect();
@@ -272,10 +289,15 @@ public class ViewUpdater {
 
             // Get view repaint rect - just continue if not set
             Rect viewRepaintRect = view.getRepaintRect();
+            boolean transformOnly = view._repaintTransformOnly;
             view._repaintRect = null;
+            view._repaintTransformOnly = false;
             if (viewRepaintRect == null)
                 continue;
 
+            // Invalidate caches of view (unless just transform change) or ancestors (before clipping, since cached tiles can be offscreen)
+            invalidateViewCaches(view, viewRepaintRect, transformOnly);
+
             // Get view paint rect cliped to any ancestor view clips
             Rect viewRepaintRectClipped = viewRepaintRect;
             Rect clipBoundsAll = ViewUtils.getClipBoundsAllForViewInView(view, _rootView);
@@ -315,6 +337,23 @@ public class ViewUpdater {
         return repaintRect;
     }
 
+    /**
+     * Invalidates tiles for given repaint rect in given view and any tile cached ancestors, and layer cached images.
+     * If just transform change, view caches are skipped (only ancestors are invalidated).
+     */
+    private void invalidateViewCaches(View aView, Rect aRect, boolean isTransformOnly)
+    {
+        View view0 = isTransformOnly ? aView.getParent() : aView;
+        for (View view = view0; view != null; view = view.getParent()) {
+            if (view._tileCache != null) {
+                Rect rect = view == aView ? aRect : aView.localToParent(aRect, view).getBounds();
+                view._tileCache.invalidateRect(rect);
+            }
+            if (view._layerCache != null)
+                view._layerCache.clear();
+        }
+    }
+
     /**
      * Adds given ViewAnim to set of anims that are running.
      */
@@ -396,5 +435,6 @@ public class ViewUpdater {
         double averageFrameTime = totalFramesTime / (double) _frameRates.length;
         int averageFrameRate = (int) Math.round(1000 / averageFrameTime);
         _frameRateLabel.setText(averageFrameRate + " fps");
+        _frameRateLabel.setToolTip(_timer.getClock().getFrameStats());
     }
 }
\ No newline at end of file
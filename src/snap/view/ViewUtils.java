@@ -223,7 +223,7 @@ public class ViewUtils {
 
             // Otherwise, reset init time
             else {
-                runnable._initTime = System.currentTimeMillis();
+                runnable._initTime = ViewEnv.getEnv().getNanoTime() / 1000000;
                 runnable._delay = aDelay;
             }
         }
@@ -249,7 +249,7 @@ public class ViewUtils {
         /** Constructor. */
         RunDelayedRunnable(Runnable aRunnable, int aDelay)
         {
-            _initTime = System.currentTimeMillis();
+            _initTime = ViewEnv.getEnv().getNanoTime() / 1000000;
             _runnable = aRunnable;
             _delay = aDelay;
         }
@@ -258,7 +258,7 @@ public class ViewUtils {
         public void run()
         {
             // If trigger time is now in the future, register to come back
-            long now = System.currentTimeMillis();
+            long now = ViewEnv.getEnv().getNanoTime() / 1000000;
             long actualDelay = now - _initTime;
             if (actualDelay < _delay) {
                 int remainingDelay = _delay - (int) actualDelay;
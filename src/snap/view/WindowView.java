@@ -691,18 +691,19 @@ public class WindowView extends ParentView {
         if (aValue == isShowing()) return;
         super.setShowing(aValue);
 
-        // Handle Show: Update OpenWins list
+        // Handle Show: Update OpenWins list (synchronized since headless environments can show windows on many threads)
         if (aValue) {
-            ListUtils.moveToFront(_openWins, this);
+            synchronized (_openWins) { ListUtils.moveToFront(_openWins, this); }
         }
 
         // Handle Hide: Remove from OpenWins list and dispatch mouse move outside bounds to trigger any mouse exit code
         else {
-            _openWins.remove(this);
+            boolean noOpenWins;
+            synchronized (_openWins) { _openWins.remove(this); noOpenWins = _openWins.isEmpty(); }
             _eventDispatcher.dispatchMouseMoveOutsideWindow();
 
-            // Register to check later to exit if still no open windows
-            if (_openWins.isEmpty())
+            // Register to check later to exit if still no open windows (headless environments never exit)
+            if (noOpenWins && !(getEnv() instanceof HeadlessViewEnv))
                 ViewUtils.runDelayed(WindowView::checkForExitWhenAllWindowsClosed, 250);
         }
     }
@@ -717,8 +718,9 @@ public class WindowView extends ParentView {
         super.setFocused(aValue);
 
         // Handle Focus Gained: Move window to front
-        if (aValue)
-            ListUtils.moveToFront(_openWins, this);
+        if (aValue) {
+            synchronized (_openWins) { ListUtils.moveToFront(_openWins, this); }
+        }
     }
 
     /**
@@ -804,16 +806,27 @@ public class WindowView extends ParentView {
     public Object getNative()  { return _native; }
 
     /**
-     * Returns an array of all open windows.
+     * Returns a copy of list of all open windows (synchronized since windows can be shown on many threads).
      */
-    public static List<WindowView> getOpenWindows()  { return _openWins; }
+    public static List<WindowView> getOpenWindows()
+    {
+        synchronized (_openWins) { return new ArrayList<>(_openWins); }
+    }
+
+    /**
+     * Returns a copy of open windows list as array (synchronized since windows can be shown on many threads).
+     */
+    private static WindowView[] getOpenWindowsArray()
+    {
+        synchronized (_openWins) { return _openWins.toArray(new WindowView[0]); }
+    }
 
     /**
      * Returns an array of all open windows.
      */
     public static <T extends ViewController> T getOpenWindowController(Class <T> aClass)
     {
-        for (WindowView window : _openWins) {
+        for (WindowView window : getOpenWindowsArray()) {
             ViewController controller = window.getController();
             if (controller != null && (aClass == null || aClass.isAssignableFrom(controller.getClass())))
                 return (T) controller;
@@ -829,7 +842,7 @@ public class WindowView extends ParentView {
     public static <T extends ViewController> T[] getOpenWindowControllers(Class <T> aClass)
     {
         List <T> viewControllers = new ArrayList<>();
-        for (WindowView window : _openWins) {
+        for (WindowView window : getOpenWindowsArray()) {
             ViewController controller = window.getController();
             if (controller != null && (aClass == null || aClass.isAssignableFrom(controller.getClass())))
                 viewControllers.add((T) controller);
@@ -871,8 +884,8 @@ public class WindowView extends ParentView {
      */
     private static void checkForExitWhenAllWindowsClosed()
     {
-        if (_openWins.isEmpty())
-            GFXEnv.getEnv().exit(0);
+        synchronized (_openWins) { if (!_openWins.isEmpty()) return; }
+        GFXEnv.getEnv().exit(0);
     }
 
     /**
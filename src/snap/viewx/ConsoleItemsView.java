@@ -0,0 +1,427 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.viewx;
+import snap.geom.Insets;
+import snap.geom.Rect;
+import snap.gfx.Painter;
+import snap.view.*;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * This view shows console items in a column. Items are held in a ring buffer capped at a max count (oldest items are
+ * dropped) and views are only created for items in or near the visible bounds, using estimated heights for items not
+ * yet shown.
+ */
+class ConsoleItemsView extends ParentView {
+
+    // The function to create views for items
+    private Function<Object,View> _viewFunction;
+
+    // The ring buffer of items
+    private Object[] _items;
+
+    // The views for items (null if not created) and item heights (-1 if not yet measured), parallel to items ring buffer
+    private View[] _itemViews;
+    private double[] _itemHeights;
+
+    // The ring buffer index of first item and the item count
+    private int _startIndex, _itemCount;
+
+    // The number of items dropped since last clear
+    private long _droppedItemCount;
+
+    // The number of times each item is in items ring buffer (by identity, so containsItem is fast)
+    private Map<Object,Integer> _itemCounts = new IdentityHashMap<>();
+
+    // The handler called when last instance of an item is dropped for max count
+    private Consumer<Object> _itemDroppedHandler;
+
+    // The range of items that currently have views in view
+    private int _viewStart, _viewEnd = -1;
+
+    // The spacing between items
+    private double _spacing;
+
+    // The max measured item width
+    private double _maxItemWidth;
+
+    // Runnable to reset item views
+    private Runnable _resetItemViewsRun;
+
+    // The estimated height of items not yet measured
+    private static final double ESTIMATED_ITEM_HEIGHT = 40;
+
+    /**
+     * Constructor.
+     */
+    public ConsoleItemsView(Function<Object,View> viewFunction, int maxItemCount)
+    {
+        super();
+        _viewFunction = viewFunction;
+        _items = new Object[maxItemCount];
+        _itemViews = new View[maxItemCount];
+        _itemHeights = new double[maxItemCount];
+    }
+
+    /**
+     * Returns the spacing between items.
+     */
+    public double getSpacing()  { return _spacing; }
+
+    /**
+     * Sets the spacing between items.
+     */
+    public void setSpacing(double aValue)
+    {
+        _spacing = aValue;
+        relayout();
+        relayoutParent();
+    }
+
+    /**
+     * Returns the max number of items.
+     */
+    public int getMaxItemCount()  { return _items.length; }
+
+    /**
+     * Sets the max number of items (drops oldest items if needed).
+     */
+    public void setMaxItemCount(int aValue)
+    {
+        aValue = Math.max(aValue, 1);
+        if (aValue == _items.length) return;
+
+        // Get current items (dropping oldest items over new max) and reset arrays
+        int dropCount = Math.max(_itemCount - aValue, 0);
+        Object[] items = new Object[aValue];
+        double[] itemHeights = new double[aValue];
+        for (int i = 0; i < dropCount; i++)
+            removeItemCount(_items[getRingIndex(i)]);
+        for (int i = dropCount; i < _itemCount; i++) {
+            int ringIndex = getRingIndex(i);
+            items[i - dropCount] = _items[ringIndex];
+            itemHeights[i - dropCount] = _itemHeights[ringIndex];
+        }
+        _items = items;
+        _itemViews = new View[aValue];
+        _itemHeights = itemHeights;
+        _startIndex = 0;
+        _viewStart = 0; _viewEnd = -1;
+        _itemCount -= dropCount;
+        _droppedItemCount += dropCount;
+        itemsChanged();
+    }
+
+    /**
+     * Returns the number of items.
+     */
+    public int getItemCount()  { return _itemCount; }
+
+    /**
+     * Returns the item at given index.
+     */
+    public Object getItem(int anIndex)  { return _items[getRingIndex(anIndex)]; }
+
+    /**
+     * Returns whether items contain given item.
+     */
+    public boolean containsItem(Object anItem)  { return _itemCounts.containsKey(anItem); }
+
+    /**
+     * Sets the handler called when last instance of an item is dropped for max count.
+     */
+    public void setItemDroppedHandler(Consumer<Object> aHandler)  { _itemDroppedHandler = aHandler; }
+
+    /**
+     * Returns the number of items dropped since last clear.
+     */
+    public long getDroppedItemCount()  { return _droppedItemCount; }
+
+    /**
+     * Adds given items (dropping oldest items if over max count).
+     */
+    public void addItems(List<Object> theItems)
+    {
+        for (Object item : theItems) {
+
+            // If full, drop first item
+            if (_itemCount == _items.length) {
+                removeItemCount(_items[_startIndex]);
+                _items[_startIndex] = null;
+                _itemViews[_startIndex] = null;
+                _startIndex = (_startIndex + 1) % _items.length;
+                _itemCount--;
+                _droppedItemCount++;
+                _viewStart--; _viewEnd--;
+            }
+
+            // Add item
+            int ringIndex = getRingIndex(_itemCount++);
+            _items[ringIndex] = item;
+            _itemCounts.merge(item, 1, Integer::sum);
+            _itemViews[ringIndex] = null;
+            _itemHeights[ringIndex] = -1;
+        }
+
+        itemsChanged();
+    }
+
+    /**
+     * Removes all items.
+     */
+    public void clearItems()
+    {
+        _items = new Object[_items.length];
+        _itemViews = new View[_items.length];
+        _itemCounts.clear();
+        _startIndex = _itemCount = 0;
+        _viewStart = 0; _viewEnd = -1;
+        _droppedItemCount = 0;
+        _maxItemWidth = 0;
+        itemsChanged();
+    }
+
+    /**
+     * Decrements count for given dropped item and calls dropped handler if no instances remain.
+     */
+    private void removeItemCount(Object anItem)
+    {
+        Integer count = _itemCounts.get(anItem);
+        if (count != null && count > 1)
+            _itemCounts.put(anItem, count - 1);
+        else {
+            _itemCounts.remove(anItem);
+            if (_itemDroppedHandler != null)
+                _itemDroppedHandler.accept(anItem);
+        }
+    }
+
+    /**
+     * Returns the ring buffer index for given item index.
+     */
+    private int getRingIndex(int anIndex)  { return (_startIndex + anIndex) % _items.length; }
+
+    /**
+     * Called when items change.
+     */
+    private void itemsChanged()
+    {
+        relayout();
+        relayoutParent();
+        repaint();
+        resetItemViewsForCurrentBounds();
+    }
+
+    /**
+     * Returns the height of item at given index (estimated if not yet measured).
+     */
+    private double getItemHeight(int anIndex)
+    {
+        double itemH = _itemHeights[getRingIndex(anIndex)];
+        return itemH >= 0 ? itemH : ESTIMATED_ITEM_HEIGHT;
+    }
+
+    /**
+     * Returns the view for item at given index, creating and measuring if needed.
+     */
+    private View getItemView(int anIndex)
+    {
+        // If already created, just return
+        int ringIndex = getRingIndex(anIndex);
+        View itemView = _itemViews[ringIndex];
+        if (itemView != null)
+            return itemView;
+
+        // Create view
+        itemView = _itemViews[ringIndex] = _viewFunction.apply(_items[ringIndex]);
+
+        // Measure
+        Insets margin = itemView.getMargin();
+        double itemW = itemView.getBestWidth(-1) + margin.getWidth();
+        _itemHeights[ringIndex] = itemView.getBestHeight(-1) + margin.getHeight();
+        _maxItemWidth = Math.max(_maxItemWidth, itemW);
+        return itemView;
+    }
+
+    /**
+     * Override to return max measured item width.
+     */
+    @Override
+    protected double computePrefWidth(double aH)
+    {
+        Insets ins = getInsetsAll();
+        return _maxItemWidth + ins.getWidth();
+    }
+
+    /**
+     * Override to return sum of item heights.
+     */
+    @Override
+    protected double computePrefHeight(double aW)
+    {
+        Insets ins = getInsetsAll();
+        double prefH = ins.getHeight();
+        for (int i = 0; i < _itemCount; i++)
+            prefH += getItemHeight(i);
+        if (_itemCount > 1)
+            prefH += _spacing * (_itemCount - 1);
+        return prefH;
+    }
+
+    /**
+     * Override to layout item views.
+     */
+    @Override
+    protected void layoutImpl()
+    {
+        // Get area bounds
+        Insets ins = getInsetsAll();
+        double areaX = ins.left;
+        double areaW = getWidth() - ins.getWidth();
+
+        // Iterate over items to view end and set bounds of item views
+        double itemY = ins.top;
+        for (int i = 0; i <= _viewEnd && i < _itemCount; i++) {
+            double itemH = getItemHeight(i);
+            View itemView = i >= _viewStart ? _itemViews[getRingIndex(i)] : null;
+            if (itemView != null) {
+                Insets margin = itemView.getMargin();
+                double viewW = areaW - margin.getWidth();
+                if (!itemView.isGrowWidth())
+                    viewW = Math.min(itemView.getBestWidth(-1), viewW);
+                itemView.setBounds(areaX + margin.left, itemY + margin.top, viewW, itemH - margin.getHeight());
+            }
+            itemY += itemH + _spacing;
+        }
+    }
+
+    /**
+     * Registers to reset item views for visible bounds before next paint.
+     */
+    protected void resetItemViewsForCurrentBounds()
+    {
+        if (_resetItemViewsRun == null) {
+            ViewUpdater viewUpdater = getUpdater();
+            if (viewUpdater != null)
+                viewUpdater.runBeforeUpdate(_resetItemViewsRun = this::resetItemViewsForCurrentBoundsImpl);
+        }
+    }
+
+    /**
+     * Resets item views to those for items in or near visible bounds.
+     */
+    private void resetItemViewsForCurrentBoundsImpl()
+    {
+        _resetItemViewsRun = null;
+
+        // Get visible range, expanded by half a screen above and below
+        Rect visibleBounds = getVisibleBounds();
+        double visibleY = visibleBounds.y - visibleBounds.height / 2;
+        double visibleMaxY = visibleBounds.getMaxY() + visibleBounds.height / 2;
+
+        // Find visible items
+        int viewStart = -1, viewEnd = -1;
+        double itemY = getInsetsAll().top;
+        for (int i = 0; i < _itemCount && itemY <= visibleMaxY; i++) {
+            double itemH = getItemHeight(i);
+            if (itemY + itemH >= visibleY) {
+                if (viewStart < 0)
+                    viewStart = i;
+                viewEnd = i;
+            }
+            itemY += itemH + _spacing;
+        }
+
+        // Release views for items no longer in range
+        for (int i = Math.max(_viewStart, 0); i <= _viewEnd && i < _itemCount; i++)
+            if (i < viewStart || i > viewEnd)
+                _itemViews[getRingIndex(i)] = null;
+
+        // Get views for items in range (creating and measuring if needed)
+        double oldPrefH = computePrefHeight(-1);
+        List<View> itemViews = new ArrayList<>();
+        for (int i = viewStart; i >= 0 && i <= viewEnd; i++)
+            itemViews.add(getItemView(i));
+        _viewStart = viewStart;
+        _viewEnd = viewEnd;
+
+        // If children changed, reset children and relayout
+        if (!itemViews.equals(getChildren())) {
+            removeChildren();
+            for (View itemView : itemViews)
+                addChild(itemView);
+            relayout();
+            repaint();
+        }
+
+        // If measured heights changed pref height, relayout parent
+        if (computePrefHeight(-1) != oldPrefH)
+            relayoutParent();
+    }
+
+    /**
+     * Override to reset item views.
+     */
+    @Override
+    public void setY(double aValue)
+    {
+        if (aValue == getY()) return;
+        super.setY(aValue);
+        resetItemViewsForCurrentBounds();
+    }
+
+    /**
+     * Override to reset item views.
+     */
+    @Override
+    public void setHeight(double aValue)
+    {
+        if (aValue == getHeight()) return;
+        super.setHeight(aValue);
+        resetItemViewsForCurrentBounds();
+    }
+
+    /**
+     * Override to reset item views when shown.
+     */
+    @Override
+    protected void setShowing(boolean aValue)
+    {
+        if (aValue == isShowing()) return;
+        super.setShowing(aValue);
+        if (aValue)
+            resetItemViewsForCurrentBounds();
+    }
+
+    /**
+     * Override to reset item views if paint exposes items without views (like when parent Scroller grows).
+     */
+    @Override
+    public void paintAll(Painter aPntr)
+    {
+        super.paintAll(aPntr);
+        if (_itemCount == 0) return;
+        Rect clipBounds = aPntr.getClipBounds();
+        boolean missingAbove = _viewStart > 0 && clipBounds.y < getItemY(_viewStart);
+        boolean missingBelow = _viewEnd < _itemCount - 1 && clipBounds.getMaxY() > getItemY(_viewEnd + 1);
+        if (_viewStart < 0 || _viewEnd < 0 || missingAbove || missingBelow)
+            resetItemViewsForCurrentBounds();
+    }
+
+    /**
+     * Returns the Y of item at given index (or end of last item for item count).
+     */
+    private double getItemY(int anIndex)
+    {
+        double itemY = getInsetsAll().top;
+        for (int i = 0, iMax = Math.min(anIndex, _itemCount); i < iMax; i++)
+            itemY += getItemHeight(i) + _spacing;
+        return itemY;
+    }
+}
@@ -25,6 +25,15 @@ public class ConsoleTextArea extends TextArea {
     // The prompt
     private String _prompt;
 
+    // The max number of lines (oldest lines are removed when appending past max)
+    private int _maxLineCount = DEFAULT_MAX_LINE_COUNT;
+
+    // The text appended from any thread since last flush
+    private StringBuilder _pendingText = new StringBuilder();
+
+    // The default max number of lines
+    private static final int DEFAULT_MAX_LINE_COUNT = 10000;
+
     /**
      * Constructor.
      */
@@ -79,10 +88,76 @@ public class ConsoleTextArea extends TextArea {
         append(getPrompt());
     }
 
+    /**
+     * Returns the max number of lines.
+     */
+    public int getMaxLineCount()  { return _maxLineCount; }
+
+    /**
+     * Sets the max number of lines.
+     */
+    public void setMaxLineCount(int aValue)
+    {
+        _maxLineCount = aValue;
+        trimToMaxLineCount();
+    }
+
     /**
      * Appends a string.
      */
-    public void append(String aString)  { addChars(aString); }
+    public void append(String aString)
+    {
+        addChars(aString);
+        trimToMaxLineCount();
+    }
+
+    /**
+     * Appends a string from any thread. Strings are batched and appended once in event thread.
+     */
+    public void appendLater(String aString)
+    {
+        // Add to pending text and if first, register to flush
+        boolean needsFlush;
+        synchronized (_pendingText) {
+            needsFlush = _pendingText.length() == 0;
+            _pendingText.append(aString);
+        }
+        if (needsFlush)
+            ViewUtils.runLater(this::flushPendingText);
+    }
+
+    /**
+     * Appends pending text (in event thread).
+     */
+    protected void flushPendingText()
+    {
+        String pendingText;
+        synchronized (_pendingText) {
+            pendingText = _pendingText.toString();
+            _pendingText.setLength(0);
+        }
+        if (!pendingText.isEmpty())
+            append(pendingText);
+    }
+
+    /**
+     * Removes oldest lines if line count is over max (trims an extra tenth, so it doesn't happen on every append).
+     */
+    protected void trimToMaxLineCount()
+    {
+        // Get number of lines to remove
+        TextModel textModel = getTextModel();
+        int excessLineCount = textModel.getLineCount() - _maxLineCount;
+        if (excessLineCount <= 0) return;
+        int removeLineCount = Math.min(excessLineCount + _maxLineCount / 10, textModel.getLineCount() - 1);
+        if (removeLineCount <= 0) return;
+
+        // Remove lines and shift input location
+        int removeEnd = textModel.getLine(removeLineCount).getStartCharIndex();
+        int inputCharIndex = _inputCharIndex;
+        removeChars(0, removeEnd);
+        _inputCharIndex = Math.max(inputCharIndex - removeEnd, 0);
+    }
 
     /**
      * Override to update input location.
@@ -2,9 +2,7 @@ package snap.viewx;
 import snap.gfx.Color;
 import snap.util.SnapEnv;
 import snap.view.*;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 /**
  * This class is a real implementation of Console.
@@ -12,17 +10,23 @@ import java.util.Map;
 public class DefaultConsole extends ViewController implements Console {
 
     // The Console view
-    private ColView _consoleView;
+    private ConsoleItemsView _consoleView;
 
-    // The maximum number of console items
-    private int _maxItemCount = 1000;
-
-    // Whether console has overflowed
-    private boolean _overflowed;
+    // The label that shows that oldest items were dropped
+    private Label _droppedLabel;
 
     // A cache of views for console items
     private Map<Object,View> _itemViewsCache = new HashMap<>();
 
+    // The items shown since last flush (from any thread)
+    private List<Object> _pendingItems = new ArrayList<>();
+
+    // Runnable to flush pending items
+    private Runnable _flushPendingItemsRun = this::flushPendingItems;
+
+    // The default maximum number of console items
+    private static final int DEFAULT_MAX_ITEM_COUNT = 1000;
+
     // The shared console
     private static Console _shared = null;
 
@@ -40,67 +44,139 @@ public class DefaultConsole extends ViewController implements Console {
         super();
 
         // Create config ConsoleView
-        _consoleView = new ColView();
+        _consoleView = new ConsoleItemsView(this::getViewForObject, DEFAULT_MAX_ITEM_COUNT);
+        _consoleView.setItemDroppedHandler(_itemViewsCache::remove);
         _consoleView.setFill(new Color(.99));
         _consoleView.setPadding(5, 5, 5, 5);
         _consoleView.setSpacing(6);
         _consoleView.setGrowWidth(true);
 
+        // Create dropped label (shown when oldest items are dropped for max count)
+        _droppedLabel = new Label();
+        _droppedLabel.setPadding(4, 8, 4, 8);
+        _droppedLabel.setFill(new Color(1, .95, .8));
+        _droppedLabel.setVisible(false);
+
         // Set shared
         if (_shared == null)
             _shared = this;
     }
 
     /**
-     * Shows the given object to user.
+     * Shows the given object to user. Can be called from any thread: Items are batched and added in event thread.
      */
     @Override
     public void show(Object anObj)
     {
-        // Handle overflow
-        if (getItemCount() + 1 > _maxItemCount) {
-            if (!_overflowed) {
-                _overflowed = true;
-                showImpl("Output suspended - Too much output!!!");
-            }
+        // Add to pending items and if first, register to flush
+        boolean needsFlush;
+        synchronized (_pendingItems) {
+            needsFlush = _pendingItems.isEmpty();
+            _pendingItems.add(anObj);
         }
+        if (needsFlush)
+            runLater(_flushPendingItemsRun);
 
-        // Forward to ConsoleView
-        showImpl(anObj);
+        // This helps WebVM
+        Thread.yield();
     }
 
     /**
-     * Called by shell when there is output.
+     * Adds pending items to console view (in event thread).
+     */
+    protected void flushPendingItems()
+    {
+        // Get pending items
+        List<Object> pendingItems;
+        synchronized (_pendingItems) {
+            pendingItems = new ArrayList<>(_pendingItems);
+            _pendingItems.clear();
+        }
+
+        // Show items
+        showItems(pendingItems);
+    }
+
+    /**
+     * Called in event thread to add item to console view.
      */
     protected void showImpl(Object anObj)
     {
-        // Get view for output object and add
-        View replView = getViewForObject(anObj);
-        if (!replView.isShowing()) {
+        showItems(Collections.singletonList(anObj));
+    }
 
-            // Add in event thread
-            runLater(() -> _consoleView.addChild(replView));
+    /**
+     * Called in event thread to add items to console view (in one batch, so console view updates once).
+     */
+    protected void showItems(List<Object> theItems)
+    {
+        // Get items to add: skip non-simple values already showing or already in batch (view is shared)
+        List<Object> addItems = new ArrayList<>(theItems.size());
+        Set<Object> batchValues = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object item : theItems) {
+            if (!isSimpleValue(item)) {
+                if (_itemViewsCache.containsKey(item) && _consoleView.containsItem(item) || !batchValues.add(item))
+                    continue;
+            }
+            addItems.add(item);
+        }
 
-            // This helps WebVM
-            Thread.yield();
+        // Add items and update dropped label
+        if (!addItems.isEmpty()) {
+            _consoleView.addItems(addItems);
+            updateDroppedLabel();
         }
     }
 
+    /**
+     * Updates the label that shows that oldest items were dropped.
+     */
+    private void updateDroppedLabel()
+    {
+        long droppedCount = getDroppedItemCount();
+        _droppedLabel.setVisible(droppedCount > 0);
+        if (droppedCount > 0)
+            _droppedLabel.setText("Output truncated - " + droppedCount + " earlier items dropped");
+    }
+
     /**
      * Resets the console.
      */
     @Override
     public void resetConsole()
     {
-        _consoleView.removeChildren();
+        synchronized (_pendingItems) {
+            _pendingItems.clear();
+        }
+        _consoleView.clearItems();
         _itemViewsCache.clear();
+        updateDroppedLabel();
     }
 
     /**
      * Returns the number of items on the console.
      */
     @Override
-    public int getItemCount()  { return _consoleView.getChildCount(); }
+    public int getItemCount()  { return _consoleView.getItemCount(); }
+
+    /**
+     * Returns the maximum number of console items (oldest items are dropped).
+     */
+    public int getMaxItemCount()  { return _consoleView.getMaxItemCount(); }
+
+    /**
+     * Sets the maximum number of console items.
+     */
+    public void setMaxItemCount(int aValue)
+    {
+        _consoleView.setMaxItemCount(aValue);
+        updateDroppedLabel();
+    }
+
+    /**
+     * Returns the number of items dropped since last reset.
+     */
+    public long getDroppedItemCount()  { return _consoleView.getDroppedItemCount(); }
 
     /**
      * Returns the console view.
@@ -148,7 +224,15 @@ public class DefaultConsole extends ViewController implements Console {
         View consoleView = getConsoleView();
         ScrollView scrollView = new ScrollView(consoleView);
         scrollView.setFillWidth(consoleView != null && consoleView.isGrowWidth());
-        return scrollView;
+
+        // If console view is items view, add dropped label above scroll view
+        if (consoleView != _consoleView)
+            return scrollView;
+        scrollView.setGrowHeight(true);
+        ColView colView = new ColView();
+        colView.setFillWidth(true);
+        colView.setChildren(_droppedLabel, scrollView);
+        return colView;
     }
 
     /**
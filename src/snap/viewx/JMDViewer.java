@@ -118,15 +118,22 @@ public class JMDViewer {
      */
     protected static class JMDRunConsole extends DefaultConsole {
 
+        // The console view
+        private ColView _consoleView = new ColView();
+
+        @Override
+        public void show(Object anObj)  { showImpl(anObj); }
+
         @Override
         protected void showImpl(Object anObj)
         {
             View replView = getViewForObject(anObj);
-            if (!replView.isShowing()) {
-                ColView consoleView = (ColView) getConsoleView();
-                consoleView.addChild(replView);
-            }
+            if (!replView.isShowing())
+                _consoleView.addChild(replView);
         }
+
+        @Override
+        public View getConsoleView()  { return _consoleView; }
     }
 
     /**
@@ -10,6 +10,7 @@ import snap.props.PropChange;
 import snap.props.Undoer;
 import snap.text.TextAgent;
 import snap.text.TextLine;
+import snap.text.TextSearch;
 import snap.text.TextSel;
 import snap.util.Convert;
 import snap.util.ListUtils;
@@ -18,8 +19,6 @@ import snap.web.WebFile;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * A panel for editing text files.
@@ -482,22 +481,31 @@ public class TextPane extends ViewController {
      */
     public List<StringMatch> getMatchesForString(String findString, boolean matchCase)
     {
-        // Compile pattern
-        Pattern pattern = Pattern.compile(Pattern.quote(findString), matchCase ? 0 : Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(_textArea.getText());
+        // Get search and text
+        TextSearch textSearch = new TextSearch(findString, matchCase);
+        String text = _textArea.getText();
         List<StringMatch> stringMatches = new ArrayList<>();
 
         // Iterate over matches
-        while (matcher.find()) {
-            int start = matcher.start();
-            int end = matcher.end();
-            stringMatches.add(new StringMatch(start, end));
-        }
+        textSearch.forEachMatch(text, match -> stringMatches.add(new StringMatch(match.start(), match.end())));
 
         // Return
         return stringMatches;
     }
 
+    /**
+     * Replaces all matches for given string with given replace string and returns the number of matches replaced.
+     */
+    public int replaceAll(String findString, String replaceString, boolean matchCase)
+    {
+        TextSearch textSearch = new TextSearch(findString, matchCase);
+        int matchCount = _textArea.getTextAdapter().replaceAll(textSearch, replaceString);
+        _findString = null;
+        _stringMatches = null;
+        resetLater();
+        return matchCount;
+    }
+
     // A record for string matches
     public record StringMatch(int start, int end) { }
 
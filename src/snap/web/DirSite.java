@@ -43,6 +43,36 @@ public class DirSite extends WebSite {
         return _dir = dir;
     }
 
+    /**
+     * Returns whether dir file site watches for external changes.
+     */
+    public boolean isWatching()
+    {
+        WebSite dirFileSite = getDir().getSite();
+        return dirFileSite instanceof FileSite fileSite && fileSite.isWatching();
+    }
+
+    /**
+     * Sets whether dir file site watches for external changes (only supported for local file system). When watching,
+     * local files are reset (and file prop changes fired) when dir files change externally.
+     */
+    public void setWatching(boolean aValue)
+    {
+        WebSite dirFileSite = getDir().getSite();
+        if (dirFileSite instanceof FileSite fileSite)
+            fileSite.setWatching(aValue);
+    }
+
+    /**
+     * Override to forward to dir file.
+     */
+    @Override
+    protected boolean isWatchingFile(WebFile aFile)
+    {
+        WebFile dirFile = getDirFileForPath(aFile.getPath());
+        return dirFile != null && dirFile.isWatched();
+    }
+
     /**
      * Handles a head request.
      */
@@ -165,31 +195,72 @@ public class DirSite extends WebSite {
     }
 
     /**
-     * Called when dir file site has file change. Used to reset local file when source file is deleted.
+     * Called when dir file site has file change. Used to reset local file when source file is deleted (or changed
+     * externally, if watching).
      */
     private void handleDirSiteFilePropChange(PropChange propChange)
     {
+        // If LastModTime change and watching, handle external change
+        WebFile dirSiteFile = (WebFile) propChange.getSource();
+        String propName = propChange.getPropName();
+        if (propName == WebFile.LastModTime_Prop && isWatching()) {
+            handleDirSiteFileChangedExternally(dirSiteFile);
+            return;
+        }
+
         // If not Exists prop, just return
-        if (propChange.getPropName() != WebFile.Exists_Prop)
+        if (propName != WebFile.Exists_Prop)
             return;
 
         // If given file created, just return
-        WebFile dirSiteFile = (WebFile) propChange.getSource();
         if (dirSiteFile.getExists())
             return;
 
         // If given file not in this site, just return
-        String dirSiteFilePath = dirSiteFile.getPath();
-        if (!dirSiteFilePath.startsWith(getDir().getPath()))
+        String localPath = getLocalPathForDirSitePath(dirSiteFile.getPath());
+        if (localPath == null)
             return;
 
         // Get local file and reset if verified
-        String localPath = dirSiteFilePath.substring(getDir().getPath().length());
-        WebFile localFile = createFileForPath(localPath.isEmpty() ? "/" : localPath, dirSiteFile.isDir());
+        WebFile localFile = createFileForPath(localPath, dirSiteFile.isDir());
         if (localFile.isVerified())
             localFile.resetAndVerify();
     }
 
+    /**
+     * Called when dir site file changes externally to reset local file.
+     */
+    private void handleDirSiteFileChangedExternally(WebFile dirSiteFile)
+    {
+        // If given file not in this site, just return
+        String localPath = getLocalPathForDirSitePath(dirSiteFile.getPath());
+        if (localPath == null)
+            return;
+
+        // Get loaded local file and reset if verified and not modified
+        WebFile localFile = getLoadedFileForPath(localPath);
+        if (localFile != null && localFile.isVerified() && !localFile.isModified())
+            localFile.resetAndVerify();
+    }
+
+    /**
+     * Returns the local path for given path in dir site (or null if path isn't dir or in dir).
+     */
+    private String getLocalPathForDirSitePath(String dirSiteFilePath)
+    {
+        // Handle root dir: all paths are in dir
+        String dirPath = getDir().getPath();
+        if (dirPath.equals("/"))
+            return dirSiteFilePath;
+
+        // Handle dir itself and paths in dir (must be followed by separator, so "/foobar" isn't in "/foo")
+        if (dirSiteFilePath.equals(dirPath))
+            return "/";
+        if (dirSiteFilePath.startsWith(dirPath) && dirSiteFilePath.charAt(dirPath.length()) == '/')
+            return dirSiteFilePath.substring(dirPath.length());
+        return null;
+    }
+
     /**
      * Returns the foreign file for a path from foreign site.
      */
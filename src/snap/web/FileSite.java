@@ -6,9 +6,13 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
 import java.util.Collections;
 import java.util.List;
@@ -22,6 +26,9 @@ public class FileSite extends WebSite {
     // The drive letter path prefix for Windows
     private String _windowsDriveLetterPath;
 
+    // The watcher for external file changes (null if not watching)
+    private FileSiteWatcher _watcher;
+
     /**
      * Constructor.
      */
@@ -43,6 +50,66 @@ public class FileSite extends WebSite {
             _windowsDriveLetterPath = aURL.getWindowsDriveLetterPath();
     }
 
+    /**
+     * Returns whether site watches loaded directories for external changes.
+     */
+    public boolean isWatching()  { return _watcher != null; }
+
+    /**
+     * Sets whether site watches loaded directories for external changes. When watching, loaded files are reset (and
+     * file prop changes fired) when they change externally, so they don't need to be polled.
+     */
+    public synchronized void setWatching(boolean aValue)
+    {
+        if (aValue == isWatching()) return;
+
+        // If turning off, close watcher
+        if (!aValue) {
+            _watcher.close();
+            _watcher = null;
+            return;
+        }
+
+        // Create watcher
+        try { _watcher = new FileSiteWatcher(this); }
+        catch (IOException e) { System.err.println("FileSite.setWatching: Can't create watcher: " + e); return; }
+
+        // Watch directories of loaded files
+        for (WebFile file : getLoadedFiles()) {
+            if (file.isVerified() && file.getExists()) {
+                File javaFile = getJavaFileForLocalPath(file.getPath());
+                watchDirForJavaFile(javaFile);
+            }
+        }
+    }
+
+    /**
+     * Override to return true if file directory is watched.
+     */
+    @Override
+    protected boolean isWatchingFile(WebFile aFile)
+    {
+        FileSiteWatcher watcher = _watcher;
+        if (watcher == null)
+            return false;
+        File javaFile = getJavaFileForLocalPath(aFile.getPath());
+        File javaDir = aFile.isDir() ? javaFile : javaFile.getParentFile();
+        return javaDir != null && watcher.isWatchingDir(javaDir);
+    }
+
+    /**
+     * If watching, watches directory for given java file (or parent directory if regular file).
+     */
+    private void watchDirForJavaFile(File javaFile)
+    {
+        FileSiteWatcher watcher = _watcher;
+        if (watcher == null)
+            return;
+        File javaDir = javaFile.isDirectory() ? javaFile : javaFile.getParentFile();
+        if (javaDir != null)
+            watcher.watchDir(javaDir);
+    }
+
     /**
      * Handle a head request.
      */
@@ -70,6 +137,9 @@ public class FileSite extends WebSite {
         aResp.setCode(WebResponse.OK);
         FileHeader fileHeader = getFileHeaderForJavaFile(javaFile);
         aResp.setFileHeader(fileHeader);
+
+        // If watching, watch file directory
+        watchDirForJavaFile(javaFile);
     }
 
     /**
@@ -99,11 +169,62 @@ public class FileSite extends WebSite {
         else doGetDir(aReq, aResp, javaFile);
     }
 
+    /**
+     * Override to stream file contents directly from file.
+     */
+    @Override
+    protected InputStream getInputStreamForFile(WebFile aFile)
+    {
+        FileChannel fileChannel = getChannelForFile(aFile);
+        return fileChannel != null ? Channels.newInputStream(fileChannel) : null;
+    }
+
+    /**
+     * Override to return FileChannel (seekable).
+     */
+    @Override
+    protected FileChannel getChannelForFile(WebFile aFile)
+    {
+        // Get java file - if not readable file, return null
+        File javaFile = getJavaFileForLocalPath(aFile.getPath());
+        if (!javaFile.isFile() || !javaFile.canRead())
+            return null;
+
+        // Return channel
+        try { return FileChannel.open(javaFile.toPath(), StandardOpenOption.READ); }
+        catch (IOException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Override to memory map file (if not too large to map).
+     */
+    @Override
+    protected ByteBuffer getByteBufferForFile(WebFile aFile)
+    {
+        // Get channel (just return if not found)
+        try (FileChannel fileChannel = getChannelForFile(aFile)) {
+            if (fileChannel == null)
+                return null;
+
+            // If too large for ByteBuffer, complain
+            long fileSize = fileChannel.size();
+            if (fileSize > Integer.MAX_VALUE)
+                throw new IOException("FileSite.getByteBufferForFile: File too large to map: " + aFile.getPath());
+
+            // Return mapped buffer
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        }
+        catch (IOException e) { throw new RuntimeException(e); }
+    }
+
     /**
      * Handle a get directory request.
      */
     private void doGetDir(WebRequest aReq, WebResponse aResp, File parentFile)
     {
+        // If watching, watch directory (before listing, so no changes are missed)
+        watchDirForJavaFile(parentFile);
+
         // Get java file children (if null, just return)
         File[] dirFiles = parentFile.listFiles();
         if (dirFiles == null) {
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.web;
+import snap.view.ViewUtils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class watches directories of a FileSite with a WatchService and resets loaded site files when they change
+ * externally, so file prop changes (and site file change listeners) fire without polling. Directories are registered
+ * as the site loads them and changes are collected on a watch thread and processed in batches on the event thread.
+ */
+class FileSiteWatcher {
+
+    // The site
+    private FileSite _site;
+
+    // The WatchService
+    private WatchService _watchService;
+
+    // The watched directory paths for watch keys
+    private Map<WatchKey,Path> _watchKeyDirs = new ConcurrentHashMap<>();
+
+    // The set of watched directory paths
+    private Set<Path> _watchedDirs = ConcurrentHashMap.newKeySet();
+
+    // The changed java paths waiting to be processed
+    private Set<Path> _changedPaths = new LinkedHashSet<>();
+
+    // The watch thread
+    private Thread _watchThread;
+
+    // The time to wait for more events before processing a batch of changes, in milliseconds
+    private static final int BATCH_DELAY = 100;
+
+    /**
+     * Constructor.
+     */
+    public FileSiteWatcher(FileSite aSite) throws IOException
+    {
+        _site = aSite;
+        _watchService = FileSystems.getDefault().newWatchService();
+
+        // Start watch thread
+        _watchThread = new Thread(this::runWatchLoop, "FileSiteWatcher");
+        _watchThread.setDaemon(true);
+        _watchThread.start();
+    }
+
+    /**
+     * Returns whether given java directory is watched.
+     */
+    public boolean isWatchingDir(File aDir)  { return _watchedDirs.contains(aDir.toPath().toAbsolutePath()); }
+
+    /**
+     * Starts watching given java directory (does nothing if already watched).
+     */
+    public void watchDir(File aDir)
+    {
+        // If already watched, just return
+        Path dirPath = aDir.toPath().toAbsolutePath();
+        if (!_watchedDirs.add(dirPath))
+            return;
+
+        // Register
+        try {
+            WatchKey watchKey = dirPath.register(_watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            _watchKeyDirs.put(watchKey, dirPath);
+        }
+
+        // If registration failed, remove dir and complain
+        catch (IOException | ClosedWatchServiceException e) {
+            _watchedDirs.remove(dirPath);
+            System.err.println("FileSiteWatcher.watchDir: Can't watch dir: " + dirPath + " (" + e + ')');
+        }
+    }
+
+    /**
+     * Stops watching and closes WatchService.
+     */
+    public void close()
+    {
+        try { _watchService.close(); }
+        catch (IOException e) { System.err.println("FileSiteWatcher.close: " + e); }
+        _watchKeyDirs.clear();
+        _watchedDirs.clear();
+    }
+
+    /**
+     * The watch loop: Waits for watch keys, collects changed paths and posts batches to event thread.
+     */
+    private void runWatchLoop()
+    {
+        try {
+            while (true) {
+
+                // Wait for first key, then collect any more that arrive within batch delay
+                WatchKey watchKey = _watchService.take();
+                boolean changed = false;
+                while (watchKey != null) {
+                    changed |= addChangedPathsForWatchKey(watchKey);
+                    watchKey = _watchService.poll(BATCH_DELAY, TimeUnit.MILLISECONDS);
+                }
+
+                // Process changes on event thread
+                if (changed)
+                    ViewUtils.runLater(this::processChangedPaths);
+            }
+        }
+
+        // Handle close or interrupt: Just stop
+        catch (ClosedWatchServiceException | InterruptedException e) { }
+    }
+
+    /**
+     * Adds changed paths for given watch key and resets key. Returns whether any paths were added.
+     */
+    private boolean addChangedPathsForWatchKey(WatchKey watchKey)
+    {
+        // Get dir path for key (if key no longer valid, dir was deleted so forget it)
+        Path dirPath = _watchKeyDirs.get(watchKey);
+        if (dirPath == null)
+            return false;
+
+        // Add changed paths
+        boolean changed = false;
+        synchronized (_changedPaths) {
+            for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+                WatchEvent.Kind<?> kind = watchEvent.kind();
+
+                // If overflow, just mark whole directory changed
+                if (kind == StandardWatchEventKinds.OVERFLOW) {
+                    _changedPaths.add(dirPath);
+                    changed = true;
+                    continue;
+                }
+
+                // Add changed path - if created or deleted, dir list changed too
+                Path childPath = dirPath.resolve((Path) watchEvent.context());
+                _changedPaths.add(childPath);
+                if (kind != StandardWatchEventKinds.ENTRY_MODIFY)
+                    _changedPaths.add(dirPath);
+                changed = true;
+            }
+        }
+
+        // Reset key (if no longer valid, forget dir)
+        if (!watchKey.reset()) {
+            _watchKeyDirs.remove(watchKey);
+            _watchedDirs.remove(dirPath);
+        }
+
+        // Return
+        return changed;
+    }
+
+    /**
+     * Called on event thread to reset loaded site files for changed paths.
+     */
+    private void processChangedPaths()
+    {
+        // Get changed paths
+        Path[] changedPaths;
+        synchronized (_changedPaths) {
+            changedPaths = _changedPaths.toArray(new Path[0]);
+            _changedPaths.clear();
+        }
+
+        // Reset loaded, verified files for changed paths (files with unsaved changes are left alone)
+        for (Path changedPath : changedPaths) {
+            File javaFile = changedPath.toFile();
+            String filePath = _site.getLocalPathForJavaFile(javaFile);
+            WebFile file = _site.getLoadedFileForPath(filePath);
+            if (file != null && file.isVerified() && !file.isModified() && isChangedOnDisk(file, javaFile))
+                file.resetAndVerify();
+        }
+    }
+
+    /**
+     * Returns whether given site file differs from java file on disk (events from site's own saves don't).
+     */
+    private static boolean isChangedOnDisk(WebFile aFile, File javaFile)
+    {
+        boolean exists = javaFile.exists();
+        if (exists != aFile.getExists())
+            return true;
+        return exists && javaFile.lastModified() != aFile.getLastModTime();
+    }
+}
@@ -124,6 +124,23 @@ public class HTTPRequest {
      * Executes this request and returns a response.
      */
     public HTTPResponse getResponse() throws IOException
+    {
+        return getResponse(false);
+    }
+
+    /**
+     * Executes this request and returns a response with an open input stream for body instead of bytes (if response
+     * is OK or PARTIAL_CONTENT). Caller must close the response input stream.
+     */
+    public HTTPResponse getStreamingResponse() throws IOException
+    {
+        return getResponse(true);
+    }
+
+    /**
+     * Executes this request and returns a response, with option to leave body input stream open instead of reading bytes.
+     */
+    private HTTPResponse getResponse(boolean isStreaming) throws IOException
     {
         // Create response
         HTTPResponse resp = new HTTPResponse();
@@ -184,7 +201,7 @@ public class HTTPRequest {
         resp._time = System.currentTimeMillis() - resp._time;
 
         // If response code not success, just return
-        if (resp._code != HTTPResponse.OK)
+        if (resp._code != HTTPResponse.OK && resp._code != HTTPResponse.PARTIAL_CONTENT)
             return resp;
 
         // Get ContentType, Length, LastModified
@@ -193,7 +210,9 @@ public class HTTPRequest {
         resp._lastModified = SnapEnv.isTeaVM || SnapEnv.isWebVM ? 0 : connection.getLastModified();
 
         // Get response bytes
-        if (!method.equals("HEAD")) {
+        if (isStreaming && !method.equals("HEAD"))
+            resp._inputStream = connection.getInputStream();
+        else if (!method.equals("HEAD")) {
             try (InputStream inputStream = connection.getInputStream()) {
                 resp._bytes = inputStream.readAllBytes();
             }
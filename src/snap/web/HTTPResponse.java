@@ -2,6 +2,7 @@
  * Copyright (c) 2010, ReportMill Software. All rights reserved.
  */
 package snap.web;
+import java.io.InputStream;
 import java.util.*;
 import snap.util.JsonNode;
 import snap.util.JsonParser;
@@ -32,6 +33,9 @@ public class HTTPResponse {
 
     // The bytes
     protected byte[]  _bytes;
+
+    // The input stream for body (for streaming responses)
+    protected InputStream  _inputStream;
     
     // List of cookies
     protected List<String>  _cookies = new ArrayList<>();
@@ -41,6 +45,7 @@ public class HTTPResponse {
     
     // Response codes
     public static final int OK = 200;
+    public static final int PARTIAL_CONTENT = 206;
     public static final int BAD_REQUEST = 400;
     public static final int UNAUTHORIZED = 401;
     public static final int FORBIDDEN = 403;
@@ -137,6 +142,11 @@ public class HTTPResponse {
      */
     public byte[] getBytes()  { return _bytes; }
 
+    /**
+     * Returns the input stream for body (for streaming responses).
+     */
+    public InputStream getInputStream()  { return _inputStream; }
+
     /**
      * Returns the response byte string.
      */
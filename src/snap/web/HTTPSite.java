@@ -110,6 +110,49 @@ public class HTTPSite extends WebSite {
         return getFileHeadersFromDirPathAndIndexText(dirPath, indexFileText);
     }
 
+    /**
+     * Override to stream response body directly from connection.
+     */
+    @Override
+    protected InputStream getInputStreamForFile(WebFile aFile)
+    {
+        return getInputStreamForFileRange(aFile, 0, -1);
+    }
+
+    /**
+     * Override to request range from server with HTTP Range header (skipping if server ignores it).
+     */
+    @Override
+    protected InputStream getInputStreamForFileRange(WebFile aFile, long anOffset, long aLength)
+    {
+        // Create HTTPRequest for java.net.URL and add range header
+        WebURL url = aFile.getUrl();
+        HTTPRequest httpRequest = new HTTPRequest(url.getJavaUrl());
+        if (anOffset > 0 || aLength >= 0) {
+            String rangeEnd = aLength >= 0 ? String.valueOf(anOffset + aLength - 1) : "";
+            httpRequest.addHeader("Range", "bytes=" + anOffset + '-' + rangeEnd);
+        }
+
+        // Get streaming response
+        try {
+            HTTPResponse httpResp = httpRequest.getStreamingResponse();
+            int code = httpResp.getCode();
+            if (code == HTTPResponse.NOT_FOUND)
+                return null;
+            if (code != HTTPResponse.OK && code != HTTPResponse.PARTIAL_CONTENT)
+                throw new IOException("HTTPSite.getInputStreamForFileRange: " + code + ' ' + httpResp.getMessage() + " (" + url.getString() + ')');
+
+            // If server returned partial content, return stream, otherwise skip to range
+            InputStream inputStream = httpResp.getInputStream();
+            if (code == HTTPResponse.PARTIAL_CONTENT)
+                return inputStream;
+            return WebUtils.getRangeInputStream(inputStream, anOffset, aLength);
+        }
+
+        // Rethrow exception
+        catch (IOException e) { throw new RuntimeException(e); }
+    }
+
     /**
      * Handle a POST request.
      */
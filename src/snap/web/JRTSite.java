@@ -1,7 +1,10 @@
 package snap.web;
 import snap.util.SnapEnv;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.*;
 import java.util.Collections;
 import java.util.List;
@@ -124,6 +127,32 @@ public class JRTSite extends WebSite {
         }
     }
 
+    /**
+     * Override to stream file contents directly from module path.
+     */
+    @Override
+    protected InputStream getInputStreamForFile(WebFile aFile)
+    {
+        SeekableByteChannel byteChannel = getChannelForFile(aFile);
+        return byteChannel != null ? Channels.newInputStream(byteChannel) : null;
+    }
+
+    /**
+     * Override to return seekable channel for module path.
+     */
+    @Override
+    protected SeekableByteChannel getChannelForFile(WebFile aFile)
+    {
+        // Get module path - if not readable file, return null
+        Path modulePath = getModulePathForUrlPath(aFile.getPath());
+        if (!Files.isRegularFile(modulePath) || !Files.isReadable(modulePath))
+            return null;
+
+        // Return channel
+        try { return Files.newByteChannel(modulePath); }
+        catch (IOException e) { throw new RuntimeException(e); }
+    }
+
     /**
      * Returns the module path for given URL path.
      */
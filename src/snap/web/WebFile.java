@@ -6,7 +6,11 @@ import snap.props.PropObject;
 import snap.util.*;
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.time.Instant;
 import java.util.*;
 
@@ -39,6 +43,9 @@ public class WebFile extends PropObject implements Comparable<WebFile> {
     // The file bytes
     private byte[]  _bytes;
 
+    // Whether to retain loaded file bytes (null for site default)
+    private Boolean  _cacheBytes;
+
     // The directory files
     private List<WebFile> _files;
 
@@ -291,7 +298,7 @@ public class WebFile extends PropObject implements Comparable<WebFile> {
     public byte[] getBytes()
     {
         if (_bytes != null) return _bytes;
-        return _bytes = getBytesImpl();
+        return getBytesImpl();
     }
 
     /**
@@ -318,13 +325,31 @@ public class WebFile extends PropObject implements Comparable<WebFile> {
         // Configure
         setExists(true);
         _lastModTime = Math.max(_lastModTime, resp.getLastModTime());
-        _bytes = resp.getBytes();
-        _size = _bytes != null ? _bytes.length : 0;
+        byte[] bytes = resp.getBytes();
+        _size = bytes != null ? bytes.length : 0;
+
+        // Retain bytes if cache policy allows
+        if (isCacheBytes())
+            _bytes = bytes;
 
         // Return
-        return _bytes;
+        return bytes;
+    }
+
+    /**
+     * Returns whether loaded file bytes are retained (defaults to site policy).
+     */
+    public boolean isCacheBytes()
+    {
+        if (_cacheBytes != null) return _cacheBytes;
+        return _site.isCacheBytesForFile(this);
     }
 
+    /**
+     * Sets whether loaded file bytes are retained (bytes set with setBytes() are always retained until saved).
+     */
+    public void setCacheBytes(boolean aValue)  { _cacheBytes = aValue; }
+
     /**
      * Sets the file bytes.
      */
@@ -489,12 +514,22 @@ public class WebFile extends PropObject implements Comparable<WebFile> {
      */
     public boolean isModifiedExternally()
     {
+        // If site watches file and there are no local changes, watcher keeps file current
+        if (!_modified && isWatched())
+            return false;
+
+        // Compare to external last modified time
         WebURL url = getUrl();
         long lastModTime = getLastModTime();
         long lastModTimeExternal = url.getLastModTime();
         return lastModTime < lastModTimeExternal;
     }
 
+    /**
+     * Returns whether this file is watched by site for external changes (so cached state is kept current without polling).
+     */
+    public boolean isWatched()  { return _site.isWatchingFile(this); }
+
     /**
      * Returns whether given file is contained in this directory.
      */
@@ -602,12 +637,32 @@ public class WebFile extends PropObject implements Comparable<WebFile> {
      */
     public String getText()
     {
+        // If bytes won't be retained, read text from stream
+        if (_bytes == null && !isCacheBytes()) {
+            try (InputStream inputStream = openStream()) {
+                return inputStream != null ? new String(inputStream.readAllBytes()) : null;
+            }
+            catch (IOException e) { throw new RuntimeException(e); }
+        }
+
+        // Return text for bytes
         byte[] bytes = getBytes();
         if (bytes == null)
             return null;
         return new String(bytes);
     }
 
+    /**
+     * Returns the file text as a CharSequence, decoded directly from stream (for readers of large text files).
+     */
+    public CharSequence getTextChars()
+    {
+        try (InputStream inputStream = openStream()) {
+            return inputStream != null ? WebUtils.readChars(inputStream) : null;
+        }
+        catch (IOException e) { throw new RuntimeException(e); }
+    }
+
     /**
      * Sets the file bytes as a string.
      */
@@ -620,10 +675,70 @@ public class WebFile extends PropObject implements Comparable<WebFile> {
     /**
      * Returns an input stream for file.
      */
-    public InputStream getInputStream()
+    public InputStream getInputStream()  { return openStream(); }
+
+    /**
+     * Opens a new input stream for file contents. Sites stream contents natively where possible, so file bytes are
+     * not loaded or retained (unless already loaded or set).
+     */
+    public InputStream openStream()
     {
-        byte[] bytes = getBytes();
-        return new ByteArrayInputStream(bytes);
+        // If bytes already loaded (or set), just return stream for them
+        byte[] bytes = _bytes;
+        if (bytes != null)
+            return new ByteArrayInputStream(bytes);
+
+        // Otherwise have site provide stream
+        WebSite site = getSite();
+        return site.getInputStreamForFile(this);
+    }
+
+    /**
+     * Opens a new input stream for given range of file contents (length can be -1 to read to end of file).
+     */
+    public InputStream openStream(long anOffset, long aLength)
+    {
+        // If bytes already loaded (or set), just return stream for range
+        byte[] bytes = _bytes;
+        if (bytes != null) {
+            int offset = (int) Math.min(anOffset, bytes.length);
+            int length = aLength < 0 ? bytes.length - offset : (int) Math.min(aLength, bytes.length - offset);
+            return new ByteArrayInputStream(bytes, offset, length);
+        }
+
+        // Otherwise have site provide stream for range
+        WebSite site = getSite();
+        return site.getInputStreamForFileRange(this, anOffset, aLength);
+    }
+
+    /**
+     * Opens a new channel for file contents (a SeekableByteChannel for sites that support it, like FileSite).
+     */
+    public ReadableByteChannel openChannel()
+    {
+        // If bytes already loaded (or set), just return channel for them
+        byte[] bytes = _bytes;
+        if (bytes != null)
+            return Channels.newChannel(new ByteArrayInputStream(bytes));
+
+        // Otherwise have site provide channel
+        WebSite site = getSite();
+        return site.getChannelForFile(this);
+    }
+
+    /**
+     * Returns a read-only ByteBuffer for file contents (which can be memory mapped for some sites).
+     */
+    public ByteBuffer getByteBuffer()
+    {
+        // If bytes already loaded (or set), just return buffer for them
+        byte[] bytes = _bytes;
+        if (bytes != null)
+            return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+
+        // Otherwise have site provide buffer
+        WebSite site = getSite();
+        return site.getByteBufferForFile(this);
     }
 
     /**
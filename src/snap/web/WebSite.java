@@ -8,8 +8,19 @@ import snap.props.PropChangeSupport;
 import snap.util.FilePathUtils;
 import snap.util.FileUtils;
 import snap.util.SnapEnv;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * This is an abstract class to provide data management (create, get, put, delete) and file management.
@@ -26,7 +37,17 @@ public abstract class WebSite {
     private String _password;
 
     // The map of files previously vended by this data source
-    private Map<String,WebFile> _files = new HashMap<>();
+    private Map<String,WebFile> _files = new ConcurrentHashMap<>();
+
+    // The map of in-flight file fetches, so concurrent requests for same path share one fetch
+    private Map<String,FileFetch> _fileFetches = new ConcurrentHashMap<>();
+
+    // Counters for file cache hits, misses, shared fetches and time spent waiting for shared fetches
+    private LongAdder _fileCacheHits = new LongAdder(), _fileCacheMisses = new LongAdder();
+    private LongAdder _fileFetchShares = new LongAdder(), _fileFetchWaitNanos = new LongAdder();
+
+    // The max size of loaded file bytes that files retain (larger files are re-read or streamed)
+    private long _maxCachedFileSize = DEFAULT_MAX_CACHED_FILE_SIZE;
 
     // A directory that can be used for writing persistent support files
     private WebFile _sandboxDir;
@@ -40,6 +61,9 @@ public abstract class WebSite {
     // The PropChangeSupport for site file listeners
     private PropChangeSupport _filePCS = PropChangeSupport.EMPTY;
 
+    // The default max size of loaded file bytes that files retain
+    public static final long DEFAULT_MAX_CACHED_FILE_SIZE = 64 * 1024 * 1024;
+
     /**
      * Constructor.
      */
@@ -137,16 +161,37 @@ public abstract class WebSite {
     /**
      * Returns the unique file instance with the given path (or null if it doesn't exist).
      */
-    public synchronized WebFile getFileForPath(String aPath) throws ResponseException
+    public WebFile getFileForPath(String aPath) throws ResponseException
     {
         // Get file from cache (just return if found and previously verified and exists)
         String filePath = FilePathUtils.getNormalizedPath(aPath);
         WebFile file = _files.get(filePath);
-        if (file != null && file.isVerified() && file.getExists())
+        if (file != null && file.isVerified() && file.getExists()) {
+            _fileCacheHits.increment();
             return file;
+        }
 
-        // Get file and return
-        return getFileForPathImpl(filePath);
+        // Register fetch for path - if another thread is already fetching it, wait for that fetch
+        FileFetch fileFetch = new FileFetch();
+        FileFetch activeFetch = _fileFetches.putIfAbsent(filePath, fileFetch);
+        if (activeFetch != null && activeFetch._thread != Thread.currentThread())
+            return activeFetch.waitForFile();
+
+        // Get file, complete fetch and return
+        _fileCacheMisses.increment();
+        try {
+            file = getFileForPathImpl(filePath);
+            fileFetch.complete(file);
+            return file;
+        }
+        catch (Throwable e) {
+            fileFetch.completeExceptionally(e); // Errors too, so waiting threads don't block forever
+            throw e;
+        }
+        finally {
+            if (activeFetch == null)
+                _fileFetches.remove(filePath, fileFetch);
+        }
     }
 
     /**
@@ -215,7 +260,7 @@ public abstract class WebSite {
     /**
      * Creates a file for given path, regardless of whether it is known to actually exist in site.
      */
-    public synchronized WebFile createFileForPath(String aPath, boolean isDir)
+    public WebFile createFileForPath(String aPath, boolean isDir)
     {
         // Get file from cache - just return if found
         String filePath = FilePathUtils.getNormalizedPath(aPath);
@@ -226,18 +271,20 @@ public abstract class WebSite {
             return file;
         }
 
-        // Create and configure new file
-        file = new WebFile();
-        file._path = filePath;
-        file._dir = isDir;
-        file._site = this;
+        // Create and configure new file and add to cache (atomically, in case another thread just added it)
+        WebFile newFile = new WebFile();
+        newFile._path = filePath;
+        newFile._dir = isDir;
+        newFile._site = this;
+        file = _files.putIfAbsent(filePath, newFile);
+        if (file != null)
+            return file;
 
-        // Add to cache and start listening to file changes
-        _files.put(filePath, file);
-        file.addPropChangeListener(_filePropChangeLsnr);
+        // Start listening to file changes
+        newFile.addPropChangeListener(_filePropChangeLsnr);
 
         // Return
-        return file;
+        return newFile;
     }
 
     /**
@@ -426,15 +473,64 @@ public abstract class WebSite {
         aFile.setLastModTime(aTime);
     }
 
+    /**
+     * Returns the loaded file for given path, without creating or fetching it (null if not loaded).
+     */
+    protected WebFile getLoadedFileForPath(String aPath)
+    {
+        String filePath = FilePathUtils.getNormalizedPath(aPath);
+        return _files.get(filePath);
+    }
+
+    /**
+     * Returns the loaded site files.
+     */
+    protected List<WebFile> getLoadedFiles()  { return new ArrayList<>(_files.values()); }
+
+    /**
+     * Returns whether given file is watched for external changes, so its cached state is kept current without
+     * polling (provides a hook for subclasses).
+     */
+    protected boolean isWatchingFile(WebFile aFile)  { return false; }
+
     /**
      * Resets all loaded site files.
      */
-    public synchronized void resetFiles()
+    public void resetFiles()
     {
         for (WebFile file : _files.values())
             file.reset();
     }
 
+    /**
+     * Returns the number of getFileForPath calls answered from file cache.
+     */
+    public long getFileCacheHitCount()  { return _fileCacheHits.sum(); }
+
+    /**
+     * Returns the number of getFileForPath calls that required a fetch.
+     */
+    public long getFileCacheMissCount()  { return _fileCacheMisses.sum(); }
+
+    /**
+     * Returns the number of getFileForPath calls that waited on another thread's fetch of the same path.
+     */
+    public long getFileFetchShareCount()  { return _fileFetchShares.sum(); }
+
+    /**
+     * Returns the total time in milliseconds spent waiting on other threads' fetches.
+     */
+    public double getFileFetchWaitTime()  { return _fileFetchWaitNanos.sum() / 1e6; }
+
+    /**
+     * Returns a string of file cache metrics.
+     */
+    public String getFileCacheStats()
+    {
+        return String.format("%s: hits=%d, misses=%d, shared=%d, wait=%.1fms", getName(), getFileCacheHitCount(),
+            getFileCacheMissCount(), getFileFetchShareCount(), getFileFetchWaitTime());
+    }
+
     /**
      * Returns a standard java.io.File, if available.
      */
@@ -555,6 +651,71 @@ public abstract class WebSite {
         return aFile;
     }
 
+    /**
+     * Returns an input stream for given file (provides a hook for subclasses that can stream file contents).
+     */
+    protected InputStream getInputStreamForFile(WebFile aFile)
+    {
+        byte[] bytes = aFile.getBytes();
+        return bytes != null ? new ByteArrayInputStream(bytes) : null;
+    }
+
+    /**
+     * Returns an input stream for given range of file (provides a hook for subclasses that can read ranges natively).
+     */
+    protected InputStream getInputStreamForFileRange(WebFile aFile, long anOffset, long aLength)
+    {
+        // Get channel (just return if not found)
+        ReadableByteChannel byteChannel = getChannelForFile(aFile);
+        if (byteChannel == null)
+            return null;
+
+        // If channel is seekable, position at offset, otherwise skip bytes
+        try {
+            long skipCount = anOffset;
+            if (byteChannel instanceof SeekableByteChannel seekableChannel) {
+                seekableChannel.position(anOffset);
+                skipCount = 0;
+            }
+            InputStream inputStream = Channels.newInputStream(byteChannel);
+            return WebUtils.getRangeInputStream(inputStream, skipCount, aLength);
+        }
+        catch (IOException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Returns a channel for given file (provides a hook for subclasses that can provide seekable channels).
+     */
+    protected ReadableByteChannel getChannelForFile(WebFile aFile)
+    {
+        InputStream inputStream = getInputStreamForFile(aFile);
+        return inputStream != null ? Channels.newChannel(inputStream) : null;
+    }
+
+    /**
+     * Returns a read-only ByteBuffer for given file (provides a hook for subclasses that can map file contents).
+     */
+    protected ByteBuffer getByteBufferForFile(WebFile aFile)
+    {
+        byte[] bytes = aFile.getBytes();
+        return bytes != null ? ByteBuffer.wrap(bytes).asReadOnlyBuffer() : null;
+    }
+
+    /**
+     * Returns the max size of loaded file bytes that files retain (larger files are re-read or streamed).
+     */
+    public long getMaxCachedFileSize()  { return _maxCachedFileSize; }
+
+    /**
+     * Sets the max size of loaded file bytes that files retain.
+     */
+    public void setMaxCachedFileSize(long aValue)  { _maxCachedFileSize = aValue; }
+
+    /**
+     * Returns whether given file should retain loaded bytes (provides a hook for subclasses).
+     */
+    protected boolean isCacheBytesForFile(WebFile aFile)  { return aFile.getSize() <= _maxCachedFileSize; }
+
     /**
      * Resets the given file (provides a hook for subclasses).
      */
@@ -586,6 +747,35 @@ public abstract class WebSite {
         _filePCS.firePropChange(aPC);
     }
 
+    /**
+     * A fetch of a file for a path, so other threads requesting same path can wait for the result.
+     */
+    private class FileFetch extends CompletableFuture<WebFile> {
+
+        // The thread doing the fetch
+        private Thread _thread = Thread.currentThread();
+
+        /**
+         * Waits for fetch to complete and returns file (or rethrows fetch exception).
+         */
+        WebFile waitForFile()
+        {
+            long startTime = System.nanoTime();
+            try { return join(); }
+            catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException)
+                    throw runtimeException;
+                if (e.getCause() instanceof Error error)
+                    throw error;
+                throw e;
+            }
+            finally {
+                _fileFetchShares.increment();
+                _fileFetchWaitNanos.add(System.nanoTime() - startTime);
+            }
+        }
+    }
+
     /**
      * Standard toString implementation.
      */
@@ -3,8 +3,8 @@
  */
 package snap.web;
 import snap.util.*;
-import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -373,10 +373,41 @@ public class WebURL {
     /**
      * Returns an input stream for file.
      */
-    public InputStream getInputStream()
+    public InputStream getInputStream()  { return openStream(); }
+
+    /**
+     * Opens a new input stream for URL contents (streamed natively for files and sites that support it).
+     */
+    public InputStream openStream()
     {
-        byte[] bytes = getBytes();
-        return new ByteArrayInputStream(bytes);
+        try {
+
+            // Handle File
+            if (_src instanceof File file && !SnapEnv.isTeaVM)
+                return file.isFile() ? new FileInputStream(file) : null;
+
+            // Handle URL
+            if (_src instanceof URL url && !SnapEnv.isTeaVM)
+                return URLUtils.openStream(url);
+        }
+
+        // Handle exceptions
+        catch (IOException e) { return null; }
+
+        // Otherwise get file and return stream
+        WebFile file = getFile();
+        return file != null ? file.openStream() : null;
+    }
+
+    /**
+     * Returns the URL text as a CharSequence, decoded directly from stream (for readers of large text files).
+     */
+    public CharSequence getTextChars()
+    {
+        try (InputStream inputStream = openStream()) {
+            return inputStream != null ? WebUtils.readChars(inputStream) : null;
+        }
+        catch (IOException e) { return null; }
     }
 
     /**
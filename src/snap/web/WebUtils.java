@@ -2,6 +2,8 @@
  * Copyright (c) 2010, ReportMill Software. All rights reserved.
  */
 package snap.web;
+import java.io.*;
+import java.nio.charset.Charset;
 
 /**
  * Utility methods for Web classes.
@@ -65,4 +67,62 @@ public class WebUtils {
                 dstFile.save();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns an input stream for given range of given input stream (length can be -1 to read to end).
+     */
+    public static InputStream getRangeInputStream(InputStream inputStream, long anOffset, long aLength) throws IOException
+    {
+        // Skip to offset (end of stream is fine - range is just empty)
+        if (anOffset > 0) {
+            try { inputStream.skipNBytes(anOffset); }
+            catch (EOFException e) { return InputStream.nullInputStream(); }
+        }
+
+        // If no length, just return stream
+        if (aLength < 0)
+            return inputStream;
+
+        // Return stream that stops at length
+        return new FilterInputStream(inputStream) {
+            private long _remaining = aLength;
+            public int read() throws IOException
+            {
+                if (_remaining <= 0) return -1;
+                int value = super.read();
+                if (value >= 0) _remaining--;
+                return value;
+            }
+            public int read(byte[] theBytes, int anOff, int aLen) throws IOException
+            {
+                if (_remaining <= 0) return -1;
+                int count = super.read(theBytes, anOff, (int) Math.min(aLen, _remaining));
+                if (count > 0) _remaining -= count;
+                return count;
+            }
+            public long skip(long aCount) throws IOException
+            {
+                long count = super.skip(Math.min(aCount, _remaining));
+                _remaining -= count;
+                return count;
+            }
+            public int available() throws IOException  { return (int) Math.min(super.available(), _remaining); }
+            public boolean markSupported()  { return false; }
+        };
+    }
+
+    /**
+     * Reads chars from given input stream (default charset) directly into a StringBuilder, without an intermediate
+     * byte array for whole stream.
+     */
+    public static StringBuilder readChars(InputStream inputStream) throws IOException
+    {
+        StringBuilder sb = new StringBuilder(Math.max(inputStream.available(), 256));
+        try (Reader reader = new InputStreamReader(inputStream, Charset.defaultCharset())) {
+            char[] chars = new char[8192];
+            for (int count = reader.read(chars); count >= 0; count = reader.read(chars))
+                sb.append(chars, 0, count);
+        }
+        return sb;
+    }
+}
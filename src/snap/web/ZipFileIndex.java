@@ -0,0 +1,403 @@
+/*
+ * Copyright (c) 2010, ReportMill Software. All rights reserved.
+ */
+package snap.web;
+import snap.util.FilePathUtils;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * This class reads a zip file central directory from a (memory mapped) ByteBuffer and provides a sorted path index,
+ * directory lists and streaming access to entry data without extracting or copying whole entries.
+ */
+class ZipFileIndex {
+
+    // The zip file bytes (memory mapped for local files)
+    private ByteBuffer _zipBytes;
+
+    // The entry paths (sorted) and parallel arrays of entry info
+    private String[] _paths;
+    private long[] _localHeaderOffsets, _compressedSizes, _sizes, _lastModTimes;
+    private int[] _methods;
+
+    // A map of directory paths to child paths
+    private Map<String,Set<String>> _dirs = new HashMap<>();
+
+    // Constants for zip record signatures
+    private static final int END_OF_CENTRAL_DIR_SIG = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIR_SIG = 0x06064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIR_LOCATOR_SIG = 0x07064b50;
+    private static final int CENTRAL_DIR_HEADER_SIG = 0x02014b50;
+    private static final int LOCAL_FILE_HEADER_SIG = 0x04034b50;
+
+    // Constants for compression methods
+    public static final int METHOD_STORED = 0;
+    public static final int METHOD_DEFLATED = 8;
+
+    /**
+     * Constructor for given zip file bytes.
+     */
+    public ZipFileIndex(ByteBuffer zipBytes) throws IOException
+    {
+        _zipBytes = zipBytes.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        readCentralDirectory();
+    }
+
+    /**
+     * Returns an index for given local java file (memory mapped).
+     */
+    public static ZipFileIndex getIndexForJavaFile(File aFile) throws IOException
+    {
+        try (FileChannel fileChannel = FileChannel.open(aFile.toPath(), StandardOpenOption.READ)) {
+            long fileSize = fileChannel.size();
+            if (fileSize > Integer.MAX_VALUE)
+                throw new ZipException("ZipFileIndex: File too large to map: " + aFile.getPath());
+            ByteBuffer zipBytes = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            return new ZipFileIndex(zipBytes);
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    public int getEntryCount()  { return _paths.length; }
+
+    /**
+     * Returns the entry index for given normalized path (negative if not found).
+     */
+    public int getEntryIndex(String aPath)  { return Arrays.binarySearch(_paths, aPath); }
+
+    /**
+     * Returns the entry path at given index.
+     */
+    public String getEntryPath(int anIndex)  { return _paths[anIndex]; }
+
+    /**
+     * Returns the entry uncompressed size at given index.
+     */
+    public long getEntrySize(int anIndex)  { return _sizes[anIndex]; }
+
+    /**
+     * Returns the entry last modified time at given index (from extended timestamp if available, otherwise DOS time,
+     * which has 2 second resolution).
+     */
+    public long getEntryLastModTime(int anIndex)  { return _lastModTimes[anIndex]; }
+
+    /**
+     * Returns the entry compression method at given index.
+     */
+    public int getEntryMethod(int anIndex)  { return _methods[anIndex]; }
+
+    /**
+     * Returns whether given path is a directory (explicit or implied by entry paths).
+     */
+    public boolean isDir(String aPath)  { return _dirs.containsKey(aPath); }
+
+    /**
+     * Returns the child paths for given directory path (null if not a directory).
+     */
+    public Set<String> getDirPaths(String aPath)  { return _dirs.get(aPath); }
+
+    /**
+     * Returns the raw (possibly compressed) entry data at given index as a read-only slice of zip bytes.
+     */
+    public ByteBuffer getEntryRawBytes(int anIndex) throws IOException
+    {
+        // Get local header and make sure it's valid
+        int headerOffset = (int) _localHeaderOffsets[anIndex];
+        if (_zipBytes.getInt(headerOffset) != LOCAL_FILE_HEADER_SIG)
+            throw new ZipException("ZipFileIndex: Invalid local header for " + _paths[anIndex]);
+
+        // Get data offset (local header name/extra lengths can differ from central directory)
+        int nameLength = getUnsignedShort(headerOffset + 26);
+        int extraLength = getUnsignedShort(headerOffset + 28);
+        int dataOffset = headerOffset + 30 + nameLength + extraLength;
+
+        // Return slice
+        ByteBuffer rawBytes = _zipBytes.duplicate();
+        rawBytes.limit(dataOffset + (int) _compressedSizes[anIndex]).position(dataOffset);
+        return rawBytes.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the entry data at given index as a ByteBuffer (a zero copy slice for stored entries).
+     */
+    public ByteBuffer getEntryBytes(int anIndex) throws IOException
+    {
+        // Handle stored: Just return slice
+        if (_methods[anIndex] == METHOD_STORED)
+            return getEntryRawBytes(anIndex);
+
+        // Handle compressed: Inflate to new buffer
+        try (InputStream inputStream = getEntryInputStream(anIndex)) {
+            byte[] bytes = new byte[(int) _sizes[anIndex]];
+            int count = inputStream.readNBytes(bytes, 0, bytes.length);
+            return ByteBuffer.wrap(bytes, 0, count).asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * Returns an input stream to read the entry data at given index (inflating as it is read).
+     */
+    public InputStream getEntryInputStream(int anIndex) throws IOException
+    {
+        // Get raw bytes stream
+        ByteBuffer rawBytes = getEntryRawBytes(anIndex);
+        InputStream rawStream = new ByteBufferInputStream(rawBytes);
+
+        // Handle stored or deflated
+        int method = _methods[anIndex];
+        if (method == METHOD_STORED)
+            return rawStream;
+        if (method == METHOD_DEFLATED) {
+            Inflater inflater = new Inflater(true);
+            int bufferSize = (int) Math.max(Math.min(_compressedSizes[anIndex], 65536), 512);
+            return new InflaterInputStream(rawStream, inflater, bufferSize) {
+                public void close() throws IOException  { super.close(); inflater.end(); }
+            };
+        }
+
+        // Complain for anything else
+        throw new ZipException("ZipFileIndex: Unsupported compression method " + method + " for " + _paths[anIndex]);
+    }
+
+    /**
+     * Reads the central directory and builds path index and directory lists in one pass.
+     */
+    private void readCentralDirectory() throws IOException
+    {
+        // Find end of central directory record (searching back over max comment length)
+        int endOffset = findEndOfCentralDirectory();
+        long entryCount = getUnsignedShort(endOffset + 10);
+        long centralDirOffset = getUnsignedInt(endOffset + 16);
+
+        // If Zip64 locator precedes end record, read Zip64 end record
+        int locatorOffset = endOffset - 20;
+        if (locatorOffset >= 0 && _zipBytes.getInt(locatorOffset) == ZIP64_END_OF_CENTRAL_DIR_LOCATOR_SIG) {
+            int zip64EndOffset = (int) _zipBytes.getLong(locatorOffset + 8);
+            if (_zipBytes.getInt(zip64EndOffset) != ZIP64_END_OF_CENTRAL_DIR_SIG)
+                throw new ZipException("ZipFileIndex: Invalid Zip64 end of central directory");
+            entryCount = _zipBytes.getLong(zip64EndOffset + 32);
+            centralDirOffset = _zipBytes.getLong(zip64EndOffset + 48);
+        }
+
+        // Read central directory headers
+        int count = (int) entryCount;
+        Entry[] entries = new Entry[count];
+        int entryOffset = (int) centralDirOffset;
+        int fileEntryCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (_zipBytes.getInt(entryOffset) != CENTRAL_DIR_HEADER_SIG)
+                throw new ZipException("ZipFileIndex: Invalid central directory header");
+            Entry entry = readCentralDirHeader(entryOffset);
+            entryOffset += 46 + getUnsignedShort(entryOffset + 28) + getUnsignedShort(entryOffset + 30) + getUnsignedShort(entryOffset + 32);
+
+            // Add to dirs (directory entries only register dir)
+            if (entry.isDir)
+                addDirPath(entry.path);
+            else {
+                addPathToParentDir(entry.path);
+                entries[fileEntryCount++] = entry;
+            }
+        }
+
+        // Sort file entries by path and load index arrays
+        Arrays.sort(entries, 0, fileEntryCount, Comparator.comparing(e -> e.path));
+        _paths = new String[fileEntryCount];
+        _localHeaderOffsets = new long[fileEntryCount];
+        _compressedSizes = new long[fileEntryCount];
+        _sizes = new long[fileEntryCount];
+        _lastModTimes = new long[fileEntryCount];
+        _methods = new int[fileEntryCount];
+        for (int i = 0; i < fileEntryCount; i++) {
+            Entry entry = entries[i];
+            _paths[i] = entry.path;
+            _localHeaderOffsets[i] = entry.localHeaderOffset;
+            _compressedSizes[i] = entry.compressedSize;
+            _sizes[i] = entry.size;
+            _lastModTimes[i] = entry.lastModTime;
+            _methods[i] = entry.method;
+        }
+    }
+
+    /**
+     * Reads a central directory header at given offset.
+     */
+    private Entry readCentralDirHeader(int anOffset)
+    {
+        // Read fixed fields
+        Entry entry = new Entry();
+        entry.method = getUnsignedShort(anOffset + 10);
+        entry.lastModTime = getJavaTimeForDosTime(getUnsignedShort(anOffset + 14), getUnsignedShort(anOffset + 12));
+        entry.compressedSize = getUnsignedInt(anOffset + 20);
+        entry.size = getUnsignedInt(anOffset + 24);
+        int nameLength = getUnsignedShort(anOffset + 28);
+        int extraLength = getUnsignedShort(anOffset + 30);
+        entry.localHeaderOffset = getUnsignedInt(anOffset + 42);
+
+        // Read name (UTF-8, same default as java ZipFile)
+        byte[] nameBytes = new byte[nameLength];
+        _zipBytes.get(anOffset + 46, nameBytes);
+        String name = new String(nameBytes, StandardCharsets.UTF_8);
+        entry.isDir = name.endsWith("/");
+        entry.path = FilePathUtils.getNormalizedPath(name);
+
+        // Read extra fields: Zip64 for sizes/offset that overflowed and extended timestamp for mod time to the second
+        // (otherwise mod time is the DOS time, which has 2 second resolution)
+        int extraOffset = anOffset + 46 + nameLength, extraEnd = extraOffset + extraLength;
+        while (extraOffset + 4 <= extraEnd) {
+            int headerId = getUnsignedShort(extraOffset);
+            int dataSize = getUnsignedShort(extraOffset + 2);
+            int valueOffset = extraOffset + 4;
+            if (headerId == 0x0001) {
+                if (entry.size == 0xFFFFFFFFL) { entry.size = _zipBytes.getLong(valueOffset); valueOffset += 8; }
+                if (entry.compressedSize == 0xFFFFFFFFL) { entry.compressedSize = _zipBytes.getLong(valueOffset); valueOffset += 8; }
+                if (entry.localHeaderOffset == 0xFFFFFFFFL) entry.localHeaderOffset = _zipBytes.getLong(valueOffset);
+            }
+            else if (headerId == 0x5455 && dataSize >= 5 && (_zipBytes.get(valueOffset) & 1) != 0)
+                entry.lastModTime = _zipBytes.getInt(valueOffset + 1) * 1000L;
+            extraOffset += 4 + dataSize;
+        }
+
+        // Return
+        return entry;
+    }
+
+    /**
+     * Returns the offset of the end of central directory record.
+     */
+    private int findEndOfCentralDirectory() throws IOException
+    {
+        int minOffset = Math.max(_zipBytes.limit() - 22 - 65535, 0);
+        for (int offset = _zipBytes.limit() - 22; offset >= minOffset; offset--)
+            if (_zipBytes.getInt(offset) == END_OF_CENTRAL_DIR_SIG)
+                return offset;
+        throw new ZipException("ZipFileIndex: End of central directory not found");
+    }
+
+    /**
+     * Adds a directory path (and registers it with its parent).
+     */
+    private void addDirPath(String aPath)
+    {
+        if (_dirs.containsKey(aPath)) return;
+        _dirs.put(aPath, new LinkedHashSet<>());
+        if (aPath.length() > 1)
+            addPathToParentDir(aPath);
+    }
+
+    /**
+     * Adds given path to its parent directory set (adding parent directories as needed).
+     */
+    private void addPathToParentDir(String aPath)
+    {
+        String parentPath = getParentPath(aPath);
+        Set<String> dirPaths = _dirs.get(parentPath);
+        if (dirPaths == null) {
+            addDirPath(parentPath);
+            dirPaths = _dirs.get(parentPath);
+        }
+        dirPaths.add(aPath);
+    }
+
+    /**
+     * Returns the unsigned short at given offset.
+     */
+    private int getUnsignedShort(int anOffset)  { return _zipBytes.getShort(anOffset) & 0xFFFF; }
+
+    /**
+     * Returns the unsigned int at given offset.
+     */
+    private long getUnsignedInt(int anOffset)  { return _zipBytes.getInt(anOffset) & 0xFFFFFFFFL; }
+
+    /**
+     * Returns the parent path for given normalized path.
+     */
+    private static String getParentPath(String aPath)
+    {
+        int separatorIndex = aPath.lastIndexOf('/');
+        return separatorIndex > 0 ? aPath.substring(0, separatorIndex) : "/";
+    }
+
+    /**
+     * Returns java time for given DOS date and time.
+     */
+    private static long getJavaTimeForDosTime(int dosDate, int dosTime)
+    {
+        if (dosDate == 0)
+            return 0;
+        int year = ((dosDate >> 9) & 0x7f) + 1980;
+        int month = Math.max((dosDate >> 5) & 0x0f, 1);
+        int day = Math.max(dosDate & 0x1f, 1);
+        int hour = (dosTime >> 11) & 0x1f;
+        int minute = (dosTime >> 5) & 0x3f;
+        int second = Math.min((dosTime & 0x1f) * 2, 59);
+        try {
+            LocalDateTime localDateTime = LocalDateTime.of(year, month, day, hour, minute, second);
+            return localDateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        catch (Exception e) { return 0; }
+    }
+
+    /**
+     * A class to hold central directory entry info while reading.
+     */
+    private static class Entry {
+        String path;
+        boolean isDir;
+        int method;
+        long compressedSize, size, localHeaderOffset, lastModTime;
+    }
+
+    /**
+     * An InputStream for a ByteBuffer.
+     */
+    public static class ByteBufferInputStream extends InputStream {
+
+        // The ByteBuffer
+        private ByteBuffer _byteBuffer;
+
+        /**
+         * Constructor.
+         */
+        public ByteBufferInputStream(ByteBuffer aByteBuffer)
+        {
+            _byteBuffer = aByteBuffer;
+        }
+
+        @Override
+        public int read()  { return _byteBuffer.hasRemaining() ? _byteBuffer.get() & 0xFF : -1; }
+
+        @Override
+        public int read(byte[] theBytes, int anOffset, int aLength)
+        {
+            if (aLength == 0) return 0;
+            int remaining = _byteBuffer.remaining();
+            if (remaining == 0) return -1;
+            int count = Math.min(aLength, remaining);
+            _byteBuffer.get(theBytes, anOffset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long aCount)
+        {
+            int count = (int) Math.max(Math.min(aCount, _byteBuffer.remaining()), 0);
+            _byteBuffer.position(_byteBuffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available()  { return _byteBuffer.remaining(); }
+    }
+}
@@ -3,25 +3,22 @@
  */
 package snap.web;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.jar.JarFile;
 import java.util.zip.*;
-import snap.util.FilePathUtils;
 
 /**
  * A WebSite subclass for Zip and Jar files.
  */
 public class ZipFileSite extends WebSite {
 
-    // The JRE ZipFile
+    // The JRE ZipFile (only used for entries with compression methods not supported by index)
     private ZipFile _javaZipFile;
 
-    // A map of paths to ZipEntry
-    private Map<String,ZipEntry> _entries;
-    
-    // A map of directory paths to List of child paths
-    private Map<String,List<String>> _dirs;
-    
+    // The zip file index (central directory read from memory mapped file)
+    private ZipFileIndex _zipIndex;
+
     /**
      * Constructor.
      */
@@ -56,7 +53,7 @@ public class ZipFileSite extends WebSite {
     /**
      * Returns the ZipFile.
      */
-    private ZipFile getJavaZipFile()
+    private synchronized ZipFile getJavaZipFile()
     {
         // If already set, just return
         if (_javaZipFile != null) return _javaZipFile;
@@ -83,70 +80,30 @@ public class ZipFileSite extends WebSite {
     }
 
     /**
-     * Returns a map of ZipFile paths to ZipEntry(s).
+     * Returns the zip file index, reading central directory on first call.
      */
-    private synchronized Map <String,ZipEntry> getEntries()
+    private synchronized ZipFileIndex getZipIndex()
     {
         // If already set, just return
-        if (_entries != null) return _entries;
-
-        // Create maps
-        _entries = new HashMap<>();
-        _dirs = new HashMap<>();
-
-        // Get ZipFile
-        ZipFile zipFile = getJavaZipFile();
-        if (zipFile == null)
-            return _entries;
-
-        // Get ZipEntries and add
-        Enumeration<? extends ZipEntry> zipFileEntries = zipFile.entries();
-        while (zipFileEntries.hasMoreElements())
-            addZipEntry(zipFileEntries.nextElement());
-
-        // Return
-        return _entries;
-    }
-
-    /**
-     * Adds a ZipEntry to WebSite.
-     */
-    private void addZipEntry(ZipEntry anEntry)
-    {
-        // Get path and add entry to entries and path to dirs lists
-        String filePath = FilePathUtils.getNormalizedPath('/' + anEntry.getName());
-        _entries.put(filePath, anEntry);
-        addDirListPath(filePath);
-    }
+        if (_zipIndex != null) return _zipIndex;
 
-    /**
-     * Returns a dir list for a path.
-     */
-    private List <String> getDirList(String aPath)
-    {
-        // Get parent path and return list for path
-        String parentPath =  FilePathUtils.getParentPath(aPath);
-        List<String> dirList = _dirs.get(parentPath);
-        if (dirList != null)
-            return dirList;
-
-        // If list not found, create, set and return
-        _dirs.put(parentPath, dirList = new ArrayList<>());
-        addDirListPath(parentPath);
-        return dirList;
-    }
+        // Get java file
+        WebFile localZipFile = getLocalZipFile();
+        File localZipFileJavaFile = localZipFile != null ? localZipFile.getJavaFile() : null;
 
-    /**
-     * Returns a dir list for a path.
-     */
-    private void addDirListPath(String aPath)
-    {
-        if (aPath.length() <= 1) return;
-        String path = FilePathUtils.getNormalizedPath(aPath);
+        // Read index from memory mapped file (or from file bytes if no local java file)
+        try {
+            if (localZipFileJavaFile != null)
+                return _zipIndex = ZipFileIndex.getIndexForJavaFile(localZipFileJavaFile);
+            WebFile zipFile = getZipFile();
+            byte[] zipBytes = zipFile != null ? zipFile.getBytes() : null;
+            if (zipBytes == null)
+                throw new FileNotFoundException("ZipFileSite.getZipIndex: Zip file not found: " + getURL().getString());
+            return _zipIndex = new ZipFileIndex(ByteBuffer.wrap(zipBytes));
+        }
 
-        List <String> dirList = getDirList(path);
-        if (!dirList.contains(path))
-            dirList.add(path);
+        // Rethrow exception
+        catch (IOException e) { throw new RuntimeException("ZipFileSite.getZipIndex: Error reading " + getURL().getString(), e); }
     }
 
     /**
@@ -177,8 +134,7 @@ public class ZipFileSite extends WebSite {
 
         // If file, get/set file bytes
         if (fileHeader.isFile()) {
-            ZipEntry zipEntry = getEntries().get(filePath);
-            try (InputStream inputStream = _javaZipFile.getInputStream(zipEntry)) {
+            try (InputStream inputStream = getInputStreamForFilePath(filePath)) {
                 byte[] bytes = inputStream.readAllBytes();
                 aResp.setBytes(bytes);
             }
@@ -189,9 +145,9 @@ public class ZipFileSite extends WebSite {
         else {
 
             // Get directory paths
-            List<String> dirPaths = _dirs.get(filePath);
+            Set<String> dirPaths = getZipIndex().getDirPaths(filePath);
             if (dirPaths == null)
-                dirPaths = Collections.EMPTY_LIST;
+                dirPaths = Collections.emptySet();
 
             // Get file headers
             List <FileHeader> fileHeaders = new ArrayList<>();
@@ -212,24 +168,81 @@ public class ZipFileSite extends WebSite {
      */
     private FileHeader getFileHeaderForFilePath(String aPath)
     {
-        // Get ZipEntry for path - if not found and not directory, just return
-        ZipEntry zipEntry = getEntries().get(aPath);
-        if (zipEntry == null && _dirs.get(aPath) == null)
+        // Get entry index for path - if not found and not directory, just return
+        ZipFileIndex zipIndex = getZipIndex();
+        int entryIndex = zipIndex.getEntryIndex(aPath);
+        if (entryIndex < 0 && !zipIndex.isDir(aPath))
             return null;
 
         // Create FileHeader and return
-        FileHeader fileHeader = new FileHeader(aPath, zipEntry == null || zipEntry.isDirectory());
+        FileHeader fileHeader = new FileHeader(aPath, entryIndex < 0);
         fileHeader.setLastModTime(1000);
-        if (zipEntry != null) {
-            long lastModTime = zipEntry.getTime();
-            //if (lastModTime == 0) lastModTime = zipEntry.getLastModifiedTime().toMillis();
+        if (entryIndex >= 0) {
+            long lastModTime = zipIndex.getEntryLastModTime(entryIndex);
             if (lastModTime == 0)
                 lastModTime = 1000;
             fileHeader.setLastModTime(lastModTime);
-            fileHeader.setSize(zipEntry.getSize());
+            fileHeader.setSize(zipIndex.getEntrySize(entryIndex));
         }
 
         // Return
         return fileHeader;
     }
+
+    /**
+     * Returns an input stream for given file path, inflating entry data as it is read.
+     */
+    private InputStream getInputStreamForFilePath(String aPath) throws IOException
+    {
+        // Get entry index for path
+        ZipFileIndex zipIndex = getZipIndex();
+        int entryIndex = zipIndex.getEntryIndex(aPath);
+        if (entryIndex < 0)
+            throw new FileNotFoundException("ZipFileSite: Entry not found: " + aPath);
+
+        // If stored or deflated, return index stream
+        int method = zipIndex.getEntryMethod(entryIndex);
+        if (method == ZipFileIndex.METHOD_STORED || method == ZipFileIndex.METHOD_DEFLATED)
+            return zipIndex.getEntryInputStream(entryIndex);
+
+        // Otherwise fall back to java ZipFile
+        ZipFile javaZipFile = getJavaZipFile();
+        ZipEntry zipEntry = javaZipFile.getEntry(aPath.substring(1));
+        return javaZipFile.getInputStream(zipEntry);
+    }
+
+    /**
+     * Override to stream entry data directly from zip file without loading file bytes.
+     */
+    @Override
+    protected InputStream getInputStreamForFile(WebFile aFile)
+    {
+        if (aFile.isDir())
+            return null;
+        try { return getInputStreamForFilePath(aFile.getPath()); }
+        catch (FileNotFoundException e) { return null; }
+        catch (IOException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Override to return stored entries as a slice of memory mapped zip file (compressed entries are inflated).
+     */
+    @Override
+    protected ByteBuffer getByteBufferForFile(WebFile aFile)
+    {
+        // Get entry index for path
+        ZipFileIndex zipIndex = getZipIndex();
+        int entryIndex = aFile.isFile() ? zipIndex.getEntryIndex(aFile.getPath()) : -1;
+        if (entryIndex < 0)
+            return null;
+
+        // If stored or deflated, return index bytes, otherwise fall back to file bytes
+        int method = zipIndex.getEntryMethod(entryIndex);
+        try {
+            if (method == ZipFileIndex.METHOD_STORED || method == ZipFileIndex.METHOD_DEFLATED)
+                return zipIndex.getEntryBytes(entryIndex);
+        }
+        catch (IOException e) { throw new RuntimeException(e); }
+        return super.getByteBufferForFile(aFile);
+    }
 }
\ No newline at end of file
@@ -66,7 +66,7 @@ public class CJEvent extends ViewEvent {
     public double getScrollX()
     {
         MouseEvent mouseEvent = getMouseEvent();
-        return mouseEvent instanceof WheelEvent wheelEvent ? wheelEvent.getDeltaX() : 0;
+        return mouseEvent instanceof WheelEvent wheelEvent ? wheelEvent.getDeltaX() + _coalescedScrollX : _coalescedScrollX;
     }
 
     /**
@@ -75,7 +75,7 @@ public class CJEvent extends ViewEvent {
     public double getScrollY()
     {
         MouseEvent mouseEvent = getMouseEvent();
-        return mouseEvent instanceof WheelEvent wheelEvent ? wheelEvent.getDeltaY() : 0;
+        return mouseEvent instanceof WheelEvent wheelEvent ? wheelEvent.getDeltaY() + _coalescedScrollY : _coalescedScrollY;
     }
 
     /**
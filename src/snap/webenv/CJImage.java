@@ -345,9 +345,9 @@ public class CJImage extends Image {
     }
 
     /**
-     * Blurs the image by mixing pixels with those around it to given radius.
+     * Blurs the image by mixing pixels with those around it to given radius (browser shadow blur ignores quality).
      */
-    public void blur(int aRad, Color aColor)
+    public void blur(int aRad, Color aColor, BlurQuality aQuality)
     {
         // If HTMLImageElement, convert to canvas
         if (_img != null)
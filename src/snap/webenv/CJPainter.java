@@ -185,6 +185,53 @@ public class CJPainter extends PainterImpl {
         }
     }
 
+    /**
+     * Draws a polyline as a single canvas path.
+     */
+    public void drawPolyline(double[] xyCoords, int pointCount)
+    {
+        if (pointCount < 2) return;
+        _cntx.beginPath();
+        _cntx.moveTo(xyCoords[0], xyCoords[1]);
+        for (int i = 1, coordIndex = 2; i < pointCount; i++, coordIndex += 2)
+            _cntx.lineTo(xyCoords[coordIndex], xyCoords[coordIndex + 1]);
+        _cntx.stroke();
+    }
+
+    /**
+     * Fills rects as a single canvas path.
+     */
+    public void fillRects(double[] xywhValues, int rectCount)
+    {
+        _cntx.beginPath();
+        for (int i = 0, valueIndex = 0; i < rectCount; i++, valueIndex += 4)
+            _cntx.rect(xywhValues[valueIndex], xywhValues[valueIndex + 1], xywhValues[valueIndex + 2], xywhValues[valueIndex + 3]);
+        _cntx.fill();
+    }
+
+    /**
+     * Fills marker at each point as a single canvas path.
+     */
+    public void drawPoints(double[] xyCoords, int pointCount, Shape aMarker)
+    {
+        _cntx.beginPath();
+        double[] pnts = new double[6];
+        for (int i = 0, coordIndex = 0; i < pointCount; i++, coordIndex += 2) {
+            double pointX = xyCoords[coordIndex];
+            double pointY = xyCoords[coordIndex + 1];
+            PathIter pathIter = aMarker.getPathIter(new Transform(pointX, pointY));
+            while (pathIter.hasNext()) {
+                switch (pathIter.getNext(pnts)) {
+                    case MoveTo: _cntx.moveTo(pnts[0], pnts[1]); break;
+                    case LineTo: _cntx.lineTo(pnts[0], pnts[1]); break;
+                    case CubicTo: _cntx.bezierCurveTo(pnts[0], pnts[1], pnts[2], pnts[3], pnts[4], pnts[5]); break;
+                    case Close: _cntx.closePath(); break;
+                }
+            }
+        }
+        _cntx.fill();
+    }
+
     /**
      * Resets gradient paint to given shape.
      */
@@ -3,6 +3,8 @@ import snap.gfx.*;
 import snap.util.SnapEnv;
 import snap.webapi.*;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * A snap Painter for rendering to a CheerpJ HTMLCanvasElement.
@@ -12,6 +14,17 @@ public class CJPainter2 extends PainterDVR2 {
     // The RenderContext2D
     protected CanvasRenderingContext2D _cntx;
 
+    // A bounded cache of converted native values (color/font strings, canvas gradients/patterns), kept across frames
+    private Map<Object,Object> _nativeValues = new LinkedHashMap<>(64, .75f, true) {
+        protected boolean removeEldestEntry(Map.Entry<Object,Object> anEntry)  { return size() > MAX_NATIVE_VALUES; }
+    };
+
+    // The number of native values converted and found in cache
+    private long _nativeConvertCount, _nativeCacheHitCount;
+
+    // The max number of cached native values
+    private static final int MAX_NATIVE_VALUES = 256;
+
     /**
      * Constructor for given canvas.
      */
@@ -25,6 +38,16 @@ public class CJPainter2 extends PainterDVR2 {
      */
     public CJPainter getPainter()  { return (CJPainter) _pntr; }
 
+    /**
+     * Returns the number of native values converted (cache misses).
+     */
+    public long getNativeConvertCount()  { return _nativeConvertCount; }
+
+    /**
+     * Returns the number of native values found in cache.
+     */
+    public long getNativeCacheHitCount()  { return _nativeCacheHitCount; }
+
     /**
      * Override to have CJPainter paint stacks.
      */
@@ -36,7 +59,7 @@ public class CJPainter2 extends PainterDVR2 {
 
         // Convert Native stack objects to JS (where applicable)
         for (int i = 0; i < _nativeStackSize; i++)
-            _nativeStack[i] = toNative(_nativeStack[i]);
+            _nativeStack[i] = getNative(_nativeStack[i]);
 
         // If JXBrowser, make arrays exactly the right size
         if (SnapEnv.isJxBrowser) {
@@ -55,6 +78,29 @@ public class CJPainter2 extends PainterDVR2 {
         clear(); _cntx = null;
     }
 
+    /**
+     * Returns JavaScript friendly object for given native stack object, using cached value if previously converted.
+     */
+    private Object getNative(Object anObj)
+    {
+        // Images are converted by image (and Strings and other objects aren't converted)
+        if (!(anObj instanceof Paint || anObj instanceof Font))
+            return toNative(anObj);
+
+        // Get cached value
+        Object nativeValue = _nativeValues.get(anObj);
+        if (nativeValue != null) {
+            _nativeCacheHitCount++;
+            return nativeValue;
+        }
+
+        // Convert and cache
+        nativeValue = toNative(anObj);
+        _nativeValues.put(anObj, nativeValue);
+        _nativeConvertCount++;
+        return nativeValue;
+    }
+
     /**
      * Converts objects in native stack to JavaScript friendly object.
      */